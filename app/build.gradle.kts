@@ -71,6 +71,124 @@ tasks.named("inspectClassesForKotlinIC") {
     dependsOn("copyResources")
 }
 
+tasks.register<JavaExec>("generateTwoByTwoTable") {
+    group = "build"
+    description = "Generates the 2x2 distance table in res/cube."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.puzzles.cube.solvers.TwoByTwoTableGenerator"
+}
+
+tasks.register<JavaExec>("generateOptimalCubeTables") {
+    group = "build"
+    description = "Generates the pattern databases of the optimal 3x3 solver in res/cube."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.puzzles.cube.solvers.OptimalCubeTableGenerator"
+}
+
+tasks.register<JavaExec>("cubeEngineBenchmark") {
+    group = "benchmark"
+    description = "Compares moves/sec of the Cube and FaceletCube engines."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.CubeEngineBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("compiledAlgorithmBenchmark") {
+    group = "benchmark"
+    description = "Compares replaying a scramble move by move with executing it as a compiled algorithm."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.CompiledAlgorithmBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("square1SolveBenchmark") {
+    group = "benchmark"
+    description = "Measures full Square-1 solves per second."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.Square1SolveBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("algorithmParseBenchmark") {
+    group = "benchmark"
+    description = "Compares parsing and executing a multi-megabyte algorithm."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.AlgorithmParseBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("algorithmStreamBenchmark") {
+    group = "benchmark"
+    description = "Streams a 20 million move algorithm to a file and back."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.AlgorithmStreamBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("parseCacheBenchmark") {
+    group = "benchmark"
+    description = "Compares creating cube solvers with and without the algorithm parse cache."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.ParseCacheBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("algorithmCodecBenchmark") {
+    group = "benchmark"
+    description = "Measures the binary algorithm format on cube solutions and a 10 million move stream."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.AlgorithmCodecBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("algorithmOrderBenchmark") {
+    group = "benchmark"
+    description = "Compares finding the order of an algorithm from its cycles with executing it until the cube repeats."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.AlgorithmOrderBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("twoPhaseSolveBenchmark") {
+    group = "benchmark"
+    description = "Compares the two-phase 3x3 solver with the full solver."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.TwoPhaseSolveBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("twoByTwoSolveBenchmark") {
+    group = "benchmark"
+    description = "Compares the optimal 2x2 solver with the full solver."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.TwoByTwoSolveBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("optimalSolveBenchmark") {
+    group = "benchmark"
+    description = "Times the optimal 3x3 solver on one thread and on every processor."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.OptimalSolveBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("bigCubeSolveBenchmark") {
+    group = "benchmark"
+    description = "Measures the full solver on big cubes, which finish as a 3x3 with the two-phase solver."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.BigCubeSolveBenchmark"
+    dependsOn("copyResources")
+}
+
+tasks.register<JavaExec>("moveAllocationCheck") {
+    group = "benchmark"
+    description = "Checks that replaying solved 7x7 scrambles does not allocate."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "com.github.sampeterson1.benchmark.MoveAllocationCheck"
+    dependsOn("copyResources")
+}
+
 tasks.shadowJar {
     manifest {
         attributes("Main-Class" to "com.github.sampeterson1.main.Main")
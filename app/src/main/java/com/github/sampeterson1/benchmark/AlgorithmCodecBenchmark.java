@@ -0,0 +1,123 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.AlgorithmCodec;
+import com.github.sampeterson1.puzzle.moves.AlgorithmWriter;
+import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+/*
+ * Compares the size of cube solutions in the binary algorithm format with their size as text, then streams a long
+ * algorithm for a 1000x1000 cube through a small ByteBuffer and counts the bytes allocated by this thread.
+ */
+public class AlgorithmCodecBenchmark {
+
+	private static final int[] SOLVE_SIZES = { 3, 5, 10 };
+
+	private static final int STREAM_CUBE_SIZE = 1000;
+	private static final int NUM_STREAM_MOVES = 10_000_000;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	public static void main(String[] args) throws InvalidAlgorithmException {
+		CubeUtil.init();
+
+		for(int size : SOLVE_SIZES) {
+			Cube cube = new Cube(size);
+			cube.getMetaFunctions().scramble(100);
+
+			PrintStream out = System.out;
+			System.setOut(new PrintStream(PrintStream.nullOutputStream()));
+			Algorithm solution = cube.getMetaFunctions().solve();
+			System.setOut(out);
+
+			ByteBuffer buffer = ByteBuffer.allocate(solution.length() * AlgorithmCodec.MAX_ENTRY_BYTES + 64);
+			AlgorithmCodec.encode(solution, PuzzleType.CUBE, size, buffer);
+			int textLength = AlgorithmWriter.toString(solution).length();
+
+			System.out.printf("N = %d: %d moves, %d bytes as text, %d bytes encoded (%.2f bytes/move)%n",
+					size, solution.length(), textLength, buffer.position(), (double) buffer.position() / solution.length());
+		}
+
+		MoveTable moveTable = MoveTable.getTable(PuzzleType.CUBE, STREAM_CUBE_SIZE);
+		Move[] moves = new Move[NUM_STREAM_MOVES];
+		Random random = new Random(1);
+		for(int i = 0; i < moves.length; i ++) {
+			moves[i] = moveTable.getMove(random.nextInt(moveTable.getNumMoves()));
+		}
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		for(int i = 0; i < 3; i ++) {
+			long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			long numBytes = stream(moves);
+			long elapsed = System.nanoTime() - start;
+			long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+			System.out.printf("N = %d: %d moves streamed in %.0f ms, %.2f bytes/move, %d bytes allocated%n",
+					STREAM_CUBE_SIZE, moves.length, elapsed / 1e6, (double) numBytes / moves.length, allocated);
+		}
+	}
+
+	//writes the moves through a small buffer, reading each full buffer back as if it had been sent, and returns the number of bytes
+	private static long stream(Move[] moves) throws InvalidAlgorithmException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		AlgorithmCodec writer = new AlgorithmCodec(PuzzleType.CUBE, STREAM_CUBE_SIZE);
+		AlgorithmCodec reader = null;
+
+		long numBytes = 0;
+		int numRead = 0;
+
+		writer.writeHeader(buffer);
+		for(int i = 0; i <= moves.length; i ++) {
+			if(i == moves.length) writer.writeEnd(buffer);
+			else writer.writeMove(moves[i], buffer);
+
+			if(buffer.remaining() >= AlgorithmCodec.MAX_ENTRY_BYTES && i < moves.length) continue;
+
+			buffer.flip();
+			numBytes += buffer.remaining();
+			if(reader == null) reader = AlgorithmCodec.readHeader(buffer);
+
+			//the last entry in the buffer may be cut off, so it is read again with the next buffer
+			while(buffer.remaining() >= AlgorithmCodec.MAX_ENTRY_BYTES || i == moves.length) {
+				Move move = reader.readMove(buffer);
+				if(move == null) break;
+				if(move != moves[numRead++]) throw new IllegalStateException("Move " + (numRead - 1) + " was read back wrong");
+			}
+			buffer.compact();
+		}
+
+		if(numRead != moves.length) throw new IllegalStateException(numRead + " of " + moves.length + " moves were read back");
+		return numBytes;
+	}
+
+}
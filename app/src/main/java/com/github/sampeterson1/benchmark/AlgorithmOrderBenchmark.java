@@ -0,0 +1,102 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
+import com.github.sampeterson1.puzzle.moves.UniversalAlgorithmParser;
+import com.github.sampeterson1.puzzle.templates.CompiledAlgorithm;
+import com.github.sampeterson1.puzzle.templates.CycleStructure;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+/*
+ * Compares finding the order of an algorithm from its cycles with executing it until the cube looks the same as
+ * before, which is what the order had to be found with before. Executing stops after MAX_EXECUTIONS.
+ * The cube only has to look the same, so it can come back sooner than the order if pieces with the same colors
+ * (the centers of a big cube) trade places.
+ */
+public class AlgorithmOrderBenchmark {
+
+	private static final String[] ALGORITHMS = { "R U R' U'", "R U", "R U2 D' B D'" };
+	private static final int[] SCRAMBLE_SIZES = { 3, 7, 12 };
+	private static final int NUM_SCRAMBLE_MOVES = 25;
+
+	private static final long MAX_EXECUTIONS = 200_000L;
+	private static final int REPEATS = 20;
+
+	public static void main(String[] args) throws InvalidAlgorithmException {
+		CubeUtil.init();
+
+		for(String str : ALGORITHMS) {
+			measure(str, UniversalAlgorithmParser.parseAlgorithm(str, 3, PuzzleType.CUBE), 3);
+		}
+
+		for(int size : SCRAMBLE_SIZES) {
+			measure(NUM_SCRAMBLE_MOVES + " move scramble", CubeAlgorithmUtil.generateScramble(NUM_SCRAMBLE_MOVES, size), size);
+		}
+	}
+
+	private static void measure(String name, Algorithm alg, int size) {
+		Cube cube = new Cube(size);
+		cube.setLogMoves(false);
+
+		//warm up
+		for(int i = 0; i < REPEATS; i ++) alg.cycleStructure(cube);
+
+		long start = System.nanoTime();
+		CycleStructure structure = null;
+		for(int i = 0; i < REPEATS; i ++) structure = alg.cycleStructure(cube);
+		double cycleMillis = (System.nanoTime() - start) / 1e6 / REPEATS;
+
+		String order;
+		try {
+			order = String.valueOf(structure.getOrder());
+		} catch(ArithmeticException e) {
+			order = "> 2^63";
+		}
+
+		start = System.nanoTime();
+		long executions = executeUntilRepeated(cube, alg.compile(cube));
+		double executeMillis = (System.nanoTime() - start) / 1e6;
+
+		System.out.printf("%s on %dx%d: order %s from cycles in %.3f ms, ", name, size, size, order, cycleMillis);
+		if(executions > MAX_EXECUTIONS) {
+			System.out.printf("not repeated after %d executions (%.0f ms)%n", MAX_EXECUTIONS, executeMillis);
+		} else {
+			System.out.printf("repeated after %d executions in %.3f ms%n", executions, executeMillis);
+		}
+	}
+
+	//the number of times an algorithm is executed before the state hash of the cube comes back
+	private static long executeUntilRepeated(Cube cube, CompiledAlgorithm compiled) {
+		long startHash = cube.stateHash();
+		long executions = 0;
+
+		do {
+			cube.executeAlgorithm(compiled, false);
+			executions++;
+		} while(cube.stateHash() != startHash && executions <= MAX_EXECUTIONS);
+
+		return executions;
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.util.Random;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Compares the time it takes to parse a multi-megabyte algorithm with the time it takes to execute it
+public class AlgorithmParseBenchmark {
+
+	private static final String[] MOVES = { "R", "U'", "F2", "r", "M'", "x", "L[1]", "D2'", "b[1,2]" };
+
+	private static final int CUBE_SIZE = 5;
+	private static final int TEXT_LENGTH = 4_000_000;
+	private static final int NUM_RUNS = 5;
+
+	public static void main(String[] args) throws InvalidAlgorithmException {
+		CubeUtil.init();
+
+		Random random = new Random(1);
+		StringBuilder text = new StringBuilder();
+		while(text.length() < TEXT_LENGTH) {
+			text.append(MOVES[random.nextInt(MOVES.length)]).append(' ');
+		}
+
+		Cube cube = new Cube(CUBE_SIZE);
+		cube.setLogMoves(false);
+
+		for(int i = 0; i < NUM_RUNS; i ++) {
+			long start = System.nanoTime();
+			Algorithm alg = CubeAlgorithmUtil.parseAlgorithm(text, CUBE_SIZE);
+			long parseNanos = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			cube.executeAlgorithm(alg, false);
+			long executeNanos = System.nanoTime() - start;
+
+			System.out.printf("%d characters, %d moves: parsed in %.1f ms, executed in %.1f ms%n",
+					text.length(), alg.length(), parseNanos / 1e6, executeNanos / 1e6);
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+import com.github.sampeterson1.puzzle.moves.AlgorithmReader;
+import com.github.sampeterson1.puzzle.moves.AlgorithmWriter;
+import com.github.sampeterson1.puzzle.moves.Axis;
+import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Streams a solution-sized algorithm for a large cube to a file and back, without holding it in memory
+public class AlgorithmStreamBenchmark {
+
+	private static final Axis[] FACES = { Axis.R, Axis.U, Axis.F, Axis.L, Axis.D, Axis.B };
+
+	private static final int CUBE_SIZE = 1000;
+	private static final int NUM_MOVES = 20_000_000;
+
+	public static void main(String[] args) throws IOException, InvalidAlgorithmException {
+		CubeUtil.init();
+
+		MoveTable moveTable = MoveTable.getTable(PuzzleType.CUBE, CUBE_SIZE);
+		File file = File.createTempFile("algorithm", ".txt");
+		file.deleteOnExit();
+
+		Random random = new Random(1);
+		long checksum = 0;
+
+		long start = System.nanoTime();
+		try(AlgorithmWriter writer = new AlgorithmWriter(new BufferedWriter(new FileWriter(file)))) {
+			for(int i = 0; i < NUM_MOVES; i ++) {
+				Move move = moveTable.getMove(FACES[random.nextInt(FACES.length)], random.nextInt(CUBE_SIZE), random.nextBoolean());
+				writer.write(move);
+				checksum += MoveTable.getCode(move);
+			}
+		}
+		long writeNanos = System.nanoTime() - start;
+		long usedAfterWrite = usedMemory();
+
+		long readChecksum = 0;
+		int numRead = 0;
+
+		start = System.nanoTime();
+		try(AlgorithmReader reader = new AlgorithmReader(new BufferedReader(new FileReader(file)), CUBE_SIZE, PuzzleType.CUBE)) {
+			Move move;
+			while((move = reader.readMove()) != null) {
+				readChecksum += MoveTable.getCode(move);
+				numRead++;
+			}
+		}
+		long readNanos = System.nanoTime() - start;
+		long usedAfterRead = usedMemory();
+
+		System.out.printf("%d moves, %.1f MB: written in %.0f ms, read in %.0f ms%n", NUM_MOVES, file.length() / 1e6,
+				writeNanos / 1e6, readNanos / 1e6);
+		System.out.printf("heap in use after writing %.1f MB, after reading %.1f MB%n", usedAfterWrite / 1e6, usedAfterRead / 1e6);
+		System.out.println("read back " + numRead + " moves, " + (readChecksum == checksum ? "same moves" : "DIFFERENT MOVES"));
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.solvers.MasterCubeSolver;
+import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Measures the solution length and solve time of the full solver on big cubes, which finish as a 3x3 layer by layer with no
+//time budget and with the two-phase solver otherwise
+public class BigCubeSolveBenchmark {
+
+	private static final int NUM_SCRAMBLES = 50;
+	private static final int SCRAMBLE_LENGTH = 60;
+	private static final int[] SIZES = { 4, 5, 6, 7 };
+	private static final long[] BUDGETS = { 0, 1, 100 };
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+
+		//the solver prints its progress
+		PrintStream out = System.out;
+		PrintStream quiet = new PrintStream(OutputStream.nullOutputStream());
+
+		for(int size : SIZES) {
+			Algorithm[] scrambles = new Algorithm[NUM_SCRAMBLES];
+			for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+				scrambles[i] = CubeAlgorithmUtil.generateScramble(SCRAMBLE_LENGTH, size);
+			}
+
+			//warm up, which also loads the tables
+			System.setOut(quiet);
+			for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+				new MasterCubeSolver(createCube(size, scrambles[i])).solve();
+			}
+			System.setOut(out);
+
+			for(long budget : BUDGETS) {
+				int totalLength = 0;
+				int maxLength = 0;
+				long elapsed = 0;
+				System.setOut(quiet);
+				for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+					Cube cube = createCube(size, scrambles[i]);
+					long start = System.nanoTime();
+					int length = new MasterCubeSolver(cube).solve(budget).length();
+					elapsed += System.nanoTime() - start;
+					totalLength += length;
+					maxLength = Math.max(maxLength, length);
+				}
+				System.setOut(out);
+
+				System.out.printf("%dx%d, %d ms budget: %.1f moves on average, %d at most, %.2f ms per solve%n",
+						size, size, budget, (double) totalLength / NUM_SCRAMBLES, maxLength, elapsed / 1e6 / NUM_SCRAMBLES);
+			}
+		}
+	}
+
+	//the solvers mark the pieces they have solved, so every solve gets a new cube
+	private static Cube createCube(int size, Algorithm scramble) {
+		Cube cube = new Cube(size);
+		cube.setLogMoves(false);
+		cube.executeAlgorithm(scramble, false);
+
+		return cube;
+	}
+
+}
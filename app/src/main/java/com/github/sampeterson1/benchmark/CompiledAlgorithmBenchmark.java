@@ -0,0 +1,81 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.templates.CompiledAlgorithm;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Compares how many times per second a scramble can be replayed move by move and as a compiled algorithm
+public class CompiledAlgorithmBenchmark {
+
+	private static final int[] SIZES = { 3, 10, 50 };
+	private static final int NUM_MOVES = 25;
+
+	private static final long WARMUP_NANOS = 1_000_000_000L;
+	private static final long MEASURE_NANOS = 3_000_000_000L;
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+
+		for(int size : SIZES) {
+			Algorithm scramble = CubeAlgorithmUtil.generateScramble(NUM_MOVES, size);
+
+			Cube cube = new Cube(size);
+			cube.setLogMoves(false);
+			CompiledAlgorithm compiled = scramble.compile(cube);
+
+			double replayRate = measure(cube, scramble, null);
+			double compiledRate = measure(cube, scramble, compiled);
+
+			System.out.printf("N = %d: replayed %.0f scrambles/sec, compiled %.0f scrambles/sec (%.1fx)%n",
+					size, replayRate, compiledRate, compiledRate / replayRate);
+		}
+	}
+
+	//returns the number of scrambles per second applied to a cube after warming up
+	private static double measure(Cube cube, Algorithm scramble, CompiledAlgorithm compiled) {
+		run(cube, scramble, compiled, WARMUP_NANOS);
+
+		long start = System.nanoTime();
+		long numScrambles = run(cube, scramble, compiled, MEASURE_NANOS);
+		long elapsed = System.nanoTime() - start;
+
+		return numScrambles * 1e9 / elapsed;
+	}
+
+	private static long run(Cube cube, Algorithm scramble, CompiledAlgorithm compiled, long nanos) {
+		long end = System.nanoTime() + nanos;
+		long numScrambles = 0;
+
+		while(System.nanoTime() < end) {
+			if(compiled == null) {
+				cube.executeAlgorithm(scramble, false);
+			} else {
+				cube.executeAlgorithm(compiled, false);
+			}
+			numScrambles++;
+		}
+
+		return numScrambles;
+	}
+
+}
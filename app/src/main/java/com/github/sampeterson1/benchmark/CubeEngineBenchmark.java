@@ -0,0 +1,79 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.util.List;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.templates.Puzzle;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.meta.FaceletCube;
+import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Compares how many random moves per second Cube (Piece objects) and FaceletCube (sticker arrays) can apply
+public class CubeEngineBenchmark {
+
+	private static final int[] SIZES = { 3, 10, 50, 100 };
+	private static final int NUM_MOVES = 1000;
+
+	private static final long WARMUP_NANOS = 1_000_000_000L;
+	private static final long MEASURE_NANOS = 3_000_000_000L;
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+
+		for(int size : SIZES) {
+			Algorithm moves = CubeAlgorithmUtil.generateScramble(NUM_MOVES, size);
+
+			double pieceRate = measure(new Cube(size), moves);
+			double faceletRate = measure(new FaceletCube(size), moves);
+
+			System.out.printf("N = %d: Cube %.0f moves/sec, FaceletCube %.0f moves/sec (%.1fx)%n",
+					size, pieceRate, faceletRate, faceletRate / pieceRate);
+		}
+	}
+
+	//returns the number of moves per second applied to a puzzle after warming up
+	private static double measure(Puzzle puzzle, Algorithm moves) {
+		puzzle.setLogMoves(false);
+		run(puzzle, moves, WARMUP_NANOS);
+
+		long start = System.nanoTime();
+		long numMoves = run(puzzle, moves, MEASURE_NANOS);
+		long elapsed = System.nanoTime() - start;
+
+		return numMoves * 1e9 / elapsed;
+	}
+
+	private static long run(Puzzle puzzle, Algorithm moves, long nanos) {
+		List<Move> moveList = moves.getMoves();
+		long end = System.nanoTime() + nanos;
+		long numMoves = 0;
+
+		while(System.nanoTime() < end) {
+			puzzle.makeMove(moveList.get((int) (numMoves % moveList.size())));
+			numMoves++;
+		}
+
+		return numMoves;
+	}
+
+}
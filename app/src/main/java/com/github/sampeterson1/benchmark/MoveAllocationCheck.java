@@ -0,0 +1,85 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+/*
+ * Checks that applying moves to a Cube does not allocate once the puzzle has warmed up.
+ *
+ * 1,000 random 7x7 scrambles are solved, then every scramble and its solution is played back on one cube
+ * with move logging turned off while counting the bytes allocated by this thread. Exits with status 1 if
+ * any allocation was measured.
+ */
+public class MoveAllocationCheck {
+
+	private static final int SIZE = 7;
+	private static final int NUM_SCRAMBLES = 1000;
+	private static final int SCRAMBLE_LENGTH = 100;
+	private static final int NUM_WARMUP_ROUNDS = 5;
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		List<Move> moves = new ArrayList<Move>();
+		for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+			Cube cube = new Cube(SIZE);
+			Algorithm scramble = cube.getMetaFunctions().scramble(SCRAMBLE_LENGTH);
+			Algorithm solution = cube.getMetaFunctions().solve();
+
+			moves.addAll(scramble.getMoves());
+			moves.addAll(solution.getMoves());
+		}
+
+		Cube cube = new Cube(SIZE);
+		cube.setLogMoves(false);
+
+		for(int i = 0; i < NUM_WARMUP_ROUNDS; i ++) {
+			replay(cube, moves);
+		}
+
+		long start = threadBean.getThreadAllocatedBytes(threadId);
+		replay(cube, moves);
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - start;
+
+		System.out.printf("%d moves, %d bytes allocated (%.3f bytes/move)%n",
+				moves.size(), allocated, (double) allocated / moves.size());
+
+		if(allocated > 0) {
+			System.exit(1);
+		}
+	}
+
+	private static void replay(Cube cube, List<Move> moves) {
+		for(int i = 0; i < moves.size(); i ++) {
+			cube.makeMove(moves.get(i));
+		}
+	}
+
+}
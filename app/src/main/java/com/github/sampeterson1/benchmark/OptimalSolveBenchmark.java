@@ -0,0 +1,108 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.Axis;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzle.templates.Snapshot;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.solvers.KociembaSolver;
+import com.github.sampeterson1.puzzles.cube.solvers.OptimalCubeSolver;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Times the optimal 3x3 solver on one thread and on every processor, on scrambles of a few lengths
+public class OptimalSolveBenchmark {
+
+	private static final int NUM_SCRAMBLES = 10;
+	private static final int[] SCRAMBLE_LENGTHS = { 10, 12, 14 };
+	private static final Axis[] FACES = { Axis.R, Axis.U, Axis.F, Axis.L, Axis.D, Axis.B };
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+
+		Cube cube = new Cube(3);
+		cube.setLogMoves(false);
+		Snapshot solved = cube.snapshot();
+
+		//the first solve loads or generates the tables
+		long start = System.nanoTime();
+		new OptimalCubeSolver(cube).solve();
+		new KociembaSolver(cube).solve(0);
+		System.out.printf("Loaded tables in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+		int numProcessors = Runtime.getRuntime().availableProcessors();
+		ForkJoinPool singleThread = new ForkJoinPool(1);
+		ForkJoinPool allThreads = new ForkJoinPool(numProcessors);
+		Random random = new Random(1);
+
+		for(int scrambleLength : SCRAMBLE_LENGTHS) {
+			Snapshot[] scrambles = new Snapshot[NUM_SCRAMBLES];
+			for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+				cube.restore(solved);
+				cube.executeAlgorithm(generateScramble(cube.getMoveTable(), scrambleLength, random), false);
+				scrambles[i] = cube.snapshot();
+			}
+
+			int twoPhaseLength = 0;
+			for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+				cube.restore(scrambles[i]);
+				twoPhaseLength += new KociembaSolver(cube).solve(0).length();
+			}
+
+			System.out.printf("%d move scrambles: two-phase solver %.2f moves on average%n", scrambleLength, (double) twoPhaseLength / NUM_SCRAMBLES);
+			run("1 thread", cube, scrambles, singleThread);
+			run(numProcessors + " processors", cube, scrambles, allThreads);
+		}
+	}
+
+	private static void run(String name, Cube cube, Snapshot[] scrambles, ForkJoinPool pool) {
+		int totalLength = 0;
+		long start = System.nanoTime();
+		for(Snapshot scramble : scrambles) {
+			cube.restore(scramble);
+			totalLength += new OptimalCubeSolver(cube, pool).solve().length();
+		}
+		long elapsed = System.nanoTime() - start;
+
+		System.out.printf("  Optimal, %s: %.2f moves on average, %.1f ms per solve%n",
+				name, (double) totalLength / scrambles.length, elapsed / 1e6 / scrambles.length);
+	}
+
+	//random face turns, without turning the same face twice in a row
+	private static Algorithm generateScramble(MoveTable table, int length, Random random) {
+		Algorithm scramble = new Algorithm();
+		int lastFace = -1;
+		for(int i = 0; i < length; i ++) {
+			int face;
+			do {
+				face = random.nextInt(FACES.length);
+			} while(face == lastFace);
+			lastFace = face;
+
+			scramble.addMove(table.getMove(FACES[face], random.nextBoolean()).repeated(1 + random.nextInt(2)));
+		}
+
+		return scramble;
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import com.github.sampeterson1.puzzle.moves.AlgorithmParseCache;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.solvers.MasterCubeSolver;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Compares the time it takes to create a cube solver when its OLL and PLL cases have to be parsed and when they are cached
+public class ParseCacheBenchmark {
+
+	private static final int NUM_SOLVERS = 2000;
+	private static final int NUM_RUNS = 5;
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+		Cube cube = new Cube(3);
+
+		for(int i = 0; i < NUM_RUNS; i ++) {
+			long start = System.nanoTime();
+			for(int j = 0; j < NUM_SOLVERS; j ++) {
+				AlgorithmParseCache.clear();
+				new MasterCubeSolver(cube);
+			}
+			long parsedNanos = System.nanoTime() - start;
+
+			AlgorithmParseCache.clear();
+			start = System.nanoTime();
+			for(int j = 0; j < NUM_SOLVERS; j ++) {
+				new MasterCubeSolver(cube);
+			}
+			long cachedNanos = System.nanoTime() - start;
+
+			System.out.printf("%d solvers: %.1f us each when parsed, %.1f us each when cached (%d hits, %d misses)%n",
+					NUM_SOLVERS, parsedNanos / 1e3 / NUM_SOLVERS, cachedNanos / 1e3 / NUM_SOLVERS,
+					AlgorithmParseCache.getHits(), AlgorithmParseCache.getMisses());
+		}
+	}
+
+}
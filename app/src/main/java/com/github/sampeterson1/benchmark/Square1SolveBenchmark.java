@@ -0,0 +1,84 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import com.github.sampeterson1.puzzle.templates.Snapshot;
+import com.github.sampeterson1.puzzles.square1.meta.Square1;
+
+//Measures how many scrambled Square-1s per second can be solved from start to finish
+public class Square1SolveBenchmark {
+
+	private static final int NUM_SCRAMBLES = 100;
+	private static final int SCRAMBLE_LENGTH = 30;
+
+	private static final long WARMUP_NANOS = 2_000_000_000L;
+	private static final long MEASURE_NANOS = 5_000_000_000L;
+
+	public static void main(String[] args) {
+		//the solvers print the cases they find
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+		Square1 sq1 = new Square1();
+		Snapshot solved = sq1.snapshot();
+		Snapshot[] scrambles = new Snapshot[NUM_SCRAMBLES];
+
+		int numScrambles = 0;
+		while(numScrambles < NUM_SCRAMBLES) {
+			sq1.restore(solved);
+			sq1.getMetaFunctions().scramble(SCRAMBLE_LENGTH);
+			Snapshot scramble = sq1.snapshot();
+
+			//a few scrambles can't be solved by the current solvers, so they are left out
+			try {
+				sq1.getMetaFunctions().solve();
+				scrambles[numScrambles++] = scramble;
+			} catch(RuntimeException e) {
+				continue;
+			}
+		}
+
+		run(sq1, scrambles, WARMUP_NANOS);
+
+		long start = System.nanoTime();
+		long numSolves = run(sq1, scrambles, MEASURE_NANOS);
+		long elapsed = System.nanoTime() - start;
+
+		System.setOut(out);
+		System.out.printf("Square-1: %.0f solves/sec%n", numSolves * 1e9 / elapsed);
+	}
+
+	private static long run(Square1 sq1, Snapshot[] scrambles, long nanos) {
+		long end = System.nanoTime() + nanos;
+		long numSolves = 0;
+
+		while(System.nanoTime() < end) {
+			sq1.restore(scrambles[(int) (numSolves % scrambles.length)]);
+			sq1.clearMoveLog();
+			sq1.getMetaFunctions().solve();
+			numSolves++;
+		}
+
+		return numSolves;
+	}
+
+}
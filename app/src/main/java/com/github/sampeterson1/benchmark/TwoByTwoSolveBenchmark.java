@@ -0,0 +1,97 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.templates.Snapshot;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.solvers.MasterCubeSolver;
+import com.github.sampeterson1.puzzles.cube.solvers.TwoByTwoSolver;
+import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Compares the solution length and solve time of the optimal 2x2 solver with the full cube solver
+public class TwoByTwoSolveBenchmark {
+
+	private static final int NUM_SCRAMBLES = 10000;
+	private static final int SCRAMBLE_LENGTH = 25;
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+
+		Cube cube = new Cube(2);
+		cube.setLogMoves(false);
+		Snapshot solved = cube.snapshot();
+		Snapshot[] scrambles = new Snapshot[NUM_SCRAMBLES];
+		for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+			cube.restore(solved);
+			cube.executeAlgorithm(CubeAlgorithmUtil.generateScramble(SCRAMBLE_LENGTH, 2), false);
+			scrambles[i] = cube.snapshot();
+		}
+
+		//the first solve loads or generates the table
+		long start = System.nanoTime();
+		new TwoByTwoSolver(cube).solve();
+		System.out.printf("Loaded table in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+		//warm up
+		for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+			cube.restore(scrambles[i]);
+			new TwoByTwoSolver(cube).solve();
+		}
+
+		int totalLength = 0;
+		int maxLength = 0;
+		start = System.nanoTime();
+		for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+			cube.restore(scrambles[i]);
+			int length = new TwoByTwoSolver(cube).solve().length();
+			totalLength += length;
+			maxLength = Math.max(maxLength, length);
+		}
+		print("TwoByTwoSolver", totalLength, maxLength, System.nanoTime() - start);
+
+		//the full solver prints its progress
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+		totalLength = 0;
+		maxLength = 0;
+		start = System.nanoTime();
+		for(int i = 0; i < NUM_SCRAMBLES; i ++) {
+			cube.restore(scrambles[i]);
+			Algorithm solution = new MasterCubeSolver(cube).solve();
+			totalLength += solution.length();
+			maxLength = Math.max(maxLength, solution.length());
+		}
+		long elapsed = System.nanoTime() - start;
+
+		System.setOut(out);
+		print("MasterCubeSolver", totalLength, maxLength, elapsed);
+	}
+
+	private static void print(String name, int totalLength, int maxLength, long elapsed) {
+		System.out.printf("%s: %.2f moves on average, %d at most, %.2f us per solve%n",
+				name, (double) totalLength / NUM_SCRAMBLES, maxLength, elapsed / 1e3 / NUM_SCRAMBLES);
+	}
+
+}
@@ -39,13 +39,13 @@ public class PuzzleDisplay {
 	
 	private static final float DEFAULT_ANIMATION_SPEED = 20f;
 	
-	private Move animatingMove;
+	//moves that are animated together, and the rotation of the one that turns the furthest
+	private List<MoveAnimation> animations;
 	private float animationSpeed = DEFAULT_ANIMATION_SPEED;
 	private boolean animate = true;
 	
 	private float currentRotation;
 	private float targetRotation;
-	private int direction;
 	
 	private int puzzleSize;
 	
@@ -55,13 +55,30 @@ public class PuzzleDisplay {
 
 	private Map<Mesh, PieceBatch> pieceBatches;
 	private Map<Piece, DisplayPiece> pieceMap;
-	private List<DisplayPiece> affectedPieces;
 	private List<DisplayPiece> allDisplayPieces;
 	
 	private ColorPalette palette;
 	
+	//a move that is being animated, which turns its pieces by the whole amount of its repetitions
+	private static class MoveAnimation {
+		
+		private Move move;
+		private List<DisplayPiece> affectedPieces;
+		private float targetRotation;
+		private int direction;
+		
+		private MoveAnimation(Move move, List<DisplayPiece> affectedPieces) {
+			this.move = move;
+			this.affectedPieces = affectedPieces;
+			this.targetRotation = move.getAxis().getRotationAmount() * move.getRepetitions();
+			this.direction = move.isCW() ? 1 : -1;
+		}
+		
+	}
+	
 	public PuzzleDisplay(Puzzle puzzle) {
 		this.puzzle = puzzle;
+		this.animations = new ArrayList<MoveAnimation>();
 		this.palette = puzzle.getMetaFunctions().createDefaultColorPalette();
 		
 		createPieces();
@@ -111,7 +128,7 @@ public class PuzzleDisplay {
 	}
 
 	public Move getAnimatingMove() {
-		return animatingMove;
+		return animations.isEmpty() ? null : animations.get(0).move;
 	}
 
 	public int getPuzzleSize() {
@@ -119,7 +136,7 @@ public class PuzzleDisplay {
 	}
 
 	public boolean isAnimating() {
-		return (animatingMove != null);
+		return !animations.isEmpty();
 	}
 
 	public void setAnimationSpeed(float speed) {
@@ -131,23 +148,52 @@ public class PuzzleDisplay {
 	}
 
 	public void makeMove(Move move) {
-		this.animatingMove = move;
-		this.targetRotation = move.getAxis().getRotationAmount();
-		getAffectedPieces();
-		direction = animatingMove.isCW() ? 1 : -1;
-		if(!animate) {
-			finishAnimation();
+		addAnimation(move);
+		startAnimation();
+	}
+	
+	//animate two moves as one turn, such as the top and bottom layer turns of a Square-1 (top, bottom) move
+	public void makeMoves(Move first, Move second) {
+		addAnimation(first);
+		addAnimation(second);
+		startAnimation();
+	}
+	
+	//moves can be animated together if they turn around the same line and don't share any pieces
+	public boolean canAnimateTogether(Move first, Move second) {
+		if(first.isCubeRotation() || second.isCubeRotation()) return false;
+		
+		Vector3f a = first.getAxis().getRotationAxis();
+		Vector3f b = second.getAxis().getRotationAxis();
+		float crossX = a.y * b.z - a.z * b.y;
+		float crossY = a.z * b.x - a.x * b.z;
+		float crossZ = a.x * b.y - a.y * b.x;
+		if(crossX * crossX + crossY * crossY + crossZ * crossZ > 1e-6f) return false;
+		
+		List<Piece> firstPieces = puzzle.getAffectedPieces(first);
+		for(Piece piece : puzzle.getAffectedPieces(second)) {
+			if(firstPieces.contains(piece)) return false;
 		}
+		
+		return true;
 	}
 
-	//Return a list of DisplayPieces that are affected by the current animating move
-	private void getAffectedPieces() {
-		List<Piece> pieces = puzzle.getAffectedPieces(animatingMove);
-		this.affectedPieces = new ArrayList<DisplayPiece>();
+	//find the DisplayPieces that are affected by a move before any of the animated moves are made
+	private void addAnimation(Move move) {
+		List<DisplayPiece> affectedPieces = new ArrayList<DisplayPiece>();
+		for(Piece piece : puzzle.getAffectedPieces(move)) {
+			affectedPieces.add(pieceMap.get(piece));
+		}
 		
-		for(Piece piece : pieces) {
-			DisplayPiece displayPiece = pieceMap.get(piece);
-			affectedPieces.add(displayPiece);
+		MoveAnimation animation = new MoveAnimation(move, affectedPieces);
+		animations.add(animation);
+		targetRotation = Math.max(targetRotation, animation.targetRotation);
+	}
+	
+	private void startAnimation() {
+		currentRotation = 0;
+		if(!animate) {
+			finishAnimation();
 		}
 	}
 	
@@ -156,15 +202,19 @@ public class PuzzleDisplay {
 		float deltaTime = (System.currentTimeMillis() - lastTime)/1000.0f;
 		lastTime = System.currentTimeMillis();
 
-		if(animate && animatingMove != null) {
-			currentRotation += deltaTime * animationSpeed * direction;
-			Matrix3D rotationMat = getMoveRotationMatrix(animatingMove, currentRotation);
+		if(animate && !animations.isEmpty()) {
+			currentRotation += deltaTime * animationSpeed;
+			float progress = Math.min(currentRotation / targetRotation, 1);
 			
-			for(DisplayPiece piece : affectedPieces) {
-				piece.setRotationMat(rotationMat);
+			//every move finishes at the same time as the one that turns the furthest
+			for(MoveAnimation animation : animations) {
+				Matrix3D rotationMat = getMoveRotationMatrix(animation.move, animation.direction * animation.targetRotation * progress);
+				for(DisplayPiece piece : animation.affectedPieces) {
+					piece.setRotationMat(rotationMat);
+				}
 			}
 			
-			if(Mathf.abs(currentRotation) >= targetRotation) {
+			if(currentRotation >= targetRotation) {
 				finishAnimation();  
 			}
 		}
@@ -181,15 +231,19 @@ public class PuzzleDisplay {
 	
 	//Finish the current animation by applying the current rotation to the piece's internal transformation matrix
 	public final void finishAnimation() {
-		currentRotation = direction * targetRotation;
-
-		Matrix3D rotationMat = getMoveRotationMatrix(animatingMove, currentRotation);	
-		for(DisplayPiece piece : affectedPieces) {
-			piece.applyRotation(rotationMat);
+		for(MoveAnimation animation : animations) {
+			Matrix3D rotationMat = getMoveRotationMatrix(animation.move, animation.direction * animation.targetRotation);	
+			for(DisplayPiece piece : animation.affectedPieces) {
+				piece.applyRotation(rotationMat);
+			}
 		}
-	
-		puzzle.makeMove(animatingMove);		
-		currentRotation = 0;	
-		animatingMove = null;
+		
+		for(MoveAnimation animation : animations) {
+			puzzle.makeMove(animation.move);
+		}
+		
+		currentRotation = 0;
+		targetRotation = 0;
+		animations.clear();
 	}
 }
@@ -28,6 +28,7 @@ import com.github.sampeterson1.puzzle.lib.PuzzleSizeController;
 import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
+import com.github.sampeterson1.puzzle.moves.Move;
 import com.github.sampeterson1.puzzle.templates.Puzzle;
 
 //Controls the selected puzzle and provides functionality to switch between puzzles
@@ -79,7 +80,7 @@ public class PuzzleMaster {
 		if(animatingAlg != null) {
 			if(!display.isAnimating()) {
 				if(movePointer < animatingAlg.length()) {
-					display.makeMove(animatingAlg.getMove(movePointer++));
+					animateNextMoves();
 				} else {
 					animatingAlg = null;
 					movePointer = 0;
@@ -90,6 +91,22 @@ public class PuzzleMaster {
 		display.update();
 	}
 	
+	//turns that can be made at the same time (e.g. a Square-1 (top, bottom) move) are animated as one
+	private static void animateNextMoves() {
+		Move move = animatingAlg.getMove(movePointer++);
+		
+		if(movePointer < animatingAlg.length()) {
+			Move nextMove = animatingAlg.getMove(movePointer);
+			if(display.canAnimateTogether(move, nextMove)) {
+				display.makeMoves(move, nextMove);
+				movePointer++;
+				return;
+			}
+		}
+		
+		display.makeMove(move);
+	}
+	
 	public static void setAnimationSpeed(float speed) {
 		display.setAnimationSpeed(speed);
 	}
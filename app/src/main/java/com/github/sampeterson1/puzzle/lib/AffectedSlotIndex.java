@@ -0,0 +1,95 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.lib;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.sampeterson1.puzzle.moves.Axis;
+import com.github.sampeterson1.puzzle.moves.Move;
+
+/*
+ * Caches the piece slots that each layer turn moves on a GroupedPuzzle.
+ *
+ * Which pieces a turn affects only depends on their positions and indices, never on the puzzle's state,
+ * so one index is shared by every puzzle of the same type and size. Entries are built the first time a
+ * (normalized) axis and layer is turned by asking each PieceBehavior for its affected pieces.
+ */
+public class AffectedSlotIndex {
+
+	private static final int NUM_AXES = Axis.values().length;
+
+	private static final Map<PuzzleType, Map<Integer, AffectedSlotIndex>> indices =
+			new EnumMap<PuzzleType, Map<Integer, AffectedSlotIndex>>(PuzzleType.class);
+
+	private int size;
+
+	//slots[axis * size + layer][group] holds the indices of the pieces moved in each group
+	private int[][][] slots;
+
+	private AffectedSlotIndex(int size) {
+		this.size = size;
+		this.slots = new int[NUM_AXES * size][][];
+	}
+
+	public static synchronized AffectedSlotIndex getIndex(PuzzleType type, int size) {
+		Map<Integer, AffectedSlotIndex> indicesBySize = indices.get(type);
+		if(indicesBySize == null) {
+			indicesBySize = new HashMap<Integer, AffectedSlotIndex>();
+			indices.put(type, indicesBySize);
+		}
+
+		AffectedSlotIndex index = indicesBySize.get(size);
+		if(index == null) {
+			index = new AffectedSlotIndex(size);
+			indicesBySize.put(size, index);
+		}
+
+		return index;
+	}
+
+	public int getKey(Axis axis, int layer) {
+		return axis.ordinal() * size + layer;
+	}
+
+	/*
+	 * Returns the affected slots of every group for a normalized move that is not a cube rotation.
+	 * The groups must be given in the same order by every puzzle that shares this index.
+	 */
+	public synchronized int[][] getAffectedSlots(Move move, List<PieceGroup> groups) {
+		int key = getKey(move.getAxis(), move.getLayer());
+		if(slots[key] == null) {
+			int[][] affectedSlots = new int[groups.size()][];
+			for(int i = 0; i < groups.size(); i ++) {
+				List<Piece> affectedPieces = groups.get(i).getAffectedPieces(move);
+				affectedSlots[i] = new int[affectedPieces.size()];
+				for(int j = 0; j < affectedPieces.size(); j ++) {
+					affectedSlots[i][j] = affectedPieces.get(j).getIndex();
+				}
+			}
+
+			slots[key] = affectedSlots;
+		}
+
+		return slots[key];
+	}
+
+}
@@ -18,7 +18,7 @@
 
 package com.github.sampeterson1.puzzle.lib;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.github.sampeterson1.puzzle.moves.Move;
@@ -29,23 +29,35 @@ public class PieceGroup {
 	
 	private GroupedPuzzle puzzle;
 	private PieceBehavior behavior;
-	private List<Piece> pieces;
-	private List<Piece> movedPieces;
 	private int position;
 	private int puzzleSize;
 	
+	/*
+	 * Pieces are double buffered: pieces that move into this group during a move are written to
+	 * movedPieces (at their new index) and only copied into pieces by applyMoves, once every group
+	 * has finished reading its old pieces. movedSlots lists the indices written so far.
+	 */
+	private Piece[] pieces;
+	private Piece[] movedPieces;
+	private int[] movedSlots;
+	private int numMovedSlots;
+	
+	private List<Piece> pieceList;
+	
 	public PieceGroup(PieceBehavior behavior, GroupedPuzzle puzzle, int position) {
 		this.position = position;
-		this.pieces = new ArrayList<Piece>();
-		this.movedPieces = new ArrayList<Piece>();
 		this.puzzle = puzzle;
 		this.puzzleSize = puzzle.getSize();
 		this.behavior = behavior;
 		
 		int numPieces = behavior.getNumPieces(puzzleSize);
+		this.pieces = new Piece[numPieces];
+		this.movedPieces = new Piece[numPieces];
+		this.movedSlots = new int[numPieces];
+		this.pieceList = Arrays.asList(pieces);
+		
 		for(int i = 0; i < numPieces; i ++) {
-			Piece piece = behavior.createPiece(position, i);
-			pieces.add(piece);
+			pieces[i] = behavior.createPiece(position, i);
 		}
 	}
 	
@@ -66,7 +78,7 @@ public class PieceGroup {
 	}
 	
 	public int getNumPieces() {
-		return this.pieces.size();
+		return this.pieces.length;
 	}
 	
 	public void setSolved(boolean solved) {
@@ -76,14 +88,23 @@ public class PieceGroup {
 	}
 	
 	public void applyMoves() {
-		for(Piece piece : movedPieces) {
-			pieces.set(piece.getIndex(), piece);
+		for(int i = 0; i < numMovedSlots; i ++) {
+			int slot = movedSlots[i];
+			pieces[slot] = movedPieces[slot];
+			movedPieces[slot] = null;
 		}
-		movedPieces = new ArrayList<Piece>();
+		numMovedSlots = 0;
+	}
+	
+	//put a piece into the slot given by its index
+	public void setPiece(Piece piece) {
+		pieces[piece.getIndex()] = piece;
 	}
 	
 	public void addMovedPiece(Piece piece) {
-		this.movedPieces.add(piece);
+		int slot = piece.getIndex();
+		movedPieces[slot] = piece;
+		movedSlots[numMovedSlots++] = slot;
 	}
 	
 	public List<Piece> getAffectedPieces(Move move) {
@@ -91,26 +112,36 @@ public class PieceGroup {
 	}
 	
 	public void makeMove(Move move) {
-		List<Piece> toMove = null;
 		if(move.isCubeRotation()) {
-			toMove = pieces;
+			for(int i = 0; i < pieces.length; i ++) {
+				movePiece(move, pieces[i]);
+			}
 		} else {
-			toMove = behavior.getAffectedPieces(move, this);
+			for(Piece piece : behavior.getAffectedPieces(move, this)) {
+				movePiece(move, piece);
+			}
 		}
-		
-		for(Piece piece : toMove) {
-			behavior.movePiece(move, piece);
-			PieceGroup group = puzzle.getGroup(piece.getType(), piece.getPosition());
-			group.addMovedPiece(piece);
+	}
+	
+	//move only the pieces at the given indices, which must be the pieces affected by the move
+	public void makeMove(Move move, int[] slots) {
+		for(int i = 0; i < slots.length; i ++) {
+			movePiece(move, pieces[slots[i]]);
 		}
 	}
 	
+	private void movePiece(Move move, Piece piece) {
+		behavior.movePiece(move, piece);
+		PieceGroup group = puzzle.getGroup(piece.getType(), piece.getPosition());
+		group.addMovedPiece(piece);
+	}
+	
 	public int getPuzzleSize() {
 		return this.puzzleSize;
 	}
 	
 	public List<Piece> getPieces() {
-		return this.pieces;
+		return this.pieceList;
 	}
 	
 	public Piece getPiece() {
@@ -118,7 +149,7 @@ public class PieceGroup {
 	}
 	
 	public Piece getPiece(int index) {
-		return this.pieces.get(index);
+		return this.pieces[index];
 	}
 	
 	public final int getPosition() {
@@ -0,0 +1,192 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.lib;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzle.templates.Puzzle;
+
+/*
+ * The move rules of one SimplePieceBehavior of a SimplePuzzle type, written out as a permutation of positions per move.
+ *
+ * For every move of the puzzle's MoveTable, the table holds the positions that the move takes pieces of the behavior
+ * from and to, and where each of their colors goes, so making a move only touches the slots that it affects instead
+ * of calling affectedByMove and movePiece for every piece.
+ *
+ * The positions are found by starting from the pieces of a puzzle and making every move on a stand-in piece until
+ * no new positions appear. Moves that depend on the state of the rest of the puzzle (see SimplePieceBehavior.dependsOnState)
+ * are only used to find positions and are not written out, so they are left to the piece behavior. One table is
+ * shared by every puzzle of the same type.
+ */
+public class PiecePermutationTable {
+
+	private static final Color[] colors = Color.values();
+
+	private static final Map<PuzzleType, Map<PieceType, PiecePermutationTable>> tables =
+			new EnumMap<PuzzleType, Map<PieceType, PiecePermutationTable>>(PuzzleType.class);
+
+	private boolean[] stateDependent;
+	private boolean[] knownPositions;
+
+	//the positions that each move code takes pieces from, and the positions that it takes them to
+	private int[][] fromPositions;
+	private int[][] toPositions;
+
+	//colorMaps[code][i][j] is the old index of the color at index j of the piece moved from fromPositions[code][i], or null if the colors stay
+	private byte[][][] colorMaps;
+
+	private PiecePermutationTable(MoveTable moveTable, SimplePieceBehavior behavior, List<Piece> pieces) {
+		int numCodes = moveTable.getNumMoves();
+
+		this.stateDependent = new boolean[numCodes];
+		for(int code = 0; code < numCodes; code ++) {
+			stateDependent[code] = behavior.dependsOnState(moveTable.getMove(code));
+		}
+
+		this.fromPositions = new int[numCodes][0];
+		this.toPositions = new int[numCodes][0];
+		this.colorMaps = new byte[numCodes][0][];
+		this.knownPositions = new boolean[0];
+
+		//the pieces of a behavior can have a different type than the behavior (e.g. the Square-1 centers)
+		if(!pieces.isEmpty()) addRules(moveTable, behavior, pieces);
+	}
+
+	public static synchronized PiecePermutationTable getTable(PuzzleType type, SimplePieceBehavior behavior, List<Piece> pieces) {
+		Map<PieceType, PiecePermutationTable> typeTables = tables.get(type);
+		if(typeTables == null) {
+			typeTables = new EnumMap<PieceType, PiecePermutationTable>(PieceType.class);
+			tables.put(type, typeTables);
+		}
+
+		PiecePermutationTable table = typeTables.get(behavior.getType());
+		if(table == null) {
+			table = new PiecePermutationTable(MoveTable.getTable(type, 1), behavior, pieces);
+			typeTables.put(behavior.getType(), table);
+		}
+
+		return table;
+	}
+
+	//follow every move from the starting positions of the pieces
+	private void addRules(MoveTable moveTable, SimplePieceBehavior behavior, List<Piece> pieces) {
+		int numCodes = moveTable.getNumMoves();
+		Puzzle puzzle = pieces.get(0).getPuzzle();
+		PieceType pieceType = pieces.get(0).getType();
+		int numColors = pieceType.getNumColors();
+
+		List<List<int[]>> moves = new ArrayList<List<int[]>>();
+		List<List<byte[]>> maps = new ArrayList<List<byte[]>>();
+		for(int code = 0; code < numCodes; code ++) {
+			moves.add(new ArrayList<int[]>());
+			maps.add(new ArrayList<byte[]>());
+		}
+
+		Deque<Integer> positionQueue = new ArrayDeque<Integer>();
+		for(Piece piece : pieces) {
+			addPosition(positionQueue, piece.getPosition());
+		}
+
+		while(!positionQueue.isEmpty()) {
+			int position = positionQueue.poll();
+
+			for(int code = 0; code < numCodes; code ++) {
+				Move move = moveTable.getMove(code);
+				Piece probe = new Piece(puzzle, pieceType, position);
+				for(int i = 0; i < numColors; i ++) {
+					probe.setColor(i, colors[i]);
+				}
+
+				if(stateDependent[code]) {
+					//the stand-in piece may not be able to make this move, so only positions that exist are kept
+					behavior.movePiece(move, probe);
+					if(probe.getPosition() >= 0) addPosition(positionQueue, probe.getPosition());
+					continue;
+				}
+
+				if(!behavior.affectedByMove(move, probe)) continue;
+
+				behavior.movePiece(move, probe);
+				moves.get(code).add(new int[] { position, probe.getPosition() });
+				addPosition(positionQueue, probe.getPosition());
+
+				byte[] colorMap = new byte[numColors];
+				boolean recolored = false;
+				for(int i = 0; i < numColors; i ++) {
+					colorMap[i] = (byte) probe.getColor(i).ordinal();
+					if(colorMap[i] != i) recolored = true;
+				}
+
+				maps.get(code).add(recolored ? colorMap : null);
+			}
+		}
+
+		for(int code = 0; code < numCodes; code ++) {
+			List<int[]> codeMoves = moves.get(code);
+			fromPositions[code] = new int[codeMoves.size()];
+			toPositions[code] = new int[codeMoves.size()];
+			colorMaps[code] = maps.get(code).toArray(new byte[codeMoves.size()][]);
+
+			for(int i = 0; i < codeMoves.size(); i ++) {
+				fromPositions[code][i] = codeMoves.get(i)[0];
+				toPositions[code][i] = codeMoves.get(i)[1];
+			}
+		}
+	}
+
+	private void addPosition(Deque<Integer> positionQueue, int position) {
+		if(position >= knownPositions.length) knownPositions = Arrays.copyOf(knownPositions, position + 1);
+
+		if(!knownPositions[position]) {
+			knownPositions[position] = true;
+			positionQueue.add(position);
+		}
+	}
+
+	//returns true if a move code has to be made by the piece behavior
+	public boolean isStateDependent(int code) {
+		return this.stateDependent[code];
+	}
+
+	//returns true if the table has the rules of a position, which is every position that a piece can reach
+	public boolean isKnownPosition(int position) {
+		return (position >= 0 && position < knownPositions.length && knownPositions[position]);
+	}
+
+	public int[] getFromPositions(int code) {
+		return this.fromPositions[code];
+	}
+
+	public int[] getToPositions(int code) {
+		return this.toPositions[code];
+	}
+
+	public byte[][] getColorMaps(int code) {
+		return this.colorMaps[code];
+	}
+
+}
@@ -34,6 +34,14 @@ public abstract class SimplePieceBehavior extends PieceBehavior {
 	
 	public abstract boolean affectedByMove(Move move, Piece piece);
 	
+	/*
+	 * Returns true if the way this behavior makes a move depends on the rest of the puzzle (e.g. a Square-1 slice,
+	 * which can't be made while a corner is in the way). Other moves are written out in a PiecePermutationTable.
+	 */
+	public boolean dependsOnState(Move move) {
+		return false;
+	}
+	
 	@Override
 	public Piece createPiece(int position, int index) {
 		return createPiece(position);
@@ -0,0 +1,54 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.lib;
+
+/*
+ * Random 64-bit keys for Zobrist hashing of puzzle states (see Puzzle.stateHash).
+ *
+ * The state hash of a puzzle is the XOR of one key per piece, so a move only has to XOR out the keys
+ * of the pieces it moves and XOR in their new keys. Instead of storing a table of random numbers for
+ * every slot and coloring of every puzzle size, keys are generated on demand by mixing the
+ * piece's type, position, index and colors.
+ */
+public class ZobristKeys {
+
+	//the finalizer of the SplitMix64 generator, which turns any input into a well distributed 64-bit value
+	public static long mix(long x) {
+		x += 0x9E3779B97F4A7C15L;
+		x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+		x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+		return x ^ (x >>> 31);
+	}
+
+	//returns the key of a piece in its current slot and orientation
+	public static long getKey(Piece piece) {
+		long key = mix(piece.getType().ordinal());
+		key = mix(key ^ piece.getPosition());
+		key = mix(key ^ piece.getIndex());
+
+		int numColors = piece.getType().getNumColors();
+		for(int i = 0; i < numColors; i ++) {
+			Color color = piece.getColor(i);
+			key = mix(key ^ (color == null ? -1 : color.ordinal()));
+		}
+
+		return key;
+	}
+
+}
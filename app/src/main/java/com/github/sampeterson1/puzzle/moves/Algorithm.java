@@ -18,15 +18,42 @@
 
 package com.github.sampeterson1.puzzle.moves;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.github.sampeterson1.math.Matrix3D;
 import com.github.sampeterson1.math.Vector3f;
+import com.github.sampeterson1.puzzle.templates.CompiledAlgorithm;
+import com.github.sampeterson1.puzzle.templates.CycleStructure;
+import com.github.sampeterson1.puzzle.templates.Puzzle;
 
-//Represents an algorithm (sequence of moves) for any twisty puzzle
+/*
+ * Represents an algorithm (sequence of moves) for any twisty puzzle
+ *
+ * Each move is packed into one number, which is kept in a short[] until a move doesn't fit in 16 bits, in an int[]
+ * until a move doesn't fit in 32 bits (only range moves need more) and in a long[] after that. The inverse and the
+ * parts of an algorithm are views of the same array, so an algorithm copies its moves the first time it is changed
+ * while they are shared.
+ */
 public class Algorithm {
 	
+	private static final Axis[] axes = Axis.values();
+	
+	//a move is packed as (end layer - layer) << 32 | (repetitions - 1) << 24 | layer << 7 | axis << 2 | cw << 1 | cube rotation
+	private static final int ROTATION_BIT = 1;
+	private static final int CW_BIT = 2;
+	private static final int AXIS_SHIFT = 2;
+	private static final int AXIS_MASK = 0x1F;
+	private static final int LAYER_SHIFT = 7;
+	private static final int MAX_LAYER = 0x1FFFF;
+	private static final int REPETITION_SHIFT = 24;
+	private static final int MAX_REPETITIONS = 256;
+	private static final int REPETITION_MASK = 0xFF;
+	private static final int RANGE_SHIFT = 32;
+	
+	private static final int MIN_CAPACITY = 8;
+	
 	public static Matrix3D getRotationFromAlgorithm(Algorithm alg) {
 		Matrix3D rotation = new Matrix3D();
 		
@@ -44,43 +71,151 @@ public class Algorithm {
 		return rotation;
 	}
 	
-	public List<Move> moves;
+	private static long pack(Move move) {
+		int layer = move.getLayer();
+		int repetitions = move.getRepetitions();
+		if(layer < 0 || move.getEndLayer() > MAX_LAYER) {
+			throw new IllegalArgumentException("Layer " + (layer < 0 ? layer : move.getEndLayer()) + " can't be stored in an algorithm");
+		}
+		if(repetitions < 1 || repetitions > MAX_REPETITIONS) {
+			throw new IllegalArgumentException("A move can't be repeated " + repetitions + " times in an algorithm");
+		}
+		
+		int packed = (repetitions - 1) << REPETITION_SHIFT | layer << LAYER_SHIFT | move.getAxis().ordinal() << AXIS_SHIFT;
+		if(move.isCW()) packed |= CW_BIT;
+		if(move.isCubeRotation()) packed |= ROTATION_BIT;
+		
+		return (long) (move.getEndLayer() - layer) << RANGE_SHIFT | (packed & 0xFFFFFFFFL);
+	}
+	
+	//returns the shared move of a MoveTable, which is only created if the move is repeated
+	private static Move unpack(long packed) {
+		Axis axis = axes[(int) (packed >> AXIS_SHIFT) & AXIS_MASK];
+		int layer = (int) (packed >> LAYER_SHIFT) & MAX_LAYER;
+		boolean cw = (packed & CW_BIT) != 0;
+		boolean isCubeRotation = (packed & ROTATION_BIT) != 0;
+		
+		int code = MoveTable.getCode(axis, layer, cw, isCubeRotation);
+		Move move = MoveTable.getSharedMove(axis.getPuzzleType(), code);
+		
+		int repetitions = ((int) (packed >>> REPETITION_SHIFT) & REPETITION_MASK) + 1;
+		return move.toLayer(layer + (int) (packed >>> RANGE_SHIFT)).repeated(repetitions);
+	}
+	
+	//exactly one of these holds the moves
+	private short[] shortMoves;
+	private int[] intMoves;
+	private long[] longMoves;
+	
+	//the moves of this algorithm are moves[offset] to moves[offset + length - 1], in reverse order and inverted if inverted is set
+	private int offset;
+	private int length;
+	private boolean inverted;
+	
+	//set when the array is also used by another algorithm
+	private boolean shared;
+	
+	private List<Move> moveList;
 	
 	public Algorithm(List<Move> moves) {
-		this.moves = moves;
+		this();
+		addMoves(moves);
 	}
 	
 	public Algorithm() {
-		this.moves = new ArrayList<Move>();
+		this.shortMoves = new short[MIN_CAPACITY];
+	}
+	
+	//creates a view of part of another algorithm
+	private Algorithm(Algorithm source, int offset, int length, boolean inverted) {
+		this.shortMoves = source.shortMoves;
+		this.intMoves = source.intMoves;
+		this.longMoves = source.longMoves;
+		this.offset = offset;
+		this.length = length;
+		this.inverted = inverted;
+		
+		this.shared = true;
+		source.shared = true;
 	}
 	
 	public Algorithm copy() {
 		Algorithm copy = new Algorithm();
-		for(Move move : moves) copy.addMove(move);
+		copy.copyMoves(this, Math.max(length, MIN_CAPACITY), 0);
 		
 		return copy;
 	}
 	
+	//returns the moves of this algorithm as a read-only list
 	public List<Move> getMoves() {
-		return this.moves;
+		if(moveList == null) {
+			moveList = new AbstractList<Move>() {
+				@Override
+				public Move get(int index) {
+					return getMove(index);
+				}
+				
+				@Override
+				public int size() {
+					return length;
+				}
+			};
+		}
+		
+		return moveList;
 	}
 	
 	public Move getMove(int index) {
-		return moves.get(index);
+		return unpack(getPacked(index));
 	}
 	
+	private long getPacked(int index) {
+		if(index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+		}
+		
+		if(inverted) return get(offset + length - 1 - index) ^ CW_BIT;
+		return get(offset + index);
+	}
+	
+	private long get(int arrayIndex) {
+		if(longMoves != null) return longMoves[arrayIndex];
+		if(intMoves != null) return intMoves[arrayIndex] & 0xFFFFFFFFL;
+		return shortMoves[arrayIndex] & 0xFFFF;
+	}
+	
+	//0 if the moves are in a short[], 1 for an int[] and 2 for a long[]
+	private int getWidth() {
+		if(longMoves != null) return 2;
+		if(intMoves != null) return 1;
+		return 0;
+	}
+	
+	private static int getWidth(long packed) {
+		if((packed >>> 15) == 0) return 0;
+		if((packed >>> 32) == 0) return 1;
+		return 2;
+	}
+	
+	//returns a view of the inverse of this algorithm
 	public Algorithm getInverse() {
-		Algorithm inv = new Algorithm();
-		for(int i = moves.size()-1; i >= 0; i --) {
-			inv.addMove(moves.get(i).getInverse());
+		return new Algorithm(this, offset, length, !inverted);
+	}
+	
+	//returns a view of the moves from start (inclusive) to end (exclusive)
+	public Algorithm subAlgorithm(int start, int end) {
+		if(start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException("Range " + start + " to " + end + " out of bounds for length " + length);
 		}
-		return inv;
+		
+		if(inverted) return new Algorithm(this, offset + length - end, end - start, true);
+		return new Algorithm(this, offset + start, end - start, false);
 	}
 	
 	public void append(Algorithm other) {
-		List<Move> otherMoves = other.getMoves();
-		for(Move move : otherMoves) {
-			moves.add(move);
+		int otherLength = other.length;
+		for(int i = 0; i < otherLength; i ++) {
+			addPacked(other.getPacked(i));
 		}
 	}
 	
@@ -88,17 +223,101 @@ public class Algorithm {
 		for(Move move : moves) addMove(move);
 	}
 	
+	//remove every move after the first length moves
+	public void truncate(int length) {
+		if(length < 0 || length > this.length) {
+			throw new IndexOutOfBoundsException("Length " + length + " out of bounds for length " + this.length);
+		}
+		
+		if(inverted) offset += this.length - length;
+		this.length = length;
+	}
+	
+	//returns this algorithm as a single permutation of the pieces of puzzles with the same type and size as the given one
+	public CompiledAlgorithm compile(Puzzle puzzle) {
+		return new CompiledAlgorithm(this, puzzle);
+	}
+	
+	/*
+	 * The number of times this algorithm has to be executed on a puzzle, starting from its current state,
+	 * before it is back where it started. This works on every puzzle; see cycleStructure.
+	 */
+	public long order(Puzzle puzzle) {
+		return cycleStructure(puzzle).getOrder();
+	}
+	
+	/*
+	 * The cycles that this algorithm moves the pieces of a puzzle in, starting from its current state. The puzzle
+	 * isn't changed. Only an algorithm that changes the shape of a Square-1 depends on the state it starts from
+	 * (see CompiledAlgorithm.getCycleStructure(Algorithm, Puzzle)). A FaceletCube is traced through its pieces.
+	 */
+	public CycleStructure cycleStructure(Puzzle puzzle) {
+		return CompiledAlgorithm.getCycleStructure(this, puzzle);
+	}
+	
 	public Move pop() {
-		return moves.remove(moves.size() - 1);
+		Move move = getMove(length - 1);
+		truncate(length - 1);
+		
+		return move;
 	}
 	
 	public Algorithm addMove(Move move) {
-		moves.add(move);
+		addPacked(pack(move));
 		return this;
 	}
 	
+	private void addPacked(long packed) {
+		int width = Math.max(getWidth(), getWidth(packed));
+		int capacity = (longMoves != null) ? longMoves.length : (intMoves != null) ? intMoves.length : shortMoves.length;
+		
+		if(shared || inverted || offset + length == capacity || width > getWidth()) {
+			copyMoves(this, Math.max(2 * length, MIN_CAPACITY), width);
+		}
+		
+		if(longMoves != null) {
+			longMoves[length] = packed;
+		} else if(intMoves != null) {
+			intMoves[length] = (int) packed;
+		} else {
+			shortMoves[length] = (short) packed;
+		}
+		length++;
+	}
+	
+	//replace the array of this algorithm with one (at least width wide) that holds the moves of an algorithm in order from index 0
+	private void copyMoves(Algorithm source, int capacity, int width) {
+		int sourceLength = source.length;
+		width = Math.max(width, source.getWidth());
+		
+		short[] newShortMoves = null;
+		int[] newIntMoves = null;
+		long[] newLongMoves = null;
+		
+		if(width == 2) {
+			newLongMoves = new long[capacity];
+			for(int i = 0; i < sourceLength; i ++) newLongMoves[i] = source.getPacked(i);
+		} else if(width == 1) {
+			newIntMoves = new int[capacity];
+			for(int i = 0; i < sourceLength; i ++) newIntMoves[i] = (int) source.getPacked(i);
+		} else if(source.inverted) {
+			newShortMoves = new short[capacity];
+			for(int i = 0; i < sourceLength; i ++) newShortMoves[i] = (short) source.getPacked(i);
+		} else {
+			newShortMoves = Arrays.copyOfRange(source.shortMoves, source.offset, source.offset + capacity);
+		}
+		
+		this.shortMoves = newShortMoves;
+		this.intMoves = newIntMoves;
+		this.longMoves = newLongMoves;
+		this.offset = 0;
+		this.length = sourceLength;
+		this.inverted = false;
+		this.shared = false;
+	}
+	
 	public int length() {
-		return this.moves.size();
+		return this.length;
 	}
 	
 }
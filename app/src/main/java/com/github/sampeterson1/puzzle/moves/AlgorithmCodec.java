@@ -0,0 +1,263 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.moves;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+
+/*
+ * A compact binary format for algorithms of any puzzle, written to and read from a ByteBuffer one move at a time.
+ *
+ * The header is the puzzle type and the puzzle size, followed by one entry for each move (or run of moves):
+ *	- a single move is its MoveTable code plus one, as a varint (7 bits per byte, low bits first)
+ *	- anything else is a 0 byte followed by the varints count, code, repetitions and the number of extra layers of a
+ *	  range move, which stands for count copies of the same move in a row
+ *	- the algorithm ends with a 0 byte and a count of 0
+ *
+ * Reading a move that is neither repeated nor a range move returns the shared move of the MoveTable, so a long
+ * algorithm can be read and written without creating an object for each move.
+ */
+public class AlgorithmCodec {
+
+	//the most bytes that writing one move can take: a 0 byte and four varints of up to 5 bytes each
+	public static final int MAX_ENTRY_BYTES = 21;
+
+	//the deepest layer that an algorithm can hold is 0x1FFFF
+	private static final int MAX_PUZZLE_SIZE = 0x20000;
+
+	private static final PuzzleType[] puzzleTypes = PuzzleType.values();
+
+	private PuzzleType puzzleType;
+	private int puzzleSize;
+
+	//the moves are looked up in the shared move tables, which are only as large as the deepest move read so far
+	private int numLayers;
+	private int movesPerLayer;
+
+	//the run of moves that hasn't been written yet
+	private Move runMove;
+	private int runLength;
+
+	//the move of the run that is being read, and the number of times it is still returned
+	private Move readRun;
+	private int readRemaining;
+
+	public AlgorithmCodec(PuzzleType puzzleType, int puzzleSize) {
+		this.puzzleType = puzzleType;
+		this.puzzleSize = puzzleSize;
+		this.numLayers = Math.max(puzzleSize, 1);
+		this.movesPerLayer = MoveTable.getTable(puzzleType, 1).getNumMoves();
+	}
+
+	public static void encode(Algorithm alg, PuzzleType puzzleType, int puzzleSize, ByteBuffer out) {
+		AlgorithmCodec codec = new AlgorithmCodec(puzzleType, puzzleSize);
+		codec.writeHeader(out);
+
+		for(int i = 0; i < alg.length(); i ++) {
+			codec.writeMove(alg.getMove(i), out);
+		}
+
+		codec.writeEnd(out);
+	}
+
+	public static Algorithm decode(ByteBuffer in) throws InvalidAlgorithmException {
+		AlgorithmCodec codec = readHeader(in);
+		Algorithm alg = new Algorithm();
+
+		Move move;
+		while((move = codec.readMove(in)) != null) {
+			try {
+				alg.addMove(move);
+			} catch(IllegalArgumentException e) {
+				//e.g. a move with more repetitions than an algorithm can hold
+				throw new InvalidAlgorithmException(e.getMessage());
+			}
+		}
+
+		return alg;
+	}
+
+	public void writeHeader(ByteBuffer out) {
+		putVarint(out, puzzleType.ordinal());
+		putVarint(out, puzzleSize);
+	}
+
+	//returns a codec for the puzzle type and size of a header, which is left unread if the buffer ends before it does
+	public static AlgorithmCodec readHeader(ByteBuffer in) throws InvalidAlgorithmException {
+		int start = in.position();
+		int type;
+		int size;
+		try {
+			type = getVarint(in, start);
+			size = getVarint(in, start);
+		} catch(BufferUnderflowException e) {
+			in.position(start);
+			throw e;
+		}
+
+		if(type >= puzzleTypes.length) {
+			throw new InvalidAlgorithmException("Invalid puzzle type " + type + " at byte " + start);
+		}
+		if(size > MAX_PUZZLE_SIZE) {
+			throw new InvalidAlgorithmException("Invalid puzzle size " + size + " at byte " + start);
+		}
+
+		return new AlgorithmCodec(puzzleTypes[type], size);
+	}
+
+	/*
+	 * Adds a move to the algorithm. A run of the same move is only written when a different move is added or the
+	 * algorithm ends, so there should be at least MAX_ENTRY_BYTES left in the buffer before every move.
+	 */
+	public void writeMove(Move move, ByteBuffer out) {
+		if(move.getAxis().getPuzzleType() != puzzleType || move.getEndLayer() >= numLayers) {
+			throw new IllegalArgumentException("The move can't be written for a " + puzzleType + " of size " + puzzleSize);
+		}
+
+		if(runLength > 0 && move.equals(runMove) && move.getRepetitions() == runMove.getRepetitions()) {
+			runLength++;
+			return;
+		}
+
+		writeRun(out);
+		runMove = move;
+		runLength = 1;
+	}
+
+	public void writeEnd(ByteBuffer out) {
+		writeRun(out);
+		out.put((byte) 0);
+		putVarint(out, 0);
+	}
+
+	private void writeRun(ByteBuffer out) {
+		if(runLength == 0) return;
+
+		int code = MoveTable.getCode(runMove);
+		int repetitions = runMove.getRepetitions();
+		int extraLayers = runMove.getEndLayer() - runMove.getLayer();
+
+		//a run of single moves is only written as one entry if that is shorter
+		int singleBytes = getVarintLength(code + 1);
+		int runBytes = 1 + getVarintLength(runLength) + getVarintLength(code)
+				+ getVarintLength(repetitions) + getVarintLength(extraLayers);
+
+		if(repetitions == 1 && extraLayers == 0 && (long) runLength * singleBytes <= runBytes) {
+			for(int i = 0; i < runLength; i ++) {
+				putVarint(out, code + 1);
+			}
+		} else {
+			out.put((byte) 0);
+			putVarint(out, runLength);
+			putVarint(out, code);
+			putVarint(out, repetitions);
+			putVarint(out, extraLayers);
+		}
+
+		runMove = null;
+		runLength = 0;
+	}
+
+	/*
+	 * Returns the next move, or null at the end of the algorithm. If the buffer ends in the middle of an entry,
+	 * its position is reset to the start of the entry and a BufferUnderflowException is thrown, so that the rest
+	 * of the entry can be added to the buffer before trying again.
+	 */
+	public Move readMove(ByteBuffer in) throws InvalidAlgorithmException {
+		if(readRemaining > 0) {
+			readRemaining--;
+			return readRun;
+		}
+
+		int start = in.position();
+		try {
+			int value = getVarint(in, start);
+			if(value != 0) return getMove(value - 1, start);
+
+			int count = getVarint(in, start);
+			if(count == 0) return null;
+
+			Move move = getMove(getVarint(in, start), start);
+			int repetitions = getVarint(in, start);
+			int endLayer = move.getLayer() + getVarint(in, start);
+			if(repetitions == 0 || endLayer < move.getLayer() || endLayer >= numLayers) {
+				throw new InvalidAlgorithmException("Invalid move at byte " + start);
+			}
+
+			readRun = move.toLayer(endLayer).repeated(repetitions);
+			readRemaining = count - 1;
+
+			return readRun;
+		} catch(BufferUnderflowException e) {
+			in.position(start);
+			throw e;
+		}
+	}
+
+	private Move getMove(int code, int start) throws InvalidAlgorithmException {
+		if(code < 0 || code >= (long) movesPerLayer * numLayers) {
+			throw new InvalidAlgorithmException("Invalid move code " + code + " at byte " + start);
+		}
+
+		return MoveTable.getSharedMove(puzzleType, code);
+	}
+
+	public PuzzleType getPuzzleType() {
+		return this.puzzleType;
+	}
+
+	public int getPuzzleSize() {
+		return this.puzzleSize;
+	}
+
+	private static void putVarint(ByteBuffer out, int value) {
+		while((value & ~0x7F) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	private static int getVarint(ByteBuffer in, int start) throws InvalidAlgorithmException {
+		int value = 0;
+		for(int shift = 0; shift < 32; shift += 7) {
+			int b = in.get();
+			value |= (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				if(value < 0) break;
+				return value;
+			}
+		}
+
+		throw new InvalidAlgorithmException("Invalid number at byte " + start);
+	}
+
+	private static int getVarintLength(int value) {
+		int length = 1;
+		while((value & ~0x7F) != 0) {
+			value >>>= 7;
+			length++;
+		}
+
+		return length;
+	}
+
+}
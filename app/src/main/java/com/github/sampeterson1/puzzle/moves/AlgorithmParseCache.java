@@ -0,0 +1,133 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.moves;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+
+/*
+ * A bounded cache of parsed algorithms, so that the same algorithm text (e.g. the OLL and PLL cases that are added
+ * every time a solver is created) is only parsed once. The least recently used algorithm is dropped when the cache
+ * is full, and long texts aren't cached at all.
+ *
+ * An algorithm is cached by its puzzle type, puzzle size, move replacements (compared by identity, since each puzzle
+ * type keeps a single map of them) and text. The cached algorithm is never handed out itself: every call returns a
+ * new view of it, which copies the moves the first time it is changed, so a caller can't change the cached moves.
+ */
+public class AlgorithmParseCache {
+
+	private static final int MAX_ENTRIES = 1024;
+	private static final int MAX_TEXT_LENGTH = 1024;
+
+	//parses a text that wasn't in the cache
+	@FunctionalInterface
+	public interface Parser {
+		public Algorithm parse(String text) throws InvalidAlgorithmException;
+	}
+
+	private static class Key {
+
+		private PuzzleType puzzleType;
+		private int puzzleSize;
+		private Map<String, String> moveReplacements;
+		private String text;
+
+		private Key(PuzzleType puzzleType, int puzzleSize, Map<String, String> moveReplacements, String text) {
+			this.puzzleType = puzzleType;
+			this.puzzleSize = puzzleSize;
+			this.moveReplacements = moveReplacements;
+			this.text = text;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof Key)) return false;
+
+			Key other = (Key) obj;
+			return puzzleType == other.puzzleType && puzzleSize == other.puzzleSize
+					&& moveReplacements == other.moveReplacements && text.equals(other.text);
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 31 * puzzleType.hashCode() + puzzleSize;
+			hash = 31 * hash + System.identityHashCode(moveReplacements);
+			return 31 * hash + text.hashCode();
+		}
+
+	}
+
+	private static final Map<Key, Algorithm> algorithms = new LinkedHashMap<Key, Algorithm>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Algorithm> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private static long hits;
+	private static long misses;
+
+	//returns the algorithm of a text, which is only parsed if it isn't in the cache
+	public static Algorithm parse(CharSequence text, Map<String, String> moveReplacements, int puzzleSize,
+			PuzzleType puzzleType, Parser parser) throws InvalidAlgorithmException {
+		if(text.length() > MAX_TEXT_LENGTH) return parser.parse(text.toString());
+
+		Key key = new Key(puzzleType, puzzleSize, moveReplacements, text.toString());
+		Algorithm alg;
+		synchronized(algorithms) {
+			alg = algorithms.get(key);
+			if(alg != null) hits++;
+		}
+
+		//the parser runs outside of the lock, so two threads may parse the same new text at once
+		if(alg == null) {
+			alg = parser.parse(key.text);
+			synchronized(algorithms) {
+				misses++;
+				algorithms.put(key, alg);
+			}
+		}
+
+		return alg.subAlgorithm(0, alg.length());
+	}
+
+	public static long getHits() {
+		synchronized(algorithms) {
+			return hits;
+		}
+	}
+
+	public static long getMisses() {
+		synchronized(algorithms) {
+			return misses;
+		}
+	}
+
+	public static void clear() {
+		synchronized(algorithms) {
+			algorithms.clear();
+			hits = 0;
+			misses = 0;
+		}
+	}
+
+}
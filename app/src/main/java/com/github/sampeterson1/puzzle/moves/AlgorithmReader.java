@@ -0,0 +1,183 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.moves;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+
+/*
+ * Reads an algorithm from a stream one move at a time, so that a long algorithm (e.g. the solution of a large cube)
+ * never has to be held in memory as a string or as a whole.
+ *
+ * Square-1 algorithms are read in (top, bottom)/ notation, such as /(3,0)/(-1,2)/. Every other puzzle type is read
+ * in universal algorithm notation, the same way as UniversalAlgorithmParser.
+ */
+public class AlgorithmReader implements Closeable {
+
+	private Reader in;
+
+	//the moves of the last token that was read, and the index of the next one to return
+	private Algorithm moves;
+	private int index;
+
+	//reads universal algorithm notation, or null for Square-1 notation
+	private AlgorithmTokenizer tokenizer;
+
+	//the next character of a Square-1 algorithm, or -1 if it hasn't been read yet
+	private int next;
+	private int offset;
+
+	public AlgorithmReader(Reader in, Map<String, String> moveReplacements, int puzzleSize, PuzzleType puzzleType)
+			throws InvalidAlgorithmException {
+		this.in = in;
+		this.next = -1;
+
+		if(puzzleType == PuzzleType.SQUARE1) {
+			this.moves = new Algorithm();
+		} else {
+			this.tokenizer = AlgorithmTokenizer.open(in, moveReplacements, puzzleSize, puzzleType,
+					UniversalAlgorithmParser.getAxes(puzzleType));
+			this.moves = tokenizer.getAlgorithm();
+		}
+	}
+
+	public AlgorithmReader(Reader in, int puzzleSize, PuzzleType puzzleType) throws InvalidAlgorithmException {
+		this(in, null, puzzleSize, puzzleType);
+	}
+
+	public AlgorithmReader(Reader in, PuzzleType puzzleType) throws InvalidAlgorithmException {
+		this(in, null, 0, puzzleType);
+	}
+
+	//returns the next move, or null at the end of the stream
+	public Move readMove() throws InvalidAlgorithmException, IOException {
+		while(index == moves.length()) {
+			moves.truncate(0);
+			index = 0;
+
+			boolean hasNext = (tokenizer == null) ? readSquare1Token() : tokenizer.parseNext();
+			if(!hasNext) return null;
+		}
+
+		return moves.getMove(index++);
+	}
+
+	//returns up to maxMoves of the next moves, or an empty algorithm at the end of the stream
+	public Algorithm readMoves(int maxMoves) throws InvalidAlgorithmException, IOException {
+		Algorithm alg = new Algorithm();
+
+		Move move;
+		while(alg.length() < maxMoves && (move = readMove()) != null) {
+			alg.addMove(move);
+		}
+
+		return alg;
+	}
+
+	//reads the rest of the stream
+	public Algorithm readAll() throws InvalidAlgorithmException, IOException {
+		return readMoves(Integer.MAX_VALUE);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	//adds the moves of the next / or (top, bottom) to the moves, or returns false at the end of the stream
+	private boolean readSquare1Token() throws InvalidAlgorithmException, IOException {
+		int c = skipWhitespace();
+		if(c == -1) return false;
+
+		if(c == '/') {
+			read();
+			moves.addMove(new Move(Axis.S1, true));
+		} else if(c == '(') {
+			read();
+			int top = readTurns();
+			expect(',');
+			int bottom = readTurns();
+			expect(')');
+
+			if(top != 0) moves.addMove(new Move(Axis.SU, top > 0).repeated(Math.abs(top)));
+			if(bottom != 0) moves.addMove(new Move(Axis.SD, bottom > 0).repeated(Math.abs(bottom)));
+		} else {
+			throw new InvalidAlgorithmException("Unexpected character '" + (char) c + "'", offset);
+		}
+
+		return true;
+	}
+
+	private int readTurns() throws InvalidAlgorithmException, IOException {
+		int c = skipWhitespace();
+		boolean negative = (c == '-');
+		if(negative || c == '+') {
+			read();
+			c = peek();
+		}
+
+		if(c < '0' || c > '9') {
+			throw new InvalidAlgorithmException("Expected a number of turns", offset);
+		}
+
+		int turns = 0;
+		while(c >= '0' && c <= '9') {
+			read();
+			turns = (10 * turns + (c - '0')) % 12;
+			c = peek();
+		}
+
+		return negative ? -turns : turns;
+	}
+
+	private void expect(char expected) throws InvalidAlgorithmException, IOException {
+		if(skipWhitespace() != expected) {
+			throw new InvalidAlgorithmException("Expected " + expected, offset);
+		}
+		read();
+	}
+
+	private int skipWhitespace() throws IOException {
+		int c = peek();
+		while(c != -1 && Character.isWhitespace(c)) {
+			read();
+			c = peek();
+		}
+
+		return c;
+	}
+
+	private int peek() throws IOException {
+		if(next == -1) next = in.read();
+		return next;
+	}
+
+	private int read() throws IOException {
+		int c = peek();
+		next = -1;
+		if(c != -1) offset++;
+
+		return c;
+	}
+
+}
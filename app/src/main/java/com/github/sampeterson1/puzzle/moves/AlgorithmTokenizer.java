@@ -0,0 +1,386 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.moves;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+
+/*
+ * Reads universal algorithm notation one character at a time and adds the moves straight to an algorithm.
+ *
+ * A move is a name followed by any of a number of repetitions, a ' to invert it and a layer range in brackets,
+ * such as R2', ~U or r[1,-2]. The name is either a move replacement or an axis, optionally preceded by ~ for a
+ * cube rotation. Moves are separated by whitespace.
+ *
+ * Move replacements are parsed once into templates of move codes for the first layer. The code of the same move
+ * on another layer is the template code plus the layer times the layer stride of the puzzle type's codes.
+ */
+class AlgorithmTokenizer {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAX_REPETITIONS = 1_000_000;
+
+	private static final Map<Map<String, String>, Map<PuzzleType, MoveTemplates>> templateCache =
+			new WeakHashMap<Map<String, String>, Map<PuzzleType, MoveTemplates>>();
+
+	//the move replacements of a puzzle type, or its axes when there are no replacements
+	private static class MoveTemplates {
+
+		private char[][] names;
+		private int[][] codes;
+
+		private MoveTemplates(int numNames) {
+			this.names = new char[numNames][];
+			this.codes = new int[numNames][];
+		}
+
+		//returns the codes of a name, or null if there is no template with the name
+		private int[] getCodes(char[] token, int start, int end) {
+			for(int i = 0; i < names.length; i ++) {
+				char[] name = names[i];
+				if(name.length != end - start) continue;
+
+				boolean matches = true;
+				for(int j = 0; j < name.length && matches; j ++) {
+					if(name[j] != token[start + j]) matches = false;
+				}
+
+				if(matches) return codes[i];
+			}
+
+			return null;
+		}
+
+	}
+
+	private static MoveTemplates createAxisTemplates(Map<String, Axis> axesByName) {
+		MoveTemplates axes = new MoveTemplates(axesByName.size());
+
+		int i = 0;
+		for(Map.Entry<String, Axis> entry : axesByName.entrySet()) {
+			axes.names[i] = entry.getKey().toCharArray();
+			axes.codes[i] = new int[] { MoveTable.getCode(entry.getValue(), 0, true, false) };
+			i ++;
+		}
+
+		return axes;
+	}
+
+	private static MoveTemplates getReplacementTemplates(Map<String, String> moveReplacements, PuzzleType puzzleType,
+			MoveTemplates axes) throws InvalidAlgorithmException {
+		synchronized(templateCache) {
+			Map<PuzzleType, MoveTemplates> templatesByType = templateCache.get(moveReplacements);
+			if(templatesByType == null) {
+				templatesByType = new EnumMap<PuzzleType, MoveTemplates>(PuzzleType.class);
+				templateCache.put(moveReplacements, templatesByType);
+			}
+
+			MoveTemplates templates = templatesByType.get(puzzleType);
+			if(templates == null) {
+				templates = createReplacementTemplates(moveReplacements, puzzleType, axes);
+				templatesByType.put(puzzleType, templates);
+			}
+
+			return templates;
+		}
+	}
+
+	private static MoveTemplates createReplacementTemplates(Map<String, String> moveReplacements, PuzzleType puzzleType,
+			MoveTemplates axes) throws InvalidAlgorithmException {
+		MoveTemplates templates = new MoveTemplates(moveReplacements.size());
+
+		int i = 0;
+		for(Map.Entry<String, String> entry : moveReplacements.entrySet()) {
+			Algorithm replacement = parseText(new AlgorithmTokenizer(entry.getValue(), null, 1, puzzleType, axes));
+
+			templates.names[i] = entry.getKey().toCharArray();
+			templates.codes[i] = new int[replacement.length()];
+			for(int j = 0; j < replacement.length(); j ++) {
+				templates.codes[i][j] = replacement.getMove(j).getCode();
+			}
+			i ++;
+		}
+
+		return templates;
+	}
+
+	private CharSequence text;
+	private Reader reader;
+
+	private char[] buffer;
+	private int bufferLength;
+	private int bufferIndex;
+
+	//the offset of the next character that will be read
+	private int offset;
+
+	private char[] token;
+	private int tokenLength;
+	private int tokenOffset;
+
+	private MoveTemplates replacements;
+	private MoveTemplates axes;
+
+	private int puzzleSize;
+	private MoveTable moveTable;
+
+	//the last layer read by parseLayer
+	private int layer;
+	private int layerStride;
+
+	private Algorithm alg;
+
+	private AlgorithmTokenizer(CharSequence text, Reader reader, int puzzleSize, PuzzleType puzzleType,
+			MoveTemplates axes) {
+		this.text = text;
+		this.reader = reader;
+		if(reader != null) this.buffer = new char[BUFFER_SIZE];
+
+		this.token = new char[16];
+		this.axes = axes;
+		this.puzzleSize = puzzleSize;
+		this.moveTable = MoveTable.getTable(puzzleType, puzzleSize);
+
+		Axis axis = moveTable.getAxis(0);
+		this.layerStride = MoveTable.getCode(axis, 1, false, false) - MoveTable.getCode(axis, 0, false, false);
+
+		this.alg = new Algorithm();
+	}
+
+	private AlgorithmTokenizer(CharSequence text, Reader reader, Map<String, String> moveReplacements,
+			int puzzleSize, PuzzleType puzzleType, Map<String, Axis> axesByName) throws InvalidAlgorithmException {
+		this(text, reader, puzzleSize, puzzleType, createAxisTemplates(axesByName));
+
+		if(moveReplacements != null) {
+			this.replacements = getReplacementTemplates(moveReplacements, puzzleType, axes);
+		}
+	}
+
+	static Algorithm parse(CharSequence text, Map<String, String> moveReplacements, int puzzleSize,
+			PuzzleType puzzleType, Map<String, Axis> axesByName) throws InvalidAlgorithmException {
+		return parseText(new AlgorithmTokenizer(text, null, moveReplacements, puzzleSize, puzzleType, axesByName));
+	}
+
+	static Algorithm parse(Reader reader, Map<String, String> moveReplacements, int puzzleSize,
+			PuzzleType puzzleType, Map<String, Axis> axesByName) throws InvalidAlgorithmException, IOException {
+		return open(reader, moveReplacements, puzzleSize, puzzleType, axesByName).parse();
+	}
+
+	//returns a tokenizer that reads moves from a stream one token at a time (see parseNext)
+	static AlgorithmTokenizer open(Reader reader, Map<String, String> moveReplacements, int puzzleSize,
+			PuzzleType puzzleType, Map<String, Axis> axesByName) throws InvalidAlgorithmException {
+		return new AlgorithmTokenizer(null, reader, moveReplacements, puzzleSize, puzzleType, axesByName);
+	}
+
+	private static Algorithm parseText(AlgorithmTokenizer tokenizer) throws InvalidAlgorithmException {
+		try {
+			return tokenizer.parse();
+		} catch(IOException e) {
+			//a CharSequence can't throw an IOException
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private Algorithm parse() throws InvalidAlgorithmException, IOException {
+		while(parseNext());
+		return alg;
+	}
+
+	//adds the moves of the next token to the algorithm, or returns false if there are no tokens left
+	boolean parseNext() throws InvalidAlgorithmException, IOException {
+		int c;
+		while((c = read()) != -1) {
+			if(Character.isWhitespace(c)) {
+				if(tokenLength > 0) return endToken();
+				continue;
+			}
+
+			if(tokenLength == 0) tokenOffset = offset - 1;
+			if(tokenLength == token.length) {
+				char[] newToken = new char[2 * token.length];
+				System.arraycopy(token, 0, newToken, 0, tokenLength);
+				token = newToken;
+			}
+
+			token[tokenLength++] = (char) c;
+		}
+
+		if(tokenLength > 0) return endToken();
+		return false;
+	}
+
+	private boolean endToken() throws InvalidAlgorithmException {
+		parseToken();
+		tokenLength = 0;
+
+		return true;
+	}
+
+	//the moves that have been parsed so far, which a caller reading one token at a time can take and truncate
+	Algorithm getAlgorithm() {
+		return this.alg;
+	}
+
+	private int read() throws IOException {
+		if(text != null) {
+			if(offset == text.length()) return -1;
+			return text.charAt(offset++);
+		}
+
+		if(bufferIndex == bufferLength) {
+			bufferLength = reader.read(buffer, 0, buffer.length);
+			bufferIndex = 0;
+			if(bufferLength <= 0) {
+				bufferLength = 0;
+				return -1;
+			}
+		}
+
+		offset++;
+		return buffer[bufferIndex++];
+	}
+
+	private void parseToken() throws InvalidAlgorithmException {
+		int nameEnd = 0;
+		while(nameEnd < tokenLength && !isModifier(token[nameEnd])) nameEnd++;
+
+		if(nameEnd == 0) {
+			throw new InvalidAlgorithmException("Missing move name", tokenOffset);
+		}
+
+		int repetitions = 0;
+		boolean invert = false;
+		int startLayer = 0;
+		int endLayer = 0;
+		boolean hasLayers = false;
+
+		int i = nameEnd;
+		while(i < tokenLength) {
+			char c = token[i];
+
+			if(c >= '0' && c <= '9') {
+				repetitions = 10 * repetitions + (c - '0');
+				if(repetitions > MAX_REPETITIONS) {
+					throw new InvalidAlgorithmException("Too many repetitions", tokenOffset + i);
+				}
+				i ++;
+			} else if(c == '\'') {
+				invert = true;
+				i ++;
+			} else if(c == '[' && !hasLayers) {
+				hasLayers = true;
+
+				i = parseLayer(i + 1);
+				startLayer = this.layer;
+				endLayer = startLayer;
+
+				if(i < tokenLength && token[i] == ',') {
+					int endLayerOffset = i + 1;
+					i = parseLayer(endLayerOffset);
+					endLayer = this.layer;
+
+					if(startLayer > endLayer) {
+						throw new InvalidAlgorithmException("Invalid layer range", tokenOffset + endLayerOffset);
+					}
+				}
+
+				if(i == tokenLength || token[i] != ']') {
+					throw new InvalidAlgorithmException("Expected ]", tokenOffset + i);
+				}
+				i ++;
+			} else {
+				throw new InvalidAlgorithmException("Unexpected character '" + c + "'", tokenOffset + i);
+			}
+		}
+
+		if(repetitions == 0) repetitions = 1;
+
+		int[] codes = null;
+		if(replacements != null) codes = replacements.getCodes(token, 0, nameEnd);
+
+		boolean isCubeRotation = false;
+		if(codes == null) {
+			isCubeRotation = (token[0] == '~');
+			int nameStart = isCubeRotation ? 1 : 0;
+
+			codes = axes.getCodes(token, nameStart, nameEnd);
+			if(codes == null) {
+				throw new InvalidAlgorithmException("Invalid move axis: " + new String(token, nameStart, nameEnd - nameStart),
+						tokenOffset + nameStart);
+			}
+		}
+
+		//an inverted move is the same moves in reverse order, each of them inverted
+		for(int r = 0; r < repetitions; r ++) {
+			for(int j = 0; j < codes.length; j ++) {
+				int code = codes[invert ? codes.length - 1 - j : j];
+				if(isCubeRotation) code |= 1;
+				if(invert) code = moveTable.getInverse(code);
+
+				if((code & 1) == 0) {
+					//the layers of a turn are turned together as one range move
+					alg.addMove(moveTable.getMove(code + startLayer * layerStride).toLayer(endLayer));
+					continue;
+				}
+
+				for(int k = 0; k <= endLayer - startLayer; k ++) {
+					int layer = invert ? endLayer - k : startLayer + k;
+					alg.addMove(moveTable.getMove(code + layer * layerStride));
+				}
+			}
+		}
+	}
+
+	private static boolean isModifier(char c) {
+		return (c == '\'' || c == '[' || (c >= '0' && c <= '9'));
+	}
+
+	//reads a layer, which counts from the other side of the puzzle if it is negative, and returns the index after it
+	private int parseLayer(int start) throws InvalidAlgorithmException {
+		int i = start;
+		boolean negative = (i < tokenLength && token[i] == '-');
+		if(negative) i ++;
+
+		int value = 0;
+		int digitsStart = i;
+		while(i < tokenLength && token[i] >= '0' && token[i] <= '9') {
+			value = 10 * value + (token[i] - '0');
+			if(value > puzzleSize) value = puzzleSize + 1;
+			i ++;
+		}
+
+		if(i == digitsStart) {
+			throw new InvalidAlgorithmException("Expected a layer", tokenOffset + i);
+		}
+
+		int layer = (negative && value > 0) ? puzzleSize - value : value;
+		if(layer < 0 || layer >= puzzleSize) {
+			throw new InvalidAlgorithmException("Invalid layer for puzzle size " + puzzleSize, tokenOffset + start);
+		}
+
+		this.layer = layer;
+		return i;
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.moves;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/*
+ * Writes algorithms to a stream one move at a time, so that a long algorithm (e.g. the solution of a large cube) can
+ * be written as it is found without building it as a string first. The text can be read back with AlgorithmReader.
+ *
+ * Moves are written in universal algorithm notation, separated by spaces, with the layers of a move in brackets
+ * if it doesn't turn the outer layer: R2' ~U F[1] r[1,3]. Square-1 moves are written in (top, bottom)/ notation,
+ * so the turns of the top and bottom layers are added up until the next slice or until the writer is flushed.
+ *
+ * The text is collected in a buffer and handed to the stream a few thousand characters at a time, so it only
+ * appears in the stream once the buffer fills up or the writer is flushed.
+ */
+public class AlgorithmWriter implements Closeable, Flushable {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private Appendable out;
+	private boolean empty;
+
+	private char[] buffer;
+	private int bufferLength;
+
+	//the turns of the Square-1 layers since the last slice
+	private int top;
+	private int bottom;
+	private boolean hasLayerTurns;
+	private boolean afterSlice;
+
+	private char[] digits;
+
+	public AlgorithmWriter(Appendable out) {
+		this.out = out;
+		this.empty = true;
+		this.buffer = new char[BUFFER_SIZE];
+		this.digits = new char[11];
+	}
+
+	//returns an algorithm as a string in the same notation
+	public static String toString(Algorithm alg) {
+		StringBuilder str = new StringBuilder();
+		AlgorithmWriter writer = new AlgorithmWriter(str);
+
+		try {
+			writer.write(alg).flush();
+		} catch(IOException e) {
+			//a StringBuilder can't throw an IOException
+			throw new IllegalStateException(e);
+		}
+
+		return str.toString();
+	}
+
+	public AlgorithmWriter write(Algorithm alg) throws IOException {
+		for(int i = 0; i < alg.length(); i ++) {
+			write(alg.getMove(i));
+		}
+
+		return this;
+	}
+
+	public AlgorithmWriter write(Move move) throws IOException {
+		Axis axis = move.getAxis();
+		if(axis == Axis.S1 || axis == Axis.SU || axis == Axis.SD) {
+			writeSquare1Move(move);
+			return this;
+		}
+
+		writeLayerTurns();
+		if(!empty) append(' ');
+		empty = false;
+		afterSlice = false;
+
+		if(move.isCubeRotation()) append('~');
+		append(axis.getName());
+		if(move.getRepetitions() > 1) appendInt(move.getRepetitions());
+		if(move.isCCW()) append('\'');
+
+		if(move.getLayer() != 0 || move.isRangeMove()) {
+			append('[');
+			appendInt(move.getLayer());
+			if(move.isRangeMove()) {
+				append(',');
+				appendInt(move.getEndLayer());
+			}
+			append(']');
+		}
+
+		return this;
+	}
+
+	private void writeSquare1Move(Move move) throws IOException {
+		int turns = move.isCW() ? move.getRepetitions() : -move.getRepetitions();
+
+		if(move.getAxis() == Axis.SU) {
+			top = (top + turns) % 12;
+			hasLayerTurns = true;
+		} else if(move.getAxis() == Axis.SD) {
+			bottom = (bottom + turns) % 12;
+			hasLayerTurns = true;
+		} else {
+			for(int i = 0; i < move.getRepetitions(); i ++) {
+				//two slices in a row are written with an empty turn between them, as /(0,0)/
+				if(afterSlice) hasLayerTurns = true;
+				writeLayerTurns();
+
+				append('/');
+				empty = false;
+				afterSlice = true;
+			}
+		}
+	}
+
+	//writes the Square-1 layer turns since the last slice as (top,bottom)
+	private void writeLayerTurns() throws IOException {
+		if(!hasLayerTurns) return;
+
+		append('(');
+		appendInt(top);
+		append(',');
+		appendInt(bottom);
+		append(')');
+
+		empty = false;
+		afterSlice = false;
+		hasLayerTurns = false;
+		top = 0;
+		bottom = 0;
+	}
+
+	//appends an int without creating a string for it
+	private void appendInt(int value) throws IOException {
+		if(value < 0) {
+			append('-');
+			value = -value;
+		}
+
+		int i = digits.length;
+		do {
+			digits[--i] = (char) ('0' + value % 10);
+			value /= 10;
+		} while(value > 0);
+
+		for(; i < digits.length; i ++) {
+			append(digits[i]);
+		}
+	}
+
+	private void append(char c) throws IOException {
+		if(bufferLength == buffer.length) writeBuffer();
+		buffer[bufferLength++] = c;
+	}
+
+	private void append(String str) throws IOException {
+		for(int i = 0; i < str.length(); i ++) {
+			append(str.charAt(i));
+		}
+	}
+
+	private void writeBuffer() throws IOException {
+		if(out instanceof Writer) {
+			((Writer) out).write(buffer, 0, bufferLength);
+		} else {
+			out.append(CharBuffer.wrap(buffer, 0, bufferLength));
+		}
+		bufferLength = 0;
+	}
+
+	//writes the pending Square-1 layer turns and the buffer, and flushes the stream if it can be flushed
+	@Override
+	public void flush() throws IOException {
+		writeLayerTurns();
+		writeBuffer();
+		if(out instanceof Flushable) ((Flushable) out).flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flush();
+		if(out instanceof Closeable) ((Closeable) out).close();
+	}
+
+}
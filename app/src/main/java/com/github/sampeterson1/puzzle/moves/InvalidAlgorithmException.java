@@ -2,6 +2,9 @@ package com.github.sampeterson1.puzzle.moves;
 
 public class InvalidAlgorithmException extends Exception {
   
+    //the character offset of the error in the parsed text, or -1 if it isn't known
+    private int offset = -1;
+  
     public InvalidAlgorithmException() {
         super();
     }
@@ -10,4 +13,13 @@ public class InvalidAlgorithmException extends Exception {
         super(message);
     }
 
+    public InvalidAlgorithmException(String message, int offset) {
+        super(message + " at character " + offset);
+        this.offset = offset;
+    }
+
+    public int getOffset() {
+        return this.offset;
+    }
+
 }
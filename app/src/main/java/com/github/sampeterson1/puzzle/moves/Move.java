@@ -23,21 +23,31 @@ import java.util.List;
 
 import com.github.sampeterson1.puzzle.lib.Rotateable;
 
+/*
+ * A single turn of one layer or a range of layers (or a rotation of the whole puzzle) around an axis, optionally repeated.
+ * Moves are immutable, so the shared moves of a MoveTable can be handed out freely.
+ */
 public class Move {
 	
-	private boolean isCubeRotation;
-	private boolean cw;
+	private final boolean isCubeRotation;
+	private final boolean cw;
 	
+	private final int layer;
+	private final Axis axis;
+	
+	//the last layer turned by a range move, or the same as layer
+	private int endLayer;
 	private int repetitions;
-	private int layer;
 	
-	private Axis axis;
+	//set by MoveTable, or created the first time getInverse is called, so that undoing a move does not allocate
+	private Move inverse;
 	
 	public Move(Axis axis, int layer, boolean cw, boolean isCubeRotation) {
 		this.axis = axis;
 		this.layer = layer;
 		this.cw = cw;
 		this.isCubeRotation = isCubeRotation;
+		this.endLayer = layer;
 		this.repetitions = 1;
 	}
 	
@@ -57,15 +67,48 @@ public class Move {
 		List<Move> moves = new ArrayList<Move>();
 		
 		for(int i = 0; i < repetitions; i ++) {
-			moves.add(new Move(axis, layer, cw, isCubeRotation));
+			moves.add(new Move(axis, layer, cw, isCubeRotation).toLayer(endLayer));
 		}
 		
 		return moves;
 	}
 	
+	//returns a move that applies this move a number of times
 	public Move repeated(int repetitions) {
-		this.repetitions = repetitions;
-		return this;
+		if(repetitions == this.repetitions) return this;
+		
+		Move move = new Move(axis, layer, cw, isCubeRotation);
+		move.endLayer = endLayer;
+		move.repetitions = repetitions;
+		
+		return move;
+	}
+	
+	//returns a move that turns every layer from this move's layer to endLayer at once
+	public Move toLayer(int endLayer) {
+		if(endLayer == this.endLayer) return this;
+		if(endLayer < layer) {
+			throw new IllegalArgumentException("A range move can't end at layer " + endLayer + " before layer " + layer);
+		}
+		
+		Move move = new Move(axis, layer, cw, isCubeRotation);
+		move.endLayer = endLayer;
+		move.repetitions = repetitions;
+		
+		return move;
+	}
+	
+	//returns true if this move turns more than one layer
+	public boolean isRangeMove() {
+		return (endLayer != layer);
+	}
+	
+	public int getEndLayer() {
+		return this.endLayer;
+	}
+	
+	public int getRepetitions() {
+		return this.repetitions;
 	}
 	
 	public boolean isCubeRotation() {
@@ -88,13 +131,34 @@ public class Move {
 		return this.axis;
 	}
 	
+	public int getCode() {
+		return MoveTable.getCode(this);
+	}
+	
+	void setInverse(Move inverse) {
+		this.inverse = inverse;
+	}
+	
 	public Move getInverse() {
-		return new Move(axis, layer, !cw, isCubeRotation);
+		if(inverse == null) {
+			inverse = new Move(axis, layer, !cw, isCubeRotation);
+			inverse.endLayer = endLayer;
+			inverse.repetitions = repetitions;
+			inverse.inverse = this;
+		}
+		
+		return inverse;
 	}
 	
 	public Move transpose(Rotateable puzzle) {
 		Axis newFace = puzzle.transposeAxis(axis);
-		return new Move(newFace, layer, cw, isCubeRotation);
+		if(newFace == axis) return this;
+		
+		Move move = new Move(newFace, layer, cw, isCubeRotation);
+		move.endLayer = endLayer;
+		move.repetitions = repetitions;
+		
+		return move;
 	}
 	
 	@Override
@@ -107,7 +171,13 @@ public class Move {
 			return false;
 		
 		Move other = (Move) obj;
-		return cw == other.cw && axis == other.axis && isCubeRotation == other.isCubeRotation && layer == other.layer;
+		return cw == other.cw && axis == other.axis && isCubeRotation == other.isCubeRotation && layer == other.layer
+				&& endLayer == other.endLayer;
+	}
+	
+	@Override
+	public int hashCode() {
+		return getCode();
 	}
 
 	
@@ -0,0 +1,255 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.moves;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+import com.github.sampeterson1.puzzle.lib.Rotateable;
+
+/*
+ * Holds one shared Move for every (axis, layer, direction, cube rotation) of a puzzle type and size,
+ * and gives each of them a dense int code.
+ *
+ * A code is ((layer * numAxes + axisIndex) * 2 + direction) * 2 + rotation, where axisIndex is the index of
+ * the axis among the axes of its puzzle type, direction is 1 for clockwise moves and rotation is 1 for cube
+ * rotations. Codes do not depend on the puzzle size, so the same code means the same move on every table of
+ * a puzzle type; a bigger puzzle only has more of them. The inverse of a code only flips its direction bit.
+ */
+public class MoveTable {
+
+	private static final Map<PuzzleType, Axis[]> axesByType = initAxesByType();
+	private static final int[] axisIndices = initAxisIndices();
+
+	private static final Map<PuzzleType, Map<Integer, MoveTable>> tables =
+			new EnumMap<PuzzleType, Map<Integer, MoveTable>>(PuzzleType.class);
+	
+	/*
+	 * The table of each puzzle type with the most layers, which has a move for every code that has been used so far.
+	 * It is only written while holding the lock of getTable, but it is read without it by getSharedMove on every
+	 * move of an Algorithm, so a table has to be safely published to other threads.
+	 */
+	private static final AtomicReferenceArray<MoveTable> largestTables = new AtomicReferenceArray<MoveTable>(PuzzleType.values().length);
+
+	private static Map<PuzzleType, Axis[]> initAxesByType() {
+		Map<PuzzleType, Axis[]> axesByType = new EnumMap<PuzzleType, Axis[]>(PuzzleType.class);
+
+		for(PuzzleType type : PuzzleType.values()) {
+			List<Axis> axes = new ArrayList<Axis>();
+			for(Axis axis : Axis.values()) {
+				if(axis.getPuzzleType() == type) axes.add(axis);
+			}
+
+			axesByType.put(type, axes.toArray(new Axis[axes.size()]));
+		}
+
+		return axesByType;
+	}
+
+	private static int[] initAxisIndices() {
+		int[] indices = new int[Axis.values().length];
+
+		for(Axis[] axes : axesByType.values()) {
+			for(int i = 0; i < axes.length; i ++) {
+				indices[axes[i].ordinal()] = i;
+			}
+		}
+
+		return indices;
+	}
+
+	private final PuzzleType type;
+	private final Axis[] axes;
+	private final int numLayers;
+
+	private final Move[] moves;
+	private final int[] inverses;
+
+	private MoveTable(PuzzleType type, int numLayers) {
+		this.type = type;
+		this.axes = axesByType.get(type);
+		this.numLayers = numLayers;
+
+		int numMoves = numLayers * axes.length * 4;
+		this.moves = new Move[numMoves];
+		this.inverses = new int[numMoves];
+
+		for(int code = 0; code < numMoves; code ++) {
+			moves[code] = new Move(getAxis(code), getLayer(code), isCW(code), isCubeRotation(code));
+			inverses[code] = code ^ 2;
+		}
+
+		for(int code = 0; code < numMoves; code ++) {
+			moves[code].setInverse(moves[inverses[code]]);
+		}
+	}
+
+	//returns the (shared) move table of a puzzle type, for puzzles that can turn numLayers layers around each axis
+	public static synchronized MoveTable getTable(PuzzleType type, int numLayers) {
+		numLayers = Math.max(numLayers, 1);
+
+		Map<Integer, MoveTable> tablesBySize = tables.get(type);
+		if(tablesBySize == null) {
+			tablesBySize = new HashMap<Integer, MoveTable>();
+			tables.put(type, tablesBySize);
+		}
+
+		MoveTable table = tablesBySize.get(numLayers);
+		if(table == null) {
+			table = new MoveTable(type, numLayers);
+			tablesBySize.put(numLayers, table);
+			
+			MoveTable largest = largestTables.get(type.ordinal());
+			if(largest == null || largest.numLayers < numLayers) largestTables.set(type.ordinal(), table);
+		}
+
+		return table;
+	}
+	
+	//returns a shared move by its code without needing a table of the right size
+	public static Move getSharedMove(PuzzleType type, int code) {
+		MoveTable table = largestTables.get(type.ordinal());
+		if(table == null || code >= table.moves.length) {
+			int numAxes = axesByType.get(type).length;
+			table = getTable(type, code / (numAxes * 4) + 1);
+		}
+		
+		return table.moves[code];
+	}
+
+	public static int getCode(Axis axis, int layer, boolean cw, boolean isCubeRotation) {
+		int numAxes = axesByType.get(axis.getPuzzleType()).length;
+		int code = (layer * numAxes + axisIndices[axis.ordinal()]) * 2 + (cw ? 1 : 0);
+
+		return code * 2 + (isCubeRotation ? 1 : 0);
+	}
+
+	//repetitions are ignored, the code is that of a single move
+	public static int getCode(Move move) {
+		return getCode(move.getAxis(), move.getLayer(), move.isCW(), move.isCubeRotation());
+	}
+
+	public PuzzleType getType() {
+		return this.type;
+	}
+
+	public int getNumLayers() {
+		return this.numLayers;
+	}
+
+	public int getNumMoves() {
+		return this.moves.length;
+	}
+
+	public Move getMove(int code) {
+		return moves[code];
+	}
+
+	/*
+	 * Returns the shared move with the given properties. Moves that don't fit in this table
+	 * (an axis of another puzzle type or a layer that is too deep) are created instead.
+	 */
+	public Move getMove(Axis axis, int layer, boolean cw, boolean isCubeRotation) {
+		if(axis.getPuzzleType() != type || layer < 0 || layer >= numLayers) {
+			return new Move(axis, layer, cw, isCubeRotation);
+		}
+
+		return moves[getCode(axis, layer, cw, isCubeRotation)];
+	}
+
+	public Move getMove(Axis axis, boolean cw, boolean isCubeRotation) {
+		return getMove(axis, 0, cw, isCubeRotation);
+	}
+
+	public Move getMove(Axis axis, int layer, boolean cw) {
+		return getMove(axis, layer, cw, false);
+	}
+
+	public Move getMove(Axis axis, boolean cw) {
+		return getMove(axis, 0, cw, false);
+	}
+
+	//returns the shared single move that matches a move
+	public Move getMove(Move move) {
+		return getMove(move.getAxis(), move.getLayer(), move.isCW(), move.isCubeRotation());
+	}
+
+	public int getInverse(int code) {
+		return inverses[code];
+	}
+
+	//returns the code of a move after the axis has been mapped through a puzzle's rotations
+	public int transpose(int code, Rotateable puzzle) {
+		Axis axis = puzzle.transposeAxis(getAxis(code));
+		return getCode(axis, getLayer(code), isCW(code), isCubeRotation(code));
+	}
+
+	public Axis getAxis(int code) {
+		return axes[(code >> 2) % axes.length];
+	}
+
+	public int getLayer(int code) {
+		return (code >> 2) / axes.length;
+	}
+
+	public boolean isCW(int code) {
+		return (code & 2) != 0;
+	}
+
+	public boolean isCubeRotation(int code) {
+		return (code & 1) != 0;
+	}
+
+	//returns the codes of the moves in an algorithm, with repeated and range moves written out one layer turn at a time
+	public int[] getCodes(Algorithm alg) {
+		int length = 0;
+		for(int i = 0; i < alg.length(); i ++) {
+			Move move = alg.getMove(i);
+			length += move.getRepetitions() * (move.getEndLayer() - move.getLayer() + 1);
+		}
+
+		int[] codes = new int[length];
+		int i = 0;
+		for(int k = 0; k < alg.length(); k ++) {
+			Move move = alg.getMove(k);
+			for(int j = 0; j < move.getRepetitions(); j ++) {
+				for(int layer = move.getLayer(); layer <= move.getEndLayer(); layer ++) {
+					codes[i++] = getCode(move.getAxis(), layer, move.isCW(), move.isCubeRotation());
+				}
+			}
+		}
+
+		return codes;
+	}
+
+	public Algorithm getAlgorithm(int[] codes) {
+		Algorithm alg = new Algorithm();
+		for(int code : codes) {
+			alg.addMove(moves[code]);
+		}
+
+		return alg;
+	}
+
+}
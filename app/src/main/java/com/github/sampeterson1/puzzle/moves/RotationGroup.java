@@ -0,0 +1,226 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.moves;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+
+/*
+ * The group of whole-puzzle rotations of a puzzle type (24 elements for a cube, 12 for a tetrahedron).
+ *
+ * An element is an int that stands for the current orientation of a puzzle: it maps every move axis to the
+ * axis it has been rotated to, which is what Rotateable.transposeAxis returns. Element 0 is the unrotated puzzle.
+ * The group is found once per puzzle type by rotating the identity with every cube rotation until no new
+ * elements appear, so rotating, transposing an axis and finding the rotations between two orientations are
+ * all table lookups afterwards.
+ */
+public class RotationGroup {
+
+	private static final Map<PuzzleType, RotationGroup> groups = new EnumMap<PuzzleType, RotationGroup>(PuzzleType.class);
+
+	private Axis[] axes;
+	private int[] axisIndices;
+
+	//the cube rotations of this puzzle type (each axis, clockwise and counterclockwise)
+	private Move[] generators;
+
+	//transpositions[element][axis] holds the index of the axis that the given axis is mapped to
+	private int[][] transpositions;
+
+	//products[element][generator] holds the element reached by making a rotation
+	private int[][] products;
+
+	//paths[element] holds the fewest rotations that reach an element from the unrotated puzzle
+	private Move[][] paths;
+
+	//quotients[a][b] holds the element whose path takes a puzzle at orientation a to orientation b
+	private int[][] quotients;
+
+	/*
+	 * mapFace maps an axis through one cube rotation the same way that the puzzle's
+	 * transposeAxis did for every rotation in its rotation list
+	 */
+	private RotationGroup(PuzzleType type, BiFunction<Axis, Move, Axis> mapFace) {
+		List<Axis> typeAxes = new ArrayList<Axis>();
+		for(Axis axis : Axis.values()) {
+			if(axis.getPuzzleType() == type) typeAxes.add(axis);
+		}
+
+		this.axes = typeAxes.toArray(new Axis[typeAxes.size()]);
+		this.axisIndices = new int[Axis.values().length];
+		for(int i = 0; i < axes.length; i ++) {
+			axisIndices[axes[i].ordinal()] = i;
+		}
+
+		MoveTable moveTable = MoveTable.getTable(type, 1);
+		this.generators = new Move[2 * axes.length];
+		for(int i = 0; i < axes.length; i ++) {
+			generators[2 * i] = moveTable.getMove(axes[i], true, true);
+			generators[2 * i + 1] = moveTable.getMove(axes[i], false, true);
+		}
+
+		//each rotation prepends its inverse to the rotation list, so it maps axes by its inverse before the rest
+		int[][] generatorMaps = new int[generators.length][axes.length];
+		for(int i = 0; i < generators.length; i ++) {
+			for(int j = 0; j < axes.length; j ++) {
+				generatorMaps[i][j] = axisIndices[mapFace.apply(axes[j], generators[i].getInverse()).ordinal()];
+			}
+		}
+
+		createGroup(generatorMaps);
+		createQuotients();
+	}
+
+	//returns the (shared) rotation group of a puzzle type, creating it with mapFace if needed
+	public static synchronized RotationGroup getGroup(PuzzleType type, BiFunction<Axis, Move, Axis> mapFace) {
+		RotationGroup group = groups.get(type);
+		if(group == null) {
+			group = new RotationGroup(type, mapFace);
+			groups.put(type, group);
+		}
+
+		return group;
+	}
+
+	//a breadth first search from the identity, so that every path is as short as possible
+	private void createGroup(int[][] generatorMaps) {
+		List<int[]> elements = new ArrayList<int[]>();
+		List<Move[]> elementPaths = new ArrayList<Move[]>();
+		Map<String, Integer> indices = new HashMap<String, Integer>();
+
+		int[] identity = new int[axes.length];
+		for(int i = 0; i < axes.length; i ++) identity[i] = i;
+
+		elements.add(identity);
+		elementPaths.add(new Move[0]);
+		indices.put(Arrays.toString(identity), 0);
+
+		List<int[]> elementProducts = new ArrayList<int[]>();
+		for(int element = 0; element < elements.size(); element ++) {
+			int[] transposition = elements.get(element);
+			int[] elementProduct = new int[generators.length];
+
+			for(int i = 0; i < generators.length; i ++) {
+				int[] product = new int[axes.length];
+				for(int j = 0; j < axes.length; j ++) {
+					product[j] = transposition[generatorMaps[i][j]];
+				}
+
+				String key = Arrays.toString(product);
+				Integer index = indices.get(key);
+				if(index == null) {
+					index = elements.size();
+					indices.put(key, index);
+					elements.add(product);
+
+					Move[] path = Arrays.copyOf(elementPaths.get(element), elementPaths.get(element).length + 1);
+					path[path.length - 1] = generators[i];
+					elementPaths.add(path);
+				}
+
+				elementProduct[i] = index;
+			}
+
+			elementProducts.add(elementProduct);
+		}
+
+		int size = elements.size();
+		this.transpositions = elements.toArray(new int[size][]);
+		this.products = elementProducts.toArray(new int[size][]);
+		this.paths = elementPaths.toArray(new Move[size][]);
+	}
+
+	/*
+	 * Following the path of element d from orientation a reaches the orientation a * d,
+	 * so the path from a to b is the path of a^-1 * b.
+	 */
+	private void createQuotients() {
+		int size = transpositions.length;
+		int[] inverses = new int[size];
+		for(int element = 0; element < size; element ++) {
+			inverses[element] = findElement(invert(transpositions[element]));
+		}
+
+		this.quotients = new int[size][size];
+		for(int a = 0; a < size; a ++) {
+			int[] inverse = transpositions[inverses[a]];
+			for(int b = 0; b < size; b ++) {
+				int[] quotient = new int[axes.length];
+				for(int i = 0; i < axes.length; i ++) {
+					quotient[i] = inverse[transpositions[b][i]];
+				}
+
+				quotients[a][b] = findElement(quotient);
+			}
+		}
+	}
+
+	private int[] invert(int[] transposition) {
+		int[] inverse = new int[transposition.length];
+		for(int i = 0; i < transposition.length; i ++) {
+			inverse[transposition[i]] = i;
+		}
+
+		return inverse;
+	}
+
+	private int findElement(int[] transposition) {
+		for(int element = 0; element < transpositions.length; element ++) {
+			if(Arrays.equals(transpositions[element], transposition)) return element;
+		}
+
+		return -1;
+	}
+
+	public int getSize() {
+		return this.transpositions.length;
+	}
+
+	//returns the orientation of a puzzle at the given orientation after it makes a cube rotation
+	public int rotate(int element, Move rotation) {
+		int generator = 2 * axisIndices[rotation.getAxis().ordinal()] + (rotation.isCW() ? 0 : 1);
+		return products[element][generator];
+	}
+
+	//returns the orientation reached by making the rotations of one element from the orientation of another
+	public int multiply(int element, int rotation) {
+		for(Move move : paths[rotation]) {
+			element = rotate(element, move);
+		}
+
+		return element;
+	}
+
+	public Axis transposeAxis(int element, Axis axis) {
+		return axes[transpositions[element][axisIndices[axis.ordinal()]]];
+	}
+
+	//returns the cube rotations that take a puzzle from one orientation to another
+	public Move[] getPath(int from, int to) {
+		return paths[quotients[from][to]];
+	}
+
+}
@@ -0,0 +1,486 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.templates;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.sampeterson1.puzzle.lib.Color;
+import com.github.sampeterson1.puzzle.lib.Piece;
+import com.github.sampeterson1.puzzle.lib.PieceType;
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+import com.github.sampeterson1.puzzle.lib.ZobristKeys;
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.RotationGroup;
+
+/*
+ * An algorithm turned into its net effect on the pieces of one type and size of puzzle,
+ * so that it can be executed in a single pass over the pieces that it moves (see Puzzle.executeAlgorithm).
+ *
+ * An algorithm is compiled by executing it once on a copy of a puzzle whose pieces are colored with the
+ * indices of their colors. For every piece that one of its moves affected, the slot (type, position and index)
+ * it started in is recorded along with the slot it ended up in and where each of its colors went.
+ *
+ * Before a compiled algorithm is applied, each of those starting slots must hold a piece. This is always true
+ * for puzzles with a fixed set of slots (cubes, pyraminxes...), but a Square-1 in a different shape than the
+ * one the algorithm was compiled on can have empty slots, so it executes the algorithm move by move instead.
+ * Puzzles that don't store their state in pieces (FaceletCube) are compiled through the pieces that they
+ * report, but always execute the algorithm move by move.
+ *
+ * Composing two compiled algorithms (and so raising one to a power) only composes their pieces and rotations. The
+ * moves of the result are the moves of both algorithms, but they are only written out when getAlgorithm() is called.
+ *
+ * A compiled algorithm isn't changed by applying it, so one can be shared between puzzles on different threads.
+ */
+public class CompiledAlgorithm {
+
+	private static final Color[] colors = Color.values();
+	private static final PieceType[] pieceTypes = PieceType.values();
+	private static final int MAX_COLORS = initMaxColors();
+
+	private static int initMaxColors() {
+		int maxColors = 0;
+		for(PieceType type : pieceTypes) {
+			maxColors = Math.max(maxColors, type.getNumColors());
+		}
+
+		return maxColors;
+	}
+
+	private static long getKey(PieceType type, int position, int index) {
+		return ((long) type.ordinal() << 48) | ((long) position << 24) | index;
+	}
+
+	//the moves of the algorithm, or null if it is the composition of first and second
+	private Algorithm algorithm;
+	private CompiledAlgorithm first;
+	private CompiledAlgorithm second;
+
+	private PuzzleType type;
+	private int numLayers;
+
+	//the slots of the affected pieces before the algorithm
+	private PieceType[] types;
+	private int[] positions;
+	private int[] indices;
+
+	//where each of those pieces ends up, and its new color j is its old color colorMaps[slot][j]
+	private int[] targetPositions;
+	private int[] targetIndices;
+	private byte[][] colorMaps;
+
+	//the slots whose pieces are moved or recolored
+	private int[] movedSlots;
+
+	//the net cube rotation of the algorithm, as an element of the puzzle's rotation group (if it has one)
+	private RotationGroup rotationGroup;
+	private int rotation;
+
+	public CompiledAlgorithm(Algorithm algorithm, Puzzle puzzle) {
+		this.algorithm = algorithm;
+		this.type = puzzle.getType();
+		this.numLayers = puzzle.getNumLayers();
+		this.rotationGroup = puzzle.getRotationGroup();
+
+		if(rotationGroup != null) {
+			for(Move move : algorithm.getMoves()) {
+				if(!move.isCubeRotation()) continue;
+				for(int i = 0; i < move.getRepetitions(); i ++) {
+					rotation = rotationGroup.rotate(rotation, move);
+				}
+			}
+		}
+
+		compile(puzzle);
+	}
+
+	//creates an algorithm with no moves (that hasn't been given any slots yet)
+	private CompiledAlgorithm(CompiledAlgorithm template) {
+		this.algorithm = new Algorithm();
+		this.type = template.type;
+		this.numLayers = template.numLayers;
+		this.rotationGroup = template.rotationGroup;
+	}
+
+	//creates the composition of two algorithms (that hasn't been given any slots yet)
+	private CompiledAlgorithm(CompiledAlgorithm first, CompiledAlgorithm second) {
+		this.first = first;
+		this.second = second;
+		this.type = first.type;
+		this.numLayers = first.numLayers;
+		this.rotationGroup = first.rotationGroup;
+		if(rotationGroup != null) this.rotation = rotationGroup.multiply(first.rotation, second.rotation);
+	}
+
+	private void compile(Puzzle puzzle) {
+		Puzzle trace = puzzle.createInstance();
+		trace.restore(puzzle.snapshot());
+
+		List<Piece> pieces = trace.getAllPieces();
+		Map<Piece, Long> startKeys = new IdentityHashMap<Piece, Long>();
+		for(Piece piece : pieces) {
+			startKeys.put(piece, getKey(piece.getType(), piece.getPosition(), piece.getIndex()));
+			for(int i = 0; i < piece.getType().getNumColors(); i ++) {
+				piece.setColor(i, colors[i]);
+			}
+		}
+
+		//the pieces are followed by identity, in the order that they were first affected
+		Map<Piece, Integer> affectedPieces = new IdentityHashMap<Piece, Integer>();
+		List<Piece> affectedList = new ArrayList<Piece>();
+		for(Move move : algorithm.getMoves()) {
+			for(int i = 0; i < move.getRepetitions(); i ++) {
+				List<Piece> affected = move.isCubeRotation() ? pieces : trace.getAffectedPieces(move);
+				for(Piece piece : affected) {
+					if(!affectedPieces.containsKey(piece)) {
+						affectedPieces.put(piece, affectedList.size());
+						affectedList.add(piece);
+					}
+				}
+
+				trace.movePieces(move);
+			}
+		}
+
+		setSlots(affectedList.size());
+		for(int i = 0; i < affectedList.size(); i ++) {
+			Piece piece = affectedList.get(i);
+			long startKey = startKeys.get(piece);
+
+			types[i] = piece.getType();
+			positions[i] = (int) ((startKey >>> 24) & 0xFFFFFF);
+			indices[i] = (int) (startKey & 0xFFFFFF);
+			targetPositions[i] = piece.getPosition();
+			targetIndices[i] = piece.getIndex();
+
+			colorMaps[i] = new byte[piece.getType().getNumColors()];
+			for(int j = 0; j < colorMaps[i].length; j ++) {
+				colorMaps[i][j] = (byte) piece.getColor(j).ordinal();
+			}
+		}
+
+		findMovedSlots();
+	}
+
+	private void setSlots(int numSlots) {
+		this.types = new PieceType[numSlots];
+		this.positions = new int[numSlots];
+		this.indices = new int[numSlots];
+		this.targetPositions = new int[numSlots];
+		this.targetIndices = new int[numSlots];
+		this.colorMaps = new byte[numSlots][];
+		this.movedSlots = new int[0];
+	}
+
+	private void findMovedSlots() {
+		int numMoved = 0;
+		int[] moved = new int[types.length];
+		for(int i = 0; i < types.length; i ++) {
+			boolean stays = (targetPositions[i] == positions[i] && targetIndices[i] == indices[i]);
+			if(!stays || !isIdentity(colorMaps[i])) moved[numMoved++] = i;
+		}
+
+		this.movedSlots = new int[numMoved];
+		System.arraycopy(moved, 0, movedSlots, 0, numMoved);
+	}
+
+	private static boolean isIdentity(byte[] colorMap) {
+		for(int i = 0; i < colorMap.length; i ++) {
+			if(colorMap[i] != i) return false;
+		}
+
+		return true;
+	}
+
+	/*
+	 * Returns the moves of this algorithm. The moves of a composed algorithm are written out into a new algorithm
+	 * on every call, which takes time in proportion to their number (the exponent times the length for a power).
+	 */
+	public Algorithm getAlgorithm() {
+		if(algorithm != null) return this.algorithm;
+
+		Algorithm moves = new Algorithm();
+		Deque<CompiledAlgorithm> parts = new ArrayDeque<CompiledAlgorithm>();
+		parts.push(this);
+		while(!parts.isEmpty()) {
+			CompiledAlgorithm part = parts.pop();
+			if(part.algorithm != null) {
+				moves.append(part.algorithm);
+			} else {
+				parts.push(part.second);
+				parts.push(part.first);
+			}
+		}
+
+		return moves;
+	}
+
+	//the net cube rotation of this algorithm in the rotation group of its puzzle type (0 if it has none)
+	int getRotation() {
+		return this.rotation;
+	}
+
+	public PuzzleType getType() {
+		return this.type;
+	}
+
+	//the number of pieces that this algorithm moves or recolors
+	public int getNumMovedPieces() {
+		return this.movedSlots.length;
+	}
+
+	/*
+	 * Move the pieces of a puzzle of the same type and size, and update its state hash.
+	 * Returns false without changing anything if one of the starting slots is empty.
+	 */
+	boolean apply(Puzzle puzzle) {
+		if(!(puzzle instanceof GroupedPuzzle || puzzle instanceof SimplePuzzle)) return false;
+
+		Piece[] slotPieces = new Piece[types.length];
+		for(int i = 0; i < types.length; i ++) {
+			slotPieces[i] = puzzle.getPieceAt(types[i], positions[i], indices[i]);
+			if(slotPieces[i] == null) return false;
+		}
+
+		Color[] colorBuffer = new Color[MAX_COLORS];
+		boolean hashing = puzzle.isHashingState();
+		for(int i = 0; i < movedSlots.length; i ++) {
+			int slot = movedSlots[i];
+			Piece piece = slotPieces[slot];
+			if(hashing) puzzle.toggleStateHash(ZobristKeys.getKey(piece));
+
+			piece.setPosition(targetPositions[slot]);
+			piece.setIndex(targetIndices[slot]);
+
+			byte[] colorMap = colorMaps[slot];
+			for(int j = 0; j < colorMap.length; j ++) {
+				colorBuffer[j] = piece.getColor(colorMap[j]);
+			}
+			for(int j = 0; j < colorMap.length; j ++) {
+				piece.setColor(j, colorBuffer[j]);
+			}
+
+			if(hashing) puzzle.toggleStateHash(ZobristKeys.getKey(piece));
+		}
+
+		for(int i = 0; i < movedSlots.length; i ++) {
+			puzzle.placePiece(slotPieces[movedSlots[i]]);
+		}
+
+		return true;
+	}
+
+	//returns an algorithm that executes this algorithm and then another one compiled for the same type and size of puzzle
+	public CompiledAlgorithm compose(CompiledAlgorithm other) {
+		if(other.type != type || other.numLayers != numLayers) {
+			throw new IllegalArgumentException("Cannot compose algorithms compiled for different puzzles");
+		}
+
+		CompiledAlgorithm composed = new CompiledAlgorithm(this, other);
+		Map<Long, Integer> otherSlots = new HashMap<Long, Integer>();
+		for(int i = 0; i < other.types.length; i ++) {
+			otherSlots.put(getKey(other.types[i], other.positions[i], other.indices[i]), i);
+		}
+
+		//the pieces that the other algorithm affects without this one moving them there first
+		Map<Long, Boolean> reached = new HashMap<Long, Boolean>();
+		for(int i = 0; i < types.length; i ++) {
+			reached.put(getKey(types[i], targetPositions[i], targetIndices[i]), true);
+			reached.put(getKey(types[i], positions[i], indices[i]), true);
+		}
+
+		List<Integer> otherOnly = new ArrayList<Integer>();
+		for(int i = 0; i < other.types.length; i ++) {
+			if(!reached.containsKey(getKey(other.types[i], other.positions[i], other.indices[i]))) otherOnly.add(i);
+		}
+
+		composed.setSlots(types.length + otherOnly.size());
+		for(int i = 0; i < types.length; i ++) {
+			Integer next = otherSlots.get(getKey(types[i], targetPositions[i], targetIndices[i]));
+			composed.setSlot(i, types[i], positions[i], indices[i]);
+
+			if(next == null) {
+				composed.setTarget(i, targetPositions[i], targetIndices[i], colorMaps[i]);
+			} else {
+				byte[] colorMap = composeColorMaps(colorMaps[i], other.colorMaps[next]);
+				composed.setTarget(i, other.targetPositions[next], other.targetIndices[next], colorMap);
+			}
+		}
+
+		for(int i = 0; i < otherOnly.size(); i ++) {
+			int slot = otherOnly.get(i);
+			int composedSlot = types.length + i;
+			composed.setSlot(composedSlot, other.types[slot], other.positions[slot], other.indices[slot]);
+			composed.setTarget(composedSlot, other.targetPositions[slot], other.targetIndices[slot], other.colorMaps[slot]);
+		}
+
+		composed.findMovedSlots();
+		return composed;
+	}
+
+	private void setSlot(int slot, PieceType type, int position, int index) {
+		types[slot] = type;
+		positions[slot] = position;
+		indices[slot] = index;
+	}
+
+	private void setTarget(int slot, int position, int index, byte[] colorMap) {
+		targetPositions[slot] = position;
+		targetIndices[slot] = index;
+		colorMaps[slot] = colorMap;
+	}
+
+	//true if every piece ends up in a slot that one of the pieces started in, which is false if the algorithm changes a Square-1's shape
+	boolean isPermutation() {
+		Map<Long, Boolean> startSlots = new HashMap<Long, Boolean>();
+		for(int i = 0; i < types.length; i ++) {
+			startSlots.put(getKey(types[i], positions[i], indices[i]), true);
+		}
+
+		for(int i = 0; i < types.length; i ++) {
+			if(!startSlots.containsKey(getKey(types[i], targetPositions[i], targetIndices[i]))) return false;
+		}
+
+		return true;
+	}
+
+	/*
+	 * Splits the permutation of the pieces into cycles, each with the twist that its pieces come back with.
+	 * The slots are only walked once, so this takes time in proportion to the number of moved pieces instead of the
+	 * order of the algorithm (which can be far larger than its length on a big puzzle).
+	 * Throws an IllegalStateException if the pieces don't form a permutation (see isPermutation), in which case
+	 * Algorithm.cycleStructure finds the cycles from the puzzle instead.
+	 */
+	public CycleStructure getCycleStructure() {
+		return getCycleStructure(1);
+	}
+
+	/*
+	 * Returns the cycles of an algorithm executed on a puzzle in its current state.
+	 *
+	 * An algorithm that changes the shape of a Square-1 moves the pieces of the new shape differently, so it only
+	 * repeats its effect once the shape is back. In that case, the pieces are followed by identity through as many
+	 * executions as it takes for them to end up in the slots that they started in, and the cycles are the cycles
+	 * of those executions with their lengths counted in single executions.
+	 */
+	public static CycleStructure getCycleStructure(Algorithm algorithm, Puzzle puzzle) {
+		CompiledAlgorithm compiled = new CompiledAlgorithm(algorithm, puzzle);
+		if(compiled.isPermutation()) return compiled.getCycleStructure(1);
+
+		Puzzle trace = puzzle.createInstance();
+		trace.restore(puzzle.snapshot());
+
+		CompiledAlgorithm executions = compiled;
+		int numExecutions = 1;
+		while(!executions.isPermutation()) {
+			trace.executeAlgorithm(algorithm, false);
+			executions = executions.compose(new CompiledAlgorithm(algorithm, trace));
+			numExecutions++;
+		}
+
+		return executions.getCycleStructure(numExecutions);
+	}
+
+	//the cycles of the pieces, with each step around a cycle taking a number of executions of the algorithm
+	private CycleStructure getCycleStructure(int executionsPerStep) {
+		Map<Long, Integer> slots = new HashMap<Long, Integer>();
+		for(int i = 0; i < types.length; i ++) {
+			slots.put(getKey(types[i], positions[i], indices[i]), i);
+		}
+
+		//a piece that is back in its slot after more than one execution has still moved, in a cycle of one step
+		boolean[] counted = new boolean[types.length];
+		for(int slot : movedSlots) counted[slot] = true;
+		if(executionsPerStep > 1) Arrays.fill(counted, true);
+
+		CycleStructure structure = new CycleStructure();
+		boolean[] visited = new boolean[types.length];
+		for(int start = 0; start < types.length; start ++) {
+			if(visited[start] || !counted[start]) continue;
+
+			//the color map of a piece after it has gone around the cycle once
+			byte[] colorMap = colorMaps[start].clone();
+			int length = 0;
+			int slot = start;
+			do {
+				visited[slot] = true;
+				length++;
+
+				Integer next = slots.get(getKey(types[slot], targetPositions[slot], targetIndices[slot]));
+				if(next == null) throw new IllegalStateException("The pieces of a compiled algorithm do not form a permutation");
+				slot = next;
+
+				if(slot != start) colorMap = composeColorMaps(colorMap, colorMaps[slot]);
+			} while(slot != start);
+
+			structure.addCycle(types[start], length * executionsPerStep, getColorMapOrder(colorMap));
+		}
+
+		return structure;
+	}
+
+	//the map of applying one color map and then another
+	private static byte[] composeColorMaps(byte[] first, byte[] second) {
+		byte[] composed = new byte[first.length];
+		for(int j = 0; j < composed.length; j ++) {
+			composed[j] = first[second[j]];
+		}
+
+		return composed;
+	}
+
+	private static int getColorMapOrder(byte[] colorMap) {
+		int order = 1;
+		byte[] power = colorMap;
+		while(!isIdentity(power)) {
+			power = composeColorMaps(power, colorMap);
+			order++;
+		}
+
+		return order;
+	}
+
+	/*
+	 * Returns an algorithm that executes this algorithm a number of times. It is built from log2(exponent) squares,
+	 * which share their parts, so it only takes as much memory as the pieces that it moves.
+	 */
+	public CompiledAlgorithm power(int exponent) {
+		if(exponent < 0) throw new IllegalArgumentException("Cannot raise an algorithm to a negative power");
+
+		CompiledAlgorithm result = new CompiledAlgorithm(this);
+		result.setSlots(0);
+
+		CompiledAlgorithm square = this;
+		while(exponent > 0) {
+			if((exponent & 1) != 0) result = result.compose(square);
+			exponent >>= 1;
+			if(exponent > 0) square = square.compose(square);
+		}
+
+		return result;
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.templates;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.sampeterson1.puzzle.lib.PieceType;
+
+/*
+ * The cycles that an algorithm moves the pieces of a puzzle in (see CompiledAlgorithm.getCycleStructure).
+ *
+ * Each cycle is a set of slots whose pieces move into each other. A piece that goes around its cycle once can come
+ * back twisted, so it only returns to its slot unchanged after going around the cycle as many times as the order of
+ * that twist. Pieces are told apart by identity, not by color, so a cycle of pieces with the same colors (e.g. the
+ * centers of one face of a big cube) still counts towards the order.
+ */
+public class CycleStructure {
+
+	public static class Cycle {
+
+		private PieceType type;
+		private int length;
+		private int twist;
+
+		private Cycle(PieceType type, int length, int twist) {
+			this.type = type;
+			this.length = length;
+			this.twist = twist;
+		}
+
+		public PieceType getType() {
+			return this.type;
+		}
+
+		public int getLength() {
+			return this.length;
+		}
+
+		//the number of times the pieces have to go around the cycle before they are back in their original orientation
+		public int getTwist() {
+			return this.twist;
+		}
+
+		//the number of times the algorithm has to be executed before this cycle is solved
+		public int getOrder() {
+			return this.length * this.twist;
+		}
+
+		@Override
+		public String toString() {
+			return (twist == 1) ? String.valueOf(length) : length + "~" + twist;
+		}
+
+	}
+
+	private List<Cycle> cycles;
+	private long order;
+
+	CycleStructure() {
+		this.cycles = new ArrayList<Cycle>();
+		this.order = 1;
+	}
+
+	void addCycle(PieceType type, int length, int twist) {
+		Cycle cycle = new Cycle(type, length, twist);
+		cycles.add(cycle);
+
+		long cycleOrder = cycle.getOrder();
+		order = Math.multiplyExact(order / gcd(order, cycleOrder), cycleOrder);
+	}
+
+	private static long gcd(long a, long b) {
+		while(b != 0) {
+			long r = a % b;
+			a = b;
+			b = r;
+		}
+
+		return a;
+	}
+
+	//the cycles of every piece that the algorithm moves or twists, including pieces that are only twisted in place
+	public List<Cycle> getCycles() {
+		return Collections.unmodifiableList(cycles);
+	}
+
+	public List<Cycle> getCycles(PieceType type) {
+		List<Cycle> typeCycles = new ArrayList<Cycle>();
+		for(Cycle cycle : cycles) {
+			if(cycle.type == type) typeCycles.add(cycle);
+		}
+
+		return typeCycles;
+	}
+
+	/*
+	 * The number of times the algorithm has to be executed before every piece is back where it started,
+	 * which is the least common multiple of the orders of the cycles.
+	 * Throws an ArithmeticException if it doesn't fit in a long.
+	 */
+	public long getOrder() {
+		return this.order;
+	}
+
+	//lists the cycles of each type of piece from longest to shortest, e.g. "CORNER: 3 3 1~3, EDGE: 2 2"
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+
+		for(PieceType type : PieceType.values()) {
+			List<Cycle> typeCycles = getCycles(type);
+			if(typeCycles.isEmpty()) continue;
+
+			typeCycles.sort((Cycle a, Cycle b) -> (b.length != a.length) ? b.length - a.length : b.twist - a.twist);
+			if(str.length() > 0) str.append(", ");
+			str.append(type).append(':');
+			for(Cycle cycle : typeCycles) {
+				str.append(' ').append(cycle);
+			}
+		}
+
+		return str.toString();
+	}
+
+}
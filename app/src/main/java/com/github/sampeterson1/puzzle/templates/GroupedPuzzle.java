@@ -19,22 +19,43 @@
 package com.github.sampeterson1.puzzle.templates;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.github.sampeterson1.puzzle.lib.AffectedSlotIndex;
+import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceBehavior;
 import com.github.sampeterson1.puzzle.lib.PieceGroup;
 import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.lib.PuzzleType;
+import com.github.sampeterson1.puzzle.lib.ZobristKeys;
+import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
 
 //Provides a template and base functionality for a puzzle that can be organized into piece groups (e.g Rubik's Cube, Pyraminx, Megaminx)
 public abstract class GroupedPuzzle extends Puzzle {
 	
+	private static final Comparator<Piece> slotOrder = Comparator.comparingInt(Piece::getPosition).thenComparingInt(Piece::getIndex);
+	
+	//the orbit that the pieces of every orbit are also indexed under
+	private static final int ANY_ORBIT = -1;
+	
 	private List<Piece> allPieces;
+	private List<PieceGroup> allGroups;
 	private Map<PieceType, Map<Integer, PieceGroup>> groupsByType;
+	
+	//the same groups as groupsByType, indexed by piece type ordinal and position
+	private PieceGroup[][] groupArrays;
+	
+	private AffectedSlotIndex affectedSlotIndex;
+	private int[][][] affectedSlots;
+	
+	//the pieces with each color, by type and orbit (see getPieceKey), which is built the first time a piece is looked up
+	private Map<Long, List<Piece>> piecesByColor;
 		
 	private int size;
 	
@@ -43,13 +64,23 @@ public abstract class GroupedPuzzle extends Puzzle {
 		
 		this.size = size;
 		this.groupsByType = new HashMap<PieceType,  Map<Integer, PieceGroup>>();
+		this.groupArrays = new PieceGroup[PieceType.values().length][0];
 		this.allPieces = new ArrayList<Piece>();
+		this.allGroups = new ArrayList<PieceGroup>();
 	}
 
-	private void addAllPieces(PieceGroup group) {
+	private void addGroup(PieceGroup group, PieceType type, int position) {
 		for(Piece piece : group.getPieces()) {
 			allPieces.add(piece);
 		}
+		allGroups.add(group);
+		
+		PieceGroup[] groups = groupArrays[type.ordinal()];
+		if(position >= groups.length) {
+			groups = Arrays.copyOf(groups, position + 1);
+			groupArrays[type.ordinal()] = groups;
+		}
+		groups[position] = group;
 	}
 	
 	protected void createPieceGroup(PieceBehavior behavior, int position) {
@@ -64,7 +95,7 @@ public abstract class GroupedPuzzle extends Puzzle {
 			groupsByType.put(type, groups);
 		}
 		
-		addAllPieces(group);
+		addGroup(group, type, position);
 	}
 	
 	protected void createPieces(PieceBehavior behavior, int numGroups) {
@@ -76,16 +107,51 @@ public abstract class GroupedPuzzle extends Puzzle {
 		groupsByType.put(behavior.getType(), groups);
 		
 		for(PieceGroup group : groups.values()) {
-			addAllPieces(group);
+			addGroup(group, behavior.getType(), group.getPosition());
 		}
 	}
 
+	/*
+	 * Map a move onto the axis and layer that affected pieces are indexed by.
+	 * Puzzles where two different moves turn the same layer (e.g. R and L on a cube)
+	 * should map both onto one of them so that they share an index entry.
+	 */
+	protected Axis getNormalizedAxis(Axis axis) {
+		return axis;
+	}
+	
+	protected int getNormalizedLayer(Axis axis, int layer) {
+		return layer;
+	}
+	
+	//returns the indices of the pieces moved in each group (in the order of allGroups) by a turn of one layer
+	private int[][] getAffectedSlots(Axis moveAxis, int moveLayer) {
+		if(affectedSlotIndex == null) {
+			this.affectedSlotIndex = AffectedSlotIndex.getIndex(super.getType(), size);
+			this.affectedSlots = new int[Axis.values().length * size][][];
+		}
+		
+		Axis axis = getNormalizedAxis(moveAxis);
+		int layer = getNormalizedLayer(moveAxis, moveLayer);
+		int key = affectedSlotIndex.getKey(axis, layer);
+		if(affectedSlots[key] == null) {
+			affectedSlots[key] = affectedSlotIndex.getAffectedSlots(getMoveTable().getMove(axis, layer, true), allGroups);
+		}
+		
+		return affectedSlots[key];
+	}
+	
 	public int getSize() {
 		return this.size;
 	}
 	
+	@Override
+	protected int getNumLayers() {
+		return this.size;
+	}
+	
 	public PieceGroup getGroup(PieceType type, int position) {
-		return this.groupsByType.get(type).get(position);
+		return this.groupArrays[type.ordinal()][position];
 	}
 	
 	public Map<Integer, PieceGroup> getGroups(PieceType type) {
@@ -100,6 +166,114 @@ public abstract class GroupedPuzzle extends Puzzle {
 		return this.allPieces;
 	}
 	
+	//pieces are also put back into the slots of their groups
+	@Override
+	protected void loadState(Snapshot snapshot) {
+		super.loadState(snapshot);
+		
+		for(int i = 0; i < allPieces.size(); i ++) {
+			Piece piece = allPieces.get(i);
+			getGroup(piece.getType(), piece.getPosition()).setPiece(piece);
+		}
+		
+		//a snapshot of another puzzle can give the pieces different colors
+		this.piecesByColor = null;
+	}
+	
+	/*
+	 * Returns the orbit of a slot index: a move only takes a piece to a slot whose index is in the same orbit as the
+	 * index of the slot it came from. Every slot of a type is in the same orbit unless a puzzle splits them up.
+	 */
+	protected int getOrbit(PieceType type, int index) {
+		return 0;
+	}
+	
+	/*
+	 * Returns the pieces of a type that have all of the given colors (in any order), sorted by the position and then
+	 * the index of the slot that each one is in.
+	 * 
+	 * A piece keeps its colors when it moves, so pieces are looked up from an index of the pieces with each color
+	 * instead of by searching every slot, and moves don't have to update the index. It is built the first time it is
+	 * needed and again after a snapshot is restored, so colors set on a piece in any other way aren't seen by it.
+	 */
+	public List<Piece> findPieces(PieceType type, Color... colors) {
+		return getPieces(type, ANY_ORBIT, colors);
+	}
+	
+	//returns the pieces found by findPieces(type, colors) that can be moved into slots with the given index
+	public List<Piece> findPieces(PieceType type, int index, Color... colors) {
+		return getPieces(type, getOrbit(type, index), colors);
+	}
+	
+	private List<Piece> getPieces(PieceType type, int orbit, Color[] colors) {
+		if(colors.length == 0) {
+			throw new IllegalArgumentException("Pieces can only be found by at least one color");
+		}
+		if(piecesByColor == null) this.piecesByColor = createPieceIndex();
+		
+		List<Piece> pieces = new ArrayList<Piece>();
+		List<Piece> candidates = piecesByColor.get(getPieceKey(type, orbit, colors[0]));
+		if(candidates == null) return pieces;
+		
+		for(int i = 0; i < candidates.size(); i ++) {
+			Piece piece = candidates.get(i);
+			if(piece.hasColors(colors)) pieces.add(piece);
+		}
+		pieces.sort(slotOrder);
+		
+		return pieces;
+	}
+	
+	private Map<Long, List<Piece>> createPieceIndex() {
+		Map<Long, List<Piece>> piecesByColor = new HashMap<Long, List<Piece>>();
+		
+		for(int i = 0; i < allPieces.size(); i ++) {
+			Piece piece = allPieces.get(i);
+			PieceType type = piece.getType();
+			int orbit = getOrbit(type, piece.getIndex());
+			
+			Color[] colors = piece.getColors();
+			for(int j = 0; j < colors.length; j ++) {
+				if(colors[j] == null || piece.indexOfColor(colors[j]) < j) continue;
+				
+				addPiece(piecesByColor, getPieceKey(type, orbit, colors[j]), piece);
+				addPiece(piecesByColor, getPieceKey(type, ANY_ORBIT, colors[j]), piece);
+			}
+		}
+		
+		return piecesByColor;
+	}
+	
+	private static void addPiece(Map<Long, List<Piece>> piecesByColor, long key, Piece piece) {
+		List<Piece> pieces = piecesByColor.get(key);
+		if(pieces == null) {
+			pieces = new ArrayList<Piece>();
+			piecesByColor.put(key, pieces);
+		}
+		
+		pieces.add(piece);
+	}
+	
+	private static long getPieceKey(PieceType type, int orbit, Color color) {
+		return (long) type.ordinal() << 40 | (long) (orbit - ANY_ORBIT) << 8 | color.ordinal();
+	}
+	
+	@Override
+	protected Piece getPieceAt(PieceType type, int position, int index) {
+		PieceGroup[] groups = groupArrays[type.ordinal()];
+		if(position < 0 || position >= groups.length || groups[position] == null) return null;
+		
+		PieceGroup group = groups[position];
+		if(index < 0 || index >= group.getNumPieces()) return null;
+		
+		return group.getPiece(index);
+	}
+	
+	@Override
+	protected void placePiece(Piece piece) {
+		getGroup(piece.getType(), piece.getPosition()).setPiece(piece);
+	}
+	
 	@Override
 	public List<Piece> getAffectedPieces(Move move) {
 		List<Piece> affectedPieces = new ArrayList<Piece>();
@@ -108,27 +282,73 @@ public abstract class GroupedPuzzle extends Puzzle {
 			return affectedPieces;
 		}
 		
-		for(Map<Integer, PieceGroup> groups : groupsByType.values()) {
-			for(PieceGroup group : groups.values()) {
-				List<Piece> groupAffectedPieces = group.getAffectedPieces(move);
-				affectedPieces.addAll(groupAffectedPieces);
+		for(int layer = move.getLayer(); layer <= move.getEndLayer(); layer ++) {
+			int[][] affectedSlots = getAffectedSlots(move.getAxis(), layer);
+			for(int i = 0; i < allGroups.size(); i ++) {
+				PieceGroup group = allGroups.get(i);
+				for(int slot : affectedSlots[i]) {
+					affectedPieces.add(group.getPiece(slot));
+				}
 			}
 		}
 		
 		return affectedPieces;
 	}
 	
+	/*
+	 * A range move turns each of its layers in the same pass: every layer moves its pieces into the moved buffers
+	 * of their new groups, and the groups only swap them in once all of the layers have been turned.
+	 */
 	@Override
-	public void movePieces(Move move) {	
-		for(Map<Integer, PieceGroup> groups : groupsByType.values()) {
-			for(PieceGroup group : groups.values()) {
-				group.makeMove(move);
+	public void movePieces(Move move) {
+		int numGroups = allGroups.size();
+		boolean hashing = super.isHashingState();
+		
+		if(move.isCubeRotation()) {
+			if(hashing) toggleStateHash(allPieces);
+			for(int i = 0; i < numGroups; i ++) {
+				allGroups.get(i).makeMove(move);
+			}
+		} else {
+			for(int layer = move.getLayer(); layer <= move.getEndLayer(); layer ++) {
+				Move layerMove = move.isRangeMove() ? getMoveTable().getMove(move.getAxis(), layer, move.isCW()) : move;
+				int[][] affectedSlots = getAffectedSlots(move.getAxis(), layer);
+				
+				if(hashing) toggleStateHash(affectedSlots);
+				for(int i = 0; i < numGroups; i ++) {
+					if(affectedSlots[i].length > 0)
+						allGroups.get(i).makeMove(layerMove, affectedSlots[i]);
+				}
 			}
 		}
 		
-		for(Map<Integer, PieceGroup> groups : groupsByType.values()) {
-			for(PieceGroup group : groups.values()) {
-				group.applyMoves();
+		for(int i = 0; i < numGroups; i ++) {
+			allGroups.get(i).applyMoves();
+		}
+		
+		//a move only moves pieces between its affected slots, so the same slots hold the moved pieces
+		if(hashing) {
+			if(move.isCubeRotation()) {
+				toggleStateHash(allPieces);
+			} else {
+				for(int layer = move.getLayer(); layer <= move.getEndLayer(); layer ++) {
+					toggleStateHash(getAffectedSlots(move.getAxis(), layer));
+				}
+			}
+		}
+	}
+	
+	private void toggleStateHash(List<Piece> pieces) {
+		for(int i = 0; i < pieces.size(); i ++) {
+			super.toggleStateHash(ZobristKeys.getKey(pieces.get(i)));
+		}
+	}
+	
+	private void toggleStateHash(int[][] affectedSlots) {
+		for(int i = 0; i < allGroups.size(); i ++) {
+			PieceGroup group = allGroups.get(i);
+			for(int slot : affectedSlots[i]) {
+				super.toggleStateHash(ZobristKeys.getKey(group.getPiece(slot)));
 			}
 		}
 	}
@@ -21,35 +21,50 @@ package com.github.sampeterson1.puzzle.templates;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
+import com.github.sampeterson1.puzzle.lib.PieceType;
+import com.github.sampeterson1.puzzle.lib.PuzzleFactory;
 import com.github.sampeterson1.puzzle.lib.PuzzleMetaFunctions;
 import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.lib.Rotateable;
+import com.github.sampeterson1.puzzle.lib.ZobristKeys;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzle.moves.RotationGroup;
 
 //provides the template and base functionality for (in theory) any type of twisty puzzle
 public abstract class Puzzle {
 	
+	private static final Color[] colors = Color.values();
+	
 	private PuzzleType type;
 	
-	private ArrayList<Move> rotations;
+	//the current orientation as an element of the puzzle's rotation group
+	private RotationGroup rotationGroup;
+	private int orientation;
 	private ArrayList<Integer> rotationStack;
 	
 	private Algorithm moveLog;
-	private ArrayList<Integer> moveLogStack;
+	private ArrayList<Snapshot> stateStack;
 	
 	private boolean logMoves;
 	
+	private MoveTable moveTable;
+	
+	//the Zobrist hash of the current state, which is kept up to date by movePieces once it has been requested
+	private long stateHash;
+	private boolean hashingState;
+	
 	private PuzzleMetaFunctions<? extends Puzzle> metaFunctions;
 		
 	public Puzzle(PuzzleType type) {		
 		this.logMoves = true;
 		this.type = type;
-		this.rotations = new ArrayList<Move>();	
 		this.rotationStack = new ArrayList<Integer>();
-		this.moveLogStack = new ArrayList<Integer>();
+		this.stateStack = new ArrayList<Snapshot>();
 		this.moveLog = new Algorithm();
 	}
 	
@@ -62,7 +77,7 @@ public abstract class Puzzle {
 	//returns a list of all of the pieces on this puzzle
 	public abstract List<Piece> getAllPieces();
 	
-	//apply a move to this puzzle's internal piece structure
+	//apply a move (once, ignoring its repetitions) to this puzzle's internal piece structure, turning every layer of a range move
 	protected abstract void movePieces(Move move);
 	
 	public final PuzzleMetaFunctions<? extends Puzzle> getMetaFunctions() {
@@ -78,6 +93,65 @@ public abstract class Puzzle {
 		return this.type;
 	}
 	
+	//returns the shared moves of this puzzle, which can also be made by their codes
+	public final MoveTable getMoveTable() {
+		if(this.moveTable == null) this.moveTable = MoveTable.getTable(type, getNumLayers());
+		return this.moveTable;
+	}
+	
+	//the number of layers that can be turned around one axis
+	protected int getNumLayers() {
+		return 1;
+	}
+	
+	//returns the group of cube rotations of this puzzle, or null if it can't be rotated
+	protected RotationGroup createRotationGroup() {
+		return null;
+	}
+	
+	public final RotationGroup getRotationGroup() {
+		if(this.rotationGroup == null) this.rotationGroup = createRotationGroup();
+		return this.rotationGroup;
+	}
+	
+	public final int getOrientation() {
+		return this.orientation;
+	}
+	
+	/*
+	 * Returns a 64-bit Zobrist hash of the positions and colors of every piece.
+	 * 
+	 * The hash is computed from scratch the first time it is requested. After that,
+	 * every move XORs out the keys of the pieces it moves and XORs in their new keys.
+	 */
+	public final long stateHash() {
+		if(!hashingState) {
+			this.stateHash = computeStateHash();
+			this.hashingState = true;
+		}
+		
+		return this.stateHash;
+	}
+	
+	protected long computeStateHash() {
+		long hash = 0;
+		for(Piece piece : getAllPieces()) {
+			hash ^= ZobristKeys.getKey(piece);
+		}
+		
+		return hash;
+	}
+	
+	//implementations of movePieces only need to update the state hash once it has been requested
+	protected final boolean isHashingState() {
+		return this.hashingState;
+	}
+	
+	//XOR a key into (or out of) the state hash
+	protected final void toggleStateHash(long key) {
+		this.stateHash ^= key;
+	}
+	
 	public final Algorithm getMoveLog() {
 		return this.moveLog;
 	}
@@ -92,54 +166,146 @@ public abstract class Puzzle {
 	
 	//save the current puzzle rotation state
 	public final void pushRotations() {
-		rotationStack.add(rotations.size());
+		rotationStack.add(orientation);
 	}
 	
+	//save the current state of the puzzle and the length of the move log
 	public final void pushState() {
-		moveLogStack.add(moveLog.length());
+		stateStack.add(snapshot());
 	}
 	
 	public final void clearStates() {
-		moveLogStack.clear();
+		stateStack.clear();
 	}
 	
 	//restore the last puzzle rotation state
 	public final void popRotations() {
-		int numRotations = rotationStack.remove(rotationStack.size() - 1);
+		int target = rotationStack.remove(rotationStack.size() - 1);
+		if(target == orientation) return;
 		
-		while(rotations.size() != numRotations) {
-			Move move = rotations.remove(0);
-			makeMove(move, false);
-			rotations.remove(0);
+		for(Move rotation : getRotationGroup().getPath(orientation, target)) {
+			makeMove(rotation, false);
 		}
 	}
 	
+	//restore the last saved state, which also removes the moves logged since then
 	public final void popState() {
-		int targetSize = moveLogStack.remove(moveLogStack.size() - 1);
+		restore(stateStack.remove(stateStack.size() - 1));
+	}
+	
+	public final Snapshot snapshot() {
+		Snapshot snapshot = saveState();
+		snapshot.orientation = orientation;
+		snapshot.moveLogLength = moveLog.length();
+		snapshot.stateHash = stateHash;
+		snapshot.hashingState = hashingState;
+		
+		return snapshot;
+	}
+	
+	/*
+	 * Return this puzzle to the state of a snapshot taken from this puzzle or another one of the same type and size.
+	 * Moves logged since the snapshot was taken are removed from the move log.
+	 */
+	public final void restore(Snapshot snapshot) {
+		loadState(snapshot);
+		this.orientation = snapshot.orientation;
+		this.stateHash = snapshot.stateHash;
+		this.hashingState = snapshot.hashingState;
+		
+		if(moveLog.length() > snapshot.moveLogLength) {
+			moveLog.truncate(snapshot.moveLogLength);
+		}
+	}
+	
+	//returns an independent puzzle with the same state, move log and rotations as this one
+	public final Puzzle copy() {
+		Puzzle copy = createInstance();
+		copy.logMoves = logMoves;
+		copy.moveLog = moveLog.copy();
+		copy.restore(snapshot());
+		
+		return copy;
+	}
+	
+	//creates a solved puzzle of the same type and size
+	protected Puzzle createInstance() {
+		return PuzzleFactory.createPuzzle(type, getNumLayers());
+	}
+	
+	//by default, the state of a puzzle is the position, index and colors of each of its pieces
+	protected Snapshot saveState() {
+		List<Piece> pieces = getAllPieces();
+		int numColors = 0;
+		for(int i = 0; i < pieces.size(); i ++) {
+			numColors += pieces.get(i).getType().getNumColors();
+		}
+		
+		Snapshot snapshot = new Snapshot(2 * pieces.size(), numColors);
+		int[] ints = snapshot.getInts();
+		byte[] bytes = snapshot.getBytes();
 		
-		while(moveLog.length() != targetSize) {
-			Move move = moveLog.pop();
-			makeMove(move.getInverse(), false);
+		int colorIndex = 0;
+		for(int i = 0; i < pieces.size(); i ++) {
+			Piece piece = pieces.get(i);
+			ints[2 * i] = piece.getPosition();
+			ints[2 * i + 1] = piece.getIndex();
+			
+			for(int j = 0; j < piece.getType().getNumColors(); j ++) {
+				Color color = piece.getColor(j);
+				bytes[colorIndex++] = (byte) (color == null ? -1 : color.ordinal());
+			}
+		}
+		
+		return snapshot;
+	}
+	
+	protected void loadState(Snapshot snapshot) {
+		List<Piece> pieces = getAllPieces();
+		int[] ints = snapshot.getInts();
+		byte[] bytes = snapshot.getBytes();
+		
+		int colorIndex = 0;
+		for(int i = 0; i < pieces.size(); i ++) {
+			Piece piece = pieces.get(i);
+			piece.setPosition(ints[2 * i]);
+			piece.setIndex(ints[2 * i + 1]);
+			
+			for(int j = 0; j < piece.getType().getNumColors(); j ++) {
+				byte color = bytes[colorIndex++];
+				piece.setColor(j, color < 0 ? null : colors[color]);
+			}
 		}
 	}
 
-	public final void clearRotations() {
-		rotations.clear();
+	//returns the piece in a slot, or null if the slot is empty
+	protected Piece getPieceAt(PieceType type, int position, int index) {
+		List<Piece> pieces = getAllPieces();
+		for(int i = 0; i < pieces.size(); i ++) {
+			Piece piece = pieces.get(i);
+			if(piece.getType() == type && piece.getPosition() == position && piece.getIndex() == index) return piece;
+		}
+		
+		return null;
 	}
 	
-	public final void makeRotation(Axis face, boolean cw) {
-		Move move = new Move(face, cw, true);
-		makeMove(move, false);
+	//called after a compiled algorithm has changed the position and index of a piece
+	protected void placePiece(Piece piece) {
+		
+	}
+
+	//treat the current orientation as unrotated
+	public final void clearRotations() {
+		orientation = 0;
 	}
 	
-	public final ArrayList<Move> getRotations() {
-		return this.rotations;
+	public final void makeRotation(Axis face, boolean cw) {
+		makeMove(getMoveTable().getMove(face, cw, true), false);
 	}
 	
 	public final void executeAlgorithm(Algorithm alg, boolean log) {
-		List<Move> moves = alg.getMoves();
-		for(Move move : moves) {
-			makeMove(move, log);
+		for(int i = 0; i < alg.length(); i ++) {
+			makeMove(alg.getMove(i), log);
 		}
 	}
 	
@@ -147,23 +313,75 @@ public abstract class Puzzle {
 		executeAlgorithm(alg, logMoves);
 	}
 	
+	//executes a compiled algorithm in one pass over its pieces, or move by move if it can't be applied to this puzzle
+	public final void executeAlgorithm(CompiledAlgorithm alg, boolean log) {
+		if(!alg.apply(this)) {
+			executeAlgorithm(alg.getAlgorithm(), log);
+			return;
+		}
+		
+		//the pieces have already moved, and the rotations only need to go one move at a time to log the moves
+		RotationGroup group = getRotationGroup();
+		if(!log) {
+			if(group != null) orientation = group.multiply(orientation, alg.getRotation());
+			return;
+		}
+		
+		Algorithm algorithm = alg.getAlgorithm();
+		for(int k = 0; k < algorithm.length(); k ++) {
+			Move move = algorithm.getMove(k);
+			if(move.isCubeRotation()) {
+				for(int i = 0; i < move.getRepetitions() && group != null; i ++) {
+					orientation = group.rotate(orientation, move);
+				}
+			} else {
+				logMove(move);
+			}
+		}
+	}
+	
+	public final void executeAlgorithm(CompiledAlgorithm alg) {
+		executeAlgorithm(alg, logMoves);
+	}
+	
 	public final void makeMove(Move move, boolean log) {
-		for(Move repetition : move.expandRepetitions()) {
-			movePieces(repetition);
+		for(int i = 0; i < move.getRepetitions(); i ++) {
+			movePieces(move);
 
-			if(repetition.isCubeRotation()) {
-				rotations.add(0, repetition.getInverse());
+			if(move.isCubeRotation()) {
+				RotationGroup group = getRotationGroup();
+				if(group != null) orientation = group.rotate(orientation, move);
 			}
-			
-			if(this instanceof Rotateable)
-				repetition = repetition.transpose((Rotateable) this);
-			
-			if(log && !repetition.isCubeRotation()) moveLog.addMove(repetition); 
 		}
+		
+		//a repeated move is logged as one move, and a move repeated 0 times isn't logged
+		if(log && !move.isCubeRotation() && move.getRepetitions() > 0) logMove(move);
+	}
+	
+	//log a move in terms of the unrotated puzzle
+	private void logMove(Move move) {
+		Move logged = move;
+		if(this instanceof Rotateable) {
+			Axis axis = ((Rotateable) this).transposeAxis(move.getAxis());
+			if(axis != move.getAxis()) {
+				logged = getMoveTable().getMove(axis, move.getLayer(), move.isCW(), false)
+						.toLayer(move.getEndLayer()).repeated(move.getRepetitions());
+			}
+		}
+		
+		moveLog.addMove(logged);
 	}
 	
 	public final void makeMove(Move move) {
 		makeMove(move, logMoves);
 	}
 	
+	public final void makeMove(int code, boolean log) {
+		makeMove(getMoveTable().getMove(code), log);
+	}
+	
+	public final void makeMove(int code) {
+		makeMove(getMoveTable().getMove(code), logMoves);
+	}
+	
 }
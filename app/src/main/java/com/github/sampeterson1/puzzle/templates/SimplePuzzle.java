@@ -19,53 +19,141 @@
 package com.github.sampeterson1.puzzle.templates;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
+import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
+import com.github.sampeterson1.puzzle.lib.PiecePermutationTable;
 import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.lib.SimplePieceBehavior;
+import com.github.sampeterson1.puzzle.lib.ZobristKeys;
 import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 
 public abstract class SimplePuzzle extends Puzzle {
 	
-	private boolean sparse;
-	
 	private List<Piece> allPieces;
 	private Map<PieceType, List<Piece>> piecesByType;
 	private Map<PieceType, SimplePieceBehavior> pieceBehaviors;
 	
-	public SimplePuzzle(PuzzleType type) {
-		this(type, false);
-	}
+	/*
+	 * slots[behavior type][position] is the last piece that was moved to a position. A piece that has moved on since then
+	 * is left in the slot, so a slot only holds a piece if the piece's position still matches.
+	 */
+	private Piece[][] slots;
+	
+	//the behavior type that moves each type of piece (e.g. the Square-1 centers are moved by a center behavior)
+	private PieceType[] behaviorTypes;
+	
+	//the permutation table of each behavior type, which is made when its pieces are created
+	private PieceType[] tableTypes;
+	private PiecePermutationTable[] tables;
+	
+	//moves that one of the behaviors can't make without looking at the rest of the puzzle
+	private boolean[] stateDependent;
+	
+	//set if a piece is ever put in a position that the tables don't have, after which every move is made by the behaviors
+	private boolean unknownPositions;
+	
+	//the pieces that the current move takes out of their slots, and the colors of the current piece
+	private Piece[] movingPieces;
+	private Color[] colorBuffer;
+	
+	//the pieces that each move affects, which are found again once the puzzle has changed since affectedVersions[code]
+	private List<List<Piece>> affectedPieces;
+	private List<List<Piece>> affectedPieceViews;
+	private long[] affectedVersions;
+	private long stateVersion;
 	
-	public SimplePuzzle(PuzzleType type, boolean sparse) {
+	public SimplePuzzle(PuzzleType type) {
 		super(type);
 		
-		this.sparse = sparse;
 		this.allPieces = new ArrayList<Piece>();
 		this.piecesByType = new EnumMap<PieceType, List<Piece>>(PieceType.class);
 		this.pieceBehaviors = new EnumMap<PieceType, SimplePieceBehavior>(PieceType.class);
+		this.slots = new Piece[PieceType.values().length][0];
+		this.behaviorTypes = new PieceType[PieceType.values().length];
+		this.tableTypes = new PieceType[0];
+		this.tables = new PiecePermutationTable[PieceType.values().length];
+		this.movingPieces = new Piece[0];
+		this.colorBuffer = new Color[3];
+		
+		int numCodes = MoveTable.getTable(type, 1).getNumMoves();
+		this.stateDependent = new boolean[numCodes];
+		this.affectedPieces = new ArrayList<List<Piece>>();
+		this.affectedPieceViews = new ArrayList<List<Piece>>();
+		this.affectedVersions = new long[numCodes];
+		for(int code = 0; code < numCodes; code ++) {
+			List<Piece> pieces = new ArrayList<Piece>();
+			affectedPieces.add(pieces);
+			affectedPieceViews.add(Collections.unmodifiableList(pieces));
+			affectedVersions[code] = -1;
+		}
 	}
 	
 	protected final Map<PieceType, List<Piece>> getPiecesByType() {
 		return this.piecesByType;
 	}
 	
+	//returns the piece at a position, or null if there isn't one
 	protected final Piece getPiece(PieceType type, int position) {
-		List<Piece> pieces = piecesByType.get(type);
+		Piece[] typeSlots = slots[type.ordinal()];
+		if(position < 0 || position >= typeSlots.length) return null;
+		
+		Piece piece = typeSlots[position];
+		if(piece == null || piece.getPosition() != position) return null;
+		
+		return piece;
+	}
+	
+	@Override
+	protected final Piece getPieceAt(PieceType type, int position, int index) {
+		PieceType behaviorType = behaviorTypes[type.ordinal()];
+		if(behaviorType == null) return null;
 		
-		if(sparse) {
-			for(Piece piece : pieces) {
-				if(piece.getPosition() == position) return piece;
+		Piece piece = getPiece(behaviorType, position);
+		if(piece == null || piece.getType() != type || piece.getIndex() != index) return null;
+		
+		return piece;
+	}
+	
+	@Override
+	protected final void placePiece(Piece piece) {
+		setSlot(behaviorTypes[piece.getType().ordinal()], piece);
+		stateVersion++;
+	}
+	
+	@Override
+	protected void loadState(Snapshot snapshot) {
+		super.loadState(snapshot);
+		
+		for(PieceType type : piecesByType.keySet()) {
+			List<Piece> pieces = piecesByType.get(type);
+			for(int i = 0; i < pieces.size(); i ++) {
+				setSlot(type, pieces.get(i));
 			}
-			
-			return null;
+		}
+		stateVersion++;
+	}
+	
+	private void setSlot(PieceType type, Piece piece) {
+		Piece[] typeSlots = slots[type.ordinal()];
+		int position = piece.getPosition();
+		
+		if(position >= typeSlots.length) {
+			typeSlots = Arrays.copyOf(typeSlots, position + 1);
+			slots[type.ordinal()] = typeSlots;
 		}
 		
-		return pieces.get(position);
+		typeSlots[position] = piece;
+		
+		PiecePermutationTable table = tables[type.ordinal()];
+		if(table != null && !table.isKnownPosition(position)) unknownPositions = true;
 	}
 	
 	protected final void createPieces(SimplePieceBehavior behavior, int[] positions) {
@@ -74,11 +162,31 @@ public abstract class SimplePuzzle extends Puzzle {
 		pieceBehaviors.put(type, behavior);
 		
 		for(int i : positions) {
-			pieces.add(behavior.createPiece(i));
+			Piece piece = behavior.createPiece(i);
+			behaviorTypes[piece.getType().ordinal()] = type;
+			setSlot(type, piece);
+			pieces.add(piece);
 		}
 		
 		piecesByType.put(type, pieces);
 		allPieces.addAll(pieces);
+		addTable(behavior, pieces);
+	}
+	
+	private void addTable(SimplePieceBehavior behavior, List<Piece> pieces) {
+		PieceType type = behavior.getType();
+		PiecePermutationTable table = PiecePermutationTable.getTable(getType(), behavior, pieces);
+		tables[type.ordinal()] = table;
+		
+		tableTypes = Arrays.copyOf(tableTypes, tableTypes.length + 1);
+		tableTypes[tableTypes.length - 1] = type;
+		
+		for(int code = 0; code < stateDependent.length; code ++) {
+			if(table.isStateDependent(code)) stateDependent[code] = true;
+			
+			int numMoved = table.getFromPositions(code).length;
+			if(numMoved > movingPieces.length) movingPieces = new Piece[numMoved];
+		}
 	}
 	
 	protected final void createPieces(SimplePieceBehavior behavior, int numPieces) {
@@ -88,18 +196,44 @@ public abstract class SimplePuzzle extends Puzzle {
 		createPieces(behavior, positions);
 	}
 	
+	//the code of a move that is made with the permutation tables, or -1 if it has to be made by the behaviors
+	private int getTableCode(Move move) {
+		if(unknownPositions || move.getAxis().getPuzzleType() != getType() || move.getLayer() != 0) return -1;
+		
+		int code = MoveTable.getCode(move);
+		return stateDependent[code] ? -1 : code;
+	}
+	
+	/*
+	 * The list of a move that is made with the permutation tables is kept until the puzzle changes,
+	 * so it can't be modified and only holds the affected pieces until the next move.
+	 */
 	@Override
 	public final List<Piece> getAffectedPieces(Move move) {
-		List<Piece> affectedPieces = new ArrayList<Piece>();
+		int code = getTableCode(move);
+		if(code < 0) return getAffectedPiecesByBehaviors(move);
+		if(affectedVersions[code] == stateVersion) return affectedPieceViews.get(code);
+		
+		List<Piece> pieces = affectedPieces.get(code);
+		pieces.clear();
+		for(PieceType type : tableTypes) {
+			int[] fromPositions = tables[type.ordinal()].getFromPositions(code);
+			for(int i = 0; i < fromPositions.length; i ++) {
+				Piece piece = getPiece(type, fromPositions[i]);
+				if(piece != null) pieces.add(piece);
+			}
+		}
 		
+		affectedVersions[code] = stateVersion;
+		return affectedPieceViews.get(code);
+	}
+	
+	private List<Piece> getAffectedPiecesByBehaviors(Move move) {
+		List<Piece> affectedPieces = new ArrayList<Piece>();
 		for(PieceType type : piecesByType.keySet()) {
-			List<Piece> pieces = piecesByType.get(type);
 			SimplePieceBehavior behavior = pieceBehaviors.get(type);
-			
-			for(Piece piece : pieces) {
-				if(behavior.affectedByMove(move, piece)) {
-					affectedPieces.add(piece);
-				}
+			for(Piece piece : piecesByType.get(type)) {
+				if(behavior.affectedByMove(move, piece)) affectedPieces.add(piece);
 			}
 		}
 		
@@ -111,19 +245,71 @@ public abstract class SimplePuzzle extends Puzzle {
 		return this.allPieces;
 	}
 
+	//a move made with the permutation tables only touches the slots that it moves pieces from
 	@Override
 	protected final void movePieces(Move move) {
+		int code = getTableCode(move);
+		if(code < 0) {
+			movePiecesByBehaviors(move);
+			stateVersion++;
+			return;
+		}
+		
+		boolean hashing = super.isHashingState();
+		for(PieceType type : tableTypes) {
+			PiecePermutationTable table = tables[type.ordinal()];
+			int[] fromPositions = table.getFromPositions(code);
+			int[] toPositions = table.getToPositions(code);
+			byte[][] colorMaps = table.getColorMaps(code);
+			
+			//every piece is taken out before any is moved, since a piece can move into a slot that another one is leaving
+			for(int i = 0; i < fromPositions.length; i ++) {
+				movingPieces[i] = getPiece(type, fromPositions[i]);
+			}
+			
+			for(int i = 0; i < fromPositions.length; i ++) {
+				Piece piece = movingPieces[i];
+				if(piece == null) continue;
+				
+				if(hashing) super.toggleStateHash(ZobristKeys.getKey(piece));
+				movePiece(piece, toPositions[i], colorMaps[i]);
+				if(hashing) super.toggleStateHash(ZobristKeys.getKey(piece));
+				setSlot(type, piece);
+			}
+		}
+		
+		stateVersion++;
+	}
+	
+	private void movePiecesByBehaviors(Move move) {
 		for(PieceType type : piecesByType.keySet()) {
 			List<Piece> pieces = piecesByType.get(type);
 			SimplePieceBehavior behavior = pieceBehaviors.get(type);
 			
-			for(Piece piece : pieces) {
-				if(behavior.affectedByMove(move, piece)) {
-					
-					behavior.movePiece(move, piece);
-				}
+			for(int i = 0; i < pieces.size(); i ++) {
+				Piece piece = pieces.get(i);
+				if(!behavior.affectedByMove(move, piece)) continue;
+				
+				if(super.isHashingState()) super.toggleStateHash(ZobristKeys.getKey(piece));
+				behavior.movePiece(move, piece);
+				if(super.isHashingState()) super.toggleStateHash(ZobristKeys.getKey(piece));
+				setSlot(type, piece);
+			}
+		}
+	}
+	
+	//move a piece by a rule from the permutation table
+	private void movePiece(Piece piece, int newPosition, byte[] colorMap) {
+		if(colorMap != null) {
+			for(int i = 0; i < colorMap.length; i ++) {
+				colorBuffer[i] = piece.getColor(colorMap[i]);
+			}
+			for(int i = 0; i < colorMap.length; i ++) {
+				piece.setColor(i, colorBuffer[i]);
 			}
 		}
+		
+		piece.setPosition(newPosition);
 	}
 
 }
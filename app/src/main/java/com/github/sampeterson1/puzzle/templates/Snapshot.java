@@ -0,0 +1,52 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzle.templates;
+
+/*
+ * A copy of the state of a puzzle, created by Puzzle.snapshot() and applied by Puzzle.restore().
+ *
+ * The state is kept as flat arrays (by default the position and index of every piece, and the ordinals
+ * of its colors), so taking and restoring a snapshot are single passes over those arrays. A snapshot can
+ * be restored onto any puzzle of the same type and size.
+ */
+public class Snapshot {
+
+	private int[] ints;
+	private byte[] bytes;
+
+	int orientation;
+	int moveLogLength;
+
+	long stateHash;
+	boolean hashingState;
+
+	public Snapshot(int numInts, int numBytes) {
+		this.ints = new int[numInts];
+		this.bytes = new byte[numBytes];
+	}
+
+	public int[] getInts() {
+		return this.ints;
+	}
+
+	public byte[] getBytes() {
+		return this.bytes;
+	}
+
+}
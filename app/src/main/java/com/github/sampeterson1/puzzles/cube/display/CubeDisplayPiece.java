@@ -18,14 +18,16 @@
 
 package com.github.sampeterson1.puzzles.cube.display;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import com.github.sampeterson1.math.Matrix3D;
 import com.github.sampeterson1.puzzle.display.DisplayPiece;
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
-import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
-import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeFaceletUtil;
 import com.github.sampeterson1.renderEngine.loaders.OBJLoader;
 import com.github.sampeterson1.renderEngine.models.ColoredMesh;
 
@@ -34,84 +36,39 @@ public class CubeDisplayPiece extends DisplayPiece {
 	
 	private static final float CUBE_DRAW_SIZE = 20;
 	
-	/*
-	 * These algorithms take pieces at their "origin positions" (see getOrigin methods below)
-	 * and move them to their correct positions and orientations
-	 */
-	private static final Algorithm[] cornerRotations = initCornerRotations();
-	private static final Algorithm[] edgeRotations = initEdgeRotations();
-	private static final Algorithm[] centerRotations = initCenterRotations();
-	
 	private static ColoredMesh cornerPieceMesh;
 	private static ColoredMesh edgePieceMesh;
 	private static ColoredMesh centerPieceMesh;
 	
+	//the rotation of each placement algorithm, which only has to be worked out once per position
+	private static final Map<PieceType, Matrix3D[]> pieceRotations = initPieceRotations();
+	
 	private float pieceSize;
 	
-	private static final Algorithm[] initCornerRotations() {
-		Algorithm[] cornerRotations = new Algorithm[8];
+	public CubeDisplayPiece(Piece position) {
+		super(position);
 		
-		try {
-			cornerRotations[0] = CubeAlgorithmUtil.parseAlgorithm("R F'");
-			cornerRotations[1] = CubeAlgorithmUtil.parseAlgorithm("F'");
-			cornerRotations[2] = CubeAlgorithmUtil.parseAlgorithm("F' U'");
-			cornerRotations[3] = CubeAlgorithmUtil.parseAlgorithm("F' U2");
-			cornerRotations[4] = CubeAlgorithmUtil.parseAlgorithm("D'");
-			cornerRotations[5] = CubeAlgorithmUtil.parseAlgorithm("");
-			cornerRotations[6] = CubeAlgorithmUtil.parseAlgorithm("D");
-			cornerRotations[7] = CubeAlgorithmUtil.parseAlgorithm("D2");
-		} catch (InvalidAlgorithmException e) {
-			e.printStackTrace();
-		}
-
-		return cornerRotations;
+		if(cornerPieceMesh == null || cornerPieceMesh.getData().isDeleted())
+			loadMeshes();
 	}
 	
-	private static final Algorithm[] initEdgeRotations() {
-		Algorithm[] edgeRotations = new Algorithm[12];
-		
-		try {
-			edgeRotations[0] = CubeAlgorithmUtil.parseAlgorithm("F2");
-			edgeRotations[1] = CubeAlgorithmUtil.parseAlgorithm("F2 U'");
-			edgeRotations[2] = CubeAlgorithmUtil.parseAlgorithm("F2 U2");
-			edgeRotations[3] = CubeAlgorithmUtil.parseAlgorithm("F2 U");
-			edgeRotations[4] = CubeAlgorithmUtil.parseAlgorithm("F");
-			edgeRotations[5] = CubeAlgorithmUtil.parseAlgorithm("F U'");
-			edgeRotations[6] = CubeAlgorithmUtil.parseAlgorithm("F U2");
-			edgeRotations[7] = CubeAlgorithmUtil.parseAlgorithm("F U");
-			edgeRotations[8] = CubeAlgorithmUtil.parseAlgorithm("");
-			edgeRotations[9] = CubeAlgorithmUtil.parseAlgorithm("D");
-			edgeRotations[10] = CubeAlgorithmUtil.parseAlgorithm("D2");
-			edgeRotations[11] = CubeAlgorithmUtil.parseAlgorithm("D'");
-		} catch (InvalidAlgorithmException e) {
-			e.printStackTrace();
-		}
+	private static Map<PieceType, Matrix3D[]> initPieceRotations() {
+		Map<PieceType, Matrix3D[]> rotations = new EnumMap<PieceType, Matrix3D[]>(PieceType.class);
+		rotations.put(PieceType.CORNER, initPieceRotations(PieceType.CORNER, 8));
+		rotations.put(PieceType.EDGE, initPieceRotations(PieceType.EDGE, 12));
+		rotations.put(PieceType.CENTER, initPieceRotations(PieceType.CENTER, 6));
 		
-		return edgeRotations;
+		return rotations;
 	}
 	
-	private static final Algorithm[] initCenterRotations() {
-		Algorithm[] centerRotations = new Algorithm[6];
-		
-		try {
-			centerRotations[0] = CubeAlgorithmUtil.parseAlgorithm("U'");
-			centerRotations[1] = CubeAlgorithmUtil.parseAlgorithm("R");
-			centerRotations[2] = CubeAlgorithmUtil.parseAlgorithm("");
-			centerRotations[3] = CubeAlgorithmUtil.parseAlgorithm("U");
-			centerRotations[4] = CubeAlgorithmUtil.parseAlgorithm("R'");
-			centerRotations[5] = CubeAlgorithmUtil.parseAlgorithm("U2");
-		} catch (InvalidAlgorithmException e) {
-			e.printStackTrace();
+	private static Matrix3D[] initPieceRotations(PieceType type, int numPositions) {
+		Matrix3D[] rotations = new Matrix3D[numPositions];
+		for(int i = 0; i < numPositions; i ++) {
+			Algorithm alg = CubeFaceletUtil.getPlacement(type, i);
+			rotations[i] = Algorithm.getRotationFromAlgorithm(alg);
 		}
 		
-		return centerRotations;
-	}
-	
-	public CubeDisplayPiece(Piece position) {
-		super(position);
-		
-		if(cornerPieceMesh == null || cornerPieceMesh.getData().isDeleted())
-			loadMeshes();
+		return rotations;
 	}
 	
 	private void loadMeshes() {
@@ -185,21 +142,9 @@ public class CubeDisplayPiece extends DisplayPiece {
 		return translation;
 	}
 	
-	//Apply the rotation algorithms into a rotation matrix
+	//The placement algorithm of the piece's position as a rotation matrix (shared, so it must not be modified)
 	private Matrix3D getPieceRotation(Piece piece) {
-		PieceType type = piece.getType();
-		int position = piece.getPosition();
-
-		Algorithm alg = null;
-		if(type == PieceType.CENTER) {
-			alg = centerRotations[position];
-		} else if(type == PieceType.EDGE) {
-			alg = edgeRotations[position];
-		} else if(type == PieceType.CORNER) {
-			alg = cornerRotations[position];
-		}
-		
-		return Algorithm.getRotationFromAlgorithm(alg);
+		return pieceRotations.get(piece.getType())[piece.getPosition()];
 	}
 	
 	@Override
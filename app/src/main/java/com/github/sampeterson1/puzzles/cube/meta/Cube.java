@@ -25,12 +25,13 @@ import com.github.sampeterson1.puzzle.lib.PuzzleMetaFunctions;
 import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.lib.Rotateable;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.RotationGroup;
 import com.github.sampeterson1.puzzle.templates.GroupedPuzzle;
 import com.github.sampeterson1.puzzle.templates.Puzzle;
 import com.github.sampeterson1.puzzles.cube.pieces.CubeCenterBehavior;
 import com.github.sampeterson1.puzzles.cube.pieces.CubeCornerBehavior;
 import com.github.sampeterson1.puzzles.cube.pieces.CubeEdgeBehavior;
+import com.github.sampeterson1.puzzles.cube.util.CubeCenterUtil;
 import com.github.sampeterson1.puzzles.cube.util.CubeMoveUtil;
 import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
 
@@ -79,13 +80,44 @@ public class Cube extends GroupedPuzzle implements Rotateable {
 		return getCenter(face).getPiece(centerIndex).getColor();
 	}
 
+	//L, D and B turns move the same pieces as the opposite layer on R, U and F
 	@Override
-	public Axis transposeAxis(Axis face) {
-		for (Move move : super.getRotations()) {
-			face = CubeMoveUtil.mapFace(face, move);
+	protected Axis getNormalizedAxis(Axis axis) {
+		return CubeUtil.isRUF(axis) ? axis : CubeUtil.getOpposingFace(axis);
+	}
+	
+	@Override
+	protected int getNormalizedLayer(Axis axis, int layer) {
+		return CubeUtil.isRUF(axis) ? layer : super.getSize() - layer - 1;
+	}
+
+	//a center piece only moves between the indices that turning a face rotates it through, and an edge piece between an index and its flip
+	@Override
+	protected int getOrbit(PieceType type, int index) {
+		int size = super.getSize();
+		if(type == PieceType.CENTER) {
+			int orbit = index;
+			for(int i = 0; i < 3; i ++) {
+				index = CubeCenterUtil.rotateCW(index, size - 2);
+				orbit = Math.min(orbit, index);
+			}
+			
+			return orbit;
+		} else if(type == PieceType.EDGE) {
+			return Math.min(index, size - 3 - index);
 		}
+		
+		return 0;
+	}
 
-		return face;
+	@Override
+	public Axis transposeAxis(Axis face) {
+		return getRotationGroup().transposeAxis(super.getOrientation(), face);
+	}
+	
+	@Override
+	protected RotationGroup createRotationGroup() {
+		return RotationGroup.getGroup(PuzzleType.CUBE, CubeMoveUtil::mapFace);
 	}
 
 	@Override
@@ -1,5 +1,7 @@
 package com.github.sampeterson1.puzzles.cube.meta;
 
+import java.util.function.BooleanSupplier;
+
 import com.github.sampeterson1.puzzle.display.ColorPalette;
 import com.github.sampeterson1.puzzle.display.DisplayPiece;
 import com.github.sampeterson1.puzzle.lib.Color;
@@ -9,18 +11,24 @@ import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
 import com.github.sampeterson1.puzzles.cube.display.CubeDisplayPiece;
+import com.github.sampeterson1.puzzles.cube.solvers.KociembaSolver;
 import com.github.sampeterson1.puzzles.cube.solvers.MasterCubeSolver;
+import com.github.sampeterson1.puzzles.cube.solvers.OptimalCubeSolver;
+import com.github.sampeterson1.puzzles.cube.solvers.TwoByTwoSolver;
 import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
 
 public class CubeMetaFunctions extends PuzzleMetaFunctions<Cube> {
 
+	//how long a 3x3 is searched for a shorter solution after the first one is found
+	static final long DEFAULT_SOLVE_MILLIS = 100;
+
 	public CubeMetaFunctions(Cube cube) {
 		super(cube);
 	}
 	
 	@Override
 	public Algorithm simplify(Algorithm alg) {
-		return CubeAlgorithmUtil.simplify(alg);
+		return CubeAlgorithmUtil.simplify(alg, super.getPuzzle().getSize());
 	}
 
 	@Override
@@ -33,6 +41,10 @@ public class CubeMetaFunctions extends PuzzleMetaFunctions<Cube> {
 
 	@Override
 	public ColorPalette createDefaultColorPalette() {
+		return createCubeColorPalette();
+	}
+
+	static ColorPalette createCubeColorPalette() {
 		ColorPalette palette = new ColorPalette();
 		
 		palette.putColor(Color.BORDER);
@@ -58,7 +70,40 @@ public class CubeMetaFunctions extends PuzzleMetaFunctions<Cube> {
 
 	@Override
 	public Algorithm solve() {
-		return new MasterCubeSolver(super.getPuzzle()).solve();
+		return solve(DEFAULT_SOLVE_MILLIS);
+	}
+
+	/*
+	 * A 2x2 is solved optimally, and a 3x3 is solved with the two-phase solver, which stops looking for a shorter
+	 * solution after the time budget. Bigger cubes are reduced by MasterCubeSolver and then solved the same way, or
+	 * layer by layer if there is no time budget.
+	 */
+	public Algorithm solve(long timeBudgetMillis) {
+		Cube cube = super.getPuzzle();
+
+		Algorithm solution;
+		if(cube.getSize() == 2) {
+			solution = new TwoByTwoSolver(cube).solve();
+		} else if(cube.getSize() == 3) {
+			solution = new KociembaSolver(cube).solve(timeBudgetMillis);
+		} else {
+			return new MasterCubeSolver(cube).solve(timeBudgetMillis);
+		}
+
+		cube.executeAlgorithm(solution, false);
+		return solution;
+	}
+
+	/*
+	 * Solves a 3x3 in the fewest possible moves, which can take a long time for a deep scramble. The search throws
+	 * a CancellationException and leaves the cube as it was if cancelled returns true first.
+	 */
+	public Algorithm solveOptimally(OptimalCubeSolver.ProgressListener listener, BooleanSupplier cancelled) {
+		Cube cube = super.getPuzzle();
+		Algorithm solution = new OptimalCubeSolver(cube).solve(listener, cancelled);
+
+		cube.executeAlgorithm(solution, false);
+		return solution;
 	}
 
 }
@@ -0,0 +1,293 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.meta;
+
+import java.util.List;
+
+import com.github.sampeterson1.puzzle.lib.Color;
+import com.github.sampeterson1.puzzle.lib.Piece;
+import com.github.sampeterson1.puzzle.lib.PieceType;
+import com.github.sampeterson1.puzzle.lib.PuzzleMetaFunctions;
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
+import com.github.sampeterson1.puzzle.lib.Rotateable;
+import com.github.sampeterson1.puzzle.lib.ZobristKeys;
+import com.github.sampeterson1.puzzle.moves.Axis;
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.RotationGroup;
+import com.github.sampeterson1.puzzle.templates.Puzzle;
+import com.github.sampeterson1.puzzle.templates.Snapshot;
+import com.github.sampeterson1.puzzles.cube.util.CubeFaceletLayout;
+import com.github.sampeterson1.puzzles.cube.util.CubeFaceletUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeMoveUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+/*
+ * An implementation of Puzzle that represents an n by n Rubik's Cube as one byte array of sticker colors per face.
+ *
+ * A layer turn is a few passes of 4-cycles over those arrays (see CubeFaceletLayout), so moves are much
+ * cheaper than on Cube, whose PieceGroups move Piece objects one at a time. Solvers and PuzzleDisplay
+ * work on Piece objects, so the first time pieces are requested an equivalent Cube is built with toCube()
+ * and kept in step with every following move.
+ */
+public class FaceletCube extends Puzzle implements Rotateable {
+
+	private static final Color[] colors = Color.values();
+
+	private int size;
+	private byte[][] faces;
+
+	private CubeFaceletLayout layout;
+	private int[][][] turnCycles;
+
+	private Cube pieceModel;
+
+	//creates a solved cube
+	public FaceletCube(int size) {
+		super(PuzzleType.CUBE);
+
+		this.size = size;
+		this.layout = CubeFaceletUtil.getLayout(size);
+		this.turnCycles = new int[3][size][];
+		this.faces = new byte[6][size * size];
+
+		for(int face = 0; face < 6; face ++) {
+			byte color = (byte) CubeUtil.getFaceColor(CubeUtil.getFace(face)).ordinal();
+			for(int i = 0; i < size * size; i ++) {
+				faces[face][i] = color;
+			}
+		}
+	}
+
+	//creates a cube with the same stickers as a Cube
+	public FaceletCube(Cube cube) {
+		this(cube.getSize());
+
+		for(Piece piece : cube.getAllPieces()) {
+			int[] stickers = getStickers(piece.getType(), piece.getPosition(), piece.getIndex());
+			for(int i = 0; i < stickers.length; i ++) {
+				setSticker(stickers[i], piece.getColor(i));
+			}
+		}
+	}
+
+	//creates a Cube with the same stickers as this cube
+	public Cube toCube() {
+		Cube cube = new Cube(size);
+
+		for(Piece piece : cube.getAllPieces()) {
+			int[] stickers = getStickers(piece.getType(), piece.getPosition(), piece.getIndex());
+			for(int i = 0; i < stickers.length; i ++) {
+				piece.setColor(i, getSticker(stickers[i]));
+			}
+		}
+
+		return cube;
+	}
+
+	//returns the stickers of one piece, in the same order as its colors
+	private int[] getStickers(PieceType type, int position, int index) {
+		int[] groupStickers = layout.getPieceStickers(type, position);
+		if(type == PieceType.EDGE) {
+			return new int[] { groupStickers[2 * index], groupStickers[2 * index + 1] };
+		} else if(type == PieceType.CENTER) {
+			return new int[] { groupStickers[index] };
+		}
+
+		return groupStickers;
+	}
+
+	private Color getSticker(int sticker) {
+		return colors[faces[CubeFaceletUtil.getStickerFace(sticker)][CubeFaceletUtil.getStickerIndex(sticker)]];
+	}
+
+	private void setSticker(int sticker, Color color) {
+		faces[CubeFaceletUtil.getStickerFace(sticker)][CubeFaceletUtil.getStickerIndex(sticker)] = (byte) color.ordinal();
+	}
+
+	//returns the color of a sticker on a face, addressed as described in CubeFaceletUtil
+	public Color getColor(Axis face, int row, int col) {
+		return colors[faces[CubeUtil.getFacePosition(face)][row * size + col]];
+	}
+
+	public int getSize() {
+		return this.size;
+	}
+	
+	@Override
+	protected int getNumLayers() {
+		return this.size;
+	}
+
+	public boolean isSolved() {
+		for(byte[] face : faces) {
+			for(int i = 1; i < face.length; i ++) {
+				if(face[i] != face[0]) return false;
+			}
+		}
+
+		return true;
+	}
+
+	private Cube getPieceModel() {
+		if(pieceModel == null) pieceModel = toCube();
+		return pieceModel;
+	}
+
+	@Override
+	public List<Piece> getAffectedPieces(Move move) {
+		return getPieceModel().getAffectedPieces(move);
+	}
+
+	@Override
+	public List<Piece> getAllPieces() {
+		return getPieceModel().getAllPieces();
+	}
+
+	@Override
+	protected void movePieces(Move move) {
+		if(move.isCubeRotation()) {
+			for(int layer = 0; layer < size; layer ++) {
+				turnLayer(move.getAxis(), layer, move.isCW());
+			}
+		} else {
+			for(int layer = move.getLayer(); layer <= move.getEndLayer(); layer ++) {
+				turnLayer(move.getAxis(), layer, move.isCW());
+			}
+		}
+
+		if(pieceModel != null) pieceModel.movePieces(move);
+	}
+
+	//a turn of L, D or B is the opposite turn of the matching layer on R, U or F
+	private void turnLayer(Axis face, int layer, boolean cw) {
+		if(!CubeUtil.isRUF(face)) {
+			face = CubeUtil.getOpposingFace(face);
+			layer = size - layer - 1;
+			cw = !cw;
+		}
+
+		int facePosition = CubeUtil.getFacePosition(face);
+		int[] cycles = turnCycles[facePosition][layer];
+		if(cycles == null) {
+			cycles = layout.getTurnCycles(face, layer);
+			turnCycles[facePosition][layer] = cycles;
+		}
+
+		boolean hashing = super.isHashingState();
+		if(hashing) toggleStateHash(cycles);
+		
+		if(cw) {
+			for(int i = 0; i < cycles.length; i += 4) {
+				cycle(cycles[i + 3], cycles[i + 2], cycles[i + 1], cycles[i]);
+			}
+		} else {
+			for(int i = 0; i < cycles.length; i += 4) {
+				cycle(cycles[i], cycles[i + 1], cycles[i + 2], cycles[i + 3]);
+			}
+		}
+		
+		if(hashing) toggleStateHash(cycles);
+	}
+
+	//moves the sticker at b to a, c to b, d to c and a to d
+	private void cycle(int a, int b, int c, int d) {
+		byte[] faceA = faces[CubeFaceletUtil.getStickerFace(a)];
+		byte[] faceB = faces[CubeFaceletUtil.getStickerFace(b)];
+		byte[] faceC = faces[CubeFaceletUtil.getStickerFace(c)];
+		byte[] faceD = faces[CubeFaceletUtil.getStickerFace(d)];
+		int indexA = CubeFaceletUtil.getStickerIndex(a);
+		int indexB = CubeFaceletUtil.getStickerIndex(b);
+		int indexC = CubeFaceletUtil.getStickerIndex(c);
+		int indexD = CubeFaceletUtil.getStickerIndex(d);
+
+		byte temp = faceA[indexA];
+		faceA[indexA] = faceB[indexB];
+		faceB[indexB] = faceC[indexC];
+		faceC[indexC] = faceD[indexD];
+		faceD[indexD] = temp;
+	}
+
+	@Override
+	protected Puzzle createInstance() {
+		return new FaceletCube(size);
+	}
+	
+	//the state of a sticker cube is its face arrays
+	@Override
+	protected Snapshot saveState() {
+		int area = size * size;
+		Snapshot snapshot = new Snapshot(0, 6 * area);
+		for(int face = 0; face < 6; face ++) {
+			System.arraycopy(faces[face], 0, snapshot.getBytes(), face * area, area);
+		}
+		
+		return snapshot;
+	}
+	
+	@Override
+	protected void loadState(Snapshot snapshot) {
+		int area = size * size;
+		for(int face = 0; face < 6; face ++) {
+			System.arraycopy(snapshot.getBytes(), face * area, faces[face], 0, area);
+		}
+		
+		//keep the same Piece objects, so that anything holding on to them sees the restored state
+		if(pieceModel != null) pieceModel.restore(toCube().snapshot());
+	}
+	
+	//the state hash of a sticker cube has one key per sticker and color
+	@Override
+	protected long computeStateHash() {
+		long hash = 0;
+		for(int face = 0; face < 6; face ++) {
+			for(int i = 0; i < size * size; i ++) {
+				hash ^= getStickerKey(CubeFaceletUtil.packSticker(face, i));
+			}
+		}
+		
+		return hash;
+	}
+	
+	private long getStickerKey(int sticker) {
+		byte color = faces[CubeFaceletUtil.getStickerFace(sticker)][CubeFaceletUtil.getStickerIndex(sticker)];
+		return ZobristKeys.mix(ZobristKeys.mix(sticker) ^ color);
+	}
+	
+	private void toggleStateHash(int[] stickers) {
+		for(int i = 0; i < stickers.length; i ++) {
+			super.toggleStateHash(getStickerKey(stickers[i]));
+		}
+	}
+	
+	@Override
+	public Axis transposeAxis(Axis face) {
+		return getRotationGroup().transposeAxis(super.getOrientation(), face);
+	}
+	
+	@Override
+	protected RotationGroup createRotationGroup() {
+		return RotationGroup.getGroup(PuzzleType.CUBE, CubeMoveUtil::mapFace);
+	}
+
+	@Override
+	protected PuzzleMetaFunctions<? extends Puzzle> createMetaFunctions() {
+		return new FaceletCubeMetaFunctions(this);
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.meta;
+
+import com.github.sampeterson1.puzzle.display.ColorPalette;
+import com.github.sampeterson1.puzzle.display.DisplayPiece;
+import com.github.sampeterson1.puzzle.lib.Piece;
+import com.github.sampeterson1.puzzle.lib.PuzzleMetaFunctions;
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
+import com.github.sampeterson1.puzzles.cube.display.CubeDisplayPiece;
+import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
+
+public class FaceletCubeMetaFunctions extends PuzzleMetaFunctions<FaceletCube> {
+
+	public FaceletCubeMetaFunctions(FaceletCube cube) {
+		super(cube);
+	}
+
+	@Override
+	public Algorithm simplify(Algorithm alg) {
+		return CubeAlgorithmUtil.simplify(alg, super.getPuzzle().getSize());
+	}
+
+	@Override
+	public Algorithm scramble(int length) {
+		Algorithm scramble = CubeAlgorithmUtil.generateScramble(length, super.getPuzzle().getSize());
+		super.getPuzzle().executeAlgorithm(scramble);
+
+		return scramble;
+	}
+
+	@Override
+	public ColorPalette createDefaultColorPalette() {
+		return CubeMetaFunctions.createCubeColorPalette();
+	}
+
+	@Override
+	public DisplayPiece createDisplayPiece(Piece piece) {
+		return new CubeDisplayPiece(piece);
+	}
+
+	@Override
+	public Algorithm parseAlgorithm(String alg) throws InvalidAlgorithmException {
+		return CubeAlgorithmUtil.parseAlgorithm(alg, super.getPuzzle().getSize());
+	}
+
+	@Override
+	public Algorithm solve() {
+		return solve(CubeMetaFunctions.DEFAULT_SOLVE_MILLIS);
+	}
+
+	//the solvers work on pieces, so solve a Cube copy and play its solution back on this cube
+	public Algorithm solve(long timeBudgetMillis) {
+		Cube cube = super.getPuzzle().toCube();
+		Algorithm solution = new CubeMetaFunctions(cube).solve(timeBudgetMillis);
+		super.getPuzzle().executeAlgorithm(solution);
+
+		return solution;
+	}
+
+}
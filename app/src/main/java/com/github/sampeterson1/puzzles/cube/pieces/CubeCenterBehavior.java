@@ -142,7 +142,7 @@ public class CubeCenterBehavior extends PieceBehavior {
 			}
 		} else {
 			//map center pieces on one face to another face determined by the given move
-			Axis newFace = CubeMoveUtil.mapFace(face, move);
+			Axis newFace = CubeMoveUtil.mapFace(face, moveFace, move.isCW());
 			newIndex = CubeCenterUtil.mapIndex(moveFace, face, newFace, index, centerSize);
 			piece.setPosition(CubeUtil.getFacePosition(newFace));
 		}
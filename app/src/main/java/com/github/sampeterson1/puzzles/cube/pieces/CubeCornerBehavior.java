@@ -30,7 +30,6 @@ import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
 import com.github.sampeterson1.puzzle.templates.Puzzle;
 import com.github.sampeterson1.puzzles.cube.util.CubeCornerUtil;
-import com.github.sampeterson1.puzzles.cube.util.CubeMoveUtil;
 import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
 
 //An implementation of PieceBehavior that defines the behavior of corner pieces on a Rubik's Cube
@@ -77,19 +76,19 @@ public class CubeCornerBehavior extends PieceBehavior {
 
 	@Override
 	public void movePiece(Move move, Piece piece) {
-		//one clockwise move = three counterclockwise moves
-		move = CubeMoveUtil.normalize(move, piece.getPuzzleSize());
-		int iters = (move.isCW() ? 1 : 3);
+		Axis face = move.getAxis();
+		boolean cw = move.isCW();
 		
+		//a turn of L, D or B is the opposite turn of R, U or F
+		if(!CubeUtil.isRUF(face)) {
+			face = CubeUtil.getOpposingFace(face);
+			cw = !cw;
+		}
+		
+		//one clockwise move = three counterclockwise moves
+		int iters = (cw ? 1 : 3);
 		for(int i = 0; i < iters; i ++) {
-			int[] mapping = CubeCornerUtil.mapCorner(move, piece);
-			int newPosition = mapping[0];
-			int rotation = mapping[1];
-			piece.setPosition(newPosition);
-			//rotate the indices of the colors on the corner such that they match up with their new position
-			for(int j = 0; j < rotation; j ++) {
-				CubeCornerUtil.rotateCW(piece);
-			}
+			CubeCornerUtil.moveCorner(face, piece);
 		}
 	}
 	
@@ -52,12 +52,7 @@ public class CubeEdgeBehavior extends PieceBehavior {
 
 	@Override
 	public void movePiece(Move move, Piece piece) {
-		Piece mapped = CubeEdgeUtil.mapEdge(move, piece);
-
-		piece.setColor(0, mapped.getColor(0));
-		piece.setColor(1, mapped.getColor(1));
-		piece.setPosition(mapped.getPosition());
-		piece.setIndex(mapped.getIndex());
+		CubeEdgeUtil.moveEdge(move.getAxis(), move.isCW(), piece);
 	}
 	
 	/*
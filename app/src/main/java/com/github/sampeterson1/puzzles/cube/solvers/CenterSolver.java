@@ -19,12 +19,14 @@
 package com.github.sampeterson1.puzzles.cube.solvers;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceGroup;
+import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.cube.meta.Cube;
 import com.github.sampeterson1.puzzles.cube.util.CubeCenterUtil;
 import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
@@ -38,30 +40,33 @@ import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
 public class CenterSolver {
 
 	private Cube cube;
+	private MoveTable moveTable;
 	private float progress = 0;
 
 	public CenterSolver(Cube cube) {
 		this.cube = cube;
+		this.moveTable = cube.getMoveTable();
 	}
 
+	//returns the pieces in the order of a search of each face, starting at the index and rotating it clockwise
 	public ArrayList<Piece> findPieces(int index, Color color) {
-		ArrayList<Piece> retVal = new ArrayList<Piece>();
-
-		for (Axis face : CubeUtil.getFaces()) {
-			PieceGroup center = cube.getCenter(face);
-			int j = index;
-			for (int i = 0; i < 4; i++) {
-				Piece piece = center.getPiece(j);
-				if (piece.getColor() == color) {
-					retVal.add(piece);
-				}
-				j = CubeCenterUtil.rotateCW(j, cube.getSize() - 2);
-			}
-		}
+		ArrayList<Piece> retVal = new ArrayList<Piece>(cube.findPieces(PieceType.CENTER, index, color));
+		retVal.sort(Comparator.comparingInt((Piece piece) -> piece.getPosition() * 4 + getRotations(index, piece.getIndex())));
 
 		return retVal;
 	}
 
+	//the number of clockwise rotations of a face that take a center piece from one index to another
+	private int getRotations(int from, int to) {
+		int rotations = 0;
+		while (from != to && rotations < 4) {
+			from = CubeCenterUtil.rotateCW(from, cube.getSize() - 2);
+			rotations++;
+		}
+
+		return rotations;
+	}
+
 	public Piece getUnsolvedPiece(ArrayList<Piece> pieces, int line, int index, boolean vertical) {
 		int size = cube.getSize() - 2;
 		for (Piece p : pieces) {
@@ -92,39 +97,39 @@ public class CenterSolver {
 		int size = cube.getSize() - 2;
 		if (line == size / 2 && size % 2 == 1) {
 			while (cube.getCenter(Axis.F).getPiece(size * size / 2).getColor() != color) {
-				cube.makeMove(new Move(Axis.R, size / 2 + 1, false));
+				cube.makeMove(moveTable.getMove(Axis.R, size / 2 + 1, false));
 			}
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.R, size / 2 + 1, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.R, size / 2 + 1, true));
 		} else if (safe) {
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.L, line + 1, true));
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.L, line + 1, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.L, line + 1, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.L, line + 1, false));
 		} else {
 			// regular case
-			cube.makeMove(new Move(Axis.F, 0, true));
-			cube.makeMove(new Move(Axis.L, line + 1, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.L, line + 1, false));
 		}
 	}
 
 	public void insertVerticalLine(int line, boolean safe) {
 		int size = cube.getSize() - 2;
 		if (line == size / 2 && size % 2 == 1) {
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.R, size / 2 + 1, false));
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.R, size / 2 + 1, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.R, size / 2 + 1, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.R, size / 2 + 1, true));
 		} else if (safe) {
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.L, line + 1, true));
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.L, line + 1, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.L, line + 1, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.L, line + 1, false));
 		} else {
-			cube.makeMove(new Move(Axis.L, line + 1, false));
+			cube.makeMove(moveTable.getMove(Axis.L, line + 1, false));
 		}
 	}
 
@@ -136,37 +141,37 @@ public class CenterSolver {
 		if (!safe && CubeCenterUtil.getLayer(piece, Axis.L, size) - 1 > line
 				&& (size % 2 == 0 || CubeCenterUtil.getLayer(piece, Axis.L, size) - 1 != size / 2)) {
 			if (face == Axis.U) {
-				cube.makeMove(new Move(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), true));
+				cube.makeMove(moveTable.getMove(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), true));
 			} else if (face == Axis.D) {
-				cube.makeMove(new Move(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), false));
+				cube.makeMove(moveTable.getMove(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), false));
 			}
 		} else {
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 			int layer = CubeCenterUtil.getLayer(piece, Axis.F, size);
-			cube.makeMove(new Move(Axis.F, layer, true));
+			cube.makeMove(moveTable.getMove(Axis.F, layer, true));
 			if (safe || CubeCenterUtil.getLayer(piece, Axis.B, size) - 1 < line
 					|| (size % 2 == 1 && CubeCenterUtil.getLayer(piece, Axis.F, size) - 1 == size / 2)) {
 				while (CubeCenterUtil.getLayer(piece, Axis.F, size) == layer) {
-					cube.makeMove(new Move(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), true));
+					cube.makeMove(moveTable.getMove(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), true));
 				}
-				cube.makeMove(new Move(Axis.F, layer, false));
+				cube.makeMove(moveTable.getMove(Axis.F, layer, false));
 			}
-			cube.makeMove(new Move(Axis.U, 0, false));
-			cube.makeMove(new Move(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.R, CubeCenterUtil.getLayer(piece, Axis.R, size), true));
 		}
 	}
 
 	// move a center piece from the F face if the lines are constructed horizontally
 	public void moveCenterHorizontal_F(Piece piece) {
 		int size = cube.getSize() - 2;
-		cube.makeMove(new Move(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 		int layer = CubeCenterUtil.getLayer(piece, Axis.R, size);
-		cube.makeMove(new Move(Axis.R, layer, false));
+		cube.makeMove(moveTable.getMove(Axis.R, layer, false));
 		while (CubeCenterUtil.getLayer(piece, Axis.R, size) == layer) {
-			cube.makeMove(new Move(Axis.D, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.D, 0, true));
 		}
-		cube.makeMove(new Move(Axis.R, layer, true));
-		cube.makeMove(new Move(Axis.F, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.R, layer, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, false));
 	}
 
 	// move a center piece from the U face if the lines are constructed horizontally
@@ -174,24 +179,24 @@ public class CenterSolver {
 		int size = cube.getSize() - 2;
 		int layer = CubeCenterUtil.getLayer(piece, Axis.R, size);
 		if (safe) {
-			cube.makeMove(new Move(Axis.R, layer, true));
-			cube.makeMove(new Move(Axis.R, layer, true));
+			cube.makeMove(moveTable.getMove(Axis.R, layer, true));
+			cube.makeMove(moveTable.getMove(Axis.R, layer, true));
 
 			if (size - layer - 2 < index % size || safe) {
 				while (CubeCenterUtil.getLayer(piece, Axis.R, size) == layer) {
-					cube.makeMove(new Move(Axis.D, 0, true));
+					cube.makeMove(moveTable.getMove(Axis.D, 0, true));
 				}
-				cube.makeMove(new Move(Axis.R, layer, false));
-				cube.makeMove(new Move(Axis.R, layer, false));
+				cube.makeMove(moveTable.getMove(Axis.R, layer, false));
+				cube.makeMove(moveTable.getMove(Axis.R, layer, false));
 			}
 		} else {
-			cube.makeMove(new Move(Axis.R, layer, true));
+			cube.makeMove(moveTable.getMove(Axis.R, layer, true));
 
 			if (size - layer - 2 < index % size || safe) {
 				while (CubeCenterUtil.getLayer(piece, Axis.R, size) == layer) {
-					cube.makeMove(new Move(Axis.B, 0, true));
+					cube.makeMove(moveTable.getMove(Axis.B, 0, true));
 				}
-				cube.makeMove(new Move(Axis.R, layer, false));
+				cube.makeMove(moveTable.getMove(Axis.R, layer, false));
 			}
 		}
 	}
@@ -200,11 +205,11 @@ public class CenterSolver {
 	public void moveCenterVertical_F(Piece piece, int index) {
 		int size = cube.getSize() - 2;
 		if (CubeCenterUtil.getLayer(piece, Axis.U, size) - 1 < index) {
-			cube.makeMove(new Move(Axis.F, 0, true));
-			cube.makeMove(new Move(Axis.U, CubeCenterUtil.getLayer(piece, Axis.U, size), true));
-			cube.makeMove(new Move(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, CubeCenterUtil.getLayer(piece, Axis.U, size), true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
 		} else {
-			cube.makeMove(new Move(Axis.U, CubeCenterUtil.getLayer(piece, Axis.U, size), true));
+			cube.makeMove(moveTable.getMove(Axis.U, CubeCenterUtil.getLayer(piece, Axis.U, size), true));
 		}
 	}
 
@@ -247,11 +252,11 @@ public class CenterSolver {
 						}
 
 						while (piece.getIndex() != index) {
-							cube.makeMove(new Move(CubeUtil.getFace(piece.getPosition()), 0, true));
+							cube.makeMove(moveTable.getMove(CubeUtil.getFace(piece.getPosition()), 0, true));
 						}
 
 						while (CubeUtil.getFace(piece.getPosition()) != Axis.F) {
-							cube.makeMove(new Move(Axis.U, CubeCenterUtil.getLayer(piece, Axis.U, size), true));
+							cube.makeMove(moveTable.getMove(Axis.U, CubeCenterUtil.getLayer(piece, Axis.U, size), true));
 						}
 					}
 				}
@@ -299,7 +304,7 @@ public class CenterSolver {
 						int fIndex = CubeCenterUtil.mapIndex(Axis.R, CubeUtil.getFace(piece.getPosition()), Axis.F,
 								piece.getIndex(), size);
 						while (fIndex != index) {
-							cube.makeMove(new Move(CubeUtil.getFace(piece.getPosition()), 0, true));
+							cube.makeMove(moveTable.getMove(CubeUtil.getFace(piece.getPosition()), 0, true));
 							fIndex = CubeCenterUtil.mapIndex(Axis.R, CubeUtil.getFace(piece.getPosition()), Axis.F,
 									piece.getIndex(), size);
 						}
@@ -309,20 +314,20 @@ public class CenterSolver {
 						int fMoves = 0;
 						int rLayer = CubeCenterUtil.getLayer(piece, Axis.R, size);
 						while (CubeUtil.getFace(piece.getPosition()) != Axis.F) {
-							cube.makeMove(new Move(Axis.R, rLayer, true));
+							cube.makeMove(moveTable.getMove(Axis.R, rLayer, true));
 							rMoves++;
 						}
 
 						if (index % size < line || safe) {
 							while (CubeCenterUtil.getLayer(piece, Axis.R, size) == rLayer || fMoves % 2 == 0) {
-								cube.makeMove(new Move(Axis.F, 0, true));
+								cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 								fMoves++;
 							}
 							for (int j = 0; j < rMoves; j++) {
-								cube.makeMove(new Move(Axis.R, rLayer, false));
+								cube.makeMove(moveTable.getMove(Axis.R, rLayer, false));
 							}
 							for (int j = 0; j < fMoves; j++) {
-								cube.makeMove(new Move(Axis.F, 0, false));
+								cube.makeMove(moveTable.getMove(Axis.F, 0, false));
 							}
 						}
 					}
@@ -367,26 +372,26 @@ public class CenterSolver {
 
 				// move the F face until the 2 pieces allign
 				while (toMove.getIndex() != i) {
-					cube.makeMove(new Move(Axis.F, 0, true));
+					cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 				}
 
 				// use a commutator to exchange 2 unsolved center pieces
 				int layer1 = CubeCenterUtil.getLayer(toMove, Axis.R, size);
-				cube.makeMove(new Move(Axis.R, layer1, true));
-				cube.makeMove(new Move(Axis.U, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.R, layer1, true));
+				cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 				boolean cw = true;
 				if (CubeCenterUtil.getLayer(toMove, Axis.R, size) == layer1) {
-					cube.makeMove(new Move(Axis.U, 0, false));
-					cube.makeMove(new Move(Axis.U, 0, false));
+					cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+					cube.makeMove(moveTable.getMove(Axis.U, 0, false));
 					cw = false;
 				}
 				int layer2 = CubeCenterUtil.getLayer(toMove, Axis.R, size);
-				cube.makeMove(new Move(Axis.R, layer2, true));
-				cube.makeMove(new Move(Axis.U, 0, !cw));
-				cube.makeMove(new Move(Axis.R, layer1, false));
-				cube.makeMove(new Move(Axis.U, 0, cw));
-				cube.makeMove(new Move(Axis.R, layer2, false));
-				cube.makeMove(new Move(Axis.U, 0, !cw));
+				cube.makeMove(moveTable.getMove(Axis.R, layer2, true));
+				cube.makeMove(moveTable.getMove(Axis.U, 0, !cw));
+				cube.makeMove(moveTable.getMove(Axis.R, layer1, false));
+				cube.makeMove(moveTable.getMove(Axis.U, 0, cw));
+				cube.makeMove(moveTable.getMove(Axis.R, layer2, false));
+				cube.makeMove(moveTable.getMove(Axis.U, 0, !cw));
 			}
 		}
 
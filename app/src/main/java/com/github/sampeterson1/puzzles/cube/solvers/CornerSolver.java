@@ -21,7 +21,7 @@ package com.github.sampeterson1.puzzles.cube.solvers;
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.cube.meta.Cube;
 
 /*
@@ -33,9 +33,11 @@ import com.github.sampeterson1.puzzles.cube.meta.Cube;
 public class CornerSolver {
 
 	private Cube cube;
+	private MoveTable moveTable;
 
 	public CornerSolver(Cube cube) {
 		this.cube = cube;
+		this.moveTable = cube.getMoveTable();
 	}
 
 	public void solve() {
@@ -51,13 +53,13 @@ public class CornerSolver {
 
 	private void allignCorner(Piece toSolve) {
 		while (toSolve.getPosition() != 1) {
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 		}
 
 		Color fColor = cube.getSolveColor(Axis.F);
 		Color rColor = cube.getSolveColor(Axis.R);
 		while (toSolve.indexOfColor(fColor) == -1 || toSolve.indexOfColor(rColor) == -1) {
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 			cube.makeRotation(Axis.U, false);
 			
 			fColor = cube.getSolveColor(Axis.F);
@@ -102,22 +104,22 @@ public class CornerSolver {
 	private void insertCorner(Piece toSolve, Color c) {
 		int colorIndex = toSolve.indexOfColor(c);
 		if (colorIndex == 0) {
-			cube.makeMove(new Move(Axis.F, 0, false));
-			cube.makeMove(new Move(Axis.U, 0, false));
-			cube.makeMove(new Move(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 		} else if (colorIndex == 1) {
-			cube.makeMove(new Move(Axis.R, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.R, 0, false));
-			cube.makeMove(new Move(Axis.U, 0, false));
-			cube.makeMove(new Move(Axis.R, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.R, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.R, 0, false));
 		} else if (colorIndex == 2) {
-			cube.makeMove(new Move(Axis.R, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.R, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.R, 0, false));
 		}
 	}
 
@@ -125,9 +127,9 @@ public class CornerSolver {
 		while (toSolve.getPosition() != 5) {
 			cube.makeRotation(Axis.U, true);
 		}
-		cube.makeMove(new Move(Axis.R, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.R, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, false));
 	}
 
 	private void solveCorner(Color c) {
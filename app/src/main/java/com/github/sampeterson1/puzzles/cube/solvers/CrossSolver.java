@@ -20,8 +20,10 @@ package com.github.sampeterson1.puzzles.cube.solvers;
 
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
+import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.cube.meta.Cube;
 import com.github.sampeterson1.puzzles.cube.util.CubeEdgeUtil;
 
@@ -34,9 +36,11 @@ import com.github.sampeterson1.puzzles.cube.util.CubeEdgeUtil;
 public class CrossSolver {
 
 	private Cube cube;
+	private MoveTable moveTable;
 
 	public CrossSolver(Cube cube) {
 		this.cube = cube;
+		this.moveTable = cube.getMoveTable();
 	}
 
 	public void solve() {
@@ -54,11 +58,11 @@ public class CrossSolver {
 	}
 
 	private Piece findEdge(Color c) {
-		for (int i = 0; i < 12; i++) {
-			Piece piece = cube.getEdge(i).getPiece(0);
-			if (piece.getColor(0) == c || piece.getColor(1) == c) {
-				if (i >= 8 && i <= 11) {
-					Axis face = CubeEdgeUtil.getFace(i, 1);
+		for (Piece piece : cube.findPieces(PieceType.EDGE, 0, c)) {
+			int position = piece.getPosition();
+			if (piece.getIndex() == 0) {
+				if (position >= 8 && position <= 11) {
+					Axis face = CubeEdgeUtil.getFace(position, 1);
 					if (cube.getCenter(face).getPiece().getColor() != piece.getColor(1)) {
 						return piece;
 					}
@@ -95,18 +99,18 @@ public class CrossSolver {
 
 		if (flipped) {
 			iters = turns + 1;
-			insertion = new Move(Axis.L, 0, true);
+			insertion = moveTable.getMove(Axis.L, 0, true);
 		} else {
 			iters = turns;
-			insertion = new Move(Axis.F, 0, false);
+			insertion = moveTable.getMove(Axis.F, 0, false);
 		}
 
 		for (int i = 0; i < iters; i++) {
-			cube.makeMove(new Move(Axis.D, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.D, 0, false));
 		}
 		cube.makeMove(insertion);
 		for (int i = 0; i < iters; i++) {
-			cube.makeMove(new Move(Axis.D, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.D, 0, true));
 		}
 	}
 
@@ -114,7 +118,7 @@ public class CrossSolver {
 		Color target = (flipped ? toSolve.getColor(0) : toSolve.getColor(1));
 
 		while (true) {
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 			Axis face = CubeEdgeUtil.getFace(toSolve.getPosition(), 1);
 			if (cube.getCenter(face).getPiece().getColor() == target) {
 				break;
@@ -122,19 +126,19 @@ public class CrossSolver {
 		}
 
 		if (flipped)
-			cube.makeMove(new Move(Axis.U, true));
+			cube.makeMove(moveTable.getMove(Axis.U, true));
 
 		while (toSolve.getPosition() != 0) {
 			cube.makeRotation(Axis.U, true);
 		}
 
 		if (flipped) {
-			cube.makeMove(new Move(Axis.F, 0, true));
-			cube.makeMove(new Move(Axis.R, 0, false));
-			cube.makeMove(new Move(Axis.F, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, false));
 		} else {
-			cube.makeMove(new Move(Axis.F, 0, true));
-			cube.makeMove(new Move(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 		}
 	}
 
@@ -142,7 +146,7 @@ public class CrossSolver {
 		while (toSolve.getPosition() != 8) {
 			cube.makeRotation(Axis.U, true);
 		}
-		cube.makeMove(new Move(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 	}
 
 	private void solveEdge(Color c) {
@@ -0,0 +1,520 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.github.sampeterson1.puzzle.lib.Color;
+import com.github.sampeterson1.puzzle.lib.Piece;
+import com.github.sampeterson1.puzzle.lib.PieceType;
+import com.github.sampeterson1.puzzle.moves.Axis;
+import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+import com.github.sampeterson1.puzzles.cube.util.CubeFaceletLayout;
+import com.github.sampeterson1.puzzles.cube.util.CubeFaceletUtil;
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+/*
+ * The corners and edges of a 3x3 cube as the two-phase solver sees them: for each slot, the piece that belongs
+ * there (cp, ep) and how it is twisted or flipped (co, eo).
+ *
+ * Corners are numbered like the corner positions of a Cube. Edges are renumbered so that the edges of the U and D
+ * layers come first and the four edges of the E slice are 8 to 11, which is what the coordinates of
+ * KociembaTables expect. A corner's orientation is how far its U or D sticker is turned from the U or D sticker of
+ * its slot, and an edge is flipped if its U or D sticker (its F or B sticker for an E slice edge) is not on the U, D,
+ * F or B facing sticker of its slot. Neither changes on U, D or half turns, which is what phase 2 relies on.
+ */
+class CubieState {
+
+	static final int NUM_CORNERS = 8;
+	static final int NUM_EDGES = 12;
+	static final int NUM_UD_EDGES = 8;
+
+	//moves are numbered 3 * face + (turns - 1) with the faces in CubeUtil order, so R is 0, R2 is 1 and R' is 2
+	static final int NUM_MOVES = 18;
+
+	private static final int U_FACE = CubeUtil.getFacePosition(Axis.U);
+	private static final int D_FACE = CubeUtil.getFacePosition(Axis.D);
+	private static final int F_FACE = CubeUtil.getFacePosition(Axis.F);
+	private static final int B_FACE = CubeUtil.getFacePosition(Axis.B);
+
+	private static final CubeFaceletLayout layout = CubeFaceletUtil.getLayout(3);
+
+	//the faces of the stickers of each slot, in the same order as the colors of the piece in it
+	private static final int[][] cornerFaces = initFaces(PieceType.CORNER, NUM_CORNERS);
+	private static final int[][] edgeFaces = initFaces(PieceType.EDGE, NUM_EDGES);
+
+	//the Cube edge position of each edge number
+	private static final int[] edgePositions = initEdgePositions();
+
+	//the sticker of each slot that orientations are measured from
+	private static final int[] cornerReferences = initCornerReferences();
+	private static final int[] edgeReferences = initEdgeReferences();
+
+	//the corner and edge numbers of the slots with the stickers in a bitmask of faces
+	private static final int[] cornersByFaces = initSlotsByFaces(cornerFaces, null);
+	private static final int[] edgesByFaces = initSlotsByFaces(edgeFaces, edgePositions);
+
+	private static CubieState[] moves;
+
+	private static int[][] initFaces(PieceType type, int numSlots) {
+		int[][] faces = new int[numSlots][];
+		for(int position = 0; position < numSlots; position ++) {
+			int[] stickers = layout.getPieceStickers(type, position);
+			faces[position] = new int[type.getNumColors()];
+			for(int i = 0; i < faces[position].length; i ++) {
+				faces[position][i] = CubeFaceletUtil.getStickerFace(stickers[i]);
+			}
+		}
+
+		return faces;
+	}
+
+	private static boolean isUD(int face) {
+		return (face == U_FACE || face == D_FACE);
+	}
+
+	private static boolean isFB(int face) {
+		return (face == F_FACE || face == B_FACE);
+	}
+
+	private static int[] initEdgePositions() {
+		int[] positions = new int[NUM_EDGES];
+		int numUD = 0;
+		int numSlice = NUM_UD_EDGES;
+		for(int position = 0; position < NUM_EDGES; position ++) {
+			if(isUD(edgeFaces[position][0]) || isUD(edgeFaces[position][1])) {
+				positions[numUD++] = position;
+			} else {
+				positions[numSlice++] = position;
+			}
+		}
+
+		return positions;
+	}
+
+	private static int[] initCornerReferences() {
+		int[] references = new int[NUM_CORNERS];
+		for(int corner = 0; corner < NUM_CORNERS; corner ++) {
+			references[corner] = findSticker(cornerFaces[corner]);
+		}
+
+		return references;
+	}
+
+	private static int[] initEdgeReferences() {
+		int[] references = new int[NUM_EDGES];
+		for(int edge = 0; edge < NUM_EDGES; edge ++) {
+			references[edge] = findSticker(edgeFaces[edgePositions[edge]]);
+		}
+
+		return references;
+	}
+
+	//the sticker that a piece is oriented by: its U or D sticker, or its F or B sticker if it doesn't have one
+	private static int findSticker(int[] faces) {
+		for(int i = 0; i < faces.length; i ++) {
+			if(isUD(faces[i])) return i;
+		}
+		for(int i = 0; i < faces.length; i ++) {
+			if(isFB(faces[i])) return i;
+		}
+
+		return -1;
+	}
+
+	private static int[] initSlotsByFaces(int[][] faces, int[] positions) {
+		int[] slots = new int[1 << 6];
+		for(int slot = 0; slot < faces.length; slot ++) {
+			int position = (positions == null) ? slot : positions[slot];
+			slots[getFaceMask(faces[position])] = slot;
+		}
+
+		return slots;
+	}
+
+	private static int getFaceMask(int[] faces) {
+		int mask = 0;
+		for(int face : faces) {
+			mask |= 1 << face;
+		}
+
+		return mask;
+	}
+
+	//returns the state of a cube after one of the 18 moves, read from a Cube so that the turns match the ones it makes
+	static synchronized CubieState getMove(int move) {
+		if(moves == null) {
+			moves = new CubieState[NUM_MOVES];
+			for(int face = 0; face < 6; face ++) {
+				Cube cube = new Cube(3);
+				cube.setLogMoves(false);
+				for(int turns = 1; turns <= 3; turns ++) {
+					cube.makeMove(cube.getMoveTable().getMove(CubeUtil.getFace(face), true), false);
+					moves[3 * face + turns - 1] = fromCube(cube);
+				}
+			}
+		}
+
+		return moves[move];
+	}
+
+	static int getFace(int move) {
+		return move / 3;
+	}
+
+	//returns the Move of a cube that makes one of the 18 moves
+	static Move getCubeMove(MoveTable table, int move) {
+		int turns = move % 3 + 1;
+		Move cubeMove = table.getMove(CubeUtil.getFace(getFace(move)), turns != 3);
+
+		return (turns == 2) ? cubeMove.repeated(2) : cubeMove;
+	}
+
+	//the moves of phase 2 are the turns of U and D and the half turns of the other faces
+	static boolean isPhase2Move(int move) {
+		int face = getFace(move);
+		return (isUD(face) || move % 3 == 1);
+	}
+
+	/*
+	 * Reads the corners and edges of a 3x3 cube. Colors are matched to faces through the centers,
+	 * so the cube can be in any rotation.
+	 * Throws an IllegalArgumentException if the pieces can't be put back into a solved cube by turning its faces.
+	 */
+	static CubieState fromCube(Cube cube) {
+		CubieState state = readPieces(cube);
+
+		if(!state.isSolvable()) throw new IllegalArgumentException("The cube can't be solved");
+		return state;
+	}
+
+	/*
+	 * Reads the outer layers of a bigger cube whose centers are solved and whose edges are paired, as if it were
+	 * a 3x3: the first piece of each center and edge stands for the whole center or edge, and a face turn of the
+	 * 3x3 is a turn of the outer layer. The state isn't checked, since an even cube can have a single flipped edge
+	 * (hasFlipParity) or a single swap of two edges (hasPermutationParity) that a 3x3 can't.
+	 */
+	static CubieState fromReducedCube(Cube cube) {
+		CubieState state = readPieces(cube);
+
+		if(!state.isTwistSolvable()) throw new IllegalArgumentException("The cube can't be solved");
+		return state;
+	}
+
+	private static CubieState readPieces(Cube cube) {
+		Map<Color, Integer> colorFaces = new EnumMap<Color, Integer>(Color.class);
+		for(int face = 0; face < 6; face ++) {
+			colorFaces.put(cube.getCenter(CubeUtil.getFace(face)).getPiece(0).getColor(), face);
+		}
+
+		CubieState state = new CubieState();
+		readCorners(cube, colorFaces, state);
+
+		boolean[] found = new boolean[NUM_EDGES];
+		for(int edge = 0; edge < NUM_EDGES; edge ++) {
+			int[] faces = getPieceFaces(cube.getEdge(edgePositions[edge]).getPiece(0), colorFaces);
+			int home = edgesByFaces[getFaceMask(faces)];
+			if(found[home] || !isEdgeMask(getFaceMask(faces), home)) throw new IllegalArgumentException("The cube has an invalid edge");
+			found[home] = true;
+
+			state.ep[edge] = (byte) home;
+			state.eo[edge] = (byte) ((findSticker(faces) == edgeReferences[edge]) ? 0 : 1);
+		}
+
+		return state;
+	}
+
+	/*
+	 * Reads the corners of a 2x2 cube, which has no centers to match colors to faces with. Instead, the corner in
+	 * fixedCorner is taken to be solved, and the opposite faces of its faces get the opposite colors of its colors.
+	 */
+	static CubieState fromCorners(Cube cube, int fixedCorner) {
+		Piece fixed = cube.getCorner(fixedCorner).getPiece(0);
+		Map<Color, Integer> colorFaces = new EnumMap<Color, Integer>(Color.class);
+		for(int i = 0; i < fixed.getType().getNumColors(); i ++) {
+			int face = cornerFaces[fixedCorner][i];
+			colorFaces.put(fixed.getColor(i), face);
+			colorFaces.put(getOppositeColor(fixed.getColor(i)), (face + 3) % 6);
+		}
+
+		CubieState state = new CubieState();
+		readCorners(cube, colorFaces, state);
+
+		if(!state.isTwistSolvable()) throw new IllegalArgumentException("The cube can't be solved");
+		return state;
+	}
+
+	private static Color getOppositeColor(Color color) {
+		for(Axis face : CubeUtil.getFaces()) {
+			if(CubeUtil.getFaceColor(face) == color) return CubeUtil.getFaceColor(CubeUtil.getOpposingFace(face));
+		}
+
+		throw new IllegalArgumentException("The cube has a " + color + " sticker, which isn't a cube color");
+	}
+
+	private static void readCorners(Cube cube, Map<Color, Integer> colorFaces, CubieState state) {
+		boolean[] found = new boolean[NUM_CORNERS];
+		for(int corner = 0; corner < NUM_CORNERS; corner ++) {
+			int[] faces = getPieceFaces(cube.getCorner(corner).getPiece(0), colorFaces);
+			int home = cornersByFaces[getFaceMask(faces)];
+			if(found[home] || !isCornerMask(getFaceMask(faces), home)) throw new IllegalArgumentException("The cube has an invalid corner");
+			found[home] = true;
+
+			state.cp[corner] = (byte) home;
+			state.co[corner] = (byte) ((findSticker(faces) - cornerReferences[corner] + 3) % 3);
+		}
+	}
+
+	private static int[] getPieceFaces(Piece piece, Map<Color, Integer> colorFaces) {
+		int[] faces = new int[piece.getType().getNumColors()];
+		for(int i = 0; i < faces.length; i ++) {
+			Integer face = colorFaces.get(piece.getColor(i));
+			if(face == null) throw new IllegalArgumentException("The cube has a " + piece.getColor(i) + " sticker that doesn't belong on any face");
+			faces[i] = face;
+		}
+
+		return faces;
+	}
+
+	private static boolean isCornerMask(int mask, int corner) {
+		return (mask == getFaceMask(cornerFaces[corner]));
+	}
+
+	private static boolean isEdgeMask(int mask, int edge) {
+		return (mask == getFaceMask(edgeFaces[edgePositions[edge]]));
+	}
+
+	byte[] cp;
+	byte[] co;
+	byte[] ep;
+	byte[] eo;
+
+	private byte[] buffer;
+
+	//creates a solved cube
+	CubieState() {
+		this.cp = new byte[NUM_CORNERS];
+		this.co = new byte[NUM_CORNERS];
+		this.ep = new byte[NUM_EDGES];
+		this.eo = new byte[NUM_EDGES];
+		this.buffer = new byte[2 * NUM_EDGES];
+
+		for(int i = 0; i < NUM_CORNERS; i ++) cp[i] = (byte) i;
+		for(int i = 0; i < NUM_EDGES; i ++) ep[i] = (byte) i;
+	}
+
+	void set(CubieState other) {
+		System.arraycopy(other.cp, 0, cp, 0, NUM_CORNERS);
+		System.arraycopy(other.co, 0, co, 0, NUM_CORNERS);
+		System.arraycopy(other.ep, 0, ep, 0, NUM_EDGES);
+		System.arraycopy(other.eo, 0, eo, 0, NUM_EDGES);
+	}
+
+	//applies a move to this state: the piece in each slot comes from the slot that the move takes it from
+	void multiply(CubieState move) {
+		for(int i = 0; i < NUM_CORNERS; i ++) buffer[i] = cp[move.cp[i]];
+		for(int i = 0; i < NUM_CORNERS; i ++) buffer[i + NUM_CORNERS] = (byte) ((co[move.cp[i]] + move.co[i]) % 3);
+		System.arraycopy(buffer, 0, cp, 0, NUM_CORNERS);
+		System.arraycopy(buffer, NUM_CORNERS, co, 0, NUM_CORNERS);
+
+		for(int i = 0; i < NUM_EDGES; i ++) buffer[i] = (byte) ((eo[move.ep[i]] + move.eo[i]) % 2);
+		System.arraycopy(buffer, 0, eo, 0, NUM_EDGES);
+		for(int i = 0; i < NUM_EDGES; i ++) buffer[i] = ep[move.ep[i]];
+		System.arraycopy(buffer, 0, ep, 0, NUM_EDGES);
+	}
+
+	void move(int move) {
+		multiply(getMove(move));
+	}
+
+	private boolean isSolvable() {
+		return (isTwistSolvable() && !hasFlipParity() && !hasPermutationParity());
+	}
+
+	//whether an odd number of edges are flipped
+	boolean hasFlipParity() {
+		int flip = 0;
+		for(byte o : eo) flip += o;
+
+		return (flip % 2 != 0);
+	}
+
+	//whether the corners and edges are permuted by an odd and an even number of swaps
+	boolean hasPermutationParity() {
+		return (getParity(cp) != getParity(ep));
+	}
+
+	private boolean isTwistSolvable() {
+		int twist = 0;
+		for(byte o : co) twist += o;
+
+		return (twist % 3 == 0);
+	}
+
+	private static int getParity(byte[] permutation) {
+		int parity = 0;
+		for(int i = 0; i < permutation.length; i ++) {
+			for(int j = i + 1; j < permutation.length; j ++) {
+				if(permutation[j] < permutation[i]) parity ^= 1;
+			}
+		}
+
+		return parity;
+	}
+
+	//the orientations of the first 7 corners in base 3 (the last one follows from them)
+	int getTwist() {
+		int twist = 0;
+		for(int i = 0; i < NUM_CORNERS - 1; i ++) {
+			twist = 3 * twist + co[i];
+		}
+
+		return twist;
+	}
+
+	void setTwist(int twist) {
+		int sum = 0;
+		for(int i = NUM_CORNERS - 2; i >= 0; i --) {
+			co[i] = (byte) (twist % 3);
+			sum += co[i];
+			twist /= 3;
+		}
+		co[NUM_CORNERS - 1] = (byte) ((3 - sum % 3) % 3);
+	}
+
+	//the orientations of the first 11 edges in base 2
+	int getFlip() {
+		int flip = 0;
+		for(int i = 0; i < NUM_EDGES - 1; i ++) {
+			flip = 2 * flip + eo[i];
+		}
+
+		return flip;
+	}
+
+	void setFlip(int flip) {
+		int sum = 0;
+		for(int i = NUM_EDGES - 2; i >= 0; i --) {
+			eo[i] = (byte) (flip % 2);
+			sum += eo[i];
+			flip /= 2;
+		}
+		eo[NUM_EDGES - 1] = (byte) (sum % 2);
+	}
+
+	//which 4 of the 12 edge slots hold the E slice edges, as the index of that combination (0 when they are in the slice)
+	int getSlice() {
+		int slice = 0;
+		int found = 0;
+		for(int j = NUM_EDGES - 1; j >= 0; j --) {
+			if(ep[j] >= NUM_UD_EDGES) {
+				slice += choose(NUM_EDGES - 1 - j, found + 1);
+				found++;
+			}
+		}
+
+		return slice;
+	}
+
+	void setSlice(int slice) {
+		int left = NUM_EDGES - NUM_UD_EDGES - 1;
+		int nextUD = 0;
+		for(int j = 0; j < NUM_EDGES; j ++) {
+			if(left >= 0 && slice >= choose(NUM_EDGES - 1 - j, left + 1)) {
+				slice -= choose(NUM_EDGES - 1 - j, left + 1);
+				ep[j] = (byte) (NUM_EDGES - 1 - left);
+				left--;
+			} else {
+				ep[j] = (byte) nextUD++;
+			}
+		}
+	}
+
+	private static int choose(int n, int k) {
+		if(k > n) return 0;
+
+		int result = 1;
+		for(int i = 1; i <= k; i ++) {
+			result = result * (n - k + i) / i;
+		}
+
+		return result;
+	}
+
+	//the permutations that phase 2 solves, which only mean anything once the slice edges are in the slice
+	int getCornerPermutation() {
+		return rank(cp, 0, NUM_CORNERS);
+	}
+
+	void setCornerPermutation(int rank) {
+		unrank(cp, 0, NUM_CORNERS, rank);
+	}
+
+	int getEdgePermutation() {
+		return rank(ep, 0, NUM_UD_EDGES);
+	}
+
+	void setEdgePermutation(int rank) {
+		unrank(ep, 0, NUM_UD_EDGES, rank);
+	}
+
+	int getSlicePermutation() {
+		return rank(ep, NUM_UD_EDGES, NUM_EDGES - NUM_UD_EDGES);
+	}
+
+	void setSlicePermutation(int rank) {
+		unrank(ep, NUM_UD_EDGES, NUM_EDGES - NUM_UD_EDGES, rank);
+	}
+
+	//the index of an arrangement of the values start to start + length - 1 in lexicographic order
+	static int rank(byte[] permutation, int start, int length) {
+		int rank = 0;
+		for(int i = 0; i < length; i ++) {
+			int smaller = 0;
+			for(int j = i + 1; j < length; j ++) {
+				if(permutation[start + j] < permutation[start + i]) smaller++;
+			}
+			rank = rank * (length - i) + smaller;
+		}
+
+		return rank;
+	}
+
+	static void unrank(byte[] permutation, int start, int length, int rank) {
+		int[] digits = new int[length];
+		for(int i = length - 1; i >= 0; i --) {
+			digits[i] = rank % (length - i);
+			rank /= (length - i);
+		}
+
+		boolean[] used = new boolean[length];
+		for(int i = 0; i < length; i ++) {
+			int value = 0;
+			for(int skipped = 0; used[value] || skipped < digits[i]; value ++) {
+				if(!used[value]) skipped++;
+			}
+			used[value] = true;
+			permutation[start + i] = (byte) (start + value);
+		}
+	}
+
+}
@@ -19,12 +19,14 @@
 package com.github.sampeterson1.puzzles.cube.solvers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceGroup;
+import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.cube.meta.Cube;
 import com.github.sampeterson1.puzzles.cube.util.CubeEdgeUtil;
 
@@ -39,10 +41,12 @@ import com.github.sampeterson1.puzzles.cube.util.CubeEdgeUtil;
 public class EdgeSolver {
 
 	private Cube cube;
+	private MoveTable moveTable;
 	private int edgeSize;
 
 	public EdgeSolver(Cube cube) {
 		this.cube = cube;
+		this.moveTable = cube.getMoveTable();
 		this.edgeSize = cube.getSize() - 2;
 	}
 
@@ -84,24 +88,12 @@ public class EdgeSolver {
 	}
 
 	private ArrayList<Piece> findPuzzlePieces(Piece root) {
-		ArrayList<Piece> pieces = new ArrayList<Piece>();
-
-		for (int pos = 0; pos < 12; pos++) {
-			PieceGroup edge = cube.getEdge(pos);
-			for (int index = 0; index < edgeSize; index++) {
-				Piece piece = edge.getPiece(index);
-				if (sameColors(piece, root)) {
-					pieces.add(piece);
-				}
-			}
-		}
-
-		return pieces;
+		return new ArrayList<Piece>(cube.findPieces(PieceType.EDGE, root.getColor(0), root.getColor(1)));
 	}
 
 	private void flipEdge(Piece piece) {
 		if (piece.getPosition() == 4) {
-			cube.makeMove(new Move(Axis.U, edgeSize - piece.getIndex(), true));
+			cube.makeMove(moveTable.getMove(Axis.U, edgeSize - piece.getIndex(), true));
 		}
 
 		cube.pushRotations();
@@ -109,13 +101,13 @@ public class EdgeSolver {
 			cube.makeRotation(Axis.U, true);
 		}
 
-		cube.makeMove(new Move(Axis.R, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.R, 0, false));
-		cube.makeMove(new Move(Axis.F, 0, true));
-		cube.makeMove(new Move(Axis.R, 0, false));
-		cube.makeMove(new Move(Axis.F, 0, false));
-		cube.makeMove(new Move(Axis.R, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, true));
 		cube.popRotations();
 	}
 
@@ -128,14 +120,14 @@ public class EdgeSolver {
 
 		if (pos == 3) {
 			if (flipped) {
-				cube.makeMove(new Move(Axis.B, 0, false));
-				cube.makeMove(new Move(Axis.U, 0, true));
-				cube.makeMove(new Move(Axis.B, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.B, 0, false));
+				cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.B, 0, true));
 			} else {
-				cube.makeMove(new Move(Axis.L, 0, false));
-				cube.makeMove(new Move(Axis.B, 0, true));
-				cube.makeMove(new Move(Axis.L, 0, true));
-				cube.makeMove(new Move(Axis.B, 0, false));
+				cube.makeMove(moveTable.getMove(Axis.L, 0, false));
+				cube.makeMove(moveTable.getMove(Axis.B, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.L, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.B, 0, false));
 			}
 		} else {
 			while (piece.getPosition() != 0) {
@@ -143,14 +135,14 @@ public class EdgeSolver {
 			}
 
 			if (flipped) {
-				cube.makeMove(new Move(Axis.F, 0, true));
-				cube.makeMove(new Move(Axis.R, 0, false));
-				cube.makeMove(new Move(Axis.F, 0, false));
-				cube.makeMove(new Move(Axis.R, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+				cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+				cube.makeMove(moveTable.getMove(Axis.R, 0, true));
 			} else {
-				cube.makeMove(new Move(Axis.R, 0, true));
-				cube.makeMove(new Move(Axis.U, 0, false));
-				cube.makeMove(new Move(Axis.R, 0, false));
+				cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+				cube.makeMove(moveTable.getMove(Axis.R, 0, false));
 			}
 		}
 	}
@@ -168,17 +160,9 @@ public class EdgeSolver {
 			}
 		}
 
-		for (int layer : layers) {
-			for (int i = 0; i < turns; i++) {
-				cube.makeMove(new Move(Axis.U, layer, false));
-			}
-		}
+		turnLayers(Axis.U, layers, false, turns);
 		flipEdge(edge.getPiece(0));
-		for (int layer : layers) {
-			for (int i = 0; i < turns; i++) {
-				cube.makeMove(new Move(Axis.U, layer, true));
-			}
-		}
+		turnLayers(Axis.U, layers, true, turns);
 	}
 
 	private void restoreCenters() {
@@ -186,20 +170,11 @@ public class EdgeSolver {
 		Color solvingColor = center.getPiece(0).getColor();
 		for (int i = edgeSize; i < edgeSize * edgeSize; i += edgeSize) {
 			while (center.getPiece(i).getColor() != solvingColor) {
-				cube.makeMove(new Move(Axis.U, 1 + (i / edgeSize), true));
+				cube.makeMove(moveTable.getMove(Axis.U, 1 + (i / edgeSize), true));
 			}
 		}
 	}
 
-	private boolean sameColors(Piece a, Piece b) {
-		Color a1 = a.getColor(0);
-		Color a2 = a.getColor(1);
-		Color b1 = b.getColor(0);
-		Color b2 = b.getColor(1);
-
-		return ((a1 == b1 && a2 == b2) || (a1 == b2 && a2 == b1));
-	}
-
 	private void saveEdge() {
 
 		cube.pushRotations();
@@ -223,15 +198,15 @@ public class EdgeSolver {
 
 		if (numSolved == 3) {
 			while (!cube.getEdge(0).isSolved()) {
-				cube.makeMove(new Move(Axis.U, 0, true));
+				cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 			}
 		}
 
-		cube.makeMove(new Move(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 		while (cube.getEdge(0).isSolved()) {
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 		}
-		cube.makeMove(new Move(Axis.F, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, false));
 
 		cube.popRotations();
 	}
@@ -257,13 +232,9 @@ public class EdgeSolver {
 		}
 
 		PieceGroup edge = cube.getEdge(5);
-		for (int layer : layers) {
-			cube.makeMove(new Move(Axis.U, layer, false));
-		}
+		turnLayers(Axis.U, layers, false, 1);
 		flipEdge(edge.getPiece(0));
-		for (int layer : layers) {
-			cube.makeMove(new Move(Axis.U, layer, true));
-		}
+		turnLayers(Axis.U, layers, true, 1);
 
 	}
 
@@ -289,7 +260,7 @@ public class EdgeSolver {
 			cube.popRotations();
 
 			while (piece.getPosition() != 4) {
-				cube.makeMove(new Move(Axis.U, edgeSize - piece.getIndex(), true));
+				cube.makeMove(moveTable.getMove(Axis.U, edgeSize - piece.getIndex(), true));
 			}
 		}
 
@@ -309,59 +280,67 @@ public class EdgeSolver {
 
 		if (layers.size() != 0) {
 			cube.makeRotation(Axis.F, true);
-			for (int layer : layers) {
-				cube.makeMove(new Move(Axis.R, layer, true));
-				cube.makeMove(new Move(Axis.R, layer, true));
-			}
+			turnLayers(Axis.R, layers, true, 2);
 
-			cube.makeMove(new Move(Axis.B, 0, true));
-			cube.makeMove(new Move(Axis.B, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.B, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.B, 0, true));
 
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-			for (int layer : layers) {
-				cube.makeMove(new Move(Axis.L, layer, true));
-			}
+			turnLayers(Axis.L, layers, true, 1);
 
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-			for (int layer : layers) {
-				cube.makeMove(new Move(Axis.R, layer, false));
-			}
+			turnLayers(Axis.R, layers, false, 1);
 
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-			for (int layer : layers) {
-				cube.makeMove(new Move(Axis.R, layer, true));
-			}
+			turnLayers(Axis.R, layers, true, 1);
 
-			cube.makeMove(new Move(Axis.U, 0, true));
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-			cube.makeMove(new Move(Axis.F, 0, true));
-			cube.makeMove(new Move(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 
-			for (int layer : layers) {
-				cube.makeMove(new Move(Axis.R, layer, true));
-			}
+			turnLayers(Axis.R, layers, true, 1);
 
-			cube.makeMove(new Move(Axis.F, 0, true));
-			cube.makeMove(new Move(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 
-			for (int layer : layers) {
-				cube.makeMove(new Move(Axis.L, layer, false));
-			}
+			turnLayers(Axis.L, layers, false, 1);
 
-			cube.makeMove(new Move(Axis.B, 0, true));
-			cube.makeMove(new Move(Axis.B, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.B, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.B, 0, true));
 
-			for (int layer : layers) {
-				cube.makeMove(new Move(Axis.R, layer, true));
-				cube.makeMove(new Move(Axis.R, layer, true));
+			turnLayers(Axis.R, layers, true, 2);
+		}
+	}
+
+	//turns a set of layers the same way, with each run of neighboring layers turned together as one range move
+	private void turnLayers(Axis face, ArrayList<Integer> layers, boolean cw, int turns) {
+		if (turns <= 0) return;
+
+		int[] sorted = new int[layers.size()];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = layers.get(i);
+		}
+		Arrays.sort(sorted);
+
+		int i = 0;
+		while (i < sorted.length) {
+			int firstLayer = sorted[i];
+			int lastLayer = firstLayer;
+			i++;
+			while (i < sorted.length && sorted[i] == lastLayer + 1) {
+				lastLayer = sorted[i];
+				i++;
 			}
+
+			cube.makeMove(moveTable.getMove(face, firstLayer, cw).toLayer(lastLayer).repeated(turns));
 		}
 	}
 
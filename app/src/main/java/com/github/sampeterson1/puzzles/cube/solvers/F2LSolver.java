@@ -21,7 +21,7 @@ package com.github.sampeterson1.puzzles.cube.solvers;
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.cube.meta.Cube;
 
 /*
@@ -33,9 +33,11 @@ import com.github.sampeterson1.puzzles.cube.meta.Cube;
 public class F2LSolver {
 
 	private Cube cube;
+	private MoveTable moveTable;
 
 	public F2LSolver(Cube cube) {
 		this.cube = cube;
+		this.moveTable = cube.getMoveTable();
 	}
 
 	public void solve() {
@@ -78,12 +80,12 @@ public class F2LSolver {
 
 	private void allignEdge(Piece toInsert) {
 		while (toInsert.getPosition() != 0) {
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 		}
 
 		Color fColor = cube.getSolveColor(Axis.F);
 		while (toInsert.getColor(1) != fColor) {
-			cube.makeMove(new Move(Axis.U, 0, true));
+			cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 			cube.makeRotation(Axis.U, false);
 			fColor = cube.getSolveColor(Axis.F);
 		}
@@ -118,38 +120,38 @@ public class F2LSolver {
 	}
 
 	private void insertLeft() {
-		cube.makeMove(new Move(Axis.U, 0, false));
-		cube.makeMove(new Move(Axis.L, 0, false));
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.L, 0, true));
-		cube.makeMove(new Move(Axis.F, 0, false));
-		cube.makeMove(new Move(Axis.L, 0, true));
-		cube.makeMove(new Move(Axis.F, 0, true));
-		cube.makeMove(new Move(Axis.L, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.L, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.L, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.L, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.L, 0, false));
 	}
 
 	private void insertRight() {
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.R, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, false));
-		cube.makeMove(new Move(Axis.R, 0, false));
-		cube.makeMove(new Move(Axis.F, 0, true));
-		cube.makeMove(new Move(Axis.R, 0, false));
-		cube.makeMove(new Move(Axis.F, 0, false));
-		cube.makeMove(new Move(Axis.R, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, true));
 	}
 
 	private void moveEdge(Piece toInsert) {
 		while (toInsert.getPosition() != 5) {
 			cube.makeRotation(Axis.U, true);
 		}
-		cube.makeMove(new Move(Axis.R, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, false));
-		cube.makeMove(new Move(Axis.R, 0, false));
-		cube.makeMove(new Move(Axis.F, 0, true));
-		cube.makeMove(new Move(Axis.R, 0, false));
-		cube.makeMove(new Move(Axis.F, 0, false));
-		cube.makeMove(new Move(Axis.R, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, false));
+		cube.makeMove(moveTable.getMove(Axis.R, 0, true));
 	}
 
 }
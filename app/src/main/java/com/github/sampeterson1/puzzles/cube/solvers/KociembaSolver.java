@@ -0,0 +1,204 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+
+/*
+ * Solves a 3x3 cube with Kociemba's two-phase algorithm.
+ *
+ * Phase 1 turns the cube into the group generated by U, D, R2, L2, F2 and B2, where every corner and edge is
+ * oriented and the E slice edges are in the E slice, and phase 2 solves it using only those moves. Both phases are
+ * iterative deepening searches that are cut off by the pruning tables of KociembaTables.
+ *
+ * After the first solution is found, the search keeps looking for shorter ones by trying longer phase 1 solutions
+ * until the time budget runs out or a solution is short enough.
+ */
+public class KociembaSolver {
+
+	public static final int MAX_LENGTH = 30;
+
+	//phase 1 solutions that need a longer phase 2 are skipped, since a longer phase 1 solution usually needs a much shorter one
+	private static final int MAX_PHASE2_LENGTH = 12;
+
+	//the length at which a solution is good enough to stop looking for a shorter one
+	private static final int TARGET_LENGTH = 20;
+
+	//how many nodes are searched between checks of the time budget
+	private static final int NODES_PER_CHECK = 1024;
+
+	private Cube cube;
+	private CubieState reducedState;
+	private KociembaTables tables;
+
+	private CubieState startState;
+	private CubieState phase2State;
+
+	private int[] moves;
+	private int[] bestMoves;
+	private int bestLength;
+	private int targetLength;
+
+	private long deadline;
+	private int numNodes;
+	private boolean stopped;
+
+	public KociembaSolver(Cube cube) {
+		this(cube, null);
+		if(cube.getSize() != 3) {
+			throw new IllegalArgumentException("The two-phase solver can only solve a 3x3 cube, not a " + cube.getSize() + "x" + cube.getSize());
+		}
+	}
+
+	//solves the outer layers of a bigger cube that has been reduced to a 3x3 (see CubieState.fromReducedCube) with face turns
+	KociembaSolver(Cube cube, CubieState reducedState) {
+		this.cube = cube;
+		this.reducedState = reducedState;
+		this.moves = new int[MAX_LENGTH];
+		this.bestMoves = new int[MAX_LENGTH];
+		this.phase2State = new CubieState();
+	}
+
+	//returns a solution of at most TARGET_LENGTH moves, or the shortest one found within the time budget
+	public Algorithm solve(long timeBudgetMillis) {
+		return solve(timeBudgetMillis, TARGET_LENGTH);
+	}
+
+	/*
+	 * Returns a solution of the cube without changing it. The search stops at the first solution of at most
+	 * targetLength moves, or at the shortest solution found once the time budget is over. The first solution
+	 * is always returned, even if it takes longer than the time budget to find.
+	 */
+	public Algorithm solve(long timeBudgetMillis, int targetLength) {
+		this.tables = KociembaTables.getTables();
+		this.startState = (reducedState == null) ? CubieState.fromCube(cube) : reducedState;
+		this.deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+		this.targetLength = targetLength;
+		this.bestLength = MAX_LENGTH + 1;
+		this.numNodes = 0;
+		this.stopped = false;
+
+		int twist = startState.getTwist();
+		int flip = startState.getFlip();
+		int slice = startState.getSlice();
+
+		for(int depth = tables.getPhase1Depth(twist, flip, slice); depth < bestLength && !stopped; depth ++) {
+			searchPhase1(twist, flip, slice, 0, depth, -1);
+		}
+
+		return getAlgorithm(bestMoves, bestLength);
+	}
+
+	private void searchPhase1(int twist, int flip, int slice, int depth, int movesLeft, int lastFace) {
+		if(movesLeft == 0) {
+			//a phase 1 solution that ends in a phase 2 move was already tried without that move
+			boolean redundant = (depth > 0 && CubieState.isPhase2Move(moves[depth - 1]));
+			if(twist == 0 && flip == 0 && slice == 0 && !redundant) solvePhase2(depth, lastFace);
+			return;
+		}
+
+		if(++numNodes % NODES_PER_CHECK == 0) checkTime();
+		if(stopped) return;
+
+		for(int move = 0; move < KociembaTables.NUM_MOVES; move ++) {
+			int face = CubieState.getFace(move);
+			if(!canFollow(lastFace, face)) continue;
+
+			int nextTwist = tables.getTwistMove(twist, move);
+			int nextFlip = tables.getFlipMove(flip, move);
+			int nextSlice = tables.getSliceMove(slice, move);
+			if(tables.getPhase1Depth(nextTwist, nextFlip, nextSlice) >= movesLeft) continue;
+
+			moves[depth] = move;
+			searchPhase1(nextTwist, nextFlip, nextSlice, depth + 1, movesLeft - 1, face);
+			if(stopped) return;
+		}
+	}
+
+	private void solvePhase2(int phase1Length, int lastFace) {
+		phase2State.set(startState);
+		for(int i = 0; i < phase1Length; i ++) {
+			phase2State.move(moves[i]);
+		}
+
+		int cornerPermutation = phase2State.getCornerPermutation();
+		int edgePermutation = phase2State.getEdgePermutation();
+		int slicePermutation = phase2State.getSlicePermutation();
+
+		int maxDepth = Math.min(bestLength - 1 - phase1Length, MAX_PHASE2_LENGTH);
+		for(int depth = tables.getPhase2Depth(cornerPermutation, edgePermutation, slicePermutation); depth <= maxDepth; depth ++) {
+			if(searchPhase2(cornerPermutation, edgePermutation, slicePermutation, phase1Length, depth, lastFace)) {
+				bestLength = phase1Length + depth;
+				System.arraycopy(moves, 0, bestMoves, 0, bestLength);
+
+				if(bestLength <= targetLength) stopped = true;
+				break;
+			}
+		}
+
+		checkTime();
+	}
+
+	private boolean searchPhase2(int cornerPermutation, int edgePermutation, int slicePermutation, int depth, int movesLeft, int lastFace) {
+		if(movesLeft == 0) return (cornerPermutation == 0 && edgePermutation == 0 && slicePermutation == 0);
+
+		for(int i = 0; i < KociembaTables.NUM_PHASE2_MOVES; i ++) {
+			int move = KociembaTables.PHASE2_MOVES[i];
+			int face = CubieState.getFace(move);
+			if(!canFollow(lastFace, face)) continue;
+
+			int nextCornerPermutation = tables.getCornerPermutationMove(cornerPermutation, i);
+			int nextEdgePermutation = tables.getEdgePermutationMove(edgePermutation, i);
+			int nextSlicePermutation = tables.getSlicePermutationMove(slicePermutation, i);
+			if(tables.getPhase2Depth(nextCornerPermutation, nextEdgePermutation, nextSlicePermutation) >= movesLeft) continue;
+
+			moves[depth] = move;
+			if(searchPhase2(nextCornerPermutation, nextEdgePermutation, nextSlicePermutation, depth + 1, movesLeft - 1, face)) return true;
+		}
+
+		return false;
+	}
+
+	//a face isn't turned twice in a row, and turns of opposite faces (which commute) are only tried in one order
+	private static boolean canFollow(int lastFace, int face) {
+		if(lastFace == -1) return true;
+		if(face == lastFace) return false;
+
+		return !(face == (lastFace + 3) % 6 && face < lastFace);
+	}
+
+	//once there is a solution, stop as soon as the time budget is over
+	private void checkTime() {
+		if(bestLength <= MAX_LENGTH && System.nanoTime() > deadline) stopped = true;
+	}
+
+	private Algorithm getAlgorithm(int[] moves, int length) {
+		MoveTable table = cube.getMoveTable();
+		Algorithm alg = new Algorithm();
+
+		for(int i = 0; i < length; i ++) {
+			alg.addMove(CubieState.getCubeMove(table, moves[i]));
+		}
+
+		return alg;
+	}
+
+}
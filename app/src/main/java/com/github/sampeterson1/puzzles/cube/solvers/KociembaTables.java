@@ -0,0 +1,338 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * The move and pruning tables of the two-phase solver (see KociembaSolver).
+ *
+ * A move table holds the coordinate that each coordinate goes to after each move, and a pruning table holds the
+ * least number of moves that solves a pair of coordinates, which never overestimates the moves left to solve the
+ * whole cube. Phase 1 uses the twist, flip and slice coordinates with all 18 moves, and phase 2 uses the corner,
+ * edge and slice permutations with the 10 moves that keep the cube in phase 2.
+ *
+ * The tables take a few seconds to generate, so the first time they are needed they are saved to TABLE_PATH and
+ * after that they are memory-mapped from there instead of being generated or read into the heap.
+ */
+class KociembaTables {
+
+	private static final String TABLE_PATH = "res/cube/kociemba.bin";
+	private static final int MAGIC = 0x4B4F4331;
+
+	static final int NUM_TWISTS = 2187;
+	static final int NUM_FLIPS = 2048;
+	static final int NUM_SLICES = 495;
+	static final int NUM_CORNER_PERMUTATIONS = 40320;
+	static final int NUM_EDGE_PERMUTATIONS = 40320;
+	static final int NUM_SLICE_PERMUTATIONS = 24;
+
+	static final int NUM_MOVES = CubieState.NUM_MOVES;
+	static final int NUM_PHASE2_MOVES = 10;
+
+	//the moves of phase 2, as indices into the 18 moves
+	static final int[] PHASE2_MOVES = initPhase2Moves();
+
+	private static KociembaTables tables;
+
+	private static int[] initPhase2Moves() {
+		int[] moves = new int[NUM_PHASE2_MOVES];
+		int numMoves = 0;
+		for(int move = 0; move < NUM_MOVES; move ++) {
+			if(CubieState.isPhase2Move(move)) moves[numMoves++] = move;
+		}
+
+		return moves;
+	}
+
+	//returns the tables, mapping them from TABLE_PATH or generating and saving them the first time
+	static synchronized KociembaTables getTables() {
+		if(tables == null) {
+			tables = new KociembaTables();
+			if(!tables.map()) {
+				tables.generate();
+				tables.save();
+			}
+		}
+
+		return tables;
+	}
+
+	private CharBuffer twistMoves;
+	private CharBuffer flipMoves;
+	private CharBuffer sliceMoves;
+	private CharBuffer cornerPermutationMoves;
+	private CharBuffer edgePermutationMoves;
+	private CharBuffer slicePermutationMoves;
+
+	private ByteBuffer sliceTwistDepths;
+	private ByteBuffer sliceFlipDepths;
+	private ByteBuffer cornerPermutationDepths;
+	private ByteBuffer edgePermutationDepths;
+
+	private KociembaTables() {
+
+	}
+
+	int getTwistMove(int twist, int move) {
+		return twistMoves.get(twist * NUM_MOVES + move);
+	}
+
+	int getFlipMove(int flip, int move) {
+		return flipMoves.get(flip * NUM_MOVES + move);
+	}
+
+	int getSliceMove(int slice, int move) {
+		return sliceMoves.get(slice * NUM_MOVES + move);
+	}
+
+	//the phase 2 coordinates are moved by the index of a move in PHASE2_MOVES
+	int getCornerPermutationMove(int permutation, int phase2Move) {
+		return cornerPermutationMoves.get(permutation * NUM_PHASE2_MOVES + phase2Move);
+	}
+
+	int getEdgePermutationMove(int permutation, int phase2Move) {
+		return edgePermutationMoves.get(permutation * NUM_PHASE2_MOVES + phase2Move);
+	}
+
+	int getSlicePermutationMove(int permutation, int phase2Move) {
+		return slicePermutationMoves.get(permutation * NUM_PHASE2_MOVES + phase2Move);
+	}
+
+	//a lower bound on the number of moves that phase 1 needs
+	int getPhase1Depth(int twist, int flip, int slice) {
+		return Math.max(sliceTwistDepths.get(slice * NUM_TWISTS + twist), sliceFlipDepths.get(slice * NUM_FLIPS + flip));
+	}
+
+	//a lower bound on the number of moves that phase 2 needs
+	int getPhase2Depth(int cornerPermutation, int edgePermutation, int slicePermutation) {
+		return Math.max(cornerPermutationDepths.get(slicePermutation * NUM_CORNER_PERMUTATIONS + cornerPermutation),
+				edgePermutationDepths.get(slicePermutation * NUM_EDGE_PERMUTATIONS + edgePermutation));
+	}
+
+	private static int getFileSize() {
+		int numMoveEntries = (NUM_TWISTS + NUM_FLIPS + NUM_SLICES) * NUM_MOVES
+				+ (NUM_CORNER_PERMUTATIONS + NUM_EDGE_PERMUTATIONS + NUM_SLICE_PERMUTATIONS) * NUM_PHASE2_MOVES;
+		int numDepths = NUM_SLICES * (NUM_TWISTS + NUM_FLIPS)
+				+ NUM_SLICE_PERMUTATIONS * (NUM_CORNER_PERMUTATIONS + NUM_EDGE_PERMUTATIONS);
+
+		return Integer.BYTES + 2 * numMoveEntries + numDepths;
+	}
+
+	//maps the tables from TABLE_PATH, and returns false if there is no file there or it holds something else
+	private boolean map() {
+		Path path = Paths.get(TABLE_PATH);
+		if(!Files.isRegularFile(path)) return false;
+
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if(channel.size() != getFileSize()) return false;
+
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if(buffer.getInt() != MAGIC) return false;
+
+			twistMoves = nextMoveTable(buffer, NUM_TWISTS * NUM_MOVES);
+			flipMoves = nextMoveTable(buffer, NUM_FLIPS * NUM_MOVES);
+			sliceMoves = nextMoveTable(buffer, NUM_SLICES * NUM_MOVES);
+			cornerPermutationMoves = nextMoveTable(buffer, NUM_CORNER_PERMUTATIONS * NUM_PHASE2_MOVES);
+			edgePermutationMoves = nextMoveTable(buffer, NUM_EDGE_PERMUTATIONS * NUM_PHASE2_MOVES);
+			slicePermutationMoves = nextMoveTable(buffer, NUM_SLICE_PERMUTATIONS * NUM_PHASE2_MOVES);
+
+			sliceTwistDepths = nextDepthTable(buffer, NUM_SLICES * NUM_TWISTS);
+			sliceFlipDepths = nextDepthTable(buffer, NUM_SLICES * NUM_FLIPS);
+			cornerPermutationDepths = nextDepthTable(buffer, NUM_SLICE_PERMUTATIONS * NUM_CORNER_PERMUTATIONS);
+			edgePermutationDepths = nextDepthTable(buffer, NUM_SLICE_PERMUTATIONS * NUM_EDGE_PERMUTATIONS);
+		} catch(IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+
+		return true;
+	}
+
+	private static CharBuffer nextMoveTable(ByteBuffer buffer, int length) {
+		CharBuffer table = buffer.slice(buffer.position(), 2 * length).asCharBuffer();
+		buffer.position(buffer.position() + 2 * length);
+
+		return table;
+	}
+
+	private static ByteBuffer nextDepthTable(ByteBuffer buffer, int length) {
+		ByteBuffer table = buffer.slice(buffer.position(), length);
+		buffer.position(buffer.position() + length);
+
+		return table;
+	}
+
+	//writes the tables to TABLE_PATH, or leaves them in the heap if it can't be written
+	private void save() {
+		Path path = Paths.get(TABLE_PATH);
+
+		try {
+			Files.createDirectories(path.getParent());
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile())))) {
+				out.writeInt(MAGIC);
+				for(CharBuffer table : new CharBuffer[] { twistMoves, flipMoves, sliceMoves,
+						cornerPermutationMoves, edgePermutationMoves, slicePermutationMoves }) {
+					for(int i = 0; i < table.limit(); i ++) out.writeChar(table.get(i));
+				}
+				for(ByteBuffer table : new ByteBuffer[] { sliceTwistDepths, sliceFlipDepths,
+						cornerPermutationDepths, edgePermutationDepths }) {
+					out.write(table.array());
+				}
+			}
+		} catch(IOException e) {
+			System.err.println("Could not save the two-phase tables to " + TABLE_PATH);
+			e.printStackTrace();
+			return;
+		}
+
+		map();
+	}
+
+	private void generate() {
+		System.out.println("Generating two-phase tables...");
+		long startTime = System.currentTimeMillis();
+
+		CubieState state = new CubieState();
+
+		char[] twists = new char[NUM_TWISTS * NUM_MOVES];
+		for(int twist = 0; twist < NUM_TWISTS; twist ++) {
+			state.setTwist(twist);
+			for(int face = 0; face < 6; face ++) {
+				for(int turns = 0; turns < 3; turns ++) {
+					state.move(3 * face);
+					twists[twist * NUM_MOVES + 3 * face + turns] = (char) state.getTwist();
+				}
+				state.move(3 * face);
+			}
+		}
+
+		char[] flips = new char[NUM_FLIPS * NUM_MOVES];
+		for(int flip = 0; flip < NUM_FLIPS; flip ++) {
+			state.setFlip(flip);
+			for(int face = 0; face < 6; face ++) {
+				for(int turns = 0; turns < 3; turns ++) {
+					state.move(3 * face);
+					flips[flip * NUM_MOVES + 3 * face + turns] = (char) state.getFlip();
+				}
+				state.move(3 * face);
+			}
+		}
+
+		char[] slices = new char[NUM_SLICES * NUM_MOVES];
+		for(int slice = 0; slice < NUM_SLICES; slice ++) {
+			state.setSlice(slice);
+			for(int face = 0; face < 6; face ++) {
+				for(int turns = 0; turns < 3; turns ++) {
+					state.move(3 * face);
+					slices[slice * NUM_MOVES + 3 * face + turns] = (char) state.getSlice();
+				}
+				state.move(3 * face);
+			}
+		}
+
+		state = new CubieState();
+		CubieState moved = new CubieState();
+
+		char[] cornerPermutations = new char[NUM_CORNER_PERMUTATIONS * NUM_PHASE2_MOVES];
+		char[] edgePermutations = new char[NUM_EDGE_PERMUTATIONS * NUM_PHASE2_MOVES];
+		for(int permutation = 0; permutation < NUM_CORNER_PERMUTATIONS; permutation ++) {
+			state.setCornerPermutation(permutation);
+			state.setEdgePermutation(permutation);
+			for(int i = 0; i < NUM_PHASE2_MOVES; i ++) {
+				moved.set(state);
+				moved.move(PHASE2_MOVES[i]);
+				cornerPermutations[permutation * NUM_PHASE2_MOVES + i] = (char) moved.getCornerPermutation();
+				edgePermutations[permutation * NUM_PHASE2_MOVES + i] = (char) moved.getEdgePermutation();
+			}
+		}
+
+		char[] slicePermutations = new char[NUM_SLICE_PERMUTATIONS * NUM_PHASE2_MOVES];
+		for(int permutation = 0; permutation < NUM_SLICE_PERMUTATIONS; permutation ++) {
+			state.setSlicePermutation(permutation);
+			for(int i = 0; i < NUM_PHASE2_MOVES; i ++) {
+				moved.set(state);
+				moved.move(PHASE2_MOVES[i]);
+				slicePermutations[permutation * NUM_PHASE2_MOVES + i] = (char) moved.getSlicePermutation();
+			}
+		}
+
+		twistMoves = CharBuffer.wrap(twists);
+		flipMoves = CharBuffer.wrap(flips);
+		sliceMoves = CharBuffer.wrap(slices);
+		cornerPermutationMoves = CharBuffer.wrap(cornerPermutations);
+		edgePermutationMoves = CharBuffer.wrap(edgePermutations);
+		slicePermutationMoves = CharBuffer.wrap(slicePermutations);
+
+		sliceTwistDepths = createDepthTable(twists, NUM_TWISTS, slices, NUM_SLICES, NUM_MOVES);
+		sliceFlipDepths = createDepthTable(flips, NUM_FLIPS, slices, NUM_SLICES, NUM_MOVES);
+		cornerPermutationDepths = createDepthTable(cornerPermutations, NUM_CORNER_PERMUTATIONS,
+				slicePermutations, NUM_SLICE_PERMUTATIONS, NUM_PHASE2_MOVES);
+		edgePermutationDepths = createDepthTable(edgePermutations, NUM_EDGE_PERMUTATIONS,
+				slicePermutations, NUM_SLICE_PERMUTATIONS, NUM_PHASE2_MOVES);
+
+		float seconds = (System.currentTimeMillis() - startTime) / 1000.0f;
+		System.out.println("Generated two-phase tables in " + seconds + " seconds");
+	}
+
+	/*
+	 * A breadth first search from the solved pair of coordinates, one depth at a time.
+	 * The depth of the pair (a, b) is stored at b * sizeA + a.
+	 */
+	private static ByteBuffer createDepthTable(char[] movesA, int sizeA, char[] movesB, int sizeB, int numMoves) {
+		byte[] depths = new byte[sizeA * sizeB];
+		Arrays.fill(depths, (byte) -1);
+		depths[0] = 0;
+
+		int numFilled = 1;
+		for(byte depth = 0; numFilled < depths.length; depth ++) {
+			int numFound = 0;
+			for(int i = 0; i < depths.length; i ++) {
+				if(depths[i] != depth) continue;
+
+				int a = i % sizeA;
+				int b = i / sizeA;
+				for(int move = 0; move < numMoves; move ++) {
+					int next = movesB[b * numMoves + move] * sizeA + movesA[a * numMoves + move];
+					if(depths[next] == -1) {
+						depths[next] = (byte) (depth + 1);
+						numFound++;
+					}
+				}
+			}
+
+			if(numFound == 0) break;
+			numFilled += numFound;
+		}
+
+		return ByteBuffer.wrap(depths);
+	}
+
+}
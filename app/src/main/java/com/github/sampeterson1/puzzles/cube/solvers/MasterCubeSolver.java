@@ -24,6 +24,9 @@ import com.github.sampeterson1.puzzles.cube.meta.Cube;
 //Encapsulates all of the solvers needed to produce a full solution of a Rubik's Cube
 public class MasterCubeSolver {
 	
+	//by default big cubes are finished layer by layer, which is faster than the two-phase solver's first solution
+	private static final long DEFAULT_SOLVE_MILLIS = 0;
+	
 	private CenterSolver centerSolver;
 	private EdgeSolver edgeSolver;
 	private CrossSolver crossSolver;
@@ -47,6 +50,15 @@ public class MasterCubeSolver {
 	}
 	
 	public Algorithm solve() {
+		return solve(DEFAULT_SOLVE_MILLIS);
+	}
+	
+	/*
+	 * Once the centers and edges are solved, the rest is solved as a 3x3 layer by layer. If there is a time budget,
+	 * a cube bigger than 3x3 is instead finished by the two-phase solver, which takes a few milliseconds longer but
+	 * needs far fewer moves, and stops looking for a shorter solution after the time budget.
+	 */
+	public Algorithm solve(long timeBudgetMillis) {
 		long startTime = System.currentTimeMillis();
 		
 		cube.setLogMoves(true);
@@ -54,11 +66,15 @@ public class MasterCubeSolver {
 		
 		centerSolver.solve();
 		edgeSolver.solve();
-		crossSolver.solve();
-		cornerSolver.solve();
-		f2lSolver.solve();
-		ollSolver.solve();
-		pllSolver.solve();
+		if(cube.getSize() > 3 && timeBudgetMillis > 0) {
+			solveReduced(timeBudgetMillis);
+		} else {
+			crossSolver.solve();
+			cornerSolver.solve();
+			f2lSolver.solve();
+			ollSolver.solve();
+			pllSolver.solve();
+		}
 		
 		System.out.println("Simplifying solution...");
 		Algorithm solution = cube.getMoveLog();
@@ -71,4 +87,24 @@ public class MasterCubeSolver {
 
 		return solution;
 	}
+	
+	//Solves the outer layers of a reduced cube with the 3x3 two-phase solver, after fixing the parities that a 3x3 can't have
+	private void solveReduced(long timeBudgetMillis) {
+		System.out.println("Solving as a 3x3...");
+		
+		CubieState state = CubieState.fromReducedCube(cube);
+		if(state.hasFlipParity()) {
+			ollSolver.OLLParity();
+			state = CubieState.fromReducedCube(cube);
+		}
+		if(state.hasPermutationParity()) {
+			pllSolver.PLLParity();
+			state = CubieState.fromReducedCube(cube);
+		}
+		if(state.hasFlipParity() || state.hasPermutationParity()) {
+			throw new IllegalStateException("The parity algorithms left the cube unsolvable as a 3x3");
+		}
+		
+		cube.executeAlgorithm(new KociembaSolver(cube, state).solve(timeBudgetMillis));
+	}
 }
@@ -53,6 +53,53 @@ public class OLLCase {
 		return this.solution;
 	}
 
+	//the number of last layer signatures of a cube with or without edges
+	static int getNumSignatures(boolean hasEdges) {
+		return 1 << (hasEdges ? 16 : 8);
+	}
+
+	/*
+	 * The last layer of a cube as a number: 2 bits for each corner and then each edge, holding one more than the
+	 * index of the top face's color on the piece (so a piece without that color is 0). A cube without edges has
+	 * only the corner bits.
+	 */
+	static int getSignature(Cube cube) {
+		Color top = cube.getSolveColor(Axis.U);
+
+		int signature = 0;
+		for (int i = 0; i < 4; i++) {
+			signature |= (cube.getCorner(i).getPiece().indexOfColor(top) + 1) << (2 * i);
+		}
+		if (cube.getSize() > 2) {
+			for (int i = 0; i < 4; i++) {
+				signature |= (cube.getEdge(i).getPiece(0).indexOfColor(top) + 1) << (8 + 2 * i);
+			}
+		}
+
+		return signature;
+	}
+
+	//the signature that this case is recognized by
+	int getSignature(boolean hasEdges) {
+		int signature = 0;
+		for (int i = 0; i < 4; i++) {
+			signature |= (cornerLocations[i] + 1) << (2 * i);
+			if (hasEdges) signature |= (edgeLocations[i] + 1) << (8 + 2 * i);
+		}
+
+		return signature;
+	}
+
+	//the signature after a clockwise U rotation, which moves the piece in each position to the position before it
+	static int rotate(int signature) {
+		return shiftPieces(signature & 0xFF) | (shiftPieces(signature >> 8) << 8);
+	}
+
+	//moves the 2 bits of each of four pieces down one position
+	static int shiftPieces(int pieces) {
+		return (pieces >> 2) | ((pieces & 3) << 6);
+	}
+
 	//Returns true if the cube matches this OLL case
 	public boolean recognize(Cube cube) {
 		Color top = cube.getSolveColor(Axis.U);
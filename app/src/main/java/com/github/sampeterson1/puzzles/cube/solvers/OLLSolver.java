@@ -19,9 +19,15 @@
 package com.github.sampeterson1.puzzles.cube.solvers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzle.templates.CompiledAlgorithm;
 import com.github.sampeterson1.puzzles.cube.meta.Cube;
 
 /*
@@ -32,71 +38,87 @@ import com.github.sampeterson1.puzzles.cube.meta.Cube;
  */
 public class OLLSolver {
 
+	//case solutions are compiled the first time they are used, and shared by the solvers of every cube of the same size
+	private static final Map<Integer, CompiledAlgorithm[]> compiledSolutions = new HashMap<Integer, CompiledAlgorithm[]>();
+	
+	//the cases are the same for every cube, so they are built once along with the tables that recognize them
+	private static final List<OLLCase> cases = initCases();
+	
+	//the case to execute for each last layer signature (see OLLCase) and the U rotations before it, packed as case << 2 | rotations, or -1
+	private static final int[] edgeLookup = initLookup(true);
+	private static final int[] cornerLookup = initLookup(false);
+	
 	private Cube cube;
-	private ArrayList<OLLCase> cases;
+	private MoveTable moveTable;
 
 	public OLLSolver(Cube cube) {
 		this.cube = cube;
-		cases = new ArrayList<OLLCase>();
-
-		addCase("R U2 R2 F R F' U2 R' F R F'", new int[] { 0, 1, 2, 1, 0, 1, 2, 1 });
-		addCase("r U r' U2 r U2 R' U2 R U' r'", new int[] { 0, 1, 2, 1, 2, 1, 0, 1 });
-		addCase("r' R2 U R' U r U2 r' U M'", new int[] { 1, 1, 0, 1, 0, 1, 0, 1 });
-		addCase("M U' r U2 r' U' R U' R' M'", new int[] { 2, 1, 1, 1, 2, 1, 2, 1 });
-		addCase("l' U2 L U L' U l", new int[] { 0, 1, 0, 1, 0, 0, 1, 0 });
-		addCase("r U2 R' U' R U' r'", new int[] { 2, 1, 2, 0, 1, 0, 2, 1 });
-		addCase("r U R' U R U2 r'", new int[] { 1, 1, 0, 1, 0, 0, 0, 0 });
-		addCase("l' U' L U' L' U2 l", new int[] { 2, 1, 1, 0, 2, 0, 2, 1 });
-		addCase("R U R' U' R' F R2 U R' U' F'", new int[] { 2, 1, 1, 1, 2, 0, 2, 0 });
-		addCase("R U R' U R' F R F' R U2 R'", new int[] { 0, 0, 0, 1, 1, 1, 0, 0 });
-		addCase("r U R' U R' F R F' R U2 r'", new int[] { 0, 1, 0, 1, 1, 0, 0, 0 });
-		addCase("M' R' U' R U' R' U2 R U' R r'", new int[] { 2, 1, 2, 0, 2, 0, 1, 1 });
-		addCase("F U R U' R2 F' R U R U' R'", new int[] { 1, 1, 0, 0, 0, 1, 0, 0 });
-		addCase("R' F R U R' F' R F U' F'", new int[] { 2, 1, 1, 0, 2, 1, 2, 0 });
-		addCase("l' U' l L' U' L U l' U l", new int[] { 0, 1, 0, 0, 0, 1, 1, 0 });
-		addCase("r U r' R U R' U' r U' r'", new int[] { 2, 1, 2, 0, 1, 1, 2, 0 });
-		addCase("F R' F' R2 r' U R U' R' U' M'", new int[] { 2, 1, 1, 1, 0, 1, 1, 1 });
-		addCase("r U R' U R U2 r2 U' R U' R' U2 r", new int[] { 2, 1, 0, 1, 1, 1, 1, 1 });
-		addCase("r' R U R U R' U' M' R' F R F'", new int[] { 0, 1, 2, 1, 1, 1, 1, 1 });
-		addCase("r U R' U' M2 U R U' R' U' M'", new int[] { 1, 1, 1, 1, 1, 1, 1, 1 });
-		addCase("R U2 R' U' R U R' U' R U' R'", new int[] { 2, 0, 0, 0, 2, 0, 0, 0 });
-		addCase("R U2 R2 U' R2 U' R2 U2 R", new int[] { 0, 0, 0, 0, 2, 0, 2, 0 });
-		addCase("R2 D' R U2 R' D R U2 R", new int[] { 1, 0, 1, 0, 2, 0, 0, 0 });
-		addCase("r U R' U' r' F R F'", new int[] { 2, 0, 1, 0, 1, 0, 0, 0 });
-		addCase("F' r U R' U' r' F R", new int[] { 1, 0, 0, 0, 1, 0, 2, 0 });
-		addCase("R U2 R' U' R U' R'", new int[] { 2, 0, 2, 0, 1, 0, 2, 0 });
-		addCase("R U R' U R U2 R'", new int[] { 1, 0, 0, 0, 0, 0, 0, 0 });
-		addCase("r U R' U' r' R U R U' R'", new int[] { 1, 1, 1, 1, 1, 0, 1, 0 });
-		addCase("R U R' U' R U' R' F' U' F R U R'", new int[] { 2, 1, 1, 1, 1, 0, 0, 0 });
-		addCase("F R' F R2 U' R' U' R U R' F2", new int[] { 1, 1, 1, 1, 0, 0, 2, 0 });
-		addCase("R' U' F U R U' R' F' R", new int[] { 2, 1, 1, 0, 1, 0, 0, 1 });
-		addCase("L U F' U' L' U L F L'", new int[] { 1, 1, 0, 1, 2, 0, 1, 0 });
-		addCase("R U R' U' R' F R F'", new int[] { 2, 1, 1, 0, 1, 1, 0, 0 });
-		addCase("R U R2 U' R' F R U R U' F'", new int[] { 1, 1, 1, 0, 0, 1, 2, 0 });
-		addCase("R U2 R2 F R F' R U2 R'", new int[] { 2, 0, 1, 0, 0, 1, 1, 1 });
-		addCase("L' U' L U' L' U L U L F' L' F", new int[] { 0, 1, 1, 0, 2, 0, 1, 1 });
-		addCase("F R' F' R U R U' R'", new int[] { 2, 1, 1, 1, 0, 0, 1, 0 });
-		addCase("R U R' U R U' R' U' R' F R F'", new int[] { 1, 1, 2, 1, 1, 0, 0, 0 });
-		addCase("L F' L' U' L U F U' L'", new int[] { 1, 1, 2, 0, 1, 1, 0, 0 });
-		addCase("R' F R U R' U' F' U R", new int[] { 0, 1, 1, 0, 2, 1, 1, 0 });
-		addCase("R U R' U R U2 R' F R U R' U' F'", new int[] { 1, 1, 1, 1, 2, 0, 0, 0 });
-		addCase("R' U' R U' R' U2 R F R U R' U' F'", new int[] { 2, 0, 0, 1, 1, 1, 1, 0 });
-		addCase("F' U' L' U L F", new int[] { 0, 1, 1, 0, 1, 0, 2, 1 });
-		addCase("F U R U' R' F'", new int[] { 1, 1, 2, 1, 0, 0, 1, 0 });
-		addCase("F R U R' U' F'", new int[] { 0, 1, 1, 0, 1, 1, 2, 0 });
-		addCase("R' U' R' F R F' U R", new int[] { 1, 0, 2, 1, 0, 0, 1, 1 });
-		addCase("R' U' R' F R F' R' F R F' U R", new int[] { 2, 1, 2, 0, 0, 0, 0, 1 });
-		addCase("F R U R' U' R U R' U' F'", new int[] { 0, 1, 0, 1, 2, 0, 2, 0 });
-		addCase("r U' r2 U r2 U r2 U' r", new int[] { 0, 1, 0, 0, 2, 0, 2, 1 });
-		addCase("r' U r2 U' r2 U' r2 U r'", new int[] { 0, 0, 0, 0, 2, 1, 2, 1 });
-		addCase("F U R U' R' U R U' R' F'", new int[] { 2, 1, 2, 0, 0, 1, 0, 0 });
-		addCase("R U R' U R U' B U' B' R'", new int[] { 2, 0, 2, 1, 0, 0, 0, 1 });
-		addCase("l' U2 L U L' U' L U L' U l", new int[] { 2, 1, 0, 0, 2, 0, 0, 1 });
-		addCase("r U2 R' U' R U R' U' R U' r'", new int[] { 2, 1, 0, 1, 2, 0, 0, 0 });
-		addCase("R' F R U R U' R2 F' R2 U' R' U R U R'", new int[] { 2, 1, 0, 0, 2, 1, 0, 0 });
-		addCase("r' U' r U' R' U R U' R' U R r' U r", new int[] { 0, 1, 2, 0, 0, 1, 2, 0 });
-		addCase("R U R' U' M' U R U' r'", new int[] { 1, 1, 1, 0, 1, 1, 1, 0 });
-		addCase("", new int[] { 1, 0, 1, 0, 1, 0, 1, 0 });
+		this.moveTable = cube.getMoveTable();
+	}
+
+	private static List<OLLCase> initCases() {
+		List<OLLCase> cases = new ArrayList<OLLCase>();
+
+		addCase(cases, "R U2 R2 F R F' U2 R' F R F'", new int[] { 0, 1, 2, 1, 0, 1, 2, 1 });
+		addCase(cases, "r U r' U2 r U2 R' U2 R U' r'", new int[] { 0, 1, 2, 1, 2, 1, 0, 1 });
+		addCase(cases, "r' R2 U R' U r U2 r' U M'", new int[] { 1, 1, 0, 1, 0, 1, 0, 1 });
+		addCase(cases, "M U' r U2 r' U' R U' R' M'", new int[] { 2, 1, 1, 1, 2, 1, 2, 1 });
+		addCase(cases, "l' U2 L U L' U l", new int[] { 0, 1, 0, 1, 0, 0, 1, 0 });
+		addCase(cases, "r U2 R' U' R U' r'", new int[] { 2, 1, 2, 0, 1, 0, 2, 1 });
+		addCase(cases, "r U R' U R U2 r'", new int[] { 1, 1, 0, 1, 0, 0, 0, 0 });
+		addCase(cases, "l' U' L U' L' U2 l", new int[] { 2, 1, 1, 0, 2, 0, 2, 1 });
+		addCase(cases, "R U R' U' R' F R2 U R' U' F'", new int[] { 2, 1, 1, 1, 2, 0, 2, 0 });
+		addCase(cases, "R U R' U R' F R F' R U2 R'", new int[] { 0, 0, 0, 1, 1, 1, 0, 0 });
+		addCase(cases, "r U R' U R' F R F' R U2 r'", new int[] { 0, 1, 0, 1, 1, 0, 0, 0 });
+		addCase(cases, "M' R' U' R U' R' U2 R U' R r'", new int[] { 2, 1, 2, 0, 2, 0, 1, 1 });
+		addCase(cases, "F U R U' R2 F' R U R U' R'", new int[] { 1, 1, 0, 0, 0, 1, 0, 0 });
+		addCase(cases, "R' F R U R' F' R F U' F'", new int[] { 2, 1, 1, 0, 2, 1, 2, 0 });
+		addCase(cases, "l' U' l L' U' L U l' U l", new int[] { 0, 1, 0, 0, 0, 1, 1, 0 });
+		addCase(cases, "r U r' R U R' U' r U' r'", new int[] { 2, 1, 2, 0, 1, 1, 2, 0 });
+		addCase(cases, "F R' F' R2 r' U R U' R' U' M'", new int[] { 2, 1, 1, 1, 0, 1, 1, 1 });
+		addCase(cases, "r U R' U R U2 r2 U' R U' R' U2 r", new int[] { 2, 1, 0, 1, 1, 1, 1, 1 });
+		addCase(cases, "r' R U R U R' U' M' R' F R F'", new int[] { 0, 1, 2, 1, 1, 1, 1, 1 });
+		addCase(cases, "r U R' U' M2 U R U' R' U' M'", new int[] { 1, 1, 1, 1, 1, 1, 1, 1 });
+		addCase(cases, "R U2 R' U' R U R' U' R U' R'", new int[] { 2, 0, 0, 0, 2, 0, 0, 0 });
+		addCase(cases, "R U2 R2 U' R2 U' R2 U2 R", new int[] { 0, 0, 0, 0, 2, 0, 2, 0 });
+		addCase(cases, "R2 D' R U2 R' D R U2 R", new int[] { 1, 0, 1, 0, 2, 0, 0, 0 });
+		addCase(cases, "r U R' U' r' F R F'", new int[] { 2, 0, 1, 0, 1, 0, 0, 0 });
+		addCase(cases, "F' r U R' U' r' F R", new int[] { 1, 0, 0, 0, 1, 0, 2, 0 });
+		addCase(cases, "R U2 R' U' R U' R'", new int[] { 2, 0, 2, 0, 1, 0, 2, 0 });
+		addCase(cases, "R U R' U R U2 R'", new int[] { 1, 0, 0, 0, 0, 0, 0, 0 });
+		addCase(cases, "r U R' U' r' R U R U' R'", new int[] { 1, 1, 1, 1, 1, 0, 1, 0 });
+		addCase(cases, "R U R' U' R U' R' F' U' F R U R'", new int[] { 2, 1, 1, 1, 1, 0, 0, 0 });
+		addCase(cases, "F R' F R2 U' R' U' R U R' F2", new int[] { 1, 1, 1, 1, 0, 0, 2, 0 });
+		addCase(cases, "R' U' F U R U' R' F' R", new int[] { 2, 1, 1, 0, 1, 0, 0, 1 });
+		addCase(cases, "L U F' U' L' U L F L'", new int[] { 1, 1, 0, 1, 2, 0, 1, 0 });
+		addCase(cases, "R U R' U' R' F R F'", new int[] { 2, 1, 1, 0, 1, 1, 0, 0 });
+		addCase(cases, "R U R2 U' R' F R U R U' F'", new int[] { 1, 1, 1, 0, 0, 1, 2, 0 });
+		addCase(cases, "R U2 R2 F R F' R U2 R'", new int[] { 2, 0, 1, 0, 0, 1, 1, 1 });
+		addCase(cases, "L' U' L U' L' U L U L F' L' F", new int[] { 0, 1, 1, 0, 2, 0, 1, 1 });
+		addCase(cases, "F R' F' R U R U' R'", new int[] { 2, 1, 1, 1, 0, 0, 1, 0 });
+		addCase(cases, "R U R' U R U' R' U' R' F R F'", new int[] { 1, 1, 2, 1, 1, 0, 0, 0 });
+		addCase(cases, "L F' L' U' L U F U' L'", new int[] { 1, 1, 2, 0, 1, 1, 0, 0 });
+		addCase(cases, "R' F R U R' U' F' U R", new int[] { 0, 1, 1, 0, 2, 1, 1, 0 });
+		addCase(cases, "R U R' U R U2 R' F R U R' U' F'", new int[] { 1, 1, 1, 1, 2, 0, 0, 0 });
+		addCase(cases, "R' U' R U' R' U2 R F R U R' U' F'", new int[] { 2, 0, 0, 1, 1, 1, 1, 0 });
+		addCase(cases, "F' U' L' U L F", new int[] { 0, 1, 1, 0, 1, 0, 2, 1 });
+		addCase(cases, "F U R U' R' F'", new int[] { 1, 1, 2, 1, 0, 0, 1, 0 });
+		addCase(cases, "F R U R' U' F'", new int[] { 0, 1, 1, 0, 1, 1, 2, 0 });
+		addCase(cases, "R' U' R' F R F' U R", new int[] { 1, 0, 2, 1, 0, 0, 1, 1 });
+		addCase(cases, "R' U' R' F R F' R' F R F' U R", new int[] { 2, 1, 2, 0, 0, 0, 0, 1 });
+		addCase(cases, "F R U R' U' R U R' U' F'", new int[] { 0, 1, 0, 1, 2, 0, 2, 0 });
+		addCase(cases, "r U' r2 U r2 U r2 U' r", new int[] { 0, 1, 0, 0, 2, 0, 2, 1 });
+		addCase(cases, "r' U r2 U' r2 U' r2 U r'", new int[] { 0, 0, 0, 0, 2, 1, 2, 1 });
+		addCase(cases, "F U R U' R' U R U' R' F'", new int[] { 2, 1, 2, 0, 0, 1, 0, 0 });
+		addCase(cases, "R U R' U R U' B U' B' R'", new int[] { 2, 0, 2, 1, 0, 0, 0, 1 });
+		addCase(cases, "l' U2 L U L' U' L U L' U l", new int[] { 2, 1, 0, 0, 2, 0, 0, 1 });
+		addCase(cases, "r U2 R' U' R U R' U' R U' r'", new int[] { 2, 1, 0, 1, 2, 0, 0, 0 });
+		addCase(cases, "R' F R U R U' R2 F' R2 U' R' U R U R'", new int[] { 2, 1, 0, 0, 2, 1, 0, 0 });
+		addCase(cases, "r' U' r U' R' U R U' R' U R r' U r", new int[] { 0, 1, 2, 0, 0, 1, 2, 0 });
+		addCase(cases, "R U R' U' M' U R U' r'", new int[] { 1, 1, 1, 0, 1, 1, 1, 0 });
+		addCase(cases, "", new int[] { 1, 0, 1, 0, 1, 0, 1, 0 });
+
+		return Collections.unmodifiableList(cases);
 	}
 
 	public void solve() {
@@ -112,81 +134,112 @@ public class OLLSolver {
 		cube.popRotations();
 	}
 
-	private void addCase(String alg, int[] position) {
+	private CompiledAlgorithm getCompiledSolution(int caseIndex) {
+		synchronized(compiledSolutions) {
+			CompiledAlgorithm[] solutions = compiledSolutions.get(cube.getSize());
+			if(solutions == null) {
+				solutions = new CompiledAlgorithm[cases.size()];
+				compiledSolutions.put(cube.getSize(), solutions);
+			}
+			
+			if(solutions[caseIndex] == null) solutions[caseIndex] = cases.get(caseIndex).getSolution().compile(cube);
+			return solutions[caseIndex];
+		}
+	}
+
+	private static void addCase(List<OLLCase> cases, String alg, int[] position) {
 		cases.add(new OLLCase(alg, position));
 	}
 
-	//Check every case and orientation to find the solution
-	private boolean solveOLL() {
-		for (int i = 0; i < 4; i++) {
-			for (OLLCase c : cases) {
-				if (c.recognize(cube)) {
-					cube.executeAlgorithm(c.getSolution());
-					return true;
+	//cubes without edges (2x2s) are recognized by their corners alone, so more than one case can match them
+	private static int[] initLookup(boolean hasEdges) {
+		int numSignatures = OLLCase.getNumSignatures(hasEdges);
+
+		//the first case that each signature is recognized as
+		int[] caseIndices = new int[numSignatures];
+		Arrays.fill(caseIndices, -1);
+		for (int k = cases.size() - 1; k >= 0; k--) {
+			caseIndices[cases.get(k).getSignature(hasEdges)] = k;
+		}
+
+		//match the same case in the same orientation that checking every case after each rotation would
+		int[] lookup = new int[numSignatures];
+		for (int signature = 0; signature < numSignatures; signature++) {
+			lookup[signature] = -1;
+			int rotated = signature;
+			for (int i = 0; i < 4; i++) {
+				if (caseIndices[rotated] >= 0) {
+					lookup[signature] = caseIndices[rotated] << 2 | i;
+					break;
 				}
+				rotated = OLLCase.rotate(rotated);
 			}
+		}
+
+		return lookup;
+	}
+
+	//Look up the case and the orientation it is recognized in from the last layer
+	private boolean solveOLL() {
+		int[] lookup = (cube.getSize() > 2) ? edgeLookup : cornerLookup;
+		int match = lookup[OLLCase.getSignature(cube)];
+		if (match < 0) return false;
+
+		for (int i = 0; i < (match & 3); i++) {
 			cube.makeRotation(Axis.U, true);
 		}
+		cube.executeAlgorithm(getCompiledSolution(match >> 2));
 		
-		return false;
+		return true;
 	}
 	
-	//Solves OLL Parity
-	private void OLLParity() {
-		int cubeSize = cube.getSize();
-		for (int layer = 1; layer < cubeSize / 2; layer++) {
-			cube.makeMove(new Move(Axis.R, layer, true));
-			cube.makeMove(new Move(Axis.R, layer, true));
-		}
+	//Solves OLL Parity by flipping a single edge
+	void OLLParity() {
+		turnInnerLayers(Axis.R, true, 2);
 
-		cube.makeMove(new Move(Axis.B, 0, true));
-		cube.makeMove(new Move(Axis.B, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.B, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.B, 0, true));
 
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-		for (int layer = 1; layer < cubeSize / 2; layer++) {
-			cube.makeMove(new Move(Axis.L, layer, true));
-		}
+		turnInnerLayers(Axis.L, true, 1);
 
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-		for (int layer = 1; layer < cubeSize / 2; layer++) {
-			cube.makeMove(new Move(Axis.R, layer, false));
-		}
+		turnInnerLayers(Axis.R, false, 1);
 
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-		for (int layer = 1; layer < cubeSize / 2; layer++) {
-			cube.makeMove(new Move(Axis.R, layer, true));
-		}
+		turnInnerLayers(Axis.R, true, 1);
 
-		cube.makeMove(new Move(Axis.U, 0, true));
-		cube.makeMove(new Move(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.U, 0, true));
 
-		cube.makeMove(new Move(Axis.F, 0, true));
-		cube.makeMove(new Move(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 
-		for (int layer = 1; layer < cubeSize / 2; layer++) {
-			cube.makeMove(new Move(Axis.R, layer, true));
-		}
+		turnInnerLayers(Axis.R, true, 1);
 
-		cube.makeMove(new Move(Axis.F, 0, true));
-		cube.makeMove(new Move(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.F, 0, true));
 
-		for (int layer = 1; layer < cubeSize / 2; layer++) {
-			cube.makeMove(new Move(Axis.L, layer, false));
-		}
+		turnInnerLayers(Axis.L, false, 1);
 
-		cube.makeMove(new Move(Axis.B, 0, true));
-		cube.makeMove(new Move(Axis.B, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.B, 0, true));
+		cube.makeMove(moveTable.getMove(Axis.B, 0, true));
 
-		for (int layer = 1; layer < cubeSize / 2; layer++) {
-			cube.makeMove(new Move(Axis.R, layer, true));
-			cube.makeMove(new Move(Axis.R, layer, true));
-		}
+		turnInnerLayers(Axis.R, true, 2);
+	}
+
+	//turns the layers between the outer layer and the middle of the cube as one range move
+	private void turnInnerLayers(Axis face, boolean cw, int turns) {
+		int lastLayer = cube.getSize() / 2 - 1;
+		if (lastLayer < 1) return;
+
+		cube.makeMove(moveTable.getMove(face, 1, cw).toLayer(lastLayer).repeated(turns));
 	}
 
 }
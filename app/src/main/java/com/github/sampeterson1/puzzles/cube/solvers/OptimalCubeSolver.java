@@ -0,0 +1,351 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+
+/*
+ * Finds an optimal (fewest face turns) solution of a 3x3 cube with Korf's algorithm: an iterative deepening A*
+ * search, cut off by the most of the corner and edge distances of OptimalCubeTables.
+ *
+ * Each iteration is split between the threads of a ForkJoinPool. The first SPLIT_DEPTH moves are tasks of their own,
+ * so idle threads steal the subtrees that are left, and the bound of the next iteration is the least one that any
+ * thread cut off at. The first solution found in an iteration is optimal, and the other threads stop when it is found.
+ *
+ * A random cube needs about 18 moves, which can take a long time to prove optimal. A ProgressListener hears about
+ * every finished depth, and the search can be cancelled between nodes.
+ */
+public class OptimalCubeSolver {
+
+	public static final int MAX_LENGTH = 20;
+
+	//iterations up to this bound are split at depth 2 and longer ones at depth 3
+	private static final int SHALLOW_BOUND = 12;
+
+	//how many nodes a thread searches between checks for cancellation
+	private static final int NODES_PER_CHECK = 4096;
+
+	public interface ProgressListener {
+
+		//called after every depth that has no solution, with the total number of nodes searched so far
+		void depthSearched(int depth, long numNodes);
+
+	}
+
+	private Cube cube;
+	private ForkJoinPool pool;
+
+	private OptimalCubeTables tables;
+	private BooleanSupplier cancelled;
+
+	private int bound;
+	private int splitDepth;
+	private AtomicInteger nextBound;
+	private AtomicReference<int[]> solution;
+	private LongAdder numNodes;
+	private volatile boolean stopped;
+
+	public OptimalCubeSolver(Cube cube) {
+		this(cube, ForkJoinPool.commonPool());
+	}
+
+	public OptimalCubeSolver(Cube cube, ForkJoinPool pool) {
+		if(cube.getSize() != 3) {
+			throw new IllegalArgumentException("The optimal solver can only solve a 3x3 cube, not a " + cube.getSize() + "x" + cube.getSize());
+		}
+
+		this.cube = cube;
+		this.pool = pool;
+	}
+
+	//returns an optimal solution of the cube without changing it
+	public Algorithm solve() {
+		return solve(null, () -> false);
+	}
+
+	/*
+	 * Returns an optimal solution of the cube without changing it, and throws a CancellationException if cancelled
+	 * returns true before one is found. The listener can be null.
+	 */
+	public Algorithm solve(ProgressListener listener, BooleanSupplier cancelled) {
+		this.tables = OptimalCubeTables.getTables();
+		this.cancelled = cancelled;
+		this.nextBound = new AtomicInteger();
+		this.solution = new AtomicReference<int[]>();
+		this.numNodes = new LongAdder();
+		this.stopped = false;
+
+		Node root = new Node(tables, CubieState.fromCube(cube));
+		bound = root.getDistance(0);
+
+		while(true) {
+			splitDepth = (bound <= SHALLOW_BOUND) ? 2 : 3;
+			nextBound.set(Integer.MAX_VALUE);
+			pool.invoke(new SearchTask(root, 0, new int[0], -1));
+
+			int[] moves = solution.get();
+			if(moves != null) return getAlgorithm(moves);
+			if(stopped || cancelled.getAsBoolean()) throw new CancellationException("The optimal solver was cancelled");
+
+			if(listener != null) listener.depthSearched(bound, numNodes.sum());
+			bound = nextBound.get();
+		}
+	}
+
+	/*
+	 * The states of a search path, one depth after another: the corner coordinates, the slot and orientation of
+	 * every edge, and the real distances of the corners and the two groups of edges.
+	 */
+	private static class Node {
+
+		private OptimalCubeTables tables;
+
+		private int[] cornerPermutations;
+		private int[] twists;
+		private int[][] edgeSlots;
+		private int[][] edgeOrientations;
+		private int[][] distances;
+
+		private Node(OptimalCubeTables tables, int maxDepth) {
+			this.tables = tables;
+			this.cornerPermutations = new int[maxDepth + 1];
+			this.twists = new int[maxDepth + 1];
+			this.edgeSlots = new int[maxDepth + 1][CubieState.NUM_EDGES];
+			this.edgeOrientations = new int[maxDepth + 1][CubieState.NUM_EDGES];
+			this.distances = new int[maxDepth + 1][3];
+		}
+
+		private Node(OptimalCubeTables tables, CubieState state) {
+			this(tables, 0);
+
+			cornerPermutations[0] = state.getCornerPermutation();
+			twists[0] = state.getTwist();
+			for(int slot = 0; slot < CubieState.NUM_EDGES; slot ++) {
+				edgeSlots[0][state.ep[slot]] = slot;
+				edgeOrientations[0][state.ep[slot]] = state.eo[slot];
+			}
+
+			distances[0][0] = tables.getExactCornerDistance(getCornerIndex(0));
+			for(int group = 0; group < 2; group ++) {
+				distances[0][group + 1] = tables.getExactEdgeDistance(group, getEdgeIndex(0, group));
+			}
+		}
+
+		//copies the state at a depth of another path to depth 0 of this one
+		private void set(Node other, int depth) {
+			cornerPermutations[0] = other.cornerPermutations[depth];
+			twists[0] = other.twists[depth];
+			System.arraycopy(other.edgeSlots[depth], 0, edgeSlots[0], 0, CubieState.NUM_EDGES);
+			System.arraycopy(other.edgeOrientations[depth], 0, edgeOrientations[0], 0, CubieState.NUM_EDGES);
+			System.arraycopy(other.distances[depth], 0, distances[0], 0, 3);
+		}
+
+		private int getCornerIndex(int depth) {
+			return OptimalCubeTables.getCornerIndex(cornerPermutations[depth], twists[depth]);
+		}
+
+		private int getEdgeIndex(int depth, int group) {
+			return OptimalCubeTables.getEdgeIndex(edgeSlots[depth], edgeOrientations[depth], group * OptimalCubeTables.NUM_GROUP_EDGES);
+		}
+
+		//the lower bound on the moves left from the state at a depth, which is 0 only when it is solved
+		private int getDistance(int depth) {
+			int[] distance = distances[depth];
+			return Math.max(distance[0], Math.max(distance[1], distance[2]));
+		}
+
+		/*
+		 * Sets the state at depth + 1 to the state at depth after a move, and returns the lower bound on the moves
+		 * left from there. The corners are looked up first, and the edges are skipped as soon as the bound is more
+		 * than maxDistance, in which case the rest of that state is left unset.
+		 */
+		private int move(int depth, int move, int maxDistance) {
+			cornerPermutations[depth + 1] = tables.getCornerPermutationMove(cornerPermutations[depth], move);
+			twists[depth + 1] = tables.getTwistMove(twists[depth], move);
+
+			int[] distance = distances[depth];
+			int[] nextDistance = distances[depth + 1];
+			nextDistance[0] = getNextDistance(distance[0], tables.getCornerDistance(getCornerIndex(depth + 1)));
+			int lowerBound = nextDistance[0];
+
+			int[] slots = edgeSlots[depth];
+			int[] orientations = edgeOrientations[depth];
+			int[] nextSlots = edgeSlots[depth + 1];
+			int[] nextOrientations = edgeOrientations[depth + 1];
+			for(int group = 0; group < 2 && lowerBound <= maxDistance; group ++) {
+				int first = group * OptimalCubeTables.NUM_GROUP_EDGES;
+				for(int edge = first; edge < first + OptimalCubeTables.NUM_GROUP_EDGES; edge ++) {
+					nextSlots[edge] = tables.getEdgeDestination(move, slots[edge]);
+					nextOrientations[edge] = orientations[edge] ^ tables.getEdgeFlip(move, slots[edge]);
+				}
+
+				nextDistance[group + 1] = getNextDistance(distance[group + 1], tables.getEdgeDistance(group, getEdgeIndex(depth + 1, group)));
+				lowerBound = Math.max(lowerBound, nextDistance[group + 1]);
+			}
+
+			return lowerBound;
+		}
+
+		//one move changes a distance by at most one, so the distance mod 3 tells which way it went
+		private static int getNextDistance(int distance, int nextDistanceMod3) {
+			int change = (nextDistanceMod3 - distance % 3 + 3) % 3;
+			if(change == 1) return distance + 1;
+			if(change == 2) return distance - 1;
+			return distance;
+		}
+
+	}
+
+	//searches every continuation of a path within the bound, splitting it into more tasks until splitDepth
+	private class SearchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private Node start;
+		private int startDepth;
+		private int[] path;
+		private int lastFace;
+
+		private Node node;
+		private int[] moves;
+		private long numTaskNodes;
+
+		private SearchTask(Node start, int startDepth, int[] path, int lastFace) {
+			this.start = start;
+			this.startDepth = startDepth;
+			this.path = path;
+			this.lastFace = lastFace;
+		}
+
+		@Override
+		protected void compute() {
+			if(!stopped && cancelled.getAsBoolean()) stopped = true;
+			if(stopped) return;
+
+			//the search looks one move past the bound before cutting it off
+			this.node = new Node(tables, bound - path.length + 1);
+			node.set(start, startDepth);
+			this.moves = new int[bound];
+			System.arraycopy(path, 0, moves, 0, path.length);
+
+			if(path.length < splitDepth && path.length < bound) {
+				split();
+			} else {
+				search(0, lastFace);
+			}
+			numNodes.add(numTaskNodes);
+		}
+
+		private void split() {
+			List<SearchTask> tasks = new ArrayList<SearchTask>();
+			for(int move = 0; move < OptimalCubeTables.NUM_MOVES; move ++) {
+				int face = CubieState.getFace(move);
+				if(!canFollow(lastFace, face)) continue;
+
+				numTaskNodes++;
+				if(isCutOff(1, node.move(0, move, bound - path.length - 1))) continue;
+
+				int[] nextPath = new int[path.length + 1];
+				System.arraycopy(path, 0, nextPath, 0, path.length);
+				nextPath[path.length] = move;
+				tasks.add(new SearchTask(node, 1, nextPath, face));
+
+				//each task needs its own copy of the state, since the next move overwrites this one
+				node = copy(node);
+			}
+
+			invokeAll(tasks);
+		}
+
+		private Node copy(Node node) {
+			Node copy = new Node(tables, 1);
+			copy.set(node, 0);
+
+			return copy;
+		}
+
+		//searches from the state at a depth of this task's path, and returns true once any thread has a solution
+		private boolean search(int depth, int lastFace) {
+			int length = path.length + depth;
+			if(node.getDistance(depth) == 0) {
+				int[] found = new int[length];
+				System.arraycopy(moves, 0, found, 0, length);
+				if(solution.compareAndSet(null, found)) stopped = true;
+				return true;
+			}
+
+			if(stopped) return true;
+
+			for(int move = 0; move < OptimalCubeTables.NUM_MOVES; move ++) {
+				int face = CubieState.getFace(move);
+				if(!canFollow(lastFace, face)) continue;
+
+				if(++numTaskNodes % NODES_PER_CHECK == 0 && cancelled.getAsBoolean()) stopped = true;
+				if(isCutOff(depth + 1, node.move(depth, move, bound - length - 1))) continue;
+
+				moves[length] = move;
+				if(search(depth + 1, face)) return true;
+			}
+
+			return false;
+		}
+
+		//whether a state at a depth can't be solved within the bound, which records the least bound that could
+		private boolean isCutOff(int depth, int distance) {
+			int estimate = path.length + depth + distance;
+			if(estimate <= bound) return false;
+
+			nextBound.accumulateAndGet(estimate, Math::min);
+			return true;
+		}
+
+	}
+
+	//a face isn't turned twice in a row, and turns of opposite faces (which commute) are only tried in one order
+	private static boolean canFollow(int lastFace, int face) {
+		if(lastFace == -1) return true;
+		if(face == lastFace) return false;
+
+		return !(face == (lastFace + 3) % 6 && face < lastFace);
+	}
+
+	private Algorithm getAlgorithm(int[] moves) {
+		MoveTable table = cube.getMoveTable();
+		Algorithm alg = new Algorithm();
+
+		for(int move : moves) {
+			alg.addMove(CubieState.getCubeMove(table, move));
+		}
+
+		return alg;
+	}
+
+}
@@ -0,0 +1,31 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import com.github.sampeterson1.puzzles.cube.util.CubeUtil;
+
+//Generates the pattern databases of the optimal 3x3 solver again and saves them (see OptimalCubeTables)
+public class OptimalCubeTableGenerator {
+
+	public static void main(String[] args) {
+		CubeUtil.init();
+		OptimalCubeTables.regenerate();
+	}
+
+}
@@ -0,0 +1,426 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/*
+ * The pattern databases of the optimal 3x3 solver (see OptimalCubeSolver): the number of moves needed to solve
+ * the corners, the first 6 edges and the last 6 edges of a cube on their own. The most of the three is a lower
+ * bound on the moves left to solve the whole cube.
+ *
+ * The corners have 40320 * 2187 = 88179840 states and each group of edges has 12 * 11 * 10 * 9 * 8 * 7 * 2^6 =
+ * 42577920. Like the 2x2 table (see TwoByTwoTables), each distance is stored mod 3 in 2 bits, and the real
+ * distance is followed from the distance of the state before. The 43 MB of tables take a few minutes to generate,
+ * so they are saved to TABLE_PATH and memory-mapped from there (see OptimalCubeTableGenerator).
+ */
+class OptimalCubeTables {
+
+	private static final String TABLE_PATH = "res/cube/optimal.bin";
+
+	static final int NUM_MOVES = CubieState.NUM_MOVES;
+
+	static final int NUM_CORNER_PERMUTATIONS = 40320;
+	static final int NUM_TWISTS = 2187;
+	static final int NUM_CORNER_STATES = NUM_CORNER_PERMUTATIONS * NUM_TWISTS;
+
+	static final int NUM_GROUP_EDGES = 6;
+	static final int NUM_EDGE_PERMUTATIONS = 665280;
+	static final int NUM_EDGE_STATES = NUM_EDGE_PERMUTATIONS << NUM_GROUP_EDGES;
+
+	private static final int UNKNOWN = 3;
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	//the number of arrangements of the rest of a group after each edge, 11 * 10 * 9 * 8 * 7 for the first
+	private static final int[] EDGE_WEIGHTS = { 55440, 5040, 504, 56, 7, 1 };
+
+	private static OptimalCubeTables tables;
+
+	static synchronized OptimalCubeTables getTables() {
+		if(tables == null) {
+			tables = new OptimalCubeTables();
+			if(!tables.map()) {
+				tables.generate();
+				tables.save();
+			}
+		}
+
+		return tables;
+	}
+
+	//generates the tables again and saves them to TABLE_PATH, even if they are already there
+	static synchronized void regenerate() {
+		tables = new OptimalCubeTables();
+		tables.generate();
+		tables.save();
+	}
+
+	private int[] cornerPermutationMoves;
+	private int[] twistMoves;
+
+	//the slot that each move takes an edge in a slot to, and whether it flips it
+	private int[][] edgeDestinations;
+	private int[][] edgeFlips;
+
+	private ByteBuffer cornerDistances;
+	private ByteBuffer[] edgeDistances;
+
+	private OptimalCubeTables() {
+		createMoveTables();
+	}
+
+	private void createMoveTables() {
+		this.cornerPermutationMoves = new int[NUM_CORNER_PERMUTATIONS * NUM_MOVES];
+		this.twistMoves = new int[NUM_TWISTS * NUM_MOVES];
+		this.edgeDestinations = new int[NUM_MOVES][CubieState.NUM_EDGES];
+		this.edgeFlips = new int[NUM_MOVES][CubieState.NUM_EDGES];
+
+		CubieState state = new CubieState();
+		CubieState moved = new CubieState();
+		for(int permutation = 0; permutation < NUM_CORNER_PERMUTATIONS; permutation ++) {
+			state.setCornerPermutation(permutation);
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				moved.set(state);
+				moved.move(move);
+				cornerPermutationMoves[permutation * NUM_MOVES + move] = moved.getCornerPermutation();
+			}
+		}
+
+		for(int twist = 0; twist < NUM_TWISTS; twist ++) {
+			state.setTwist(twist);
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				moved.set(state);
+				moved.move(move);
+				twistMoves[twist * NUM_MOVES + move] = moved.getTwist();
+			}
+		}
+
+		for(int move = 0; move < NUM_MOVES; move ++) {
+			CubieState moveState = CubieState.getMove(move);
+			for(int slot = 0; slot < CubieState.NUM_EDGES; slot ++) {
+				edgeDestinations[move][moveState.ep[slot]] = slot;
+				edgeFlips[move][moveState.ep[slot]] = moveState.eo[slot];
+			}
+		}
+	}
+
+	int getCornerPermutationMove(int permutation, int move) {
+		return cornerPermutationMoves[permutation * NUM_MOVES + move];
+	}
+
+	int getTwistMove(int twist, int move) {
+		return twistMoves[twist * NUM_MOVES + move];
+	}
+
+	int getEdgeDestination(int move, int slot) {
+		return edgeDestinations[move][slot];
+	}
+
+	int getEdgeFlip(int move, int slot) {
+		return edgeFlips[move][slot];
+	}
+
+	static int getCornerIndex(int permutation, int twist) {
+		return permutation * NUM_TWISTS + twist;
+	}
+
+	/*
+	 * The state of the group of edges from first to first + 5, given the slot and orientation of every edge:
+	 * the slots of the edges (an arrangement of 6 of the 12 slots) and then their orientations in binary.
+	 */
+	static int getEdgeIndex(int[] slots, int[] orientations, int first) {
+		int permutation = 0;
+		int flips = 0;
+		int used = 0;
+		for(int i = 0; i < NUM_GROUP_EDGES; i ++) {
+			int slot = slots[first + i];
+			int free = slot - Integer.bitCount(used & ((1 << slot) - 1));
+			permutation += free * EDGE_WEIGHTS[i];
+			flips = 2 * flips + orientations[first + i];
+			used |= 1 << slot;
+		}
+
+		return (permutation << NUM_GROUP_EDGES) | flips;
+	}
+
+	private static void setEdgeIndex(int index, int[] slots, int[] orientations) {
+		int permutation = index >>> NUM_GROUP_EDGES;
+		int used = 0;
+		for(int i = 0; i < NUM_GROUP_EDGES; i ++) {
+			int free = permutation / EDGE_WEIGHTS[i];
+			permutation %= EDGE_WEIGHTS[i];
+
+			int slot = 0;
+			for(int skipped = 0; (used & (1 << slot)) != 0 || skipped < free; slot ++) {
+				if((used & (1 << slot)) == 0) skipped++;
+			}
+			slots[i] = slot;
+			orientations[i] = (index >>> (NUM_GROUP_EDGES - 1 - i)) & 1;
+			used |= 1 << slot;
+		}
+	}
+
+	//the group of edges is 0 for the first 6 edges and 1 for the last 6
+	static int getSolvedEdgeIndex(int group) {
+		int[] slots = new int[CubieState.NUM_EDGES];
+		for(int i = 0; i < slots.length; i ++) slots[i] = i;
+
+		return getEdgeIndex(slots, new int[CubieState.NUM_EDGES], group * NUM_GROUP_EDGES);
+	}
+
+	//the distances of the states mod 3
+	int getCornerDistance(int index) {
+		return getDistance(cornerDistances, index);
+	}
+
+	int getEdgeDistance(int group, int index) {
+		return getDistance(edgeDistances[group], index);
+	}
+
+	private static int getDistance(ByteBuffer table, int index) {
+		return (table.get(index >> 2) >> (2 * (index & 3))) & 3;
+	}
+
+	//the real distance of a state, found by following the distances down to the solved state
+	int getExactCornerDistance(int index) {
+		return getExactDistance(cornerDistances, new CornerSpace(), index, 0);
+	}
+
+	int getExactEdgeDistance(int group, int index) {
+		return getExactDistance(edgeDistances[group], new EdgeSpace(), index, getSolvedEdgeIndex(group));
+	}
+
+	private static int getExactDistance(ByteBuffer table, Space space, int index, int solvedIndex) {
+		int distance = 0;
+		while(index != solvedIndex) {
+			int closer = (getDistance(table, index) + 2) % 3;
+			space.setState(index);
+
+			int move = 0;
+			while(move < NUM_MOVES && getDistance(table, space.getNeighbour(move)) != closer) move++;
+			if(move == NUM_MOVES) throw new IllegalStateException("The optimal solver tables are corrupt");
+
+			index = space.getNeighbour(move);
+			distance++;
+		}
+
+		return distance;
+	}
+
+	//the states of one table and the moves between them, with the buffers of one thread
+	private interface Space {
+		void setState(int index);
+		int getNeighbour(int move);
+	}
+
+	private class CornerSpace implements Space {
+
+		private int permutation;
+		private int twist;
+
+		@Override
+		public void setState(int index) {
+			this.permutation = index / NUM_TWISTS;
+			this.twist = index % NUM_TWISTS;
+		}
+
+		@Override
+		public int getNeighbour(int move) {
+			return getCornerIndex(getCornerPermutationMove(permutation, move), getTwistMove(twist, move));
+		}
+
+	}
+
+	private class EdgeSpace implements Space {
+
+		private int[] slots = new int[NUM_GROUP_EDGES];
+		private int[] orientations = new int[NUM_GROUP_EDGES];
+		private int[] movedSlots = new int[NUM_GROUP_EDGES];
+		private int[] movedOrientations = new int[NUM_GROUP_EDGES];
+
+		@Override
+		public void setState(int index) {
+			setEdgeIndex(index, slots, orientations);
+		}
+
+		@Override
+		public int getNeighbour(int move) {
+			for(int i = 0; i < NUM_GROUP_EDGES; i ++) {
+				movedSlots[i] = edgeDestinations[move][slots[i]];
+				movedOrientations[i] = orientations[i] ^ edgeFlips[move][slots[i]];
+			}
+
+			return getEdgeIndex(movedSlots, movedOrientations, 0);
+		}
+
+	}
+
+	private static long getFileSize() {
+		return (NUM_CORNER_STATES + 3) / 4 + 2L * ((NUM_EDGE_STATES + 3) / 4);
+	}
+
+	//maps the tables from TABLE_PATH, and returns false if they aren't there
+	private boolean map() {
+		Path path = Paths.get(TABLE_PATH);
+		if(!Files.isRegularFile(path)) return false;
+
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if(channel.size() != getFileSize()) return false;
+
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			int cornerBytes = (NUM_CORNER_STATES + 3) / 4;
+			int edgeBytes = (NUM_EDGE_STATES + 3) / 4;
+
+			cornerDistances = buffer.slice(0, cornerBytes);
+			edgeDistances = new ByteBuffer[] { buffer.slice(cornerBytes, edgeBytes), buffer.slice(cornerBytes + edgeBytes, edgeBytes) };
+		} catch(IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+
+		return true;
+	}
+
+	//writes the tables to TABLE_PATH, or leaves them in the heap if it can't be written
+	private void save() {
+		Path path = Paths.get(TABLE_PATH);
+
+		try {
+			Files.createDirectories(path.getParent());
+			try(OutputStream out = new BufferedOutputStream(new FileOutputStream(path.toFile()))) {
+				out.write(cornerDistances.array());
+				out.write(edgeDistances[0].array());
+				out.write(edgeDistances[1].array());
+			}
+		} catch(IOException e) {
+			System.err.println("Could not save the optimal solver tables to " + TABLE_PATH);
+			e.printStackTrace();
+			return;
+		}
+
+		map();
+	}
+
+	private void generate() {
+		System.out.println("Generating optimal solver tables...");
+		long startTime = System.currentTimeMillis();
+
+		cornerDistances = ByteBuffer.wrap(generate("corner", NUM_CORNER_STATES, 0, CornerSpace::new));
+		edgeDistances = new ByteBuffer[2];
+		for(int group = 0; group < 2; group ++) {
+			edgeDistances[group] = ByteBuffer.wrap(generate("edge group " + group, NUM_EDGE_STATES, getSolvedEdgeIndex(group), EdgeSpace::new));
+		}
+
+		float seconds = (System.currentTimeMillis() - startTime) / 1000.0f;
+		System.out.println("Generated optimal solver tables in " + seconds + " seconds");
+	}
+
+	/*
+	 * A breadth first search from the solved state, one distance at a time. While there are fewer states at the
+	 * last distance than states without a distance, the moves out of the states at the last distance are followed.
+	 * After that, every state without a distance looks for a neighbour at the last distance instead, which is split
+	 * into chunks of whole bytes between threads. Either way the table comes out the same with any number of threads.
+	 */
+	private byte[] generate(String name, int numStates, int solvedIndex, Supplier<Space> spaces) {
+		byte[] table = new byte[(numStates + 3) / 4];
+		Arrays.fill(table, (byte) -1);
+		setDistance(table, solvedIndex, 0);
+
+		long numAtDistance = 1;
+		long numUnknown = numStates - 1;
+		int numChunks = (numStates + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+		for(int distance = 0; numAtDistance > 0; distance ++) {
+			int lastDistance = distance;
+			if(numAtDistance < numUnknown) {
+				numAtDistance = expand(table, numStates, lastDistance, spaces.get());
+			} else {
+				numAtDistance = IntStream.range(0, numChunks).parallel()
+						.mapToLong((int chunk) -> fillChunk(table, numStates, chunk, lastDistance, spaces.get())).sum();
+			}
+
+			numUnknown -= numAtDistance;
+			if(numAtDistance > 0) System.out.println(numAtDistance + " " + name + " states at distance " + (distance + 1));
+		}
+
+		return table;
+	}
+
+	//gives every unknown neighbour of the states at the last distance the next distance
+	private static long expand(byte[] table, int numStates, int lastDistance, Space space) {
+		long numFound = 0;
+		for(int index = 0; index < numStates; index ++) {
+			if(getDistance(table, index) != lastDistance % 3) continue;
+
+			space.setState(index);
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				int neighbour = space.getNeighbour(move);
+				if(getDistance(table, neighbour) == UNKNOWN) {
+					setDistance(table, neighbour, (lastDistance + 1) % 3);
+					numFound++;
+				}
+			}
+		}
+
+		return numFound;
+	}
+
+	private static long fillChunk(byte[] table, int numStates, int chunk, int lastDistance, Space space) {
+		int start = chunk * CHUNK_SIZE;
+		int end = Math.min(start + CHUNK_SIZE, numStates);
+		long numFound = 0;
+
+		for(int index = start; index < end; index ++) {
+			if(getDistance(table, index) != UNKNOWN) continue;
+
+			space.setState(index);
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				if(getDistance(table, space.getNeighbour(move)) == lastDistance % 3) {
+					setDistance(table, index, (lastDistance + 1) % 3);
+					numFound++;
+					break;
+				}
+			}
+		}
+
+		return numFound;
+	}
+
+	private static int getDistance(byte[] table, int index) {
+		return (table[index >> 2] >> (2 * (index & 3))) & 3;
+	}
+
+	private static void setDistance(byte[] table, int index, int distance) {
+		int shift = 2 * (index & 3);
+		table[index >> 2] = (byte) ((table[index >> 2] & ~(3 << shift)) | (distance << shift));
+	}
+
+}
@@ -18,6 +18,9 @@
 
 package com.github.sampeterson1.puzzles.cube.solvers;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
@@ -27,6 +30,9 @@ import com.github.sampeterson1.puzzles.cube.util.CubeAlgorithmUtil;
 //A representation of a full PLL case in the CFOP method
 public class PLLCase {
 
+	//the side faces in the order of their signature bits
+	private static final Axis[] SIDES = { Axis.F, Axis.R, Axis.B, Axis.L };
+
 	/*
 	 * Where each edge should be in counterclockwise order starting from the edge at position 0.
 	 * We use the color at index 1 to determine which face it belongs to.
@@ -67,6 +73,74 @@ public class PLLCase {
 		return this.solution;
 	}
 
+	//the number of last layer signatures of a cube with or without edges
+	static int getNumSignatures(boolean hasEdges) {
+		return OLLCase.getNumSignatures(hasEdges);
+	}
+
+	/*
+	 * The last layer of a cube as a number: 2 bits for each corner and then each edge, holding the side face
+	 * (F, R, B or L) whose color is on the piece in the same place that recognize() reads. A cube without edges has
+	 * only the corner bits, and the signature is -1 if a piece has a color that isn't on a side face.
+	 */
+	static int getSignature(Cube cube) {
+		Map<Color, Integer> sides = new EnumMap<Color, Integer>(Color.class);
+		for (int i = 0; i < SIDES.length; i++) {
+			sides.put(cube.getSolveColor(SIDES[i]), i);
+		}
+
+		int signature = 0;
+		for (int i = 0; i < 4; i++) {
+			Integer side = sides.get(cube.getCorner(i).getPiece().getColor(2));
+			if (side == null) return -1;
+			signature |= side << (2 * i);
+		}
+		if (cube.getSize() > 2) {
+			for (int i = 0; i < 4; i++) {
+				Integer side = sides.get(cube.getEdge(i).getPiece(0).getColor(1));
+				if (side == null) return -1;
+				signature |= side << (8 + 2 * i);
+			}
+		}
+
+		return signature;
+	}
+
+	//the signature that this case is recognized by
+	int getSignature(boolean hasEdges) {
+		int signature = 0;
+		for (int i = 0; i < 4; i++) {
+			signature |= getSide(cornerLocations[i]) << (2 * i);
+			if (hasEdges) signature |= getSide(edgeLocations[i]) << (8 + 2 * i);
+		}
+
+		return signature;
+	}
+
+	private static int getSide(Axis face) {
+		for (int i = 0; i < SIDES.length; i++) {
+			if (SIDES[i] == face) return i;
+		}
+
+		throw new IllegalArgumentException(face + " is not a side face");
+	}
+
+	//the signature after a clockwise U turn, which moves the piece in each position to the position before it
+	static int turnU(int signature) {
+		return OLLCase.rotate(signature);
+	}
+
+	//the signature after a clockwise U rotation, which also moves the color of each side face to the side before it
+	static int rotate(int signature, boolean hasEdges) {
+		int rotated = turnU(signature);
+		for (int i = 0; i < (hasEdges ? 16 : 8); i += 2) {
+			int side = (rotated >> i) & 3;
+			rotated = (rotated & ~(3 << i)) | (((side + 3) & 3) << i);
+		}
+
+		return rotated;
+	}
+
 	//Return true if the cube matches this case
 	public boolean recognize(Cube cube) {
 		//Check the permutations of the corners
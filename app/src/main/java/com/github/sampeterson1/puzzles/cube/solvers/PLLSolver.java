@@ -19,9 +19,15 @@
 package com.github.sampeterson1.puzzles.cube.solvers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzle.templates.CompiledAlgorithm;
 import com.github.sampeterson1.puzzles.cube.meta.Cube;
 
 /*
@@ -41,35 +47,51 @@ public class PLLSolver {
 	private static final Axis G = Axis.B;
 	private static final Axis O = Axis.L;
 	
+	//case solutions are compiled the first time they are used, and shared by the solvers of every cube of the same size
+	private static final Map<Integer, CompiledAlgorithm[]> compiledSolutions = new HashMap<Integer, CompiledAlgorithm[]>();
+	
+	//the cases are the same for every cube, so they are built once along with the tables that recognize them
+	private static final List<PLLCase> cases = initCases();
+	
+	//the case to execute for each last layer signature (see PLLCase) and the U rotations and U turns before it, packed as case << 4 | rotations << 2 | turns, or -1
+	private static final int[] edgeLookup = initLookup(true);
+	private static final int[] cornerLookup = initLookup(false);
+	
 	private Cube cube;
-	private ArrayList<PLLCase> cases;
+	private MoveTable moveTable;
 
 	public PLLSolver(Cube cube) {
 		this.cube = cube;
-		cases = new ArrayList<PLLCase>();
-
-		addCase("x L2 D2 L' U' L D2 L' U L' x'", new Axis[] { O, B, R, R, B, G, G, O });
-		addCase("x' L2 D2 L U L' D2 L U' L x", new Axis[] { R, B, O, R, G, G, B, O });
-		addCase("R' U' F' R U R' U' R' F R2 U' R' U' R U R' U R", new Axis[] { B, G, G, R, R, B, O, O });
-		addCase("R2 U R' U R' U' R U' R2 U' D R' U R D'", new Axis[] { B, R, G, O, R, B, O, G });
-		addCase("R' U' R U D' R2 U R' U R U' R U' R2 D", new Axis[] { B, G, G, B, R, O, O, R });
-		addCase("R2 U' R U' R U R' U R2 U D' R U' R' D", new Axis[] { B, G, G, O, R, R, O, B });
-		addCase("R U R' U' D R2 U' R U' R' U R' U R2 D'", new Axis[] { B, O, G, G, R, B, O, R });
-		addCase("x R2 F R F' R U2 r' U r U2 x'", new Axis[] { B, B, G, G, R, R, O, O });
-		addCase("R U R' F' R U R' U' R' F R2 U' R'", new Axis[] { O, B, R, O, B, R, G, G });
-		addCase("R U' R' U' R U R D R' U' R D' R' U2 R'", new Axis[] { O, O, R, B, B, G, G, R });
-		addCase("R2 F R U R U' R' F' R U2 R' U2 R", new Axis[] { R, B, O, G, G, O, B, R });
-		addCase("R U R' U' R' F R2 U' R' U' R U R' F'", new Axis[] { B, B, G, O, R, G, O, R });
-		addCase("x' L' U L D' L' U' L D L' U' L D' L' U L D x", new Axis[] { O, B, G, R, R, G, B, O });
-		addCase("z U R' D R2 U' R D' U R' D R2 U' R D' z' U'", new Axis[] { G, B, R, O, B, G, O, R });
-		addCase("R' U R U' R' F' U' F R U R' F R' F' R U' R", new Axis[] { B, B, O, O, G, G, R, R });
-		addCase("R' U R' U' y R' F' R2 U' R' U R' F R F y'", new Axis[] { B, B, O, G, G, R, R, O });
-		addCase("F R U' R' U' R U R' F' R U R' U' R' F R F'", new Axis[] { B, B, O, R, G, O, R, G });
-		addCase("M2 U M2 U2 M2 U M2", new Axis[] { B, G, R, O, G, B, O, R });
-		addCase("R U' R U R U R U' R' U' R2", new Axis[] { B, R, R, O, G, G, O, B });
-		addCase("R2 U R U R' U' R' U' R' U R'", new Axis[] { B, O, R, B, G, G, O, R });
-		addCase("M' U M2 U M2 U M' U2 M2", new Axis[] { O, G, B, R, R, B, G, O });
-		addCase("", new Axis[] { B, B, R, R, G, G, O, O });
+		this.moveTable = cube.getMoveTable();
+	}
+
+	private static List<PLLCase> initCases() {
+		List<PLLCase> cases = new ArrayList<PLLCase>();
+
+		addCase(cases, "x L2 D2 L' U' L D2 L' U L' x'", new Axis[] { O, B, R, R, B, G, G, O });
+		addCase(cases, "x' L2 D2 L U L' D2 L U' L x", new Axis[] { R, B, O, R, G, G, B, O });
+		addCase(cases, "R' U' F' R U R' U' R' F R2 U' R' U' R U R' U R", new Axis[] { B, G, G, R, R, B, O, O });
+		addCase(cases, "R2 U R' U R' U' R U' R2 U' D R' U R D'", new Axis[] { B, R, G, O, R, B, O, G });
+		addCase(cases, "R' U' R U D' R2 U R' U R U' R U' R2 D", new Axis[] { B, G, G, B, R, O, O, R });
+		addCase(cases, "R2 U' R U' R U R' U R2 U D' R U' R' D", new Axis[] { B, G, G, O, R, R, O, B });
+		addCase(cases, "R U R' U' D R2 U' R U' R' U R' U R2 D'", new Axis[] { B, O, G, G, R, B, O, R });
+		addCase(cases, "x R2 F R F' R U2 r' U r U2 x'", new Axis[] { B, B, G, G, R, R, O, O });
+		addCase(cases, "R U R' F' R U R' U' R' F R2 U' R'", new Axis[] { O, B, R, O, B, R, G, G });
+		addCase(cases, "R U' R' U' R U R D R' U' R D' R' U2 R'", new Axis[] { O, O, R, B, B, G, G, R });
+		addCase(cases, "R2 F R U R U' R' F' R U2 R' U2 R", new Axis[] { R, B, O, G, G, O, B, R });
+		addCase(cases, "R U R' U' R' F R2 U' R' U' R U R' F'", new Axis[] { B, B, G, O, R, G, O, R });
+		addCase(cases, "x' L' U L D' L' U' L D L' U' L D' L' U L D x", new Axis[] { O, B, G, R, R, G, B, O });
+		addCase(cases, "z U R' D R2 U' R D' U R' D R2 U' R D' z' U'", new Axis[] { G, B, R, O, B, G, O, R });
+		addCase(cases, "R' U R U' R' F' U' F R U R' F R' F' R U' R", new Axis[] { B, B, O, O, G, G, R, R });
+		addCase(cases, "R' U R' U' y R' F' R2 U' R' U R' F R F y'", new Axis[] { B, B, O, G, G, R, R, O });
+		addCase(cases, "F R U' R' U' R U R' F' R U R' U' R' F R F'", new Axis[] { B, B, O, R, G, O, R, G });
+		addCase(cases, "M2 U M2 U2 M2 U M2", new Axis[] { B, G, R, O, G, B, O, R });
+		addCase(cases, "R U' R U R U R U' R' U' R2", new Axis[] { B, R, R, O, G, G, O, B });
+		addCase(cases, "R2 U R U R' U' R' U' R' U R'", new Axis[] { B, O, R, B, G, G, O, R });
+		addCase(cases, "M' U M2 U M2 U M' U2 M2", new Axis[] { O, G, B, R, R, B, G, O });
+		addCase(cases, "", new Axis[] { B, B, R, R, G, G, O, O });
+
+		return Collections.unmodifiableList(cases);
 	}
 
 	public void solve() {
@@ -85,63 +107,103 @@ public class PLLSolver {
 		cube.popRotations();
 	}
 
-	private void addCase(String alg, Axis[] faces) {
+	private CompiledAlgorithm getCompiledSolution(int caseIndex) {
+		synchronized(compiledSolutions) {
+			CompiledAlgorithm[] solutions = compiledSolutions.get(cube.getSize());
+			if(solutions == null) {
+				solutions = new CompiledAlgorithm[cases.size()];
+				compiledSolutions.put(cube.getSize(), solutions);
+			}
+			
+			if(solutions[caseIndex] == null) solutions[caseIndex] = cases.get(caseIndex).getSolution().compile(cube);
+			return solutions[caseIndex];
+		}
+	}
+
+	private static void addCase(List<PLLCase> cases, String alg, Axis[] faces) {
 		cases.add(new PLLCase(alg, faces));
 	}
 
-	//Rotate the cube and align the U face to recognize and solve PLL
-	private boolean solvePLL() {
-		for (int i = 0; i < 4; i++) {
-			for (int j = 0; j < 4; j++) {
-				for (PLLCase c : cases) {
-					if (c.recognize(cube)) {
-						cube.executeAlgorithm(c.getSolution());
-						return true;
-					}
+	//cubes without edges (2x2s) are recognized by their corners alone, so more than one case can match them
+	private static int[] initLookup(boolean hasEdges) {
+		int numSignatures = PLLCase.getNumSignatures(hasEdges);
+
+		//the first case that each signature is recognized as
+		int[] caseIndices = new int[numSignatures];
+		Arrays.fill(caseIndices, -1);
+		for (int k = cases.size() - 1; k >= 0; k--) {
+			caseIndices[cases.get(k).getSignature(hasEdges)] = k;
+		}
+
+		//match the same case after the same rotations and U turns that checking every case after each of them would
+		int[] lookup = new int[numSignatures];
+		for (int signature = 0; signature < numSignatures; signature++) {
+			lookup[signature] = -1;
+			int rotated = signature;
+			for (int i = 0; i < 4 && lookup[signature] < 0; i++) {
+				int turned = rotated;
+				for (int j = 0; j < 4 && lookup[signature] < 0; j++) {
+					if (caseIndices[turned] >= 0) lookup[signature] = caseIndices[turned] << 4 | i << 2 | j;
+					turned = PLLCase.turnU(turned);
 				}
-				cube.makeMove(new Move(Axis.U, true));
+				rotated = PLLCase.rotate(rotated, hasEdges);
 			}
+		}
+
+		return lookup;
+	}
+
+	//Look up the case and the rotation and U turns it is recognized after from the last layer
+	private boolean solvePLL() {
+		int[] lookup = (cube.getSize() > 2) ? edgeLookup : cornerLookup;
+		int signature = PLLCase.getSignature(cube);
+		int match = (signature < 0) ? -1 : lookup[signature];
+		if (match < 0) return false;
+
+		for (int i = 0; i < ((match >> 2) & 3); i++) {
 			cube.makeRotation(Axis.U, true);
 		}
+		if ((match & 3) > 0) cube.makeMove(moveTable.getMove(Axis.U, true).repeated(match & 3));
+		cube.executeAlgorithm(getCompiledSolution(match >> 4));
 
-		return false;
+		return true;
 	}
 
-	//Execute the PLL parity algorithm
-	private void PLLParity() {
-		cube.makeMove(new Move(Axis.R, false));
-		cube.makeMove(new Move(Axis.U, true));
-		cube.makeMove(new Move(Axis.R, true));
-		cube.makeMove(new Move(Axis.U, false));
+	//Execute the PLL parity algorithm, which swaps two edges
+	void PLLParity() {
+		cube.makeMove(moveTable.getMove(Axis.R, false));
+		cube.makeMove(moveTable.getMove(Axis.U, true));
+		cube.makeMove(moveTable.getMove(Axis.R, true));
+		cube.makeMove(moveTable.getMove(Axis.U, false));
 
 		int cubeSize = cube.getSize();
 
 		for (int i = 1; i < cubeSize / 2; i++) {
-			cube.makeMove(new Move(Axis.R, i, true).repeated(2));
+			cube.makeMove(moveTable.getMove(Axis.R, i, true).repeated(2));
 		}
 
-		cube.makeMove(new Move(Axis.U, true).repeated(2));
+		cube.makeMove(moveTable.getMove(Axis.U, true).repeated(2));
 
 		for (int i = 1; i < cubeSize / 2; i++) {
-			cube.makeMove(new Move(Axis.R, i, true).repeated(2));
+			cube.makeMove(moveTable.getMove(Axis.R, i, true).repeated(2));
 		}
 
 		for (int i = 0; i < cubeSize / 2; i++) {
-			cube.makeMove(new Move(Axis.U, i, true).repeated(2));
+			cube.makeMove(moveTable.getMove(Axis.U, i, true).repeated(2));
 		}
 
 		for (int i = 1; i < cubeSize / 2; i++) {
-			cube.makeMove(new Move(Axis.R, i, true).repeated(2));
+			cube.makeMove(moveTable.getMove(Axis.R, i, true).repeated(2));
 		}
 
 		for (int i = 1; i < cubeSize / 2; i++) {
-			cube.makeMove(new Move(Axis.U, i, true).repeated(2));
+			cube.makeMove(moveTable.getMove(Axis.U, i, true).repeated(2));
 		}
 
-		cube.makeMove(new Move(Axis.U, true));
-		cube.makeMove(new Move(Axis.R, false));
-		cube.makeMove(new Move(Axis.U, false));
-		cube.makeMove(new Move(Axis.R, true));
+		cube.makeMove(moveTable.getMove(Axis.U, true));
+		cube.makeMove(moveTable.getMove(Axis.R, false));
+		cube.makeMove(moveTable.getMove(Axis.U, false));
+		cube.makeMove(moveTable.getMove(Axis.R, true));
 	}
 
 }
@@ -0,0 +1,70 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzles.cube.meta.Cube;
+
+/*
+ * Finds an optimal (fewest face turns) solution of a 2x2 cube.
+ *
+ * The distance table of TwoByTwoTables only stores each distance mod 3, but the state one move closer to solved
+ * is always the neighbour whose distance is one less mod 3, so the solution is found by taking that move until
+ * the cube is solved. This only turns R, U and F, which leave the fixed corner where it is.
+ */
+public class TwoByTwoSolver {
+
+	private Cube cube;
+
+	public TwoByTwoSolver(Cube cube) {
+		if(cube.getSize() != 2) {
+			throw new IllegalArgumentException("The 2x2 solver can only solve a 2x2 cube, not a " + cube.getSize() + "x" + cube.getSize());
+		}
+
+		this.cube = cube;
+	}
+
+	//returns an optimal solution of the cube without changing it
+	public Algorithm solve() {
+		TwoByTwoTables tables = TwoByTwoTables.getTables();
+		CubieState state = CubieState.fromCorners(cube, tables.getFixedCorner());
+		MoveTable moveTable = cube.getMoveTable();
+		Algorithm solution = new Algorithm();
+
+		int index = tables.getIndex(state);
+		int distance = tables.getDistance(index);
+		while(index != 0) {
+			int closerDistance = (distance + 2) % 3;
+
+			int move = 0;
+			while(move < TwoByTwoTables.NUM_MOVES && tables.getDistance(tables.getMove(index, move)) != closerDistance) {
+				move++;
+			}
+			if(move == TwoByTwoTables.NUM_MOVES) throw new IllegalStateException("The 2x2 distance table is corrupt");
+
+			solution.addMove(CubieState.getCubeMove(moveTable, move));
+			index = tables.getMove(index, move);
+			distance = closerDistance;
+		}
+
+		return solution;
+	}
+
+}
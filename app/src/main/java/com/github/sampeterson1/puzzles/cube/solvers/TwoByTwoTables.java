@@ -0,0 +1,296 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *	
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *	
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *	
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.solvers;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/*
+ * The distance of every state of a 2x2 cube from the solved state (see TwoByTwoSolver).
+ *
+ * The corner in FIXED_CORNER is never turned, which leaves the permutation of the other 7 corners and the
+ * orientation of 6 of them: 5040 * 729 = 3674160 states. Each distance is stored as its remainder mod 3 in 2 bits,
+ * which is enough to walk down to the solved state, since the neighbours of a state are at most one move closer
+ * or further away. The table is 900 KB, so it is saved to TABLE_PATH and memory-mapped from there after the first
+ * time it is generated (see TwoByTwoTableGenerator).
+ */
+class TwoByTwoTables {
+
+	private static final String TABLE_PATH = "res/cube/twoByTwo.bin";
+
+	//the first 9 of the 18 moves of CubieState, which turn R, U and F
+	static final int NUM_MOVES = 9;
+
+	static final int NUM_PERMUTATIONS = 5040;
+	static final int NUM_TWISTS = 729;
+	static final int NUM_STATES = NUM_PERMUTATIONS * NUM_TWISTS;
+
+	private static final int NUM_MOVING_CORNERS = 7;
+	private static final int UNKNOWN = 3;
+
+	//the states are generated in chunks of whole bytes, so that no two threads write to the same byte
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	private static TwoByTwoTables tables;
+
+	static synchronized TwoByTwoTables getTables() {
+		if(tables == null) {
+			tables = new TwoByTwoTables();
+			if(!tables.map()) {
+				tables.generate();
+				tables.save();
+			}
+		}
+
+		return tables;
+	}
+
+	//generates the table again and saves it to TABLE_PATH, even if it is already there
+	static synchronized void regenerate() {
+		tables = new TwoByTwoTables();
+		tables.generate();
+		tables.save();
+	}
+
+	private int fixedCorner;
+	private int[] movingCorners;
+	private int[] movingIndices;
+
+	private int[] permutationMoves;
+	private int[] twistMoves;
+
+	private ByteBuffer distances;
+
+	private TwoByTwoTables() {
+		findMovingCorners();
+		createMoveTables();
+	}
+
+	//the corner that none of the moves turn is fixed, and the other corners are numbered in order
+	private void findMovingCorners() {
+		this.movingCorners = new int[NUM_MOVING_CORNERS];
+		this.movingIndices = new int[CubieState.NUM_CORNERS];
+
+		int numMoving = 0;
+		for(int corner = 0; corner < CubieState.NUM_CORNERS; corner ++) {
+			boolean moved = false;
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				CubieState state = CubieState.getMove(move);
+				if(state.cp[corner] != corner || state.co[corner] != 0) moved = true;
+			}
+
+			if(moved) {
+				movingIndices[corner] = numMoving;
+				movingCorners[numMoving++] = corner;
+			} else {
+				fixedCorner = corner;
+			}
+		}
+	}
+
+	private void createMoveTables() {
+		this.permutationMoves = new int[NUM_PERMUTATIONS * NUM_MOVES];
+		this.twistMoves = new int[NUM_TWISTS * NUM_MOVES];
+
+		CubieState state = new CubieState();
+		CubieState moved = new CubieState();
+
+		for(int permutation = 0; permutation < NUM_PERMUTATIONS; permutation ++) {
+			setPermutation(state, permutation);
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				moved.set(state);
+				moved.move(move);
+				permutationMoves[permutation * NUM_MOVES + move] = getPermutation(moved);
+			}
+		}
+
+		for(int twist = 0; twist < NUM_TWISTS; twist ++) {
+			setTwist(state, twist);
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				moved.set(state);
+				moved.move(move);
+				twistMoves[twist * NUM_MOVES + move] = getTwist(moved);
+			}
+		}
+	}
+
+	int getFixedCorner() {
+		return this.fixedCorner;
+	}
+
+	//the state of the corners of a cube whose fixed corner is solved
+	int getIndex(CubieState state) {
+		return getPermutation(state) * NUM_TWISTS + getTwist(state);
+	}
+
+	int getMove(int index, int move) {
+		int permutation = index / NUM_TWISTS;
+		int twist = index % NUM_TWISTS;
+
+		return permutationMoves[permutation * NUM_MOVES + move] * NUM_TWISTS + twistMoves[twist * NUM_MOVES + move];
+	}
+
+	//the distance of a state from the solved state, mod 3
+	int getDistance(int index) {
+		return (distances.get(index >> 2) >> (2 * (index & 3))) & 3;
+	}
+
+	private int getPermutation(CubieState state) {
+		byte[] permutation = new byte[NUM_MOVING_CORNERS];
+		for(int i = 0; i < NUM_MOVING_CORNERS; i ++) {
+			permutation[i] = (byte) movingIndices[state.cp[movingCorners[i]]];
+		}
+
+		return CubieState.rank(permutation, 0, NUM_MOVING_CORNERS);
+	}
+
+	private void setPermutation(CubieState state, int rank) {
+		byte[] permutation = new byte[NUM_MOVING_CORNERS];
+		CubieState.unrank(permutation, 0, NUM_MOVING_CORNERS, rank);
+		for(int i = 0; i < NUM_MOVING_CORNERS; i ++) {
+			state.cp[movingCorners[i]] = (byte) movingCorners[permutation[i]];
+		}
+	}
+
+	//the orientations of the first 6 moving corners in base 3
+	private int getTwist(CubieState state) {
+		int twist = 0;
+		for(int i = 0; i < NUM_MOVING_CORNERS - 1; i ++) {
+			twist = 3 * twist + state.co[movingCorners[i]];
+		}
+
+		return twist;
+	}
+
+	private void setTwist(CubieState state, int twist) {
+		int sum = 0;
+		for(int i = NUM_MOVING_CORNERS - 2; i >= 0; i --) {
+			state.co[movingCorners[i]] = (byte) (twist % 3);
+			sum += twist % 3;
+			twist /= 3;
+		}
+		state.co[movingCorners[NUM_MOVING_CORNERS - 1]] = (byte) ((3 - sum % 3) % 3);
+	}
+
+	private static int getFileSize() {
+		return (NUM_STATES + 3) / 4;
+	}
+
+	//maps the table from TABLE_PATH, and returns false if there is no table there
+	private boolean map() {
+		Path path = Paths.get(TABLE_PATH);
+		if(!Files.isRegularFile(path)) return false;
+
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if(channel.size() != getFileSize()) return false;
+			distances = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch(IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+
+		return true;
+	}
+
+	//writes the table to TABLE_PATH, or leaves it in the heap if it can't be written
+	private void save() {
+		Path path = Paths.get(TABLE_PATH);
+
+		try {
+			Files.createDirectories(path.getParent());
+			try(OutputStream out = new FileOutputStream(path.toFile())) {
+				out.write(distances.array());
+			}
+		} catch(IOException e) {
+			System.err.println("Could not save the 2x2 distance table to " + TABLE_PATH);
+			e.printStackTrace();
+			return;
+		}
+
+		map();
+	}
+
+	/*
+	 * A breadth first search that fills in one distance at a time. Instead of following the moves out of each state
+	 * at the last distance, every state without a distance looks for a neighbour at the last distance, so each
+	 * thread only writes the states of its own chunks and the table comes out the same with any number of threads.
+	 */
+	private void generate() {
+		System.out.println("Generating 2x2 distance table...");
+		long startTime = System.currentTimeMillis();
+
+		byte[] table = new byte[getFileSize()];
+		Arrays.fill(table, (byte) -1);
+		setDistance(table, 0, 0);
+
+		int numChunks = (NUM_STATES + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		for(int distance = 0; ; distance ++) {
+			int lastDistance = distance;
+			long numFound = IntStream.range(0, numChunks).parallel()
+					.mapToLong((int chunk) -> fillChunk(table, chunk, lastDistance)).sum();
+
+			if(numFound == 0) break;
+			System.out.println(numFound + " states at distance " + (distance + 1));
+		}
+
+		this.distances = ByteBuffer.wrap(table);
+
+		float seconds = (System.currentTimeMillis() - startTime) / 1000.0f;
+		System.out.println("Generated 2x2 distance table in " + seconds + " seconds");
+	}
+
+	private int fillChunk(byte[] table, int chunk, int lastDistance) {
+		int start = chunk * CHUNK_SIZE;
+		int end = Math.min(start + CHUNK_SIZE, NUM_STATES);
+		int numFound = 0;
+
+		for(int index = start; index < end; index ++) {
+			if(getDistance(table, index) != UNKNOWN) continue;
+
+			for(int move = 0; move < NUM_MOVES; move ++) {
+				if(getDistance(table, getMove(index, move)) == lastDistance % 3) {
+					setDistance(table, index, (lastDistance + 1) % 3);
+					numFound++;
+					break;
+				}
+			}
+		}
+
+		return numFound;
+	}
+
+	private static int getDistance(byte[] table, int index) {
+		return (table[index >> 2] >> (2 * (index & 3))) & 3;
+	}
+
+	private static void setDistance(byte[] table, int index, int distance) {
+		int shift = 2 * (index & 3);
+		table[index >> 2] = (byte) ((table[index >> 2] & ~(3 << shift)) | (distance << shift));
+	}
+
+}
@@ -19,6 +19,7 @@
 package com.github.sampeterson1.puzzles.cube.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,7 @@ import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
 import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzle.moves.UniversalAlgorithmParser;
 
 //Utilities relating to a Rubik's Cube algorithm
@@ -55,80 +57,159 @@ public class CubeAlgorithmUtil {
 		return moveReplacements;
 	}
 
-	public static Algorithm parseAlgorithm(String str) throws InvalidAlgorithmException {
+	public static Algorithm parseAlgorithm(CharSequence str) throws InvalidAlgorithmException {
 		return UniversalAlgorithmParser.parseAlgorithm(str, moveReplacements, 0, PuzzleType.CUBE);
 	}
 	
-	public static Algorithm parseAlgorithm(String str, int puzzleSize) throws InvalidAlgorithmException {
-		return UniversalAlgorithmParser.parseAlgorithm(str.toString(), moveReplacements, puzzleSize, PuzzleType.CUBE);
+	public static Algorithm parseAlgorithm(CharSequence str, int puzzleSize) throws InvalidAlgorithmException {
+		return UniversalAlgorithmParser.parseAlgorithm(str, moveReplacements, puzzleSize, PuzzleType.CUBE);
 	}
 	
-	private static List<Move> mergeInversePairs(List<Move> moves) {
-		if (moves.size() == 0) {
-			return moves;
-		}
-
-		List<Move> newMoves = new ArrayList<Move>();
+	/*
+	 * Moves around the same axis (e.g. any turns of R and L) commute, so a run of them only depends on the net number
+	 * of quarter turns of each layer. The simplifier keeps a stack of these runs: each move is added to the run on top
+	 * of the stack if it turns around the same axis, otherwise it starts a new run. A run that cancels out completely
+	 * is popped, so that the run before it can merge with the moves that come next (e.g. R U U' R').
+	 */
+	private static class MoveGroup {
+		
+		//the R, U or F axis that the moves of this group turn around
+		private Axis axis;
 		
-		newMoves.add(moves.get(0));
-		int mergeIndex = -1;
+		//the net number of clockwise quarter turns (seen from R, U or F) of each layer, and the face it was first turned from
+		private int[] layers;
+		private int[] quarterTurns;
+		private Axis[] faces;
+		private int numLayers;
+		
+		private int numTurnedLayers;
+		
+		private MoveGroup(Axis axis) {
+			this.axis = axis;
+			this.layers = new int[2];
+			this.quarterTurns = new int[2];
+			this.faces = new Axis[2];
+		}
 		
-		for (int i = 1; i < moves.size(); i ++) {
-			Move move = moves.get(i);
-			Move previous = moves.get(i - 1);
+		//rotations of the whole cube are stored as layer puzzleSize, so that they are written after the turns
+		private void addMove(Move move, int puzzleSize) {
+			boolean opposite = !CubeUtil.isRUF(move.getAxis());
+			int turns = move.getRepetitions() % 4;
+			if(move.isCW() == opposite) turns = 4 - turns;
 			
-			if (i - mergeIndex >= 2 && move.getInverse().equals(previous)) {
-				newMoves.remove(newMoves.size() - 1);
-				mergeIndex = i;
-			} else {
-				newMoves.add(move);
-				previous = move;
+			if(move.isCubeRotation()) {
+				addTurns(puzzleSize, move.getAxis(), turns);
+				return;
+			}
+			
+			for(int layer = move.getLayer(); layer <= move.getEndLayer(); layer ++) {
+				addTurns(opposite ? puzzleSize - layer - 1 : layer, move.getAxis(), turns);
 			}
 		}
 		
-		return newMoves;
-	}
-	
-	private static List<Move> mergeRepeatedMoves(List<Move> moves) {
-		if (moves.size() == 0 || moves.size() == 1) {
-			return moves;
+		private void addTurns(int layer, Axis face, int turns) {
+			//a group only holds the few layers that were turned, so they are searched in order
+			int index = indexOf(layer);
+			
+			if(index == numLayers) {
+				if(numLayers == layers.length) {
+					layers = Arrays.copyOf(layers, 2 * numLayers);
+					quarterTurns = Arrays.copyOf(quarterTurns, 2 * numLayers);
+					faces = Arrays.copyOf(faces, 2 * numLayers);
+				}
+				
+				layers[index] = layer;
+				faces[index] = face;
+				numLayers++;
+			}
+			
+			int oldTurns = quarterTurns[index];
+			int newTurns = (oldTurns + turns) % 4;
+			quarterTurns[index] = newTurns;
+			
+			if(oldTurns == 0 && newTurns != 0) numTurnedLayers++;
+			if(oldTurns != 0 && newTurns == 0) numTurnedLayers--;
 		}
-
-		List<Move> newMoves = new ArrayList<Move>();
 		
-		newMoves.add(moves.get(0));
-		newMoves.add(moves.get(1));
-		int mergeIndex = -1;
+		private int indexOf(int layer) {
+			int index = 0;
+			while(index < numLayers && layers[index] != layer) index++;
+			
+			return index;
+		}
 		
-		for (int i = 2; i < moves.size(); i ++) {
-			Move move = moves.get(i);
-			Move prev1 = moves.get(i - 1);
-			Move prev2 = moves.get(i - 2);
+		/*
+		 * The moves of a group commute, so they are written in order of their layers. Neighboring layers that are
+		 * turned the same way from the same face are written as one range move.
+		 */
+		private void appendMoves(Algorithm alg, MoveTable moveTable, int puzzleSize) {
+			int[] order = Arrays.copyOf(layers, numLayers);
+			Arrays.sort(order);
 			
-			if (i - mergeIndex >= 3 && move.equals(prev1) && prev1.equals(prev2)) {
-				newMoves.remove(newMoves.size() - 1);				
-				newMoves.remove(newMoves.size() - 1);
-				newMoves.add(move.getInverse());
-				mergeIndex = i;
-			} else {
-				newMoves.add(move);
+			int i = 0;
+			while(i < order.length) {
+				int firstLayer = order[i];
+				int index = indexOf(firstLayer);
+				int turns = quarterTurns[index];
+				Axis face = faces[index];
+				boolean isCubeRotation = (firstLayer == puzzleSize);
+				
+				int lastLayer = firstLayer;
+				i ++;
+				while(!isCubeRotation && turns != 0 && i < order.length && order[i] == lastLayer + 1 && order[i] < puzzleSize) {
+					int next = indexOf(order[i]);
+					if(quarterTurns[next] != turns || faces[next] != face) break;
+					
+					lastLayer = order[i];
+					i ++;
+				}
+				
+				if(turns == 0) continue;
+				
+				boolean opposite = (face != axis);
+				int faceLayer = firstLayer;
+				int faceEndLayer = lastLayer;
+				if(isCubeRotation) {
+					faceLayer = 0;
+					faceEndLayer = 0;
+				} else if(opposite) {
+					faceLayer = puzzleSize - lastLayer - 1;
+					faceEndLayer = puzzleSize - firstLayer - 1;
+				}
+
+				boolean cw = (turns != 3) != opposite;
+				Move move = moveTable.getMove(face, faceLayer, cw, isCubeRotation).toLayer(faceEndLayer);
+				alg.addMove(turns == 2 ? move.repeated(2) : move);
 			}
 		}
 		
-		return newMoves;
 	}
 	
-	public static Algorithm simplify(Algorithm alg) {
-		int prevNumMoves = Integer.MAX_VALUE;
-		List<Move> moves = alg.getMoves();
+	//cancels and merges moves that turn around the same axis, in time linear in the length of the algorithm
+	public static Algorithm simplify(Algorithm alg, int puzzleSize) {
+		List<MoveGroup> groups = new ArrayList<MoveGroup>();
+		
+		for(int i = 0; i < alg.length(); i ++) {
+			Move move = alg.getMove(i);
+			Axis axis = CubeUtil.isRUF(move.getAxis()) ? move.getAxis() : CubeUtil.getOpposingFace(move.getAxis());
+			
+			MoveGroup group = groups.isEmpty() ? null : groups.get(groups.size() - 1);
+			if(group == null || group.axis != axis) {
+				group = new MoveGroup(axis);
+				groups.add(group);
+			}
+			
+			group.addMove(move, puzzleSize);
+			if(group.numTurnedLayers == 0) groups.remove(groups.size() - 1);
+		}
 		
-		while (moves.size() < prevNumMoves) {
-			prevNumMoves = moves.size();
-			moves = mergeRepeatedMoves(moves);
-			moves = mergeInversePairs(moves);
+		MoveTable moveTable = MoveTable.getTable(PuzzleType.CUBE, puzzleSize);
+		Algorithm simplified = new Algorithm();
+		for(MoveGroup group : groups) {
+			group.appendMoves(simplified, moveTable, puzzleSize);
 		}
 		
-		return new Algorithm(moves);
+		return simplified;
 	}
 	
 	private static Move getRandomMove(int puzzleSize) {
@@ -138,7 +219,7 @@ public class CubeAlgorithmUtil {
 		int layer = (int) Mathf.random(0, puzzleSize);
 		boolean cw = (Mathf.random(0, 1) < 0.5);
 
-		return new Move(f, layer, cw);
+		return MoveTable.getTable(PuzzleType.CUBE, puzzleSize).getMove(f, layer, cw);
 	}
 	
 	public static Algorithm generateScramble(int length, int puzzleSize) {
@@ -23,13 +23,39 @@ import java.util.Map;
 
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
 
 //Utilities relating to center pieces on a Rubik's Cube
 public class CubeCenterUtil {
 
 	private static Map<OrderedFacePair, Integer> faceTranspositions = initFaceTranspositions();
 	
+	/*
+	 * netRotations[moveFace][origin][dest] holds the number of clockwise rotations (0 to 3) that map the index of
+	 * a center piece on the origin face to its index on the destination face, when it is moved there by
+	 * clockwise turns around the move face. These are the sums of the face transpositions along the way.
+	 */
+	private static int[][][] netRotations;
+	
+	public static void init() {
+		int numAxes = Axis.values().length;
+		netRotations = new int[numAxes][numAxes][numAxes];
+
+		for (int i = 0; i < 6; i++) {
+			Axis moveFace = CubeUtil.getFace(i);
+			for (int j = 0; j < 6; j++) {
+				Axis origin = CubeUtil.getFace(j);
+				Axis face = origin;
+				int rotation = 0;
+				do {
+					netRotations[moveFace.ordinal()][origin.ordinal()][face.ordinal()] = ((rotation % 4) + 4) % 4;
+					Axis next = CubeMoveUtil.mapFace(face, moveFace, true);
+					rotation += faceTranspositions.get(new OrderedFacePair(face, next));
+					face = next;
+				} while (face != origin);
+			}
+		}
+	}
+
 	private static Map<OrderedFacePair, Integer> initFaceTranspositions() {
 		Map<OrderedFacePair, Integer> transpositions = new HashMap<OrderedFacePair, Integer>();
 
@@ -98,23 +124,13 @@ public class CubeCenterUtil {
 	}
 
 	public static int mapIndex(Axis moveFace, Axis origin, Axis dest, int index, int size) {
-		Move fakeMove = new Move(moveFace, 0, true);
-		Axis next = CubeMoveUtil.mapFace(origin, fakeMove);
-		while (origin != dest) {
-			OrderedFacePair key = new OrderedFacePair(origin, next);
-			int rotation = faceTranspositions.get(key);
-
-			if (rotation < 0) {
-				for (int i = 0; i < -rotation; i++)
-					index = rotateCCW(index, size);
-			} else {
-				for (int i = 0; i < rotation; i++)
-					index = rotateCW(index, size);
-			}
+		int rotation = netRotations[moveFace.ordinal()][origin.ordinal()][dest.ordinal()];
 
-			origin = next;
-			next = CubeMoveUtil.mapFace(origin, fakeMove);
-		}
+		//three clockwise rotations = one counterclockwise rotation
+		if (rotation == 3)
+			return rotateCCW(index, size);
+		for (int i = 0; i < rotation; i++)
+			index = rotateCW(index, size);
 
 		return index;
 	}
@@ -24,7 +24,6 @@ import java.util.Map;
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
 
 //Utilities relating to corners on a Rubik's Cube
 public class CubeCornerUtil {
@@ -71,34 +70,29 @@ public class CubeCornerUtil {
 		return positions;
 	}
 
-	public static int[] mapCorner(Move move, Piece piece) {
-
-		int cubeSize = piece.getPuzzleSize();
-		int position = piece.getPosition();
-		move = CubeMoveUtil.normalize(move, cubeSize);
-		int layer = move.getLayer();
-		Axis face = move.getAxis();
-
+	//move a corner a quarter turn clockwise around R, U or F
+	public static void moveCorner(Axis face, Piece corner) {
 		int[] positionArr = null;
 		int[] rotationArr = null;
 
-		if (layer == 0 || layer == cubeSize - 1) {
-			if (face == Axis.R) {
-				positionArr = positionArr_R;
-				rotationArr = rotationArr_R;
-			} else if (face == Axis.U) {
-				positionArr = positionArr_U;
-				rotationArr = rotationArr_U;
-			}
-			if (face == Axis.F) {
-				positionArr = positionArr_F;
-				rotationArr = rotationArr_F;
-			}
+		if (face == Axis.R) {
+			positionArr = positionArr_R;
+			rotationArr = rotationArr_R;
+		} else if (face == Axis.U) {
+			positionArr = positionArr_U;
+			rotationArr = rotationArr_U;
+		} else if (face == Axis.F) {
+			positionArr = positionArr_F;
+			rotationArr = rotationArr_F;
 		}
 
-		int rotation = rotationArr[position];
-		int newPos = positionArr[position];
-		return new int[] { newPos, rotation };
+		int position = corner.getPosition();
+		corner.setPosition(positionArr[position]);
+
+		//rotate the indices of the colors on the corner such that they match up with their new position
+		for (int i = 0; i < rotationArr[position]; i++) {
+			rotateCW(corner);
+		}
 	}
 
 	public static void populate(int[][] arr, Map<Integer, Integer> map) {
@@ -110,10 +104,9 @@ public class CubeCornerUtil {
 	}
 
 	public static void rotateCW(Piece corner) {
-		Color[] cpy = new Color[3];
-		for (int i = 0; i < 3; i++)
-			cpy[i] = corner.getColor(i);
-		for (int i = 0; i < 3; i++)
-			corner.setColor((i + 1) % 3, cpy[i]);
+		Color last = corner.getColor(2);
+		corner.setColor(2, corner.getColor(1));
+		corner.setColor(1, corner.getColor(0));
+		corner.setColor(0, last);
 	}
 }
@@ -20,7 +20,6 @@ package com.github.sampeterson1.puzzles.cube.util;
 
 import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
-import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
 
@@ -81,15 +80,28 @@ public class CubeEdgeUtil {
 	}
 
 	public static Piece mapEdge(Move move, Piece piece) {
-		move = CubeMoveUtil.faceNormalize(move);
+		Piece retVal = piece.clone();
+		moveEdge(move.getAxis(), move.isCW(), retVal);
+
+		return retVal;
+	}
+
+	//move an edge piece in place, without creating a new piece
+	public static void moveEdge(Axis face, boolean cw, Piece piece) {
+		//a turn of L, D or B moves edges the same way as the opposite turn of R, U or F
+		if (!CubeUtil.isRUF(face)) {
+			face = CubeUtil.getOpposingFace(face);
+			cw = !cw;
+		}
+
 		int position = piece.getPosition();
 		int index = piece.getIndex();
 		int puzzleSize = piece.getPuzzleSize();
 		Color c1 = piece.getColor(0);
 		Color c2 = piece.getColor(1);
 
-		int[] mapArr = getEdgeMapArr(move.getAxis());
-		int n = move.isCW() ? 1 : 3;
+		int[] mapArr = getEdgeMapArr(face);
+		int n = cw ? 1 : 3;
 
 		for (int i = 0; i < n; i++) {
 			int mapVal = mapArr[position];
@@ -103,11 +115,10 @@ public class CubeEdgeUtil {
 			position = mapVal - 1;
 		}
 
-		Piece retVal = new Piece(piece.getPuzzle(), PieceType.EDGE, position, index);
-		retVal.setColor(0, c1);
-		retVal.setColor(1, c2);
-
-		return retVal;
+		piece.setPosition(position);
+		piece.setIndex(index);
+		piece.setColor(0, c1);
+		piece.setColor(1, c2);
 	}
 
 	private static int[] getEdgeMapArr(Axis face) {
@@ -0,0 +1,179 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.util;
+
+import com.github.sampeterson1.puzzle.lib.PieceType;
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.Axis;
+
+/*
+ * Holds the sticker tables for one cube size: which stickers each layer turn cycles,
+ * and which stickers belong to each piece of the Piece/PieceGroup model.
+ *
+ * Tables are built the first time they are needed and never change afterwards,
+ * so one layout is shared by every cube of the same size (see CubeFaceletUtil.getLayout).
+ */
+public class CubeFaceletLayout {
+
+	private static final int NUM_TURN_FACES = 3;
+
+	private int size;
+
+	/*
+	 * turnCycles[face][layer] holds the 4-cycles of stickers moved by a clockwise turn of that layer,
+	 * flattened so that the sticker at cycle[i] moves to cycle[i + 1] (within each group of 4).
+	 * Only R, U and F are stored; a turn of L, D or B is the opposite turn of the matching layer on R, U or F.
+	 */
+	private int[][][] turnCycles;
+
+	private int[][] cornerStickers;
+	private int[][] edgeStickers;
+	private int[][] centerStickers;
+
+	CubeFaceletLayout(int size) {
+		this.size = size;
+		this.turnCycles = new int[NUM_TURN_FACES][size][];
+	}
+
+	public int getSize() {
+		return this.size;
+	}
+
+	//returns the sticker cycles for a clockwise turn of a layer on R, U or F
+	public synchronized int[] getTurnCycles(Axis face, int layer) {
+		int facePosition = CubeUtil.getFacePosition(face);
+		if(turnCycles[facePosition][layer] == null) {
+			turnCycles[facePosition][layer] = createTurnCycles(face, layer);
+		}
+
+		return turnCycles[facePosition][layer];
+	}
+
+	/*
+	 * Returns the stickers of the piece at a given position and index, in the same order as the piece's colors.
+	 * Edge stickers are stored two per index, so the stickers of edge i are at 2i and 2i + 1.
+	 */
+	public synchronized int[] getPieceStickers(PieceType type, int position) {
+		if(cornerStickers == null) {
+			createPieceStickers();
+		}
+
+		if(type == PieceType.CORNER) {
+			return cornerStickers[position];
+		} else if(type == PieceType.EDGE) {
+			return edgeStickers[position];
+		} else if(type == PieceType.CENTER) {
+			return centerStickers[position];
+		}
+
+		return null;
+	}
+
+	/*
+	 * Every sticker in the layer is rotated a quarter turn around the face. Stickers that
+	 * rotate onto themselves (the middle of an odd face) are left out.
+	 */
+	private int[] createTurnCycles(Axis face, int layer) {
+		int[] axis = CubeFaceletUtil.getNormal(CubeUtil.getFacePosition(face));
+		int layerCoord = size - 1 - 2 * layer;
+		int area = size * size;
+
+		boolean[] visited = new boolean[6 * area];
+		int[] cycles = new int[6 * area];
+		int numStickers = 0;
+
+		for(int f = 0; f < 6; f ++) {
+			int[] normal = CubeFaceletUtil.getNormal(f);
+			for(int i = 0; i < area; i ++) {
+				if(visited[f * area + i]) continue;
+
+				int[] position = CubeFaceletUtil.getStickerPosition(f, i, size);
+				if(CubeFaceletUtil.dot(position, axis) != layerCoord) continue;
+
+				int[] rotatedPosition = CubeFaceletUtil.rotate(position, face, true);
+				int[] rotatedNormal = CubeFaceletUtil.rotate(normal, face, true);
+				int next = CubeFaceletUtil.getSticker(rotatedPosition, rotatedNormal, size);
+				if(next == CubeFaceletUtil.packSticker(f, i)) continue;
+
+				for(int j = 0; j < 4; j ++) {
+					int sticker = CubeFaceletUtil.getSticker(position, normal, size);
+					cycles[numStickers++] = sticker;
+					visited[CubeFaceletUtil.getStickerFace(sticker) * area + CubeFaceletUtil.getStickerIndex(sticker)] = true;
+
+					position = CubeFaceletUtil.rotate(position, face, true);
+					normal = CubeFaceletUtil.rotate(normal, face, true);
+				}
+				normal = CubeFaceletUtil.getNormal(f);
+			}
+		}
+
+		int[] trimmed = new int[numStickers];
+		System.arraycopy(cycles, 0, trimmed, 0, numStickers);
+		return trimmed;
+	}
+
+	//place every piece at its origin, then use the same placements as CubeDisplayPiece to find its stickers
+	private void createPieceStickers() {
+		int edgeSize = Math.max(size - 2, 0);
+		int centerSize = edgeSize * edgeSize;
+		int max = size - 1;
+
+		int[] front = {0, 0, 1};
+		int[] right = {1, 0, 0};
+		int[] bottom = {0, -1, 0};
+
+		cornerStickers = new int[8][];
+		for(int position = 0; position < 8; position ++) {
+			Algorithm placement = CubeFaceletUtil.getPlacement(PieceType.CORNER, position);
+			cornerStickers[position] = getStickers(new int[] {max, -max, max}, placement, front, right, bottom);
+		}
+
+		edgeStickers = new int[12][2 * edgeSize];
+		for(int position = 0; position < 12; position ++) {
+			Algorithm placement = CubeFaceletUtil.getPlacement(PieceType.EDGE, position);
+			for(int i = 0; i < edgeSize; i ++) {
+				int[] stickers = getStickers(new int[] {edgeSize - 1 - 2 * i, -max, max}, placement, bottom, front);
+				edgeStickers[position][2 * i] = stickers[0];
+				edgeStickers[position][2 * i + 1] = stickers[1];
+			}
+		}
+
+		centerStickers = new int[6][centerSize];
+		for(int position = 0; position < 6; position ++) {
+			Algorithm placement = CubeFaceletUtil.getPlacement(PieceType.CENTER, position);
+			for(int i = 0; i < centerSize; i ++) {
+				int x = 1 - edgeSize + 2 * (i % edgeSize);
+				int y = edgeSize - 1 - 2 * (i / edgeSize);
+				centerStickers[position][i] = getStickers(new int[] {x, y, max}, placement, front)[0];
+			}
+		}
+	}
+
+	private int[] getStickers(int[] origin, Algorithm placement, int[]... normals) {
+		int[] position = CubeFaceletUtil.rotate(origin, placement);
+		int[] stickers = new int[normals.length];
+		for(int i = 0; i < normals.length; i ++) {
+			int[] normal = CubeFaceletUtil.rotate(normals[i], placement);
+			stickers[i] = CubeFaceletUtil.getSticker(position, normal, size);
+		}
+
+		return stickers;
+	}
+
+}
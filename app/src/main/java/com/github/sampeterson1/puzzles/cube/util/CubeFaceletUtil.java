@@ -0,0 +1,171 @@
+/*
+ *	Stickers Twisty Puzzle Simulator and Solver
+ *	Copyright (C) 2022 Sam Peterson <sam.peterson1@icloud.com>
+ *
+ *	This program is free software: you can redistribute it and/or modify
+ *	it under the terms of the GNU General Public License as published by
+ *	the Free Software Foundation, either version 3 of the License, or
+ *	(at your option) any later version.
+ *
+ *	This program is distributed in the hope that it will be useful,
+ *	but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *	MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *	GNU General Public License for more details.
+ *
+ *	You should have received a copy of the GNU General Public License
+ *	along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.github.sampeterson1.puzzles.cube.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.sampeterson1.puzzle.lib.PieceType;
+import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.Axis;
+import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
+import com.github.sampeterson1.puzzle.moves.Move;
+
+/*
+ * Utilities relating to the stickers (facelets) of a Rubik's Cube
+ *
+ * Each face is stored as a size * size grid of stickers, read left to right and top to bottom
+ * while looking directly at the face. U is viewed with F at the bottom, D is viewed with F at the top,
+ * and R, F, L and B are viewed with U at the top. A sticker is addressed by a single int that packs
+ * its face position (see CubeUtil) into the upper bits and its index on that face into the lower bits.
+ */
+public class CubeFaceletUtil {
+
+	private static final int FACE_SHIFT = 24;
+	private static final int INDEX_MASK = (1 << FACE_SHIFT) - 1;
+
+	//the outward normal, rightward and downward direction of each face, in CubeUtil face order
+	private static final int[][] normals = { {1, 0, 0}, {0, 1, 0}, {0, 0, 1}, {-1, 0, 0}, {0, -1, 0}, {0, 0, -1} };
+	private static final int[][] rightVectors = { {0, 0, -1}, {1, 0, 0}, {1, 0, 0}, {0, 0, 1}, {1, 0, 0}, {-1, 0, 0} };
+	private static final int[][] downVectors = { {0, -1, 0}, {0, 0, 1}, {0, -1, 0}, {0, -1, 0}, {0, 0, -1}, {0, -1, 0} };
+
+	/*
+	 * These algorithms take pieces at their "origin positions" (the bottom right corner, the bottom edge
+	 * and the center of the front face) and move them to their correct positions and orientations
+	 */
+	private static final Algorithm[] cornerPlacements = initPlacements("R F'", "F'", "F' U'", "F' U2", "D'", "", "D", "D2");
+	private static final Algorithm[] edgePlacements = initPlacements("F2", "F2 U'", "F2 U2", "F2 U", "F", "F U'", "F U2", "F U", "", "D", "D2", "D'");
+	private static final Algorithm[] centerPlacements = initPlacements("U'", "R", "", "U", "R'", "U2");
+
+	private static final Map<Integer, CubeFaceletLayout> layouts = new HashMap<Integer, CubeFaceletLayout>();
+
+	private static Algorithm[] initPlacements(String... algs) {
+		Algorithm[] placements = new Algorithm[algs.length];
+
+		try {
+			for(int i = 0; i < algs.length; i ++) {
+				placements[i] = CubeAlgorithmUtil.parseAlgorithm(algs[i]);
+			}
+		} catch (InvalidAlgorithmException e) {
+			e.printStackTrace();
+		}
+
+		return placements;
+	}
+
+	//returns the algorithm that rotates a piece from its origin position to the given position
+	public static Algorithm getPlacement(PieceType type, int position) {
+		if(type == PieceType.CORNER) {
+			return cornerPlacements[position];
+		} else if(type == PieceType.EDGE) {
+			return edgePlacements[position];
+		} else if(type == PieceType.CENTER) {
+			return centerPlacements[position];
+		}
+
+		return null;
+	}
+
+	//returns the (shared, lazily built) sticker layout of a cube with the given size
+	public static synchronized CubeFaceletLayout getLayout(int size) {
+		CubeFaceletLayout layout = layouts.get(size);
+		if(layout == null) {
+			layout = new CubeFaceletLayout(size);
+			layouts.put(size, layout);
+		}
+
+		return layout;
+	}
+
+	public static int packSticker(int face, int index) {
+		return (face << FACE_SHIFT) | index;
+	}
+
+	public static int getStickerFace(int sticker) {
+		return sticker >>> FACE_SHIFT;
+	}
+
+	public static int getStickerIndex(int sticker) {
+		return sticker & INDEX_MASK;
+	}
+
+	/*
+	 * Positions are measured in half pieces from the center of the cube, so the center of every
+	 * piece has integer coordinates in the range [-(size - 1), size - 1]
+	 */
+	static int getSticker(int[] position, int[] normal, int size) {
+		int face = getFace(normal);
+		int col = (dot(position, rightVectors[face]) + size - 1) / 2;
+		int row = (dot(position, downVectors[face]) + size - 1) / 2;
+
+		return packSticker(face, row * size + col);
+	}
+
+	static int[] getStickerPosition(int face, int index, int size) {
+		int row = index / size;
+		int col = index % size;
+
+		int[] position = new int[3];
+		for(int i = 0; i < 3; i ++) {
+			position[i] = normals[face][i] * (size - 1)
+					+ rightVectors[face][i] * (2 * col - size + 1)
+					+ downVectors[face][i] * (2 * row - size + 1);
+		}
+
+		return position;
+	}
+
+	static int[] getNormal(int face) {
+		return normals[face];
+	}
+
+	static int getFace(int[] normal) {
+		for(int i = 0; i < normals.length; i ++) {
+			if(dot(normal, normals[i]) == 1) return i;
+		}
+
+		return -1;
+	}
+
+	static int dot(int[] a, int[] b) {
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+	}
+
+	//rotate a vector a quarter turn around a face, in the same direction that the face is turned by a move
+	static int[] rotate(int[] v, Axis face, boolean cw) {
+		int[] a = normals[CubeUtil.getFacePosition(face)];
+		int projection = dot(a, v);
+		int sign = cw ? 1 : -1;
+
+		return new int[] {
+			a[0] * projection + sign * (v[1] * a[2] - v[2] * a[1]),
+			a[1] * projection + sign * (v[2] * a[0] - v[0] * a[2]),
+			a[2] * projection + sign * (v[0] * a[1] - v[1] * a[0])
+		};
+	}
+
+	static int[] rotate(int[] v, Algorithm alg) {
+		for(Move move : alg.getMoves()) {
+			v = rotate(v, move.getAxis(), move.isCW());
+		}
+
+		return v;
+	}
+
+}
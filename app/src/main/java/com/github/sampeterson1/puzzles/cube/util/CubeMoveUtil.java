@@ -21,8 +21,10 @@ package com.github.sampeterson1.puzzles.cube.util;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 
 //Utilities relating to moves on a Rubik's Cube
 public class CubeMoveUtil {
@@ -43,9 +45,10 @@ public class CubeMoveUtil {
 			flipped = true;
 		}
 
+		MoveTable moves = MoveTable.getTable(PuzzleType.CUBE, 1);
 		if (flipped)
-			return new Move(face, 0, move.isCCW());
-		return new Move(face, 0, move.isCW(), move.isCubeRotation());
+			return moves.getMove(face, 0, move.isCCW());
+		return moves.getMove(face, 0, move.isCW(), move.isCubeRotation());
 	}
 
 	public static void init() {
@@ -99,9 +102,15 @@ public class CubeMoveUtil {
 	}
 
 	public static Axis mapFace(Axis face, Move move) {
-		move = CubeMoveUtil.faceNormalize(move);
-		Axis moveFace = move.getAxis();
-		boolean cw = move.isCW();
+		return mapFace(face, move.getAxis(), move.isCW());
+	}
+	
+	//a turn of L, D or B maps faces the same way as the opposite turn of R, U or F
+	public static Axis mapFace(Axis face, Axis moveFace, boolean cw) {
+		if (!CubeUtil.isRUF(moveFace)) {
+			moveFace = CubeUtil.getOpposingFace(moveFace);
+			cw = !cw;
+		}
 
 		if (moveFace == Axis.R) {
 			return cw ? R_CW_Map.get(face) : R_CCW_Map.get(face);
@@ -123,9 +132,10 @@ public class CubeMoveUtil {
 		}
 
 		int layer = move.getLayer();
+		MoveTable moves = MoveTable.getTable(PuzzleType.CUBE, cubeSize);
 		if (flipped)
-			return new Move(face, cubeSize - layer - 1, move.isCCW());
-		return new Move(face, layer, move.isCW(), move.isCubeRotation());
+			return moves.getMove(face, cubeSize - layer - 1, move.isCCW());
+		return moves.getMove(face, layer, move.isCW(), move.isCubeRotation());
 	}
 
 }
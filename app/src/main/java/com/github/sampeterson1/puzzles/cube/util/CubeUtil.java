@@ -91,6 +91,7 @@ public class CubeUtil {
 	
 	public static void init() {
 		CubeMoveUtil.init();
+		CubeCenterUtil.init();
 	}
 
 	public static boolean isRUF(Axis face) {
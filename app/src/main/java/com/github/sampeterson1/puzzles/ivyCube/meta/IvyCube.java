@@ -34,7 +34,7 @@ public class IvyCube extends SimplePuzzle {
 	private static final int NUM_CENTERS = 6;
 
 	public IvyCube() {
-		super(PuzzleType.IVY_CUBE, true);
+		super(PuzzleType.IVY_CUBE);
 		
 		super.createPieces(new IvyCubeCornerBehavior(this), NUM_CORNERS);
 		super.createPieces(new IvyCubeCenterBehavior(this), NUM_CENTERS);	
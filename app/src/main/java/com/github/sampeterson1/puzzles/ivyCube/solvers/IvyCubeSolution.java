@@ -1,8 +1,10 @@
 package com.github.sampeterson1.puzzles.ivyCube.solvers;
 
 import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.AlgorithmWriter;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
+import com.github.sampeterson1.puzzle.templates.Snapshot;
 import com.github.sampeterson1.puzzles.ivyCube.meta.IvyCube;
 import com.github.sampeterson1.puzzles.ivyCube.util.IvyCubeUtil;
 
@@ -31,17 +33,8 @@ public class IvyCubeSolution {
 	}
 	
 	public String toString() {
-		StringBuilder str = new StringBuilder();
 		int stateHash = IvyCubeUtil.hash(cubeState);
-		str.append(stateHash + ";");
-		
-		for(Move move : solution.getMoves()) {
-			str.append(move.getAxis().getName());
-			if(move.isCCW()) str.append("'");
-			str.append(" ");
-		}
-		
-		return str.toString();
+		return stateHash + ";" + AlgorithmWriter.toString(solution);
 	}
 	
 	public IvyCube getState() {
@@ -56,23 +49,23 @@ public class IvyCubeSolution {
 		if(depth == maxDepth) return;
 		if(solution != null && depth + 1 >= solution.length()) return;
 
+		MoveTable moveTable = cubeState.getMoveTable();
+		Snapshot state = cubeState.snapshot();
 		
 		for(Axis axis : IvyCubeUtil.moveAxes) {
 			for(int i = 0; i < 2; i ++) {		
-				cubeState.pushState();
 				boolean cw = (i == 0);
-				Move move = new Move(axis, cw);
-				cubeState.makeMove(move);
+				cubeState.makeMove(moveTable.getMove(axis, cw));
 				
 				if(IvyCubeUtil.isSolved(cubeState)) {
 					solution = cubeState.getMoveLog().copy();
-					cubeState.popState();
+					cubeState.restore(state);
 					return;
 				} else {
 					recursiveSolve(depth + 1, maxDepth);
 				}
 				
-				cubeState.popState();
+				cubeState.restore(state);
 			}
 		}
 	}
@@ -54,7 +54,7 @@ public class IvyCubeUtil {
 	}
 	
 	public static boolean equals(IvyCube a, IvyCube b) {
-		return (hash(a) == hash(b));
+		return (a.stateHash() == b.stateHash());
 	}
 	
 	public static int hash(IvyCube ivy) {
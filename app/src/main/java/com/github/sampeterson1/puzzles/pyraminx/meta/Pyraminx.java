@@ -18,8 +18,6 @@
 
 package com.github.sampeterson1.puzzles.pyraminx.meta;
 
-import java.util.ArrayList;
-
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceGroup;
 import com.github.sampeterson1.puzzle.lib.PieceType;
@@ -27,7 +25,7 @@ import com.github.sampeterson1.puzzle.lib.PuzzleMetaFunctions;
 import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.lib.Rotateable;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.RotationGroup;
 import com.github.sampeterson1.puzzle.templates.GroupedPuzzle;
 import com.github.sampeterson1.puzzle.templates.Puzzle;
 import com.github.sampeterson1.puzzles.pyraminx.pieces.PyraminxCenterBehavior;
@@ -70,14 +68,28 @@ public class Pyraminx extends GroupedPuzzle implements Rotateable {
 		super.createPieces(new PyraminxCornerBehavior(this), NUM_CORNERS);
 	}
 	
+	//a center piece only moves between the indices that turning a face rotates it through
 	@Override
-	public Axis transposeAxis(Axis face) {
-		ArrayList<Move> cubeRotations = super.getRotations();
-		for(Move move : cubeRotations) {
-			face = PyraminxMoveUtil.mapFace(face, move);
+	protected int getOrbit(PieceType type, int index) {
+		if(type != PieceType.CENTER) return 0;
+		
+		int orbit = index;
+		for(int i = 0; i < 2; i ++) {
+			index = PyraminxCenterUtil.rotateIndexCW(index, super.getSize() - 3);
+			orbit = Math.min(orbit, index);
 		}
 		
-		return face;
+		return orbit;
+	}
+	
+	@Override
+	public Axis transposeAxis(Axis face) {
+		return getRotationGroup().transposeAxis(super.getOrientation(), face);
+	}
+	
+	@Override
+	protected RotationGroup createRotationGroup() {
+		return RotationGroup.getGroup(PuzzleType.PYRAMINX, PyraminxMoveUtil::mapFace);
 	}
 
 	public PieceGroup getGroup(PieceType type, Axis face) {
@@ -113,9 +113,9 @@ public class PyraminxEdgeBehavior extends PieceBehavior {
 			int newPosition = Math.abs(edgeMapVal) - 1;
 
 			if (flip) {
-				Color[] colorsCpy = new Color[] {piece.getColor(0), piece.getColor(1)};
-				piece.setColor(0, colorsCpy[1]);
-				piece.setColor(1, colorsCpy[0]);
+				Color tmp = piece.getColor(0);
+				piece.setColor(0, piece.getColor(1));
+				piece.setColor(1, tmp);
 				piece.setIndex(edgeSize - piece.getIndex() - 1);
 			}
 			
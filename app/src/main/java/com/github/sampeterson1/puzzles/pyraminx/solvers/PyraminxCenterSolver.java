@@ -18,7 +18,6 @@
 
 package com.github.sampeterson1.puzzles.pyraminx.solvers;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import com.github.sampeterson1.puzzle.lib.Color;
@@ -27,13 +26,14 @@ import com.github.sampeterson1.puzzle.lib.PieceGroup;
 import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.pyraminx.meta.Pyraminx;
 import com.github.sampeterson1.puzzles.pyraminx.util.PyraminxCenterUtil;
 
 public class PyraminxCenterSolver {
 	
 	private Pyraminx pyr;
+	private MoveTable moveTable;
 	private int puzzleSize;
 	private int centerSize;
 	private int centerIndex;
@@ -42,6 +42,7 @@ public class PyraminxCenterSolver {
 
 	public PyraminxCenterSolver(Pyraminx pyr) {
 		this.pyr = pyr;
+		this.moveTable = pyr.getMoveTable();
 		this.puzzleSize = pyr.getSize();
 		this.centerLayer = puzzleSize / 3;
 		this.centerSize = puzzleSize - 3;
@@ -50,25 +51,7 @@ public class PyraminxCenterSolver {
 	}
 
 	public List<Piece> findPieces(Color color, int index) {
-		List<Piece> pieces = new ArrayList<Piece>();
-		
-		for(int i = 0; i < 4; i ++) {
-			PieceGroup center = pyr.getGroup(PieceType.CENTER, i);
-			for(Piece piece : center.getPieces()) {
-				if(piece.getColor() == color) {
-					int pieceIndex = piece.getIndex();
-					for(int j = 0; j < 3; j ++) {
-						if(pieceIndex == index) {
-							pieces.add(piece);
-						}
-
-						pieceIndex = PyraminxCenterUtil.rotateIndexCW(pieceIndex, centerSize);
-					}
-				}
-			}
-		}
-		
-		return pieces;
+		return pyr.findPieces(PieceType.CENTER, index, color);
 	}
 	
 	public Piece findUnsolvedPiece(Color color, int index, int layer) {
@@ -94,60 +77,60 @@ public class PyraminxCenterSolver {
 	public void movePiece_LF(Piece piece, int pairingLayer) {
 		int layer = PyraminxCenterUtil.getLayer(piece, Axis.PD);
 		while(layer == pairingLayer + 1) {
-			pyr.makeMove(new Move(Axis.PL, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, true));
 			layer = PyraminxCenterUtil.getLayer(piece, Axis.PD);
 		}
-		pyr.makeMove(new Move(Axis.PD, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PD, layer, true));
 	}
 	
 	public void movePiece_FL(Piece piece, int pairingLayer) {
 		int layer = PyraminxCenterUtil.getLayer(piece, Axis.PD) - 1;
 		boolean restoreNeeded = (layer == pairingLayer);
 		
-		pyr.makeMove(new Move(Axis.PD, layer + 1, false));
+		pyr.makeMove(moveTable.getMove(Axis.PD, layer + 1, false));
 		while(layer == pairingLayer) {	
-			pyr.makeMove(new Move(Axis.PL, 0, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, 0, true));
 			layer = PyraminxCenterUtil.getLayer(piece, Axis.PD) - 1;
 		}
 		
 		if(restoreNeeded) {
-			pyr.makeMove(new Move(Axis.PD, pairingLayer + 1, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, pairingLayer + 1, true));
 		}
 	}
 	
 	public void movePiece_RL(Piece piece, boolean keepDFace) {
-		pyr.makeMove(new Move(Axis.PR, true));
+		pyr.makeMove(moveTable.getMove(Axis.PR, true));
 		int layer = PyraminxCenterUtil.getLayer(piece, Axis.PF);
-		pyr.makeMove(new Move(Axis.PF, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PF, layer, false));
 		
 		if(keepDFace) {
 			int newLayer = layer;
 			while(newLayer == layer) {
-				pyr.makeMove(new Move(Axis.PL, true));
+				pyr.makeMove(moveTable.getMove(Axis.PL, true));
 				newLayer = PyraminxCenterUtil.getLayer(piece, Axis.PF);
 			}
 			
-			pyr.makeMove(new Move(Axis.PF, layer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PF, layer, true));
 		}
 		
-		pyr.makeMove(new Move(Axis.PR, false));
+		pyr.makeMove(moveTable.getMove(Axis.PR, false));
 	}
 
 	public void insertPiece(Piece piece, int tgtIndex, boolean tilted, boolean keepDFace) {
-		if(tilted) pyr.makeMove(new Move(Axis.PR, false));
+		if(tilted) pyr.makeMove(moveTable.getMove(Axis.PR, false));
 		
 		Axis face = Pyraminx.getFace(piece);
 		int index = PyraminxCenterUtil.mapIndex(face, Axis.PR, Axis.PF, piece.getIndex(), puzzleSize);
 		
 		while(index != tgtIndex) {
-			pyr.makeMove(new Move(face, true));
+			pyr.makeMove(moveTable.getMove(face, true));
 			index = PyraminxCenterUtil.mapIndex(face, Axis.PR, Axis.PF, piece.getIndex(), puzzleSize);
 		}
 		
 		int layer = PyraminxCenterUtil.getLayer(piece, Axis.PF);
 		int numMoves = 0;
 		while(Pyraminx.getFace(piece) != Axis.PR) {
-			pyr.makeMove(new Move(Axis.PF, layer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PF, layer, true));
 			numMoves ++;
 		}
 		
@@ -160,20 +143,20 @@ public class PyraminxCenterSolver {
 				pairingLayer = PyraminxCenterUtil.getLayer(atIndex, Axis.PD);
 			}
 			
-			pyr.makeMove(new Move(Axis.PR, !tilted));
+			pyr.makeMove(moveTable.getMove(Axis.PR, !tilted));
 			for(int i = 0; i < numMoves; i ++) {
-				pyr.makeMove(new Move(Axis.PF, layer, false));
+				pyr.makeMove(moveTable.getMove(Axis.PF, layer, false));
 			}
-			pyr.makeMove(new Move(Axis.PR, tilted));
+			pyr.makeMove(moveTable.getMove(Axis.PR, tilted));
 			
 			if(pairingLayer == layer) {
-				pyr.makeMove(new Move(Axis.PL, true));
-				pyr.makeMove(new Move(Axis.PD, layer, false));
+				pyr.makeMove(moveTable.getMove(Axis.PL, true));
+				pyr.makeMove(moveTable.getMove(Axis.PD, layer, false));
 			}
 		}
 		
 		if(tilted && pairingLayer != layer) {
-			pyr.makeMove(new Move(Axis.PR, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, true));
 		}
 	}
 	
@@ -216,7 +199,7 @@ public class PyraminxCenterSolver {
 					
 				}
 				
-				pyr.makeMove(new Move(Axis.PD, layer + 1, false));
+				pyr.makeMove(moveTable.getMove(Axis.PD, layer + 1, false));
 			}
 			
 			pyr.makeRotation(Axis.PL, true);
@@ -234,14 +217,14 @@ public class PyraminxCenterSolver {
 	}
 	
 	public void executeAlternateCommutator(int tgtIndex) {
-		pyr.makeMove(new Move(Axis.PD, false));
+		pyr.makeMove(moveTable.getMove(Axis.PD, false));
 		
 		int z = PyraminxCenterUtil.getZPosition(tgtIndex, centerSize);
 		int indexOff = getIndexOff(tgtIndex, z);
 		int fMoves = 0;
 		
 		while(indexOff != z) {
-			pyr.makeMove(new Move(Axis.PF, true));
+			pyr.makeMove(moveTable.getMove(Axis.PF, true));
 			fMoves ++;
 			
 			tgtIndex = PyraminxCenterUtil.rotateIndexCW(tgtIndex, centerSize);
@@ -250,20 +233,20 @@ public class PyraminxCenterSolver {
 		}
 		
 		int layer = z + 1;
-		pyr.makeMove(new Move(Axis.PF, layer, false));
-		pyr.makeMove(new Move(Axis.PL, layer, true));
-		pyr.makeMove(new Move(Axis.PF, layer, true));
-		pyr.makeMove(new Move(Axis.PL, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PF, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PL, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PF, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PL, layer, false));
 		
-		pyr.makeMove(new Move(Axis.PL, 0, false));
+		pyr.makeMove(moveTable.getMove(Axis.PL, 0, false));
 		
-		pyr.makeMove(new Move(Axis.PR, layer, false));
-		pyr.makeMove(new Move(Axis.PL, layer, false));
-		pyr.makeMove(new Move(Axis.PR, layer, true));
-		pyr.makeMove(new Move(Axis.PL, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PR, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PL, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PR, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PL, layer, true));
 		
 		for(int i = 0; i < fMoves; i ++) {
-			pyr.makeMove(new Move(Axis.PF, false));
+			pyr.makeMove(moveTable.getMove(Axis.PF, false));
 		}
 	}
 	
@@ -272,26 +255,26 @@ public class PyraminxCenterSolver {
 		int layer = PyraminxCenterUtil.getLayer(piece, pivot);
 		boolean cw = (pivot == Axis.PR) ? true : false;
 		
-		pyr.makeMove(new Move(pivot, layer, cw));
-		pyr.makeMove(new Move(Axis.PF, !cw));
+		pyr.makeMove(moveTable.getMove(pivot, layer, cw));
+		pyr.makeMove(moveTable.getMove(Axis.PF, !cw));
 		
 		int nextLayer = PyraminxCenterUtil.getLayer(piece, pivot);
 		if(nextLayer == layer) {
-			pyr.makeMove(new Move(Axis.PF, cw));
-			pyr.makeMove(new Move(pivot, layer, !cw));
+			pyr.makeMove(moveTable.getMove(Axis.PF, cw));
+			pyr.makeMove(moveTable.getMove(pivot, layer, !cw));
 			
 			return false;
 		}
 			
-		pyr.makeMove(new Move(pivot, nextLayer, cw));		
-		pyr.makeMove(new Move(Axis.PF, cw));
+		pyr.makeMove(moveTable.getMove(pivot, nextLayer, cw));		
+		pyr.makeMove(moveTable.getMove(Axis.PF, cw));
 		
-		pyr.makeMove(new Move(pivot, layer, !cw));
-		pyr.makeMove(new Move(Axis.PF, !cw));
+		pyr.makeMove(moveTable.getMove(pivot, layer, !cw));
+		pyr.makeMove(moveTable.getMove(Axis.PF, !cw));
 		
 		
-		pyr.makeMove(new Move(pivot, nextLayer, !cw));
-		pyr.makeMove(new Move(Axis.PF, cw));
+		pyr.makeMove(moveTable.getMove(pivot, nextLayer, !cw));
+		pyr.makeMove(moveTable.getMove(Axis.PF, cw));
 		
 		return true;
 	}
@@ -312,7 +295,7 @@ public class PyraminxCenterSolver {
 		if(piece != null) {
 			int mappedIndex = PyraminxCenterUtil.mapIndex(Axis.PD, Axis.PF, pivot, tgtIndex, puzzleSize);
 			while(mappedIndex != tgtIndex) {
-				pyr.makeMove(new Move(Axis.PD, true));
+				pyr.makeMove(moveTable.getMove(Axis.PD, true));
 				mappedIndex = PyraminxCenterUtil.mapIndex(Axis.PD, Axis.PF, pivot, piece.getIndex(), puzzleSize);
 			}
 		}
@@ -324,37 +307,37 @@ public class PyraminxCenterSolver {
 		if(puzzleSize % 3 == 1) {
 			for(int i = 0; i < 2; i ++) {
 				for(int j = centerLayer; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PL, j, !cw));
+					pyr.makeMove(moveTable.getMove(Axis.PL, j, !cw));
 				for(int j = centerLayer; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PD, j, !cw));
+					pyr.makeMove(moveTable.getMove(Axis.PD, j, !cw));
 				for(int j = centerLayer; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PL, j, cw));
+					pyr.makeMove(moveTable.getMove(Axis.PL, j, cw));
 				for(int j = centerLayer; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PD, j, !cw));
+					pyr.makeMove(moveTable.getMove(Axis.PD, j, !cw));
 			}	
 			
 			for(int i = 0; i < 2; i ++) {
 				for(int j = centerLayer; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PL, j, !cw));
+					pyr.makeMove(moveTable.getMove(Axis.PL, j, !cw));
 				for(int j = centerLayer + 1; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PD, j, cw));
+					pyr.makeMove(moveTable.getMove(Axis.PD, j, cw));
 				for(int j = centerLayer; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PL, j, cw));
+					pyr.makeMove(moveTable.getMove(Axis.PL, j, cw));
 				for(int j = centerLayer + 1; j <= 2*centerLayer; j ++)
-					pyr.makeMove(new Move(Axis.PD, j, cw));
+					pyr.makeMove(moveTable.getMove(Axis.PD, j, cw));
 			}
 		} else {
 			for(int i = 0; i < 2; i ++) {
 				for(int j = centerLayer + 1; j < puzzleSize; j ++)
-					pyr.makeMove(new Move(Axis.PR, j, !cw));
-				pyr.makeMove(new Move(Axis.PL, centerLayer, !cw));
+					pyr.makeMove(moveTable.getMove(Axis.PR, j, !cw));
+				pyr.makeMove(moveTable.getMove(Axis.PL, centerLayer, !cw));
 				for(int j = centerLayer + 1; j < puzzleSize; j ++)
-					pyr.makeMove(new Move(Axis.PR, j, cw));
-				pyr.makeMove(new Move(Axis.PL, centerLayer, !cw));
+					pyr.makeMove(moveTable.getMove(Axis.PR, j, cw));
+				pyr.makeMove(moveTable.getMove(Axis.PL, centerLayer, !cw));
 			}
 			
 			if(cw) {
-				pyr.makeMove(new Move(Axis.PR, true));
+				pyr.makeMove(moveTable.getMove(Axis.PR, true));
 				pyr.makeRotation(Axis.PF, true);
 				executeAlternateCommutator(aboveCenterIndex);
 			} else {
@@ -366,10 +349,10 @@ public class PyraminxCenterSolver {
 	
 	public void fourCenterSwap() {
 		for(int i = 0; i < 3; i ++) {
-			pyr.makeMove(new Move(Axis.PL, centerLayer, true));
-			pyr.makeMove(new Move(Axis.PR, centerLayer, false));
-			pyr.makeMove(new Move(Axis.PL, centerLayer, false));
-			pyr.makeMove(new Move(Axis.PR, centerLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, centerLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, centerLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, centerLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PR, centerLayer, true));
 		}
 	}
 	
@@ -24,17 +24,19 @@ import com.github.sampeterson1.puzzle.lib.PieceGroup;
 import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.pyraminx.meta.Pyraminx;
 import com.github.sampeterson1.puzzles.pyraminx.util.PyraminxEdgeUtil;
 
 public class PyraminxEdgeSolver {
 
 	private Pyraminx pyr;
+	private MoveTable moveTable;
 	private int edgeSize;
 	
 	public PyraminxEdgeSolver(Pyraminx pyr) {
 		this.pyr = pyr;
+		this.moveTable = pyr.getMoveTable();
 		this.edgeSize = pyr.getGroup(PieceType.EDGE, 0).getNumPieces();
 	}
 	
@@ -105,20 +107,20 @@ public class PyraminxEdgeSolver {
 			pyr.makeRotation(Axis.PD, true);
 		
 		while(pyr.getGroup(PieceType.EDGE, 3).isSolved())
-			pyr.makeMove(new Move(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
 		
 		if(initialPosition == 0) {
 			int lLayer = PyraminxEdgeUtil.getLayer(Axis.PL, edge);	
-			pyr.makeMove(new Move(Axis.PL, lLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, lLayer, true));
 			
 			int rLayer = PyraminxEdgeUtil.getLayer(Axis.PR, edge);
-			pyr.makeMove(new Move(Axis.PR, rLayer, false));
-			pyr.makeMove(new Move(Axis.PL, lLayer, false));
-			pyr.makeMove(new Move(Axis.PR, rLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, rLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, lLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PR, rLayer, true));
 		} else {
-			pyr.makeMove(new Move(Axis.PR, false));
-			pyr.makeMove(new Move(Axis.PD, true));
-			pyr.makeMove(new Move(Axis.PR, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, true));
 		}
 		
 		pyr.popRotations();
@@ -133,23 +135,23 @@ public class PyraminxEdgeSolver {
 			pyr.makeRotation(Axis.PD, true);	
 		
 		while(pyr.getGroup(PieceType.EDGE, 3).isSolved())
-			pyr.makeMove(new Move(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
 		
 		if(initialPosition == 0) {
 			int layer = PyraminxEdgeUtil.getLayer(Axis.PL, edge);
 			
-			pyr.makeMove(new Move(Axis.PL, layer, true));
-			pyr.makeMove(new Move(Axis.PD, false));
-			pyr.makeMove(new Move(Axis.PL, true));
-			pyr.makeMove(new Move(Axis.PD, true));
-			pyr.makeMove(new Move(Axis.PL, layer, false));
-			pyr.makeMove(new Move(Axis.PD, false));
-			pyr.makeMove(new Move(Axis.PL, false));
-			pyr.makeMove(new Move(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, layer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, layer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
 		} else {
-			pyr.makeMove(new Move(Axis.PR, false));
-			pyr.makeMove(new Move(Axis.PD, true));
-			pyr.makeMove(new Move(Axis.PR, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, true));
 		}
 		
 		pyr.popRotations();
@@ -157,29 +159,29 @@ public class PyraminxEdgeSolver {
 	
 	private void insertPrimaryEdgeFromBottom(Piece edge, Piece root) {
 		if(!edge.hasExactColors(root)) {
-			while(edge.getPosition() != 3) pyr.makeMove(new Move(Axis.PD, true));
+			while(edge.getPosition() != 3) pyr.makeMove(moveTable.getMove(Axis.PD, true));
 			int layer = PyraminxEdgeUtil.getLayer(Axis.PL, edge);
 
-			pyr.makeMove(new Move(Axis.PD, false));
-			pyr.makeMove(new Move(Axis.PL, true));
-			pyr.makeMove(new Move(Axis.PD, true));
-			pyr.makeMove(new Move(Axis.PL, layer, true));
-			pyr.makeMove(new Move(Axis.PD, false));
-			pyr.makeMove(new Move(Axis.PL, false));
-			pyr.makeMove(new Move(Axis.PD, true));	
-			pyr.makeMove(new Move(Axis.PL, layer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, layer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));	
+			pyr.makeMove(moveTable.getMove(Axis.PL, layer, false));
 		} else {
-			while(edge.getPosition() != 4) pyr.makeMove(new Move(Axis.PD, true));	
+			while(edge.getPosition() != 4) pyr.makeMove(moveTable.getMove(Axis.PD, true));	
 			int layer = PyraminxEdgeUtil.getLayer(Axis.PF, edge);
 
-			pyr.makeMove(new Move(Axis.PF, layer, true));
-			pyr.makeMove(new Move(Axis.PD, false));
-			pyr.makeMove(new Move(Axis.PF, true));
-			pyr.makeMove(new Move(Axis.PD, true));
-			pyr.makeMove(new Move(Axis.PF, layer, false));
-			pyr.makeMove(new Move(Axis.PD, false));
-			pyr.makeMove(new Move(Axis.PF, false));
-			pyr.makeMove(new Move(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PF, layer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, false));
+			pyr.makeMove(moveTable.getMove(Axis.PF, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PF, layer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, false));
+			pyr.makeMove(moveTable.getMove(Axis.PF, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
 		}
 	}
 
@@ -189,37 +191,37 @@ public class PyraminxEdgeSolver {
 		if(position == 1) pyr.makeRotation(Axis.PD, false);
 		else if(position == 2) pyr.makeRotation(Axis.PD, true);
 		
-		pyr.makeMove(new Move(Axis.PR, false));
-		pyr.makeMove(new Move(Axis.PD, false));
-		pyr.makeMove(new Move(Axis.PR, true));
+		pyr.makeMove(moveTable.getMove(Axis.PR, false));
+		pyr.makeMove(moveTable.getMove(Axis.PD, false));
+		pyr.makeMove(moveTable.getMove(Axis.PR, true));
 		
-		pyr.makeMove(new Move(Axis.PF, false));
-		pyr.makeMove(new Move(Axis.PR, true));
-		pyr.makeMove(new Move(Axis.PF, true));
-		pyr.makeMove(new Move(Axis.PR, false));
+		pyr.makeMove(moveTable.getMove(Axis.PF, false));
+		pyr.makeMove(moveTable.getMove(Axis.PR, true));
+		pyr.makeMove(moveTable.getMove(Axis.PF, true));
+		pyr.makeMove(moveTable.getMove(Axis.PR, false));
 		
 		pyr.popRotations();
 	}
 	
 	private void insertSecondaryEdgeFromBottom(Piece edge, Piece root) {
 		if(!edge.hasExactColors(root)) {
-			while(edge.getPosition() != 3) pyr.makeMove(new Move(Axis.PD, true));
+			while(edge.getPosition() != 3) pyr.makeMove(moveTable.getMove(Axis.PD, true));
 			
 			int lLayer = PyraminxEdgeUtil.getLayer(Axis.PL, edge);
-			pyr.makeMove(new Move(Axis.PL, lLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, lLayer, false));
 			int dLayer = PyraminxEdgeUtil.getLayer(Axis.PD, edge);
-			pyr.makeMove(new Move(Axis.PD, dLayer, false));
-			pyr.makeMove(new Move(Axis.PL, lLayer, true));
-			pyr.makeMove(new Move(Axis.PD, dLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, dLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, lLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, dLayer, true));
 		} else {
-			while(edge.getPosition() != 4) pyr.makeMove(new Move(Axis.PD, true));
+			while(edge.getPosition() != 4) pyr.makeMove(moveTable.getMove(Axis.PD, true));
 			
 			int lLayer = PyraminxEdgeUtil.getLayer(Axis.PL, edge);
-			pyr.makeMove(new Move(Axis.PL, lLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PL, lLayer, true));
 			int dLayer = PyraminxEdgeUtil.getLayer(Axis.PD, edge);
-			pyr.makeMove(new Move(Axis.PD, dLayer, false));
-			pyr.makeMove(new Move(Axis.PL, lLayer, false));
-			pyr.makeMove(new Move(Axis.PD, dLayer, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, dLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PL, lLayer, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, dLayer, true));
 		}
 	}
 
@@ -267,11 +269,11 @@ public class PyraminxEdgeSolver {
 			solveEdgeSecondaries();
 			
 			while(pyr.getGroup(PieceType.EDGE, 3).isSolved())
-				pyr.makeMove(new Move(Axis.PD, true));
+				pyr.makeMove(moveTable.getMove(Axis.PD, true));
 			
-			pyr.makeMove(new Move(Axis.PR, false));
-			pyr.makeMove(new Move(Axis.PD, true));
-			pyr.makeMove(new Move(Axis.PR, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, false));
+			pyr.makeMove(moveTable.getMove(Axis.PD, true));
+			pyr.makeMove(moveTable.getMove(Axis.PR, true));
 		}
 	}
 	
@@ -310,11 +312,11 @@ public class PyraminxEdgeSolver {
 		int centerLayer = pyr.getSize() / 2;
 		
 		for(int i = 0; i < 3; i ++) {
-			pyr.makeMove(new Move(Axis.PL, centerLayer, (i % 2 == 1)));
-			pyr.makeMove(new Move(Axis.PD, centerLayer, cw));
+			pyr.makeMove(moveTable.getMove(Axis.PL, centerLayer, (i % 2 == 1)));
+			pyr.makeMove(moveTable.getMove(Axis.PD, centerLayer, cw));
 		}	
 	
-		pyr.makeMove(new Move(Axis.PL, centerLayer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PL, centerLayer, true));
 	}
 	
 	private boolean centerMatches(int position) {
@@ -349,29 +351,29 @@ public class PyraminxEdgeSolver {
 	private void lastEdgeSecondaryInsertPos1(int layer) {
 		int invLayer = pyr.getSize() - layer - 1;
 		
-		pyr.makeMove(new Move(Axis.PL, invLayer, true));
-		pyr.makeMove(new Move(Axis.PD, layer, false));
-		pyr.makeMove(new Move(Axis.PL, invLayer, false));
-		pyr.makeMove(new Move(Axis.PD, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PD, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PD, layer, true));
 		
-		pyr.makeMove(new Move(Axis.PL, invLayer, false));
-		pyr.makeMove(new Move(Axis.PF, layer, true));
-		pyr.makeMove(new Move(Axis.PL, invLayer, true));
-		pyr.makeMove(new Move(Axis.PF, layer, false));	
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PF, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PF, layer, false));	
 	}
 	
 	private void lastEdgeSecondaryInsertPos2(int layer) {
 		int invLayer = pyr.getSize() - layer - 1;
 		
-		pyr.makeMove(new Move(Axis.PL, invLayer, false));
-		pyr.makeMove(new Move(Axis.PD, layer, true));
-		pyr.makeMove(new Move(Axis.PL, invLayer, true));
-		pyr.makeMove(new Move(Axis.PD, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PD, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PD, layer, false));
 		
-		pyr.makeMove(new Move(Axis.PL, invLayer, true));
-		pyr.makeMove(new Move(Axis.PR, layer, false));
-		pyr.makeMove(new Move(Axis.PL, invLayer, false));
-		pyr.makeMove(new Move(Axis.PR, layer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, true));
+		pyr.makeMove(moveTable.getMove(Axis.PR, layer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PL, invLayer, false));
+		pyr.makeMove(moveTable.getMove(Axis.PR, layer, true));
 	}
 	
 	private void lastEdgePrimaries() {
@@ -387,10 +389,10 @@ public class PyraminxEdgeSolver {
 				int layer = PyraminxEdgeUtil.getLayer(Axis.PD, targetEdge);
 				
 				if(position == 0) {
-					pyr.makeMove(new Move(Axis.PD, layer, false));
+					pyr.makeMove(moveTable.getMove(Axis.PD, layer, false));
 					position = targetEdge.getPosition();
 					flipEdge(position);
-					pyr.makeMove(new Move(Axis.PD, layer, true));
+					pyr.makeMove(moveTable.getMove(Axis.PD, layer, true));
 				}
 								
 				boolean flipped = !root.hasExactColors(targetEdge);
@@ -399,13 +401,13 @@ public class PyraminxEdgeSolver {
 				int flippedLayer = pyr.getSize() - PyraminxEdgeUtil.getLayer(Axis.PD, targetEdge) - 2;
 				
 				if(position == 1) {
-					pyr.makeMove(new Move(Axis.PD, flippedLayer, true));
+					pyr.makeMove(moveTable.getMove(Axis.PD, flippedLayer, true));
 					flipEdge(position);
-					pyr.makeMove(new Move(Axis.PD, flippedLayer, false));
+					pyr.makeMove(moveTable.getMove(Axis.PD, flippedLayer, false));
 				} else if(position == 2) {
-					pyr.makeMove(new Move(Axis.PD, flippedLayer, false));
+					pyr.makeMove(moveTable.getMove(Axis.PD, flippedLayer, false));
 					flipEdge(position);
-					pyr.makeMove(new Move(Axis.PD, flippedLayer, true));
+					pyr.makeMove(moveTable.getMove(Axis.PD, flippedLayer, true));
 				}	
 			}
 		}
@@ -8,15 +8,17 @@ import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
-import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.moves.MoveTable;
 import com.github.sampeterson1.puzzles.pyraminx.meta.Pyraminx;
 
 public class PyraminxRingSolver {
 
 	private Pyraminx pyr;
+	private MoveTable moveTable;
 	
 	public PyraminxRingSolver(Pyraminx pyr) {
 		this.pyr = pyr;
+		this.moveTable = pyr.getMoveTable();
 	}
 	
 	private List<Color> intersect(Iterable<Color> a, Iterable<Color> b) {
@@ -82,7 +84,7 @@ public class PyraminxRingSolver {
 	
 	private void makeWideMove(Axis axis, boolean cw) {
 		for(int i = 1; i < pyr.getSize(); i ++) {
-			pyr.makeMove(new Move(axis, i, cw));
+			pyr.makeMove(moveTable.getMove(axis, i, cw));
 		}
 	}
 	
@@ -240,15 +242,15 @@ public class PyraminxRingSolver {
 			
 			for(int i = 0; i < 2; i ++) {
 				makeWideMove(Axis.PL, false);
-				pyr.makeMove(new Move(Axis.PD, layer, cw));
+				pyr.makeMove(moveTable.getMove(Axis.PD, layer, cw));
 				makeWideMove(Axis.PL, true);
-				pyr.makeMove(new Move(Axis.PD, layer, cw));
+				pyr.makeMove(moveTable.getMove(Axis.PD, layer, cw));
 			}
 		}
 		
 		Piece tip = getOuterCorner(0);
 		while(tip.getColor(0) != topCorner.getColor(0))
-			pyr.makeMove(new Move(Axis.PD, pyr.getSize() - 1, true));
+			pyr.makeMove(moveTable.getMove(Axis.PD, pyr.getSize() - 1, true));
 	}
 	
 	private void solveTopEdges() {
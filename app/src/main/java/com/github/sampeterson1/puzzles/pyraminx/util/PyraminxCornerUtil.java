@@ -46,11 +46,12 @@ public class PyraminxCornerUtil {
 	}
 	
 	public static void rotateCorner(Piece piece, int rotation) {
-		Color[] colors = new Color[3];
-		for(int i = 0; i < 3; i ++) 
-			colors[i] = piece.getColor(i);
-		for(int i = 0; i < 3; i ++)
-			piece.setColor((i + 3 + rotation) % 3, colors[i]);
+		Color c0 = piece.getColor(0);
+		Color c1 = piece.getColor(1);
+		Color c2 = piece.getColor(2);
+		piece.setColor((3 + rotation) % 3, c0);
+		piece.setColor((4 + rotation) % 3, c1);
+		piece.setColor((5 + rotation) % 3, c2);
 	}
 	
 	public static void mapCorner(Move move, Piece piece) {
@@ -15,7 +15,7 @@ public class Skewb extends SimplePuzzle {
 	public static final int NUM_CENTERS = 6;
 
 	public Skewb() {
-		super(PuzzleType.SKEWB, true);
+		super(PuzzleType.SKEWB);
 		
 		super.createPieces(new SkewbCornerBehavior(this), NUM_CORNERS);
 		super.createPieces(new SkewbCenterBehavior(this), NUM_CENTERS);	
@@ -35,7 +35,7 @@ public class Square1 extends SimplePuzzle {
 	private static final int[] CORNER_POSITIONS = new int[] {1, 4, 7, 10, 13, 16, 19, 22};
 
 	public Square1() {
-		super(PuzzleType.SQUARE1, true);
+		super(PuzzleType.SQUARE1);
 		
 		super.createPieces(new Square1CenterBehavior(this), NUM_CENTERS);
 		super.createPieces(new Square1EdgeBehavior(this), EDGE_POSITIONS);
@@ -60,7 +60,7 @@ public class Square1MetaFunctions extends PuzzleMetaFunctions<Square1> {
 		}
 		
 		sq1.setLogMoves(false);
-		return sq1.getMoveLog();
+		return Square1Util.simplify(sq1.getMoveLog());
 	}
 
 	@Override
@@ -69,7 +69,7 @@ public class Square1MetaFunctions extends PuzzleMetaFunctions<Square1> {
 		solution.append(olSolver.solve());
 		solution.append(plSolver.solve());
 		
-		return solution;
+		return Square1Util.simplify(solution);
 	}
 	
 	@Override
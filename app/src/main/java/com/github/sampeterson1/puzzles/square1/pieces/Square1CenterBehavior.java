@@ -66,4 +66,9 @@ public class Square1CenterBehavior extends SimplePieceBehavior {
 		return (!Square1Util.isLocked((Square1) super.getPuzzle()) && move.getAxis() == Axis.S1 && piece.getPosition() == 0);
 	}
 
+	@Override
+	public boolean dependsOnState(Move move) {
+		return (move.getAxis() == Axis.S1);
+	}
+
 }
@@ -22,6 +22,7 @@ import com.github.sampeterson1.puzzle.lib.Color;
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.lib.SimplePieceBehavior;
+import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
 import com.github.sampeterson1.puzzle.templates.Puzzle;
 import com.github.sampeterson1.puzzles.square1.util.Square1Util;
@@ -64,4 +65,10 @@ public class Square1EdgeBehavior extends SimplePieceBehavior {
 		return Square1Util.affectedByMove(move, piece);
 	}
 
+	//a slice can only be made when no corner is in the way
+	@Override
+	public boolean dependsOnState(Move move) {
+		return (move.getAxis() == Axis.S1);
+	}
+
 }
@@ -23,12 +23,14 @@ import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.templates.CompiledAlgorithm;
 import com.github.sampeterson1.puzzles.square1.meta.Square1;
 import com.github.sampeterson1.puzzles.square1.util.Square1Util;
 
 public class Square1OLCase {
 	
 	private Algorithm solution;
+	private CompiledAlgorithm compiledSolution;
 	private Color[] colors;
 	
 	public Square1OLCase(String solutionStr, Color[] colors) {
@@ -91,7 +93,9 @@ public class Square1OLCase {
 			}
 		}
 		
-		sq1.executeAlgorithm(solution);
+		//compiled for the cube shape that the case is solved from
+		if(compiledSolution == null) compiledSolution = solution.compile(sq1);
+		sq1.executeAlgorithm(compiledSolution);
 		return true;
 	}
 	
@@ -23,6 +23,7 @@ import com.github.sampeterson1.puzzle.lib.PieceType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
 import com.github.sampeterson1.puzzle.moves.Axis;
 import com.github.sampeterson1.puzzle.moves.Move;
+import com.github.sampeterson1.puzzle.templates.CompiledAlgorithm;
 import com.github.sampeterson1.puzzles.square1.meta.Square1;
 import com.github.sampeterson1.puzzles.square1.util.Square1Util;
 
@@ -31,6 +32,7 @@ public class Square1PLCase {
 	private static Algorithm layerSwapAlg = Square1Util.parseAlgorithm("/(6,6)/(-1,1)");
 	private static Square1 solvedReference = new Square1();
 	private Algorithm solution;
+	private CompiledAlgorithm compiledSolution;
 
 	private int[] positions;
 	
@@ -150,7 +152,9 @@ public class Square1PLCase {
 		sq1.makeMove(new Move(Axis.SU, true).repeated(uMoves * 3));
 		sq1.makeMove(new Move(Axis.SD, true).repeated(dMoves * 3));
 		
-		sq1.executeAlgorithm(solution);
+		//compiled for the cube shape that the case is solved from
+		if(compiledSolution == null) compiledSolution = solution.compile(sq1);
+		sq1.executeAlgorithm(compiledSolution);
 		
 		if(swapLayers) {
 			sq1.executeAlgorithm(layerSwapAlg);
@@ -18,13 +18,13 @@
 
 package com.github.sampeterson1.puzzles.square1.util;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.github.sampeterson1.puzzle.lib.Piece;
 import com.github.sampeterson1.puzzle.lib.PieceType;
+import com.github.sampeterson1.puzzle.lib.PuzzleType;
 import com.github.sampeterson1.puzzle.moves.Algorithm;
+import com.github.sampeterson1.puzzle.moves.AlgorithmParseCache;
 import com.github.sampeterson1.puzzle.moves.Axis;
+import com.github.sampeterson1.puzzle.moves.InvalidAlgorithmException;
 import com.github.sampeterson1.puzzle.moves.Move;
 import com.github.sampeterson1.puzzles.square1.meta.Square1;
 
@@ -40,6 +40,15 @@ public class Square1Util {
 	private static final int BOTTOM_LAYER_END = 23;
 	
 	public static Algorithm parseAlgorithm(String algStr) {
+		try {
+			return AlgorithmParseCache.parse(algStr, null, 1, PuzzleType.SQUARE1, Square1Util::parseText);
+		} catch(InvalidAlgorithmException e) {
+			//parseText doesn't throw an InvalidAlgorithmException
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static Algorithm parseText(String algStr) {
 		Algorithm alg = new Algorithm();
 		if(algStr.equals("/")) {
 			alg.addMove(new Move(Axis.S1, true));
@@ -58,20 +67,7 @@ public class Square1Util {
 			int top = Integer.parseInt(orderedPair[0]);
 			int bottom = Integer.parseInt(orderedPair[1]);
 			
-			boolean topCW = true;
-			boolean bottomCW = true;
-			
-			if(top < 0) {
-				topCW = false;
-				top = -top;
-			}
-			if(bottom < 0) {
-				bottomCW = false;
-				bottom = -bottom;
-			}
-			
-			for(int j = 0; j < top; j ++) alg.addMove(new Move(Axis.SU, topCW));
-			for(int j = 0; j < bottom; j ++) alg.addMove(new Move(Axis.SD, bottomCW));
+			addLayerMoves(alg, top, bottom);
 			if(i < moves.length - 1) alg.addMove(new Move(Axis.S1, true));
 		}
 		
@@ -82,80 +78,69 @@ public class Square1Util {
 		return alg;
 	}
 	
+	/*
+	 * Simplifies an algorithm in one pass. The turns of the top and bottom layers between two slices add up to one
+	 * (top, bottom) move, and the moves before each slice are kept on a stack. When a slice follows a move that turns
+	 * nothing it cancels the slice before it, so the move before that slice is taken off the stack and continued.
+	 */
 	public static Algorithm simplify(Algorithm alg) {
-		int lastLen = alg.length();
-		
-		do {
-			lastLen = alg.length();
-			while((alg = mergeLayerMoves(alg)).length() < lastLen) {
-				lastLen = alg.length();
-			}
-		} while((alg = mergeSliceMoves(alg)).length() < lastLen);
+		int[] topStack = new int[alg.length() + 1];
+		int[] bottomStack = new int[alg.length() + 1];
+		int numSlices = 0;
 		
+		int top = 0;
+		int bottom = 0;
 		
-		return alg;
-	}
-	
-	private static Algorithm mergeSliceMoves(Algorithm alg) {
-		List<Move> newMoves = new ArrayList<Move>();
-		Axis lastAxis = null;
-		
-		for(Move move : alg.getMoves()) {
+		for(int i = 0; i < alg.length(); i ++) {
+			Move move = alg.getMove(i);
 			Axis axis = move.getAxis();
+			int turns = move.isCW() ? move.getRepetitions() : -move.getRepetitions();
 			
-			if(axis == lastAxis && axis == Axis.S1) {
-				newMoves.remove(newMoves.size() - 1);
-			} else {
-				newMoves.add(move);
-			}
-			lastAxis = axis;
-		}
-		
-		return new Algorithm(newMoves);
-	}
-	
-	private static Algorithm mergeLayerMoves(Algorithm alg) {
-		List<Move> newMoves = new ArrayList<Move>();
-		
-		int numUMoves = 0;
-		int numDMoves = 0;
-		
-		for(Move move : alg.getMoves()) {
-			Axis axis = move.getAxis();
-			int increment = move.isCW() ? 1 : -1;
 			if(axis == Axis.SU) {
-				numUMoves += increment;
+				top = (top + turns) % 12;
 			} else if(axis == Axis.SD) {
-				numDMoves += increment;
+				bottom = (bottom + turns) % 12;
 			} else if(axis == Axis.S1) {
-				addLayerMoves(newMoves, numUMoves, numDMoves);
-				newMoves.add(new Move(Axis.S1, true));
-				numUMoves = 0;
-				numDMoves = 0;
+				for(int j = 0; j < move.getRepetitions(); j ++) {
+					if(top == 0 && bottom == 0 && numSlices > 0) {
+						numSlices--;
+						top = topStack[numSlices];
+						bottom = bottomStack[numSlices];
+					} else {
+						topStack[numSlices] = top;
+						bottomStack[numSlices] = bottom;
+						numSlices++;
+						
+						top = 0;
+						bottom = 0;
+					}
+				}
 			}
 		}
 		
-		addLayerMoves(newMoves, numUMoves, numDMoves);
+		Algorithm simplified = new Algorithm();
+		for(int i = 0; i < numSlices; i ++) {
+			addLayerMoves(simplified, normalizeTurns(topStack[i]), normalizeTurns(bottomStack[i]));
+			simplified.addMove(new Move(Axis.S1, true));
+		}
+		addLayerMoves(simplified, normalizeTurns(top), normalizeTurns(bottom));
 		
-		return new Algorithm(newMoves);
+		return simplified;
 	}
 	
-	private static void addLayerMoves(List<Move> moves, int numUMoves, int numDMoves) {
-		while(numUMoves > 6) numUMoves -= 12;
-		while(numDMoves > 6) numDMoves -= 12;
-		
-		while(numUMoves < -6) numUMoves += 12;
-		while(numDMoves < -6) numDMoves += 12;
+	//returns a number of twelfth turns between -6 and 6 that turns a layer the same way
+	private static int normalizeTurns(int turns) {
+		turns %= 12;
+		if(turns > 6) turns -= 12;
+		if(turns < -6) turns += 12;
 		
-		if(numUMoves < 0)
-			for(int i = 0; i < -numUMoves; i ++) moves.add(new Move(Axis.SU, false));
-		else
-			for(int i = 0; i < numUMoves; i ++) moves.add(new Move(Axis.SU, true));
-		
-		if(numDMoves < 0)
-			for(int i = 0; i < -numDMoves; i ++) moves.add(new Move(Axis.SD, false));
-		else
-			for(int i = 0; i < numDMoves; i ++) moves.add(new Move(Axis.SD, true));
+		return turns;
+	}
+	
+	//adds a (top, bottom) move, where each layer turn is a single move repeated for every twelfth turn
+	private static void addLayerMoves(Algorithm alg, int top, int bottom) {
+		if(top != 0) alg.addMove(new Move(Axis.SU, top > 0).repeated(Math.abs(top)));
+		if(bottom != 0) alg.addMove(new Move(Axis.SD, bottom > 0).repeated(Math.abs(bottom)));
 	}
 	
 	public static void movePiece(Move move, Piece piece) {
@@ -300,9 +285,9 @@ public class Square1Util {
 			if(axis == Axis.S1) {
 				mirror.addMove(move);
 			} else if(axis == Axis.SD){
-				mirror.addMove(new Move(Axis.SU, invertDirection ? move.isCCW() : move.isCW()));
+				mirror.addMove(new Move(Axis.SU, invertDirection ? move.isCCW() : move.isCW()).repeated(move.getRepetitions()));
 			} else if(axis == Axis.SU) {
-				mirror.addMove(new Move(Axis.SD, invertDirection ? move.isCCW() : move.isCW()));
+				mirror.addMove(new Move(Axis.SD, invertDirection ? move.isCCW() : move.isCW()).repeated(move.getRepetitions()));
 			}
 		}
 		